@@ -44,6 +44,7 @@ package org.smooks.api;
 
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Represents a type-safe key for mapping to an object.
@@ -71,6 +72,18 @@ public interface TypedKey<T> {
         return new DefaultTypedKey<>(name);
     }
 
+    /**
+     * Constructs a <code>TypedKey</code> with a random UUID for its name and a precomputed slot index. Stores such as
+     * the default execution context keep values for slot keys in an array indexed by the slot instead of a hash map.
+     * <p>
+     * Slots are never reclaimed so this factory method is meant for <code>static final</code> keys. Use {@link #of()}
+     * for keys created per instance or per execution. A slot key is not found through a key created with
+     * {@link #of(String)} from its name, so keys whose name is handed out for lookups must not be slot keys either.
+     */
+    static <T> TypedKey<T> ofSlot() {
+        return new SlotTypedKey<>(UUID.randomUUID().toString());
+    }
+
     final class DefaultTypedKey<T> implements TypedKey<T> {
 
         private final String name;
@@ -115,4 +128,58 @@ public interface TypedKey<T> {
             return name;
         }
     }
+
+    final class SlotTypedKey<T> implements TypedKey<T> {
+
+        private static final AtomicInteger SLOT_COUNT = new AtomicInteger();
+
+        private final String name;
+        private final int slot;
+        private final int hash;
+
+        private SlotTypedKey(String name) {
+            this.name = name;
+            this.slot = SLOT_COUNT.getAndIncrement();
+            this.hash = Objects.hash(name);
+        }
+
+        /**
+         * Gets the number of slots allocated so far which is the minimum length of an array able to hold a value for
+         * every slot key.
+         */
+        public static int getSlotCount() {
+            return SLOT_COUNT.get();
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TypedKey)) {
+                return false;
+            }
+            TypedKey<?> typedKey = (TypedKey<?>) o;
+            return name.equals(typedKey.getName());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
 }
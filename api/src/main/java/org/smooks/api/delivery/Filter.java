@@ -72,6 +72,21 @@ public interface Filter extends Closeable {
 
     String READER_POOL_SIZE = "reader.pool.size";
 
+    String READER_POOL_BORROW_TIMEOUT = "reader.pool.borrow.timeout";
+
+    String MEMENTO_CARETAKER = "memento.caretaker";
+
+    String STREAM_SINK_FLUSH_POLICY = "stream.sink.flush.policy";
+
+    String STREAM_SINK_BUFFER_SIZE = "stream.sink.buffer.size";
+
+    String TEXT_ACCUMULATOR_SPILL_THRESHOLD = "text.accumulator.spill.threshold";
+
+    /**
+     * Whether System properties are consulted for global parameters that are not configured.
+     */
+    String SYSTEM_PROPERTY_PARAMETERS = "system.property.parameters";
+
     /**
      * Filter the content in the supplied {@link org.smooks.api.io.Source} instance, outputting the result
      * to the supplied {@link org.smooks.api.io.Sink} instance.
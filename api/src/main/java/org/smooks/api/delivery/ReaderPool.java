@@ -47,6 +47,7 @@ import org.xml.sax.XMLReader;
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 @ThreadSafe
 public interface ReaderPool {
@@ -59,6 +60,21 @@ public interface ReaderPool {
      */
     XMLReader borrowXMLReader();
 
+    /**
+     * Gets an {@link XMLReader} instance from the reader pool associated with this ContentDelivery config instance,
+     * waiting up to the specified time for a reader to be returned when all the readers of a bounded pool are
+     * borrowed.
+     *
+     * @param timeout  the maximum time to wait for a reader to be returned
+     * @param timeUnit the time unit of the <code>timeout</code> argument
+     * @return An XMLReader instance if the pool is not empty or a reader was returned before the timeout elapsed,
+     * otherwise null
+     * @throws InterruptedException if interrupted while waiting
+     */
+    default XMLReader borrowXMLReader(long timeout, TimeUnit timeUnit) throws InterruptedException {
+        return borrowXMLReader();
+    }
+
     /**
      * Returns an {@link XMLReader} instance to the reader pool associated with this ContentDelivery config instance.
      *
@@ -62,4 +62,15 @@ import java.lang.annotation.*;
 @Target({ElementType.TYPE})
 @Inherited
 public @interface TextConsumer {
+
+    /**
+     * Whether the visitor streams the accumulated text instead of reading it from the element's text content.
+     * <p/>
+     * A streaming visitor reads the text through <code>org.smooks.engine.delivery.sax.ng.TextAccumulator</code>, which
+     * hands it out as a {@link CharSequence} or a {@link java.io.Reader} without first copying it into a
+     * {@link String}, and which spills large text to a temporary file.
+     *
+     * @return <code>true</code> if the text is not set as the element's text content
+     */
+    boolean streaming() default false;
 }
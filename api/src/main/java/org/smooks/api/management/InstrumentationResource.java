@@ -46,7 +46,7 @@ import org.smooks.api.TypedKey;
 
 public interface InstrumentationResource {
 
-    TypedKey<InstrumentationResource> INSTRUMENTATION_RESOURCE_TYPED_KEY = TypedKey.of();
+    TypedKey<InstrumentationResource> INSTRUMENTATION_RESOURCE_TYPED_KEY = TypedKey.ofSlot();
 
     String getMBeanObjectDomainName();
 
@@ -54,4 +54,12 @@ public interface InstrumentationResource {
 
     InstrumentationAgent getInstrumentationAgent();
 
+    /**
+     * @return minimum number of milliseconds between two notifications sent by a managed visitor, where 0 sends a
+     * notification for every visit and a negative value disables notifications
+     */
+    default Long getNotificationInterval() {
+        return 1000L;
+    }
+
 }
@@ -43,10 +43,12 @@
 package org.smooks.benchmark;
 
 import org.smooks.api.ExecutionContext;
+import org.smooks.api.delivery.sax.DomFree;
 import org.smooks.api.resource.visitor.sax.ng.ElementVisitor;
 import org.w3c.dom.CharacterData;
 import org.w3c.dom.Element;
 
+@DomFree
 public class BenchmarkVisitor implements ElementVisitor {
     @Override
     public void visitAfter(Element element, ExecutionContext executionContext) {
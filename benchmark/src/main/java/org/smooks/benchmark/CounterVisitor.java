@@ -44,10 +44,12 @@ package org.smooks.benchmark;
 
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.TypedKey;
+import org.smooks.api.delivery.sax.DomFree;
 import org.smooks.api.lifecycle.PreExecutionLifecycle;
 import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
 import org.w3c.dom.Element;
 
+@DomFree
 public class CounterVisitor implements BeforeVisitor, PreExecutionLifecycle {
 
     private final TypedKey<Long> counterTypedKey = TypedKey.of();
@@ -0,0 +1,148 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Benchmark
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.smooks.Smooks;
+import org.smooks.io.sink.StreamSink;
+import org.smooks.io.source.StreamSource;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Smooks#filterSource} throughput over {@link SyntheticDocument synthetic documents}. Run it through
+ * {@link JmhBenchmarkRunner} to also collect allocation rates and to compare against a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterSourceBenchmark {
+
+    public enum VisitorConfig {
+        COUNTER("/jmh/counter-config.xml"),
+        BIBLIOGRAPHY("/jmh/bibliography-config.xml"),
+        SERIALIZER("/jmh/serializer-config.xml");
+
+        private final String resource;
+
+        VisitorConfig(final String resource) {
+            this.resource = resource;
+        }
+
+        public String getResource() {
+            return resource;
+        }
+    }
+
+    @Param({"FLAT", "DEEP", "WIDE", "ATTRIBUTE_HEAVY", "TEXT_HEAVY"})
+    public SyntheticDocument document;
+
+    @Param({"COUNTER", "BIBLIOGRAPHY", "SERIALIZER"})
+    public VisitorConfig config;
+
+    @Param({"1000"})
+    public int records;
+
+    private Smooks smooks;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SAXException {
+        content = document.generate(records);
+        smooks = new Smooks(FilterSourceBenchmark.class.getResourceAsStream(config.getResource()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        smooks.close();
+    }
+
+    @Benchmark
+    public void filterSource(final Blackhole blackhole) {
+        final BlackholeOutputStream outputStream = new BlackholeOutputStream(blackhole);
+        smooks.filterSource(new StreamSource<>(new ByteArrayInputStream(content)), new StreamSink<>(outputStream));
+    }
+
+    /**
+     * Consumes the filter output without retaining it so that the serialisation cost is measured but not the
+     * cost of growing an in-memory buffer.
+     */
+    static class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(final int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
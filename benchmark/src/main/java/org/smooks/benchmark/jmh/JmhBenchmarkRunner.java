@@ -0,0 +1,204 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Benchmark
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark.jmh;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.StringJoiner;
+
+/**
+ * Runs the JMH benchmarks of this module offline, with the GC profiler enabled, and optionally compares the results
+ * against a previously saved baseline.
+ * <p>
+ * Usage:
+ * <pre>
+ * java -cp benchmark-app-jar-with-dependencies.jar org.smooks.benchmark.jmh.JmhBenchmarkRunner \
+ *     [--include REGEX] [--records N] [--result FILE] \
+ *     [--baseline FILE] [--save-baseline FILE] [--tolerance FRACTION]
+ * </pre>
+ * A baseline is a properties file mapping each benchmark and parameter combination to its throughput and normalised
+ * allocation rate (bytes per operation). When <code>--baseline</code> is given, the process exits with status 1 if any
+ * benchmark's throughput drops, or its allocation rate grows, by more than the tolerance (10% by default).
+ */
+public final class JmhBenchmarkRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JmhBenchmarkRunner.class);
+
+    private static final String THROUGHPUT_SUFFIX = ".throughput";
+    private static final String ALLOCATION_SUFFIX = ".alloc";
+    private static final String ALLOCATION_RESULT_LABEL = "gc.alloc.rate.norm";
+
+    private JmhBenchmarkRunner() {
+
+    }
+
+    public static void main(final String... args) throws RunnerException, IOException {
+        String include = FilterSourceBenchmark.class.getName();
+        String records = null;
+        String resultFile = null;
+        Path baselineFile = null;
+        Path saveBaselineFile = null;
+        double tolerance = 0.10;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--include":
+                    include = args[++i];
+                    break;
+                case "--records":
+                    records = args[++i];
+                    break;
+                case "--result":
+                    resultFile = args[++i];
+                    break;
+                case "--baseline":
+                    baselineFile = Paths.get(args[++i]);
+                    break;
+                case "--save-baseline":
+                    saveBaselineFile = Paths.get(args[++i]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        final ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().include(include).addProfiler(GCProfiler.class);
+        if (records != null) {
+            optionsBuilder.param("records", records);
+        }
+        if (resultFile != null) {
+            optionsBuilder.result(resultFile).resultFormat(ResultFormatType.JSON);
+        }
+
+        final Collection<RunResult> runResults = new Runner(optionsBuilder.build()).run();
+        final Properties results = toProperties(runResults);
+
+        if (saveBaselineFile != null) {
+            try (OutputStream outputStream = Files.newOutputStream(saveBaselineFile)) {
+                results.store(outputStream, "Smooks JMH baseline");
+            }
+            LOGGER.info("Saved baseline to {}", saveBaselineFile);
+        }
+
+        if (baselineFile != null) {
+            final Properties baseline = new Properties();
+            try (InputStream inputStream = Files.newInputStream(baselineFile)) {
+                baseline.load(inputStream);
+            }
+            final List<String> regressions = compare(baseline, results, tolerance);
+            if (!regressions.isEmpty()) {
+                regressions.forEach(LOGGER::error);
+                System.exit(1);
+            }
+            LOGGER.info("No regressions beyond {}% against baseline {}", tolerance * 100, baselineFile);
+        }
+    }
+
+    static Properties toProperties(final Collection<RunResult> runResults) {
+        final Properties properties = new Properties();
+        for (RunResult runResult : runResults) {
+            final String key = toKey(runResult.getParams());
+            properties.setProperty(key + THROUGHPUT_SUFFIX, Double.toString(runResult.getPrimaryResult().getScore()));
+            final Result<?> allocationResult = runResult.getSecondaryResults().get(ALLOCATION_RESULT_LABEL);
+            if (allocationResult != null) {
+                properties.setProperty(key + ALLOCATION_SUFFIX, Double.toString(allocationResult.getScore()));
+            }
+        }
+
+        return properties;
+    }
+
+    static List<String> compare(final Properties baseline, final Properties results, final double tolerance) {
+        final List<String> regressions = new ArrayList<>();
+        for (String key : results.stringPropertyNames()) {
+            final String baselineValue = baseline.getProperty(key);
+            if (baselineValue == null) {
+                LOGGER.info("{}: no baseline", key);
+                continue;
+            }
+            final double expected = Double.parseDouble(baselineValue);
+            final double actual = Double.parseDouble(results.getProperty(key));
+            final double change = expected == 0 ? 0 : (actual - expected) / expected;
+            final boolean isRegression = key.endsWith(THROUGHPUT_SUFFIX) ? change < -tolerance : change > tolerance;
+            final String message = String.format("%s: baseline %.3f, actual %.3f (%+.1f%%)", key, expected, actual, change * 100);
+            if (isRegression) {
+                regressions.add("Regression " + message);
+            } else {
+                LOGGER.info(message);
+            }
+        }
+
+        return regressions;
+    }
+
+    private static String toKey(final BenchmarkParams benchmarkParams) {
+        final StringJoiner key = new StringJoiner(",", benchmarkParams.getBenchmark() + "[", "]");
+        for (String paramKey : benchmarkParams.getParamsKeys()) {
+            key.add(paramKey + "=" + benchmarkParams.getParam(paramKey));
+        }
+        return key.toString();
+    }
+}
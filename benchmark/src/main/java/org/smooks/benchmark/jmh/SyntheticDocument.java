@@ -0,0 +1,261 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Benchmark
+ * %%
+ * Copyright (C) 2020 - 2021 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.benchmark.jmh;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates DBLP-like XML documents of a given shape entirely in memory so that benchmarks do not depend on
+ * external datasets. Generation is deterministic: the same shape and record count always produce the same bytes.
+ */
+public enum SyntheticDocument {
+
+    /**
+     * Many small sibling records directly under the root element.
+     */
+    FLAT {
+        @Override
+        protected void writeRecord(final Writer writer, final int recordIndex, final Random random) throws IOException {
+            writeArticle(writer, recordIndex, random, 2, 32);
+        }
+    },
+
+    /**
+     * Every record is wrapped in {@value #DEEP_NESTING_LEVELS} levels of nested <code>section</code> elements.
+     */
+    DEEP {
+        @Override
+        protected void writeRecord(final Writer writer, final int recordIndex, final Random random) throws IOException {
+            for (int i = 0; i < DEEP_NESTING_LEVELS; i++) {
+                writer.write("<section level=\"");
+                writer.write(Integer.toString(i));
+                writer.write("\">");
+            }
+            writeArticle(writer, recordIndex, random, 2, 32);
+            for (int i = 0; i < DEEP_NESTING_LEVELS; i++) {
+                writer.write("</section>");
+            }
+        }
+    },
+
+    /**
+     * Records with a large number of child elements.
+     */
+    WIDE {
+        @Override
+        protected void writeRecord(final Writer writer, final int recordIndex, final Random random) throws IOException {
+            writeArticle(writer, recordIndex, random, WIDE_AUTHOR_COUNT, 32);
+        }
+    },
+
+    /**
+     * Records whose elements carry many attributes.
+     */
+    ATTRIBUTE_HEAVY {
+        @Override
+        protected void writeRecord(final Writer writer, final int recordIndex, final Random random) throws IOException {
+            writer.write("<article key=\"journals/synthetic/");
+            writer.write(Integer.toString(recordIndex));
+            writer.write('"');
+            for (int i = 0; i < HEAVY_ATTRIBUTE_COUNT; i++) {
+                writer.write(" attr");
+                writer.write(Integer.toString(i));
+                writer.write("=\"");
+                writer.write(randomWord(random, 8));
+                writer.write('"');
+            }
+            writer.write('>');
+            for (int i = 0; i < 2; i++) {
+                writer.write("<author orcid=\"0000-0000-0000-");
+                writer.write(Integer.toString(1000 + random.nextInt(9000)));
+                writer.write("\" affiliation=\"");
+                writer.write(randomWord(random, 12));
+                writer.write("\" role=\"contributor\">");
+                writer.write(randomWord(random, 6));
+                writer.write(' ');
+                writer.write(randomWord(random, 10));
+                writer.write("</author>");
+            }
+            writer.write("<title lang=\"en\" type=\"main\">");
+            writer.write(randomText(random, 32));
+            writer.write("</title><year>");
+            writer.write(Integer.toString(1970 + random.nextInt(50)));
+            writer.write("</year></article>");
+        }
+    },
+
+    /**
+     * Records dominated by character data, including CDATA sections and character references.
+     */
+    TEXT_HEAVY {
+        @Override
+        protected void writeRecord(final Writer writer, final int recordIndex, final Random random) throws IOException {
+            writer.write("<article key=\"journals/synthetic/");
+            writer.write(Integer.toString(recordIndex));
+            writer.write("\"><author>");
+            writer.write(randomWord(random, 6));
+            writer.write(' ');
+            writer.write(randomWord(random, 10));
+            writer.write("</author><title>");
+            writer.write(randomText(random, 256));
+            writer.write(" &amp; ");
+            writer.write(randomText(random, 256));
+            writer.write("</title><abstract><![CDATA[");
+            writer.write(randomText(random, HEAVY_TEXT_LENGTH));
+            writer.write("]]></abstract><year>");
+            writer.write(Integer.toString(1970 + random.nextInt(50)));
+            writer.write("</year></article>");
+        }
+    };
+
+    public static final int DEEP_NESTING_LEVELS = 32;
+    public static final int WIDE_AUTHOR_COUNT = 256;
+    public static final int HEAVY_ATTRIBUTE_COUNT = 24;
+    public static final int HEAVY_TEXT_LENGTH = 8192;
+
+    private static final long SEED = 0x5300c5L;
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * Generates a document holding the given number of records.
+     *
+     * @param recordCount number of <code>article</code> records in the document
+     * @return the UTF-8 encoded document
+     */
+    public byte[] generate(final int recordCount) {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final Random random = new Random(SEED);
+        try (Writer writer = new OutputStreamWriter(byteArrayOutputStream, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<dblp>");
+            for (int i = 0; i < recordCount; i++) {
+                writeRecord(writer, i, random);
+                writer.write('\n');
+            }
+            writer.write("</dblp>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Generates a document whose records are nested <code>section</code> elements of arbitrary depth, each level
+     * holding a short run of text, with an <code>author</code> element at the bottom.
+     *
+     * @param recordCount   number of records in the document
+     * @param nestingLevels number of <code>section</code> elements each record is wrapped in
+     * @return the UTF-8 encoded document
+     */
+    public static byte[] generateNested(final int recordCount, final int nestingLevels) {
+        final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        final Random random = new Random(SEED);
+        try (Writer writer = new OutputStreamWriter(byteArrayOutputStream, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<dblp>");
+            for (int i = 0; i < recordCount; i++) {
+                for (int j = 0; j < nestingLevels; j++) {
+                    writer.write("<section>");
+                    writer.write(randomWord(random, 8));
+                }
+                writer.write("<author>");
+                writer.write(randomWord(random, 6));
+                writer.write("</author>");
+                for (int j = 0; j < nestingLevels; j++) {
+                    writer.write("</section>");
+                }
+                writer.write('\n');
+            }
+            writer.write("</dblp>");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    protected abstract void writeRecord(Writer writer, int recordIndex, Random random) throws IOException;
+
+    protected static void writeArticle(final Writer writer, final int recordIndex, final Random random, final int authorCount, final int titleLength) throws IOException {
+        writer.write("<article key=\"journals/synthetic/");
+        writer.write(Integer.toString(recordIndex));
+        writer.write("\">");
+        for (int i = 0; i < authorCount; i++) {
+            writer.write("<author>");
+            writer.write(randomWord(random, 6));
+            writer.write(' ');
+            writer.write(randomWord(random, 10));
+            writer.write("</author>");
+        }
+        writer.write("<title>");
+        writer.write(randomText(random, titleLength));
+        writer.write("</title><year>");
+        writer.write(Integer.toString(1970 + random.nextInt(50)));
+        writer.write("</year></article>");
+    }
+
+    protected static String randomWord(final Random random, final int length) {
+        final char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(word);
+    }
+
+    protected static String randomText(final Random random, final int length) {
+        final StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(randomWord(random, 1 + random.nextInt(9)));
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -720,21 +720,31 @@ public final class XmlUtils {
     }
 
     public static void encodeTextValue(char[] characters, int offset, int length, Writer writer) throws IOException {
-        for (int i = offset; i < offset + length; i++) {
-            char c = characters[i];
-            switch (c) {
+        final int end = offset + length;
+        int runStart = offset;
+        for (int i = offset; i < end; i++) {
+            final char[] entity;
+            switch (characters[i]) {
                 case '<':
-                    writer.write(LT, 0, LT.length);
+                    entity = LT;
                     break;
                 case '>':
-                    writer.write(GT, 0, GT.length);
+                    entity = GT;
                     break;
                 case '&':
-                    writer.write(AMP, 0, AMP.length);
+                    entity = AMP;
                     break;
                 default:
-                    writer.write(c);
+                    continue;
             }
+            if (i > runStart) {
+                writer.write(characters, runStart, i - runStart);
+            }
+            writer.write(entity, 0, entity.length);
+            runStart = i + 1;
+        }
+        if (end > runStart) {
+            writer.write(characters, runStart, end - runStart);
         }
     }
 
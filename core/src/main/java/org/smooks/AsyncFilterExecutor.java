@@ -0,0 +1,406 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.assertion.AssertArgument;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the filter executions submitted through {@link Smooks#filterSourceAsync(org.smooks.api.ExecutionContext, org.smooks.api.io.Source, org.smooks.api.io.Sink...)}
+ * on an {@link Executor} while bounding the number of executions in flight.
+ * <p/>
+ * At most <code>maxInFlight</code> executions are handed to the executor at any one time. Further executions wait in
+ * a queue, without blocking the submitting thread, and are handed over as in-flight executions complete. Once
+ * <code>maxQueued</code> executions are waiting, new executions are rejected: their future completes exceptionally
+ * with a {@link RejectedExecutionException}. So are executions which the executor itself rejects.
+ * <p/>
+ * The no-arg constructor runs each execution on its own virtual thread when the JVM supports them, and otherwise on
+ * a pool of daemon platform threads sized to the number of available processors. Either executor is shut down when
+ * this <code>AsyncFilterExecutor</code> is {@link #close() closed}. An executor supplied by the caller is left to the
+ * caller to shut down.
+ * <p/>
+ * Once closed, new executions are rejected and the executions still waiting in the queue are not run: their future
+ * completes exceptionally with a {@link RejectedExecutionException}. Executions in flight run to completion, which
+ * {@link #awaitTermination(long, TimeUnit)} waits for.
+ * <p/>
+ * Queue depth, executions in flight, completion counts, and the time executions spent queued and running are
+ * exposed for monitoring.
+ */
+@ThreadSafe
+public class AsyncFilterExecutor implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncFilterExecutor.class);
+
+    private final Executor executor;
+    private final boolean isExecutorOwner;
+    private final int maxInFlight;
+    private final int maxQueued;
+
+    private final Queue<Execution> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueTimeNanos = new LongAdder();
+    private final LongAdder executionTimeNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private volatile boolean isClosed;
+
+    /**
+     * Creates an <code>AsyncFilterExecutor</code> running on virtual threads when supported, with up to four times the
+     * number of available processors in flight and no bound on the queue.
+     */
+    public AsyncFilterExecutor() {
+        this(Runtime.getRuntime().availableProcessors() * 4, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates an <code>AsyncFilterExecutor</code> running on virtual threads when supported.
+     *
+     * @param maxInFlight maximum number of executions handed to the executor at any one time
+     * @param maxQueued   maximum number of executions waiting for their turn before new executions are rejected
+     */
+    public AsyncFilterExecutor(final int maxInFlight, final int maxQueued) {
+        this(newExecutorService(), true, maxInFlight, maxQueued);
+    }
+
+    /**
+     * Creates an <code>AsyncFilterExecutor</code> running on the supplied executor.
+     *
+     * @param executor    the executor running the filter executions, which the caller remains responsible for shutting down
+     * @param maxInFlight maximum number of executions handed to the executor at any one time
+     * @param maxQueued   maximum number of executions waiting for their turn before new executions are rejected
+     */
+    public AsyncFilterExecutor(final Executor executor, final int maxInFlight, final int maxQueued) {
+        this(executor, false, maxInFlight, maxQueued);
+    }
+
+    private AsyncFilterExecutor(final Executor executor, final boolean isExecutorOwner, final int maxInFlight, final int maxQueued) {
+        AssertArgument.isNotNull(executor, "executor");
+        if (maxInFlight < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("'maxInFlight' must be greater than 0 and 'maxQueued' must not be negative");
+        }
+        this.executor = executor;
+        this.isExecutorOwner = isExecutorOwner;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+    }
+
+    protected static ExecutorService newExecutorService() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            final int threads = Runtime.getRuntime().availableProcessors();
+            LOGGER.debug("Virtual threads are not supported by this JVM: falling back to a pool of {} platform threads", threads);
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ThreadFactory threadFactory = runnable -> {
+                final Thread thread = new Thread(runnable, "smooks-async-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(threads, threadFactory);
+        }
+    }
+
+    /**
+     * Submits a filter execution.
+     *
+     * @param runnable the filter execution
+     * @return a future completing once the execution has run, exceptionally if it failed or was rejected
+     */
+    public CompletableFuture<Void> submit(final Runnable runnable) {
+        final Execution execution = new Execution(runnable);
+        if (isClosed) {
+            reject(execution);
+            return execution.future;
+        }
+        if (queue.isEmpty() && tryAcquireInFlight()) {
+            execute(execution);
+            return execution.future;
+        }
+        if (queueDepth.incrementAndGet() > maxQueued) {
+            queueDepth.decrementAndGet();
+            rejected.increment();
+            execution.future.completeExceptionally(new RejectedExecutionException("Asynchronous filter queue is full: " + maxQueued + " executions are waiting"));
+            return execution.future;
+        }
+        queue.offer(execution);
+        if (isClosed) {
+            // close() may have drained the queue before the offer
+            rejectQueued();
+        } else {
+            dispatch();
+        }
+
+        return execution.future;
+    }
+
+    protected void dispatch() {
+        while (!isClosed && !queue.isEmpty()) {
+            if (!tryAcquireInFlight()) {
+                return;
+            }
+            final Execution execution = queue.poll();
+            if (execution == null) {
+                releaseInFlight();
+                continue;
+            }
+            queueDepth.decrementAndGet();
+            execute(execution);
+        }
+    }
+
+    private void execute(final Execution execution) {
+        try {
+            executor.execute(execution);
+        } catch (RejectedExecutionException e) {
+            releaseInFlight();
+            rejected.increment();
+            execution.future.completeExceptionally(e);
+        }
+    }
+
+    private void reject(final Execution execution) {
+        rejected.increment();
+        execution.future.completeExceptionally(new RejectedExecutionException("Asynchronous filter executor is closed"));
+    }
+
+    private void rejectQueued() {
+        Execution execution;
+        while ((execution = queue.poll()) != null) {
+            queueDepth.decrementAndGet();
+            reject(execution);
+        }
+    }
+
+    private void releaseInFlight() {
+        if (inFlight.decrementAndGet() == 0 && isClosed) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    private boolean tryAcquireInFlight() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= maxInFlight) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+
+        return true;
+    }
+
+    private void recordLatency(final long latencyNanos) {
+        long max;
+        do {
+            max = maxLatencyNanos.get();
+            if (latencyNanos <= max) {
+                return;
+            }
+        } while (!maxLatencyNanos.compareAndSet(max, latencyNanos));
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    /**
+     * Gets the number of executions waiting for their turn.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * Gets the number of executions handed to the executor which have not completed yet.
+     *
+     * @return the number of executions in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the total time completed and failed executions spent in the queue before being run.
+     *
+     * @return the total queue time in nanoseconds
+     */
+    public long getTotalQueueTimeNanos() {
+        return queueTimeNanos.sum();
+    }
+
+    /**
+     * Gets the total time completed and failed executions spent running.
+     *
+     * @return the total execution time in nanoseconds
+     */
+    public long getTotalExecutionTimeNanos() {
+        return executionTimeNanos.sum();
+    }
+
+    /**
+     * Gets the longest time an execution took from submission to completion.
+     *
+     * @return the maximum latency in nanoseconds
+     */
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos.get();
+    }
+
+    /**
+     * Rejects new executions and the executions waiting in the queue, then shuts down the executor if it was created
+     * by this <code>AsyncFilterExecutor</code>. Executions in flight run to completion: use
+     * {@link #awaitTermination(long, TimeUnit)} to wait for them.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        rejectQueued();
+        if (isExecutorOwner) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Blocks until the executions in flight complete after this <code>AsyncFilterExecutor</code> is
+     * {@link #close() closed}, or the timeout elapses.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return <code>true</code> if this <code>AsyncFilterExecutor</code> is closed and no execution is in flight,
+     * <code>false</code> if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remainingNanos = unit.toNanos(timeout);
+        synchronized (this) {
+            while (!isClosed || inFlight.get() > 0) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                final long startTime = System.nanoTime();
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                remainingNanos -= System.nanoTime() - startTime;
+            }
+        }
+
+        return true;
+    }
+
+    private class Execution implements Runnable {
+        private final Runnable runnable;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long submitTime = System.nanoTime();
+
+        private Execution(final Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            final long startTime = System.nanoTime();
+            Throwable throwable = null;
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                throwable = t;
+            } finally {
+                final long endTime = System.nanoTime();
+                queueTimeNanos.add(startTime - submitTime);
+                executionTimeNanos.add(endTime - startTime);
+                recordLatency(endTime - submitTime);
+                releaseInFlight();
+                dispatch();
+            }
+            if (throwable == null) {
+                completed.increment();
+                future.complete(null);
+            } else {
+                failed.increment();
+                future.completeExceptionally(throwable);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks;
+
+import org.smooks.api.ApplicationContext;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.profile.UnknownProfileMemberException;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.engine.DefaultExecutionContext;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recycles the {@link ExecutionContext}s of a {@link Smooks} instance for one target profile.
+ * <p/>
+ * Creating an execution context builds its content delivery runtime, <code>Memento</code> caretaker and attribute
+ * map. Where many small messages are filtered, this set-up can be avoided by acquiring a context from a pool,
+ * filtering with it, and releasing it back:
+ * <pre>
+ * ExecutionContextPool pool = smooks.{@link Smooks#createExecutionContextPool createExecutionContextPool}(Profile.DEFAULT_PROFILE, 16);
+ * ...
+ * ExecutionContext executionContext = pool.{@link #acquire()};
+ * try {
+ *     smooks.filterSource(executionContext, source, sink);
+ * } finally {
+ *     pool.{@link #release(ExecutionContext)}(executionContext);
+ * }
+ * </pre>
+ * Releasing a context resets it as described in {@link DefaultExecutionContext#reset()}: whatever the caller or the
+ * filter bound to it is dropped, so anything needed from the context must be read before it is released. A
+ * released context must no longer be referenced by the caller.
+ * <p/>
+ * The pool detects a context being reused while it is still in use: filtering with a released context, filtering
+ * with a context which is already filtering, releasing a context while it is filtering, and releasing a context
+ * twice all throw an {@link IllegalStateException}. Contexts which are acquired but never released are not leaked
+ * by the pool since it only holds on to idle contexts; they are garbage collected like any other context.
+ */
+@ThreadSafe
+public class ExecutionContextPool {
+
+    private final Smooks smooks;
+    private final String targetProfile;
+    private final int maxIdle;
+    private final Deque<PooledExecutionContext> idleExecutionContexts = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    ExecutionContextPool(Smooks smooks, String targetProfile, int maxIdle) throws UnknownProfileMemberException {
+        this.smooks = smooks;
+        this.targetProfile = targetProfile;
+        this.maxIdle = maxIdle;
+        // fail fast on an unknown target profile
+        smooks.getApplicationContext().getProfileStore().getProfileSet(targetProfile);
+    }
+
+    /**
+     * Acquire an execution context from this pool, creating one if none is idle.
+     *
+     * @return Execution context to be {@link #release(ExecutionContext) released} once the caller is done with it.
+     */
+    public ExecutionContext acquire() {
+        PooledExecutionContext pooledExecutionContext = idleExecutionContexts.pollFirst();
+        if (pooledExecutionContext == null) {
+            pooledExecutionContext = smooks.createExecutionContext(() -> new PooledExecutionContext(this, targetProfile, smooks.getApplicationContext(), smooks.getVisitorBindings()));
+        } else {
+            idleCount.decrementAndGet();
+        }
+        pooledExecutionContext.acquire();
+
+        return pooledExecutionContext;
+    }
+
+    /**
+     * Reset an execution context acquired from this pool and keep it for reuse, unless the pool already holds the
+     * maximum number of idle contexts.
+     *
+     * @param executionContext Execution context acquired from this pool.
+     * @throws IllegalArgumentException The execution context was not acquired from this pool.
+     * @throws IllegalStateException    The execution context is filtering or was already released.
+     */
+    public void release(ExecutionContext executionContext) {
+        if (!(executionContext instanceof PooledExecutionContext) || ((PooledExecutionContext) executionContext).executionContextPool != this) {
+            throw new IllegalArgumentException("Execution context was not acquired from this pool");
+        }
+        final PooledExecutionContext pooledExecutionContext = (PooledExecutionContext) executionContext;
+        pooledExecutionContext.release();
+
+        if (idleCount.incrementAndGet() <= maxIdle) {
+            idleExecutionContexts.offerFirst(pooledExecutionContext);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of released execution contexts held by this pool for reuse.
+     *
+     * @return Number of idle execution contexts.
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    public String getTargetProfile() {
+        return targetProfile;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    static class PooledExecutionContext extends DefaultExecutionContext {
+
+        private static final int IDLE = 0;
+        private static final int ACQUIRED = 1;
+        private static final int FILTERING = 2;
+
+        private final ExecutionContextPool executionContextPool;
+        private final AtomicInteger state = new AtomicInteger(IDLE);
+
+        PooledExecutionContext(ExecutionContextPool executionContextPool, String targetProfile, ApplicationContext applicationContext, List<ContentHandlerBinding<Visitor>> extendedContentHandlerBindings) {
+            super(targetProfile, applicationContext, extendedContentHandlerBindings);
+            this.executionContextPool = executionContextPool;
+        }
+
+        private void acquire() {
+            if (!state.compareAndSet(IDLE, ACQUIRED)) {
+                throw new IllegalStateException("Pooled execution context is still in use");
+            }
+        }
+
+        private void release() {
+            if (!state.compareAndSet(ACQUIRED, IDLE)) {
+                if (state.get() == FILTERING) {
+                    throw new IllegalStateException("Pooled execution context cannot be released while it is filtering");
+                } else {
+                    throw new IllegalStateException("Pooled execution context has already been released");
+                }
+            }
+            reset();
+        }
+
+        void beginFilter() {
+            if (!state.compareAndSet(ACQUIRED, FILTERING)) {
+                if (state.get() == FILTERING) {
+                    throw new IllegalStateException("Pooled execution context is already filtering");
+                } else {
+                    throw new IllegalStateException("Pooled execution context has been released to its pool and cannot filter until it is acquired again");
+                }
+            }
+        }
+
+        void endFilter() {
+            state.compareAndSet(FILTERING, ACQUIRED);
+        }
+    }
+}
@@ -43,7 +43,9 @@
 package org.smooks;
 
 import org.smooks.api.delivery.Filter;
+import org.smooks.engine.delivery.sax.ng.TextAccumulator;
 import org.smooks.engine.resource.config.ParameterAccessor;
+import org.smooks.io.SinkWriter;
 
 /**
  * Smooks filter settings for programmatic configuration of the {@link Smooks} instance.
@@ -63,7 +65,13 @@ public class FilterSettings {
     private boolean closeSource = true;
     private boolean closeSink = true;
     private int readerPoolSize;
+    private long readerPoolBorrowTimeout;
     private int maxNodeDepth = 1;
+    private MementoCaretakerType mementoCaretakerType = MementoCaretakerType.DEFAULT;
+    private FlushPolicy flushPolicy = FlushPolicy.ELEMENT;
+    private int flushBufferSize = SinkWriter.DEFAULT_BUFFER_SIZE;
+    private int textSpillThreshold = TextAccumulator.DEFAULT_SPILL_THRESHOLD;
+    private boolean systemPropertyParameters;
 
     public FilterSettings() {
     }
@@ -129,12 +137,48 @@ public class FilterSettings {
         return this;
     }
 
+    public FilterSettings setReaderPoolBorrowTimeout(final long readerPoolBorrowTimeout) {
+        assertNonStaticDecl();
+        this.readerPoolBorrowTimeout = readerPoolBorrowTimeout;
+        return this;
+    }
+
     public FilterSettings setMaxNodeDepth(final int maxNodeDepth) {
         assertNonStaticDecl();
         this.maxNodeDepth = maxNodeDepth;
         return this;
     }
 
+    public FilterSettings setMementoCaretakerType(final MementoCaretakerType mementoCaretakerType) {
+        assertNonStaticDecl();
+        this.mementoCaretakerType = mementoCaretakerType;
+        return this;
+    }
+
+    public FilterSettings setFlushPolicy(final FlushPolicy flushPolicy) {
+        assertNonStaticDecl();
+        this.flushPolicy = flushPolicy;
+        return this;
+    }
+
+    public FilterSettings setFlushBufferSize(final int flushBufferSize) {
+        assertNonStaticDecl();
+        this.flushBufferSize = flushBufferSize;
+        return this;
+    }
+
+    public FilterSettings setTextSpillThreshold(final int textSpillThreshold) {
+        assertNonStaticDecl();
+        this.textSpillThreshold = textSpillThreshold;
+        return this;
+    }
+
+    public FilterSettings setSystemPropertyParameters(final boolean systemPropertyParameters) {
+        assertNonStaticDecl();
+        this.systemPropertyParameters = systemPropertyParameters;
+        return this;
+    }
+
     protected void applySettings(Smooks smooks) {
         // Remove the old params...
         ParameterAccessor.removeParameter(Filter.STREAM_FILTER_TYPE, smooks);
@@ -145,7 +189,13 @@ public class FilterSettings {
         ParameterAccessor.removeParameter(Filter.CLOSE_SOURCE, smooks);
         ParameterAccessor.removeParameter(Filter.CLOSE_SINK, smooks);
         ParameterAccessor.removeParameter(Filter.READER_POOL_SIZE, smooks);
+        ParameterAccessor.removeParameter(Filter.READER_POOL_BORROW_TIMEOUT, smooks);
         ParameterAccessor.removeParameter(Filter.MAX_NODE_DEPTH, smooks);
+        ParameterAccessor.removeParameter(Filter.MEMENTO_CARETAKER, smooks);
+        ParameterAccessor.removeParameter(Filter.STREAM_SINK_FLUSH_POLICY, smooks);
+        ParameterAccessor.removeParameter(Filter.STREAM_SINK_BUFFER_SIZE, smooks);
+        ParameterAccessor.removeParameter(Filter.TEXT_ACCUMULATOR_SPILL_THRESHOLD, smooks);
+        ParameterAccessor.removeParameter(Filter.SYSTEM_PROPERTY_PARAMETERS, smooks);
 
         // Set the params...
         ParameterAccessor.setParameter(Filter.STREAM_FILTER_TYPE, filterType.toString(), smooks);
@@ -156,7 +206,13 @@ public class FilterSettings {
         ParameterAccessor.setParameter(Filter.CLOSE_SOURCE, Boolean.toString(closeSource), smooks);
         ParameterAccessor.setParameter(Filter.CLOSE_SINK, Boolean.toString(closeSink), smooks);
         ParameterAccessor.setParameter(Filter.READER_POOL_SIZE, Integer.toString(readerPoolSize), smooks);
+        ParameterAccessor.setParameter(Filter.READER_POOL_BORROW_TIMEOUT, Long.toString(readerPoolBorrowTimeout), smooks);
         ParameterAccessor.setParameter(Filter.MAX_NODE_DEPTH, Integer.toString(maxNodeDepth), smooks);
+        ParameterAccessor.setParameter(Filter.MEMENTO_CARETAKER, mementoCaretakerType.toString(), smooks);
+        ParameterAccessor.setParameter(Filter.STREAM_SINK_FLUSH_POLICY, flushPolicy.toString(), smooks);
+        ParameterAccessor.setParameter(Filter.STREAM_SINK_BUFFER_SIZE, Integer.toString(flushBufferSize), smooks);
+        ParameterAccessor.setParameter(Filter.TEXT_ACCUMULATOR_SPILL_THRESHOLD, Integer.toString(textSpillThreshold), smooks);
+        ParameterAccessor.setParameter(Filter.SYSTEM_PROPERTY_PARAMETERS, Boolean.toString(systemPropertyParameters), smooks);
     }
 
     private void assertNonStaticDecl() {
@@ -0,0 +1,87 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks;
+
+/**
+ * Policy deciding when buffered {@link org.smooks.io.sink.StreamSink} output is flushed to the underlying
+ * <code>OutputStream</code>.
+ *
+ * @see FilterSettings#setFlushPolicy(FlushPolicy)
+ * @see FilterSettings#setFlushBufferSize(int)
+ */
+public enum FlushPolicy {
+    /**
+     * Flushes whenever the filter or a visitor flushes the sink writer, typically once per element. This is the
+     * default policy.
+     */
+    ELEMENT("element"),
+    /**
+     * Flushes each time the output buffer fills up, at document end, and on explicit visitor request. Opt in to this
+     * policy when the output is consumed once the document is filtered, rather than as it is produced.
+     */
+    BUFFER("buffer"),
+    /**
+     * Flushes at document end and on explicit visitor request only.
+     */
+    DOCUMENT("document");
+
+    private final String value;
+
+    FlushPolicy(final String v) {
+        value = v;
+    }
+
+    public static FlushPolicy fromValue(final String value) {
+        for (FlushPolicy flushPolicy : values()) {
+            if (flushPolicy.value.equals(value)) {
+                return flushPolicy;
+            }
+        }
+        throw new IllegalArgumentException(value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
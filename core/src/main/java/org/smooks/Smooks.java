@@ -67,6 +67,7 @@ import org.smooks.api.profile.ProfileSet;
 import org.smooks.api.profile.UnknownProfileMemberException;
 import org.smooks.api.resource.config.ReaderConfigurator;
 import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.api.resource.config.ResourceConfigSeq;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.resource.visitor.dom.DOMElementVisitor;
 import org.smooks.assertion.AssertArgument;
@@ -76,16 +77,21 @@ import org.smooks.engine.DefaultExecutionContext;
 import org.smooks.engine.bean.context.preinstalled.Time;
 import org.smooks.engine.bean.context.preinstalled.UniqueID;
 import org.smooks.engine.delivery.DefaultContentHandlerBinding;
+import org.smooks.engine.delivery.sax.ng.SaxNgContentDeliveryConfig;
+import org.smooks.engine.delivery.sax.ng.SaxNgFilter;
+import org.smooks.engine.delivery.sax.ng.SaxNgPushSource;
 import org.smooks.engine.injector.Scope;
 import org.smooks.engine.lifecycle.PostFilterLifecyclePhase;
 import org.smooks.engine.lifecycle.PreFilterLifecyclePhase;
 import org.smooks.engine.lifecycle.PostConstructLifecyclePhase;
 import org.smooks.engine.lookup.InstanceLookup;
 import org.smooks.engine.lookup.LifecycleManagerLookup;
+import org.smooks.engine.lookup.ResourceConfigSeqsLookup;
 import org.smooks.engine.xml.NamespaceManager;
 import org.smooks.io.payload.Exports;
 import org.smooks.io.sink.FilterSink;
 import org.smooks.io.source.FilterSource;
+import org.smooks.io.source.PushSource;
 import org.smooks.io.sink.JavaSink;
 import org.smooks.resource.URIResourceLocator;
 import org.smooks.support.SmooksUtil;
@@ -99,8 +105,16 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Smooks executor class.
@@ -156,6 +170,9 @@ public class Smooks implements Closeable {
      */
     private volatile boolean isConfigurable = true;
 
+    private volatile AsyncFilterExecutor asyncFilterExecutor;
+    private boolean isAsyncFilterExecutorOwner;
+
     /**
      * Public Default Constructor.
      * <p/>
@@ -432,6 +449,28 @@ public class Smooks implements Closeable {
      * @throws UnknownProfileMemberException Unknown target profile.
      */
     public ExecutionContext createExecutionContext(String targetProfile) throws UnknownProfileMemberException {
+        return createExecutionContext(() -> new DefaultExecutionContext(targetProfile, applicationContext, visitorBindings));
+    }
+
+    /**
+     * Create a {@link ExecutionContextPool} recycling the {@link ExecutionContext}s of this Smooks instance for
+     * the supplied target profile.
+     *
+     * @param targetProfile The target profile ({@link ProfileSet base profile}) of the pooled execution contexts.
+     * @param maxIdle       The maximum number of released execution contexts kept by the pool for reuse.
+     * @return Execution context pool.
+     * @throws UnknownProfileMemberException Unknown target profile.
+     * @see ExecutionContextPool
+     */
+    public ExecutionContextPool createExecutionContextPool(String targetProfile, int maxIdle) throws UnknownProfileMemberException {
+        AssertArgument.isNotNull(targetProfile, "targetProfile");
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("'maxIdle' must not be negative");
+        }
+        return new ExecutionContextPool(this, targetProfile, maxIdle);
+    }
+
+    <T extends ExecutionContext> T createExecutionContext(Supplier<T> executionContextSupplier) throws UnknownProfileMemberException {
         if (applicationContext.getClassLoader() != null) {
             ClassLoader originalTCCL = Thread.currentThread().getContextClassLoader();
             CascadingClassLoaderSet newTCCL = new CascadingClassLoaderSet();
@@ -444,7 +483,7 @@ public class Smooks implements Closeable {
                 if (isConfigurable) {
                     setNotConfigurable();
                 }
-                return new DefaultExecutionContext(targetProfile, applicationContext, visitorBindings);
+                return executionContextSupplier.get();
             } finally {
                 Thread.currentThread().setContextClassLoader(originalTCCL);
             }
@@ -452,10 +491,41 @@ public class Smooks implements Closeable {
             if (isConfigurable) {
                 setNotConfigurable();
             }
-            return new DefaultExecutionContext(targetProfile, applicationContext, visitorBindings);
+            return executionContextSupplier.get();
         }
     }
 
+    /**
+     * Build the content delivery configuration of the default profile, and of every profile declared in the
+     * configurations added to this Smooks instance, on the supplied executor ahead of the first
+     * {@link ExecutionContext} being created. Profiles declared by system configurations are left to be built lazily.
+     * <p/>
+     * The configurations of a Smooks instance are otherwise built lazily on the first
+     * {@link #createExecutionContext(String)} call for each profile. Like that call, warming up makes this instance
+     * unconfigurable. Each profile is built by a task of its own so the profiles of one Smooks instance, like different
+     * Smooks instances, build concurrently.
+     *
+     * @param executor The executor building the configurations.
+     * @return A future which completes once every profile is built, or completes exceptionally with the first failure.
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        AssertArgument.isNotNull(executor, "executor");
+
+        final Set<String> baseProfiles = new LinkedHashSet<>();
+        baseProfiles.add(Profile.DEFAULT_PROFILE);
+        for (ResourceConfigSeq resourceConfigSeq : applicationContext.getRegistry().lookup(new ResourceConfigSeqsLookup())) {
+            if (resourceConfigSeq.isSystem()) {
+                // system profiles such as "null-dom" are only ever selected explicitly
+                continue;
+            }
+            for (ProfileSet profileSet : resourceConfigSeq.getProfiles()) {
+                baseProfiles.add(profileSet.getBaseProfile());
+            }
+        }
+
+        return CompletableFuture.allOf(baseProfiles.stream().map(baseProfile -> CompletableFuture.runAsync(() -> createExecutionContext(baseProfile), executor)).toArray(CompletableFuture[]::new));
+    }
+
     private synchronized void setNotConfigurable() {
         if (!isConfigurable) {
             return;
@@ -514,10 +584,186 @@ public class Smooks implements Closeable {
         }
     }
 
+    /**
+     * Filter each {@link Source} of a batch in turn on the calling thread, outputting data to the {@link Sink}s
+     * returned by the supplied function for that source.
+     * <p/>
+     * The batch is filtered with a single {@link ExecutionContext} created for the default profile and
+     * {@link DefaultExecutionContext#reset() reset} between sources, so each source gets its own beans and
+     * attributes. Only the context itself, the {@link FilterLifecycle} lookup and the thread context class loader
+     * swap are saved per document: each source still gets its own {@link Filter}, parser
+     * and borrowed reader, and handler init/cleanup still run per source, so batching is no cheaper than
+     * {@link #filterSource(ExecutionContext, Source, Sink...)} with a reused context beyond these set-up costs.
+     * Filtering stops at the first source that fails.
+     *
+     * @param sources       The filter Sources.
+     * @param sinksFunction Returns the filter Sinks of a source. May return <code>null</code> for no Sinks.
+     * @throws SmooksException Failed to filter a source.
+     */
+    public void filterSources(Iterable<? extends Source> sources, Function<? super Source, Sink[]> sinksFunction) throws SmooksException {
+        filterSources(Profile.DEFAULT_PROFILE, sources, sinksFunction);
+    }
+
+    /**
+     * Filter each {@link Source} of a batch in turn on the calling thread for a target profile.
+     *
+     * @param targetProfile The target profile ({@link ProfileSet base profile}) on behalf of whom the batch is filtered.
+     * @param sources       The filter Sources.
+     * @param sinksFunction Returns the filter Sinks of a source. May return <code>null</code> for no Sinks.
+     * @throws SmooksException               Failed to filter a source.
+     * @throws UnknownProfileMemberException Unknown target profile.
+     * @see #filterSources(Iterable, Function)
+     */
+    public void filterSources(String targetProfile, Iterable<? extends Source> sources, Function<? super Source, Sink[]> sinksFunction) throws SmooksException, UnknownProfileMemberException {
+        AssertArgument.isNotNull(targetProfile, "targetProfile");
+        AssertArgument.isNotNull(sources, "sources");
+        AssertArgument.isNotNull(sinksFunction, "sinksFunction");
+
+        final DefaultExecutionContext executionContext = createExecutionContext(() -> new DefaultExecutionContext(targetProfile, applicationContext, visitorBindings));
+        if (applicationContext.getClassLoader() != null) {
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader(applicationContext.getClassLoader());
+            try {
+                _filterSources(executionContext, sources, sinksFunction);
+            } finally {
+                Thread.currentThread().setContextClassLoader(contextClassLoader);
+            }
+        } else {
+            _filterSources(executionContext, sources, sinksFunction);
+        }
+    }
+
+    /**
+     * Filter the content in the supplied {@link Source} instance asynchronously, outputting data to the supplied
+     * {@link Sink} instances.
+     *
+     * @param source The filter Source.
+     * @param sinks  The filter Sinks.
+     * @return A future which completes once the source is filtered, or completes exceptionally with the
+     * {@link SmooksException} of a failed filter or the {@link java.util.concurrent.RejectedExecutionException} of a
+     * rejected submission.
+     * @see #filterSourceAsync(ExecutionContext, Source, Sink...)
+     */
+    public CompletableFuture<Void> filterSourceAsync(Source source, Sink... sinks) {
+        return filterSourceAsync(createExecutionContext(), source, sinks);
+    }
+
+    /**
+     * Filter the content in the supplied {@link Source} instance asynchronously on the {@link AsyncFilterExecutor}
+     * of this Smooks instance, outputting data to the supplied {@link Sink} instances.
+     * <p/>
+     * The filter runs entirely on one thread of the executor, as {@link #filterSource(ExecutionContext, Source, Sink...)}
+     * would on the calling thread: the execution context, and the thread context class loader of the calling thread,
+     * are handed over to that thread and set up there before filtering. The execution context must not be accessed
+     * by the caller until the returned future completes, after which everything the filter bound to it is visible to
+     * the caller.
+     *
+     * @param executionContext The {@link ExecutionContext} for this filter operation.
+     * @param source           The filter Source.
+     * @param sinks            The filter Sinks.
+     * @return A future which completes once the source is filtered, or completes exceptionally with the
+     * {@link SmooksException} of a failed filter or the {@link java.util.concurrent.RejectedExecutionException} of a
+     * rejected submission.
+     * @see #setAsyncFilterExecutor(AsyncFilterExecutor)
+     */
+    public CompletableFuture<Void> filterSourceAsync(ExecutionContext executionContext, Source source, Sink... sinks) {
+        AssertArgument.isNotNull(source, "source");
+        AssertArgument.isNotNull(executionContext, "executionContext");
+
+        final ClassLoader callerContextClassLoader = Thread.currentThread().getContextClassLoader();
+        return getAsyncFilterExecutor().submit(() -> {
+            final Thread thread = Thread.currentThread();
+            final ClassLoader contextClassLoader = thread.getContextClassLoader();
+            thread.setContextClassLoader(callerContextClassLoader);
+            try {
+                filterSource(executionContext, source, sinks);
+            } finally {
+                thread.setContextClassLoader(contextClassLoader);
+            }
+        });
+    }
+
+    /**
+     * Sets the {@link AsyncFilterExecutor} running the filters of {@link #filterSourceAsync(ExecutionContext, Source, Sink...)}.
+     * The caller is responsible for closing it, and for waiting for the filters it runs to complete before closing this
+     * Smooks instance. The executor is registered in the {@link org.smooks.api.Registry} under the
+     * {@link AsyncFilterExecutor} class so that it can be monitored.
+     *
+     * @param asyncFilterExecutor The executor.
+     */
+    public synchronized void setAsyncFilterExecutor(AsyncFilterExecutor asyncFilterExecutor) {
+        AssertArgument.isNotNull(asyncFilterExecutor, "asyncFilterExecutor");
+        if (isAsyncFilterExecutorOwner) {
+            this.asyncFilterExecutor.close();
+            isAsyncFilterExecutorOwner = false;
+        }
+        this.asyncFilterExecutor = asyncFilterExecutor;
+        registerAsyncFilterExecutor(asyncFilterExecutor);
+    }
+
+    /**
+     * Gets the {@link AsyncFilterExecutor} running the filters of {@link #filterSourceAsync(ExecutionContext, Source, Sink...)}.
+     * Unless one is set, a default {@link AsyncFilterExecutor#AsyncFilterExecutor() AsyncFilterExecutor} is created
+     * on first use and closed along with this Smooks instance.
+     *
+     * @return The executor.
+     */
+    public AsyncFilterExecutor getAsyncFilterExecutor() {
+        AsyncFilterExecutor asyncFilterExecutor = this.asyncFilterExecutor;
+        if (asyncFilterExecutor == null) {
+            synchronized (this) {
+                asyncFilterExecutor = this.asyncFilterExecutor;
+                if (asyncFilterExecutor == null) {
+                    asyncFilterExecutor = new AsyncFilterExecutor();
+                    isAsyncFilterExecutorOwner = true;
+                    this.asyncFilterExecutor = asyncFilterExecutor;
+                    registerAsyncFilterExecutor(asyncFilterExecutor);
+                }
+            }
+        }
+        return asyncFilterExecutor;
+    }
+
+    private void registerAsyncFilterExecutor(AsyncFilterExecutor asyncFilterExecutor) {
+        applicationContext.getRegistry().deRegisterObject(AsyncFilterExecutor.class);
+        applicationContext.getRegistry().registerObject(AsyncFilterExecutor.class, asyncFilterExecutor);
+    }
+
+    private void _filterSources(DefaultExecutionContext executionContext, Iterable<? extends Source> sources, Function<? super Source, Sink[]> sinksFunction) {
+        final Collection<FilterLifecycle> filterLifecycles = registry.lookup(new InstanceLookup<>(FilterLifecycle.class)).values();
+        boolean isDirty = false;
+        for (Source source : sources) {
+            AssertArgument.isNotNull(source, "source");
+            if (isDirty) {
+                executionContext.reset();
+            }
+            isDirty = true;
+            _filter(executionContext, source, filterLifecycles, sinksFunction.apply(source));
+        }
+    }
+
     private void _filter(ExecutionContext executionContext, org.smooks.api.io.Source source, Sink... sinks) {
+        _filter(executionContext, source, registry.lookup(new InstanceLookup<>(FilterLifecycle.class)).values(), sinks);
+    }
+
+    private void _filter(ExecutionContext executionContext, org.smooks.api.io.Source source, Collection<FilterLifecycle> filterLifecycles, Sink... sinks) {
+        if (executionContext instanceof ExecutionContextPool.PooledExecutionContext) {
+            final ExecutionContextPool.PooledExecutionContext pooledExecutionContext = (ExecutionContextPool.PooledExecutionContext) executionContext;
+            pooledExecutionContext.beginFilter();
+            try {
+                _filterInContext(executionContext, source, filterLifecycles, sinks);
+            } finally {
+                pooledExecutionContext.endFilter();
+            }
+        } else {
+            _filterInContext(executionContext, source, filterLifecycles, sinks);
+        }
+    }
+
+    private void _filterInContext(ExecutionContext executionContext, org.smooks.api.io.Source source, Collection<FilterLifecycle> filterLifecycles, Sink... sinks) {
         ContentDeliveryConfig contentDeliveryConfig = executionContext.getContentDeliveryRuntime().getContentDeliveryConfig();
         try {
-            lifecycleManager.applyPhase(registry.lookup(new InstanceLookup<>(FilterLifecycle.class)).values(), new PreFilterLifecyclePhase(executionContext));
+            lifecycleManager.applyPhase(filterLifecycles, new PreFilterLifecyclePhase(executionContext));
 
             if (sinks != null && sinks.length == 1 && sinks[0] != null) {
                 FilterBypass filterBypass = contentDeliveryConfig.getFilterBypass();
@@ -536,29 +782,14 @@ public class Smooks implements Closeable {
                 FilterSource.setSource(executionContext, source);
                 FilterSink.setSinks(executionContext, sinks);
 
-                // Add pre installed beans + global BeanContext lifecycle observers...
-                BeanContext beanContext = executionContext.getBeanContext();
-                beanContext.addBean(Time.BEAN_ID, new Time());
-                beanContext.addBean(UniqueID.BEAN_ID, new UniqueID());
-                for (BeanContextLifecycleObserver observer : applicationContext.getBeanContextLifecycleObservers()) {
-                    beanContext.addObserver(observer);
-                }
+                installBeans(executionContext);
 
                 try {
                     contentDeliveryConfig.executeHandlerInit(executionContext);
                     filter.doFilter();
                 } finally {
                     try {
-                        // We want to make sure that all the beans from the BeanContext are available in the
-                        // JavaResult, if one is supplied by the user...
-                        JavaSink javaSink = (JavaSink) FilterSink.getSink(executionContext, JavaSink.class);
-                        if (javaSink != null) {
-                            javaSink.getResultMap().putAll(executionContext.getBeanContext().getBeanMap());
-                        }
-
-                        // Remove the pre-installed beans...
-                        beanContext.removeBean(Time.BEAN_ID, null);
-                        beanContext.removeBean(UniqueID.BEAN_ID, null);
+                        uninstallBeans(executionContext);
                     } finally {
                         contentDeliveryConfig.executeHandlerCleanup(executionContext);
                     }
@@ -577,8 +808,124 @@ public class Smooks implements Closeable {
                 }
             }
         } finally {
-            lifecycleManager.applyPhase(registry.lookup(new InstanceLookup<>(FilterLifecycle.class)).values(), new PostFilterLifecyclePhase(executionContext));
+            lifecycleManager.applyPhase(filterLifecycles, new PostFilterLifecyclePhase(executionContext));
+        }
+    }
+
+    /**
+     * Open a {@link PushSource} whose content is filtered as the caller pushes it, outputting data to the supplied
+     * {@link Sink} instances.
+     * <p/>
+     * Unlike {@link #filterSource(ExecutionContext, Source, Sink...)}, which blocks until the whole source is read,
+     * this method returns once the filter is set up. Each {@link PushSource#push(java.nio.ByteBuffer)} then advances
+     * the filter on the calling thread as far as the content pushed so far allows, and {@link PushSource#close()}
+     * completes it. The execution context must not be used for anything else until the push source is closed or
+     * aborted. Push sources are supported by the SAX NG filter only, and filter bypasses are not applied to them.
+     *
+     * @param executionContext The {@link ExecutionContext} for this filter operation. See
+     *                         {@link #createExecutionContext(String)}.
+     * @param sinks            The filter Sinks.
+     * @return The push source, already bound to the execution context.
+     * @throws SmooksException Failed to set up the filter.
+     */
+    public PushSource openPushSource(ExecutionContext executionContext, Sink... sinks) throws SmooksException {
+        AssertArgument.isNotNull(executionContext, "executionContext");
+        if (!(executionContext.getContentDeliveryRuntime().getContentDeliveryConfig() instanceof SaxNgContentDeliveryConfig)) {
+            throw new SmooksException("Push sources are only supported by the SAX NG filter");
+        }
+
+        if (applicationContext.getClassLoader() != null) {
+            ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader(applicationContext.getClassLoader());
+            try {
+                return _openPushSource(executionContext, sinks);
+            } finally {
+                Thread.currentThread().setContextClassLoader(contextClassLoader);
+            }
+        } else {
+            return _openPushSource(executionContext, sinks);
+        }
+    }
+
+    private PushSource _openPushSource(ExecutionContext executionContext, Sink... sinks) {
+        final ContentDeliveryConfig contentDeliveryConfig = executionContext.getContentDeliveryRuntime().getContentDeliveryConfig();
+        final Collection<FilterLifecycle> filterLifecycles = registry.lookup(new InstanceLookup<>(FilterLifecycle.class)).values();
+        final ExecutionContextPool.PooledExecutionContext pooledExecutionContext = executionContext instanceof ExecutionContextPool.PooledExecutionContext ? (ExecutionContextPool.PooledExecutionContext) executionContext : null;
+        if (pooledExecutionContext != null) {
+            pooledExecutionContext.beginFilter();
         }
+
+        final SaxNgFilter saxNgFilter;
+        try {
+            lifecycleManager.applyPhase(filterLifecycles, new PreFilterLifecyclePhase(executionContext));
+            saxNgFilter = (SaxNgFilter) contentDeliveryConfig.newFilter(executionContext);
+        } catch (RuntimeException e) {
+            try {
+                lifecycleManager.applyPhase(filterLifecycles, new PostFilterLifecyclePhase(executionContext));
+            } finally {
+                if (pooledExecutionContext != null) {
+                    pooledExecutionContext.endFilter();
+                }
+            }
+            throw e;
+        }
+
+        final SaxNgPushSource pushSource = new SaxNgPushSource(executionContext, saxNgFilter, applicationContext.getClassLoader(), () -> {
+            try {
+                try {
+                    uninstallBeans(executionContext);
+                } finally {
+                    contentDeliveryConfig.executeHandlerCleanup(executionContext);
+                }
+            } finally {
+                try {
+                    saxNgFilter.close();
+                } finally {
+                    try {
+                        lifecycleManager.applyPhase(filterLifecycles, new PostFilterLifecyclePhase(executionContext));
+                    } finally {
+                        if (pooledExecutionContext != null) {
+                            pooledExecutionContext.endFilter();
+                        }
+                    }
+                }
+            }
+        });
+        try {
+            FilterSource.setSource(executionContext, pushSource);
+            FilterSink.setSinks(executionContext, sinks);
+            installBeans(executionContext);
+            contentDeliveryConfig.executeHandlerInit(executionContext);
+            saxNgFilter.beginPush();
+        } catch (Throwable t) {
+            throw pushSource.abort(t);
+        }
+
+        return pushSource;
+    }
+
+    private void installBeans(ExecutionContext executionContext) {
+        // Add pre installed beans + global BeanContext lifecycle observers...
+        BeanContext beanContext = executionContext.getBeanContext();
+        beanContext.addBean(Time.BEAN_ID, new Time());
+        beanContext.addBean(UniqueID.BEAN_ID, new UniqueID());
+        for (BeanContextLifecycleObserver observer : applicationContext.getBeanContextLifecycleObservers()) {
+            beanContext.addObserver(observer);
+        }
+    }
+
+    private void uninstallBeans(ExecutionContext executionContext) {
+        // We want to make sure that all the beans from the BeanContext are available in the
+        // JavaResult, if one is supplied by the user...
+        JavaSink javaSink = (JavaSink) FilterSink.getSink(executionContext, JavaSink.class);
+        if (javaSink != null) {
+            javaSink.getResultMap().putAll(executionContext.getBeanContext().getBeanMap());
+        }
+
+        // Remove the pre-installed beans...
+        BeanContext beanContext = executionContext.getBeanContext();
+        beanContext.removeBean(Time.BEAN_ID, null);
+        beanContext.removeBean(UniqueID.BEAN_ID, null);
     }
 
     /**
@@ -591,14 +938,36 @@ public class Smooks implements Closeable {
         return applicationContext;
     }
 
+    List<ContentHandlerBinding<Visitor>> getVisitorBindings() {
+        return visitorBindings;
+    }
+
     /**
      * Close this Smooks instance and all associated resources.
      * <p/>
      * Should result in the {@link jakarta.annotation.PostConstruct uninitialization}
      * of all allocated {@link ContentHandler} instances.
+     * <p/>
+     * When the filters of {@link #filterSourceAsync(ExecutionContext, Source, Sink...)} run on the default
+     * {@link AsyncFilterExecutor}, the filters waiting for their turn are rejected and this method blocks until the
+     * filters in flight complete, so it must not be called from one of those filters. An executor set through
+     * {@link #setAsyncFilterExecutor(AsyncFilterExecutor)} is left alone: the filters it runs for this Smooks
+     * instance must complete before this method is called.
      */
     @Override
     public void close() {
+        final AsyncFilterExecutor ownedAsyncFilterExecutor;
+        synchronized (this) {
+            ownedAsyncFilterExecutor = isAsyncFilterExecutorOwner ? asyncFilterExecutor : null;
+        }
+        if (ownedAsyncFilterExecutor != null) {
+            ownedAsyncFilterExecutor.close();
+            try {
+                ownedAsyncFilterExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         applicationContext.getRegistry().close();
     }
 
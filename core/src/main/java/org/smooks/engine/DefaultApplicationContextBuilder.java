@@ -55,7 +55,7 @@ import org.smooks.api.delivery.ContentHandlerFactory;
 import org.smooks.engine.delivery.DefaultContentDeliveryRuntimeFactory;
 import org.smooks.engine.injector.Scope;
 import org.smooks.engine.lifecycle.PostConstructLifecyclePhase;
-import org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader;
+import org.smooks.engine.resource.config.loader.snapshot.SnapshotResourceConfigLoader;
 import org.smooks.io.payload.Exports;
 import org.smooks.engine.profile.DefaultProfileSet;
 import org.smooks.api.Registry;
@@ -71,7 +71,7 @@ public class DefaultApplicationContextBuilder implements ApplicationContextBuild
     private Registry registry;
     private ContentDeliveryRuntimeFactory contentDeliveryRuntimeFactory;
     private ContainerResourceLocator resourceLocator = new URIResourceLocator();
-    private ResourceConfigLoader resourceConfigLoader = new XmlResourceConfigLoader();
+    private ResourceConfigLoader resourceConfigLoader = new SnapshotResourceConfigLoader();
 
     private ReaderPoolFactory readerPoolFactory = new DefaultReaderPoolFactory();
 
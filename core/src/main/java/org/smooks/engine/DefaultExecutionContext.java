@@ -42,18 +42,22 @@
  */
 package org.smooks.engine;
 
+import org.smooks.MementoCaretakerType;
 import org.smooks.api.SmooksException;
+import org.smooks.api.delivery.Filter;
 import org.smooks.api.memento.MementoCaretaker;
 import org.smooks.api.profile.ProfileSet;
 import org.smooks.api.profile.UnknownProfileMemberException;
 import org.smooks.assertion.AssertArgument;
 import org.smooks.engine.memento.DefaultMementoCaretaker;
+import org.smooks.engine.memento.DepthStackMementoCaretaker;
 import org.smooks.engine.resource.config.ParameterAccessor;
 import org.smooks.api.ApplicationContext;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.TypedKey;
 import org.smooks.api.delivery.ContentDeliveryRuntime;
 import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.delivery.event.ExecutionEventListener;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.bean.context.BeanContext;
 import org.smooks.engine.bean.context.StandaloneBeanContextFactory;
@@ -70,11 +74,18 @@ import java.util.*;
  */
 public class DefaultExecutionContext implements ExecutionContext {
 
+    private static final Object NULL_VALUE = new Object();
+
     private final ProfileSet targetProfileSet;
     private final Map<TypedKey<Object>, Object> attributes = new HashMap<>();
+    // values of engine-internal TypedKey.SlotTypedKeys, indexed by slot, with NULL_VALUE standing in for a put null
+    private Object[] slotValues = new Object[TypedKey.SlotTypedKey.getSlotCount()];
+    private TypedKey.SlotTypedKey<?>[] slotKeys = new TypedKey.SlotTypedKey<?>[slotValues.length];
+    private Map<TypedKey<Object>, Object> all;
     private final ContentDeliveryRuntime contentDeliveryRuntime;
-    private final MementoCaretaker mementoCaretaker;
+    private MementoCaretaker mementoCaretaker;
     private final ApplicationContext applicationContext;
+    private final String initialContentEncoding;
 
     private URI docSource;
     private String contentEncoding;
@@ -117,10 +128,57 @@ public class DefaultExecutionContext implements ExecutionContext {
 
         this.applicationContext = applicationContext;
         setContentEncoding(contentEncoding);
+        initialContentEncoding = this.contentEncoding;
         targetProfileSet = applicationContext.getProfileStore().getProfileSet(targetProfile);
         contentDeliveryRuntime = applicationContext.getContentDeliveryRuntimeFactory().create(targetProfileSet, extendedContentHandlerBindings);
 
-        mementoCaretaker = new DefaultMementoCaretaker(this);
+        mementoCaretaker = newMementoCaretaker();
+    }
+
+    protected MementoCaretaker newMementoCaretaker() {
+        final String mementoCaretakerType = ParameterAccessor.getParameterValue(Filter.MEMENTO_CARETAKER, String.class, MementoCaretakerType.DEFAULT.toString(), contentDeliveryRuntime.getContentDeliveryConfig());
+        if (MementoCaretakerType.fromValue(mementoCaretakerType) == MementoCaretakerType.DEPTH_STACK) {
+            return new DepthStackMementoCaretaker();
+        } else {
+            return new DefaultMementoCaretaker(this);
+        }
+    }
+
+    /**
+     * Returns this execution context to the state it was constructed in so that it can filter another message.
+     * <p/>
+     * A reset clears the attributes (including the source, sinks and <code>Memento</code>s bound to this context),
+     * the document source, the termination error, the {@link ExecutionEventListener}s of the
+     * {@link ContentDeliveryRuntime} and the bean context, which is recreated on the next
+     * {@link #getBeanContext()} call since its bean map is bound to the filtered {@link org.smooks.api.io.Source}
+     * and {@link org.smooks.api.io.Sink}s. The content encoding reverts to the encoding this context was
+     * constructed with. The target profiles, the application context and the {@link ContentDeliveryRuntime} itself,
+     * along with its content delivery configuration and reader pool, are kept.
+     * <p/>
+     * A context must not be reset while it is filtering.
+     */
+    public void reset() {
+        attributes.clear();
+        Arrays.fill(slotValues, null);
+        Arrays.fill(slotKeys, null);
+        resetMementoCaretaker();
+        for (ExecutionEventListener executionEventListener : new ArrayList<>(contentDeliveryRuntime.getExecutionEventListeners())) {
+            contentDeliveryRuntime.removeExecutionEventListener(executionEventListener);
+        }
+        docSource = null;
+        contentEncoding = initialContentEncoding;
+        terminationError = null;
+        beanContext = null;
+    }
+
+    protected void resetMementoCaretaker() {
+        if (mementoCaretaker instanceof DepthStackMementoCaretaker) {
+            ((DepthStackMementoCaretaker) mementoCaretaker).clear();
+        } else if (mementoCaretaker instanceof DefaultMementoCaretaker) {
+            ((DefaultMementoCaretaker) mementoCaretaker).clear();
+        } else {
+            mementoCaretaker = newMementoCaretaker();
+        }
     }
 
     @Override
@@ -201,32 +259,149 @@ public class DefaultExecutionContext implements ExecutionContext {
 
     @Override
     public <T> void put(TypedKey<T> key, T value) {
-        attributes.put((TypedKey<Object>) key, value);
+        if (key instanceof TypedKey.SlotTypedKey) {
+            final TypedKey.SlotTypedKey<T> slotTypedKey = (TypedKey.SlotTypedKey<T>) key;
+            final int slot = slotTypedKey.getSlot();
+            if (slot >= slotValues.length) {
+                final int length = Math.max(slot + 1, TypedKey.SlotTypedKey.getSlotCount());
+                slotValues = Arrays.copyOf(slotValues, length);
+                slotKeys = Arrays.copyOf(slotKeys, length);
+            }
+            slotValues[slot] = value == null ? NULL_VALUE : value;
+            slotKeys[slot] = slotTypedKey;
+        } else {
+            attributes.put(uncheckedCast(key), value);
+        }
     }
 
     @Override
     public <T> T get(TypedKey<T> key) {
-        return (T) attributes.get(key);
+        return getOrDefault(key, null);
     }
 
     @Override
     public <T> T getOrDefault(TypedKey<T> key, T value) {
-        return (T) attributes.getOrDefault(key, value);
+        if (key instanceof TypedKey.SlotTypedKey) {
+            final int slot = ((TypedKey.SlotTypedKey<T>) key).getSlot();
+            if (slot >= slotValues.length || slotValues[slot] == null) {
+                return value;
+            }
+            final Object slotValue = slotValues[slot];
+            return slotValue == NULL_VALUE ? null : uncheckedCast(slotValue);
+        } else {
+            return uncheckedCast(attributes.getOrDefault(key, value));
+        }
     }
 
     @Override
     public <T> void remove(TypedKey<T> key) {
-        attributes.remove(key);
+        if (key instanceof TypedKey.SlotTypedKey) {
+            final int slot = ((TypedKey.SlotTypedKey<T>) key).getSlot();
+            if (slot < slotValues.length) {
+                slotValues[slot] = null;
+                slotKeys[slot] = null;
+            }
+        } else {
+            attributes.remove(key);
+        }
     }
 
     @Override
     public String toString() {
-        return attributes.toString();
+        return getAll().toString();
     }
 
+    /**
+     * Gets an unmodifiable live view of the attributes of this context, including the attributes bound to
+     * {@link TypedKey#ofSlot() slot keys}.
+     *
+     * @return the attributes
+     */
     @Override
     public Map<TypedKey<Object>, Object> getAll() {
-        return Collections.unmodifiableMap(attributes);
+        if (all == null) {
+            all = new AttributesView();
+        }
+
+        return all;
+    }
+
+    private int nextSlot(int slot) {
+        while (slot < slotValues.length && slotValues[slot] == null) {
+            slot++;
+        }
+
+        return slot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T uncheckedCast(Object object) {
+        return (T) object;
+    }
+
+    private final class AttributesView extends AbstractMap<TypedKey<Object>, Object> {
+        private final Set<Map.Entry<TypedKey<Object>, Object>> entrySet = new AbstractSet<Map.Entry<TypedKey<Object>, Object>>() {
+            @Override
+            public Iterator<Map.Entry<TypedKey<Object>, Object>> iterator() {
+                return new Iterator<Map.Entry<TypedKey<Object>, Object>>() {
+                    private final Iterator<Map.Entry<TypedKey<Object>, Object>> attributesIterator = attributes.entrySet().iterator();
+                    private int slot = nextSlot(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return attributesIterator.hasNext() || slot < slotValues.length;
+                    }
+
+                    @Override
+                    public Map.Entry<TypedKey<Object>, Object> next() {
+                        if (attributesIterator.hasNext()) {
+                            return new SimpleImmutableEntry<>(attributesIterator.next());
+                        } else if (slot < slotValues.length) {
+                            final Map.Entry<TypedKey<Object>, Object> entry = new SimpleImmutableEntry<>(uncheckedCast(slotKeys[slot]), slotValues[slot] == NULL_VALUE ? null : slotValues[slot]);
+                            slot = nextSlot(slot + 1);
+                            return entry;
+                        } else {
+                            throw new NoSuchElementException();
+                        }
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                int size = attributes.size();
+                for (int slot = nextSlot(0); slot < slotValues.length; slot = nextSlot(slot + 1)) {
+                    size++;
+                }
+
+                return size;
+            }
+        };
+
+        @Override
+        public Set<Map.Entry<TypedKey<Object>, Object>> entrySet() {
+            return entrySet;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            if (key instanceof TypedKey.SlotTypedKey) {
+                final int slot = ((TypedKey.SlotTypedKey<?>) key).getSlot();
+                return slot < slotValues.length && slotValues[slot] != null;
+            } else {
+                return attributes.containsKey(key);
+            }
+        }
+
+        @Override
+        public Object get(final Object key) {
+            if (key instanceof TypedKey.SlotTypedKey) {
+                final int slot = ((TypedKey.SlotTypedKey<?>) key).getSlot();
+                return slot < slotValues.length && slotValues[slot] != NULL_VALUE ? slotValues[slot] : null;
+            } else {
+                return attributes.get(key);
+            }
+        }
     }
 
     @Override
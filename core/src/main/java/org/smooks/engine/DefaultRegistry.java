@@ -63,6 +63,7 @@ import org.smooks.engine.injector.Scope;
 import org.smooks.engine.lifecycle.DefaultLifecycleManager;
 import org.smooks.engine.lifecycle.PostConstructLifecyclePhase;
 import org.smooks.engine.lifecycle.PreDestroyLifecyclePhase;
+import org.smooks.engine.lookup.IndexedLookup;
 import org.smooks.engine.lookup.LifecycleManagerLookup;
 import org.smooks.engine.lookup.ResourceConfigSeqLookup;
 import org.smooks.engine.lookup.ResourceConfigSeqsLookup;
@@ -80,12 +81,16 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 public class DefaultRegistry implements Registry {
     private static final Logger LOGGER = LoggerFactory.getLogger(Registry.class);
 
     private final Map<Object, Object> registry = new ConcurrentHashMap<>();
+    private final Map<Object, Object> registryView = Collections.unmodifiableMap(registry);
+    private final Map<IndexedLookup<?>, IndexEntry> lookupIndex = new ConcurrentHashMap<>();
+    private final AtomicLong modCount = new AtomicLong();
     private final ClassLoader classLoader;
     private final ResourceConfigLoader resourceConfigLoader;
 
@@ -97,7 +102,8 @@ public class DefaultRegistry implements Registry {
         this.classLoader = classLoader;
         registerObject(ProfileStore.class, profileStore);
 
-        Set<TypeConverterFactory<?, ?>> typeConverterFactories = new TypeConverterFactoryLoader().load(classLoader);
+        // unmodifiable because converter lookups are indexed: a different set of factories has to be registered anew
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = Collections.unmodifiableSet(new TypeConverterFactoryLoader().load(classLoader));
         registerObject(TypeConverterFactoryLookup.TYPE_CONVERTER_FACTORY_REGISTRY_KEY, typeConverterFactories);
         registerObject(LifecycleManager.class, new DefaultLifecycleManager());
 
@@ -140,16 +146,44 @@ public class DefaultRegistry implements Registry {
         if (registry.putIfAbsent(key, value) != null) {
             throw new SmooksException(String.format("Duplicate registered object for object with key [%s]", key));
         }
+        invalidateLookupIndex();
     }
 
     @Override
     public void deRegisterObject(Object key) {
-        registry.remove(key);
+        if (registry.remove(key) != null) {
+            invalidateLookupIndex();
+        }
     }
 
     @Override
     public <R> R lookup(Function<Map<Object, Object>, R> function) {
-        return function.apply(Collections.unmodifiableMap(registry));
+        if (function instanceof IndexedLookup) {
+            return lookup((IndexedLookup<R>) function);
+        } else {
+            return function.apply(registryView);
+        }
+    }
+
+    protected <R> R lookup(IndexedLookup<R> indexedLookup) {
+        // read the version before applying the lookup so that a result computed concurrently with a registry change is never served as current
+        final long version = modCount.get();
+        final IndexEntry indexEntry = lookupIndex.get(indexedLookup);
+        if (indexEntry != null && indexEntry.version == version) {
+            // the entry was put by this method for an equal lookup, which yields results of the same type
+            @SuppressWarnings("unchecked") final R result = (R) indexEntry.result;
+            return result;
+        }
+
+        final R result = indexedLookup.apply(registryView);
+        lookupIndex.put(indexedLookup, new IndexEntry(version, result));
+
+        return result;
+    }
+
+    private void invalidateLookupIndex() {
+        modCount.incrementAndGet();
+        lookupIndex.clear();
     }
 
     @Override
@@ -241,4 +275,14 @@ public class DefaultRegistry implements Registry {
     public ClassLoader getClassLoader() {
         return classLoader;
     }
+
+    private static final class IndexEntry {
+        private final long version;
+        private final Object result;
+
+        private IndexEntry(long version, Object result) {
+            this.version = version;
+            this.result = result;
+        }
+    }
 }
@@ -44,6 +44,7 @@ package org.smooks.engine.delivery;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.smooks.FlushPolicy;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.Registry;
 import org.smooks.api.delivery.ContentDeliveryConfig;
@@ -57,9 +58,11 @@ import org.smooks.api.resource.config.ResourceConfig;
 import org.smooks.api.resource.config.ResourceConfigSortComparator;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.engine.lookup.ContentHandlerFactoryLookup;
+import org.smooks.engine.resource.config.GlobalParameters;
 import org.smooks.engine.resource.config.ParameterAccessor;
 import org.smooks.engine.resource.config.xpath.IndexedSelectorPath;
 import org.smooks.engine.resource.config.xpath.step.DocumentSelectorStep;
+import org.smooks.io.SinkWriter;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -97,9 +100,13 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
     private final Set<PreExecutionLifecycle> preExecutionLifecycles = new LinkedHashSet<>();
     private final Set<PostExecutionLifecycle> postExecutionLifecycles = new LinkedHashSet<>();
 
+    private volatile GlobalParameters globalParameters;
     private Boolean isDefaultSerializationOn;
     private Boolean closeSource;
     private Boolean closeSink;
+    private Long readerPoolBorrowTimeout;
+    private FlushPolicy streamSinkFlushPolicy;
+    private Integer streamSinkBufferSize;
 
     public void setRegistry(Registry registry) {
         this.registry = registry;
@@ -135,6 +142,34 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
         return resourceConfigTable;
     }
 
+    /**
+     * Get the snapshot of the global parameters targeted at this config.
+     * <p/>
+     * The snapshot is built on first use and rebuilt after {@link #reloadGlobalParameters()} or
+     * {@link ParameterAccessor#reloadGlobalParameters()}.
+     *
+     * @return The global parameters.
+     */
+    public GlobalParameters getGlobalParameters() {
+        GlobalParameters currentGlobalParameters = globalParameters;
+        // read the generation before building so that a concurrent reload is never lost
+        long generation = ParameterAccessor.getGlobalParametersGeneration();
+        if (currentGlobalParameters == null || currentGlobalParameters.getGeneration() != generation) {
+            currentGlobalParameters = new GlobalParameters(getResourceConfigs(ParameterAccessor.GLOBAL_PARAMETERS), generation);
+            globalParameters = currentGlobalParameters;
+        }
+
+        return currentGlobalParameters;
+    }
+
+    /**
+     * Discard the global parameters snapshot, for instance after modifying a global parameters
+     * {@link ResourceConfig} in place.
+     */
+    public void reloadGlobalParameters() {
+        globalParameters = null;
+    }
+
     /**
      * Get a list {@link Object}s from the supplied {@link ResourceConfig} selector value.
      * <p/>
@@ -289,6 +324,45 @@ public abstract class AbstractContentDeliveryConfig implements ContentDeliveryCo
         return null;
     }
 
+    /**
+     * Gets how long to wait for a pooled reader to be returned when all the readers of a bounded pool are borrowed.
+     *
+     * @return the {@link Filter#READER_POOL_BORROW_TIMEOUT} in milliseconds, or 0 if callers do not wait
+     */
+    public long getReaderPoolBorrowTimeout() {
+        if (readerPoolBorrowTimeout == null) {
+            readerPoolBorrowTimeout = Long.parseLong(ParameterAccessor.getParameterValue(Filter.READER_POOL_BORROW_TIMEOUT, String.class, "0", this));
+        }
+
+        return readerPoolBorrowTimeout;
+    }
+
+    /**
+     * Gets when a {@link SinkWriter} flushes the {@link org.smooks.io.sink.StreamSink} it writes to.
+     *
+     * @return the {@link Filter#STREAM_SINK_FLUSH_POLICY}, {@link FlushPolicy#ELEMENT} by default
+     */
+    public FlushPolicy getStreamSinkFlushPolicy() {
+        if (streamSinkFlushPolicy == null) {
+            streamSinkFlushPolicy = FlushPolicy.fromValue(ParameterAccessor.getParameterValue(Filter.STREAM_SINK_FLUSH_POLICY, String.class, FlushPolicy.ELEMENT.toString(), this));
+        }
+
+        return streamSinkFlushPolicy;
+    }
+
+    /**
+     * Gets the size of the buffers of a {@link SinkWriter}.
+     *
+     * @return the {@link Filter#STREAM_SINK_BUFFER_SIZE}, {@link SinkWriter#DEFAULT_BUFFER_SIZE} by default
+     */
+    public int getStreamSinkBufferSize() {
+        if (streamSinkBufferSize == null) {
+            streamSinkBufferSize = Integer.parseInt(ParameterAccessor.getParameterValue(Filter.STREAM_SINK_BUFFER_SIZE, String.class, Integer.toString(SinkWriter.DEFAULT_BUFFER_SIZE), this));
+        }
+
+        return streamSinkBufferSize;
+    }
+
     protected boolean getCloseSource() {
         if (closeSource == null) {
             closeSource = Boolean.parseBoolean(ParameterAccessor.getParameterValue(Filter.CLOSE_SOURCE, String.class, "true", this));
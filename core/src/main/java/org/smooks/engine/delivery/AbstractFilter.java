@@ -44,15 +44,18 @@ package org.smooks.engine.delivery;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.smooks.FlushPolicy;
 import org.smooks.Smooks;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
+import org.smooks.api.delivery.ContentDeliveryConfig;
 import org.smooks.api.delivery.Filter;
 import org.smooks.api.io.Sink;
 import org.smooks.api.io.Source;
 import org.smooks.engine.resource.config.ParameterAccessor;
 import org.smooks.io.NullReader;
 import org.smooks.io.NullWriter;
+import org.smooks.io.SinkWriter;
 import org.smooks.io.Stream;
 import org.smooks.io.sink.DOMSink;
 import org.smooks.io.sink.StreamSink;
@@ -62,12 +65,13 @@ import org.smooks.io.source.StreamSource;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -130,14 +134,26 @@ public abstract class AbstractFilter implements Filter {
             StreamSink<?> streamSink = (StreamSink<?>) sink;
             OutputStream outputStream = streamSink.getOutputStream();
             if (outputStream != null) {
-                try {
-                    if (executionContext != null) {
-                        return new OutputStreamWriter(streamSink.getOutputStream(), executionContext.getContentEncoding());
+                if (executionContext != null) {
+                    final ContentDeliveryConfig contentDeliveryConfig = executionContext.getContentDeliveryRuntime().getContentDeliveryConfig();
+                    final FlushPolicy flushPolicy;
+                    final int bufferSize;
+                    if (contentDeliveryConfig instanceof AbstractContentDeliveryConfig) {
+                        flushPolicy = ((AbstractContentDeliveryConfig) contentDeliveryConfig).getStreamSinkFlushPolicy();
+                        bufferSize = ((AbstractContentDeliveryConfig) contentDeliveryConfig).getStreamSinkBufferSize();
                     } else {
-                        return new OutputStreamWriter(streamSink.getOutputStream(), StandardCharsets.UTF_8);
+                        flushPolicy = FlushPolicy.fromValue(ParameterAccessor.getParameterValue(Filter.STREAM_SINK_FLUSH_POLICY, String.class, FlushPolicy.ELEMENT.toString(), contentDeliveryConfig));
+                        bufferSize = Integer.parseInt(ParameterAccessor.getParameterValue(Filter.STREAM_SINK_BUFFER_SIZE, String.class, Integer.toString(SinkWriter.DEFAULT_BUFFER_SIZE), contentDeliveryConfig));
                     }
-                } catch (UnsupportedEncodingException e) {
-                    throw new SmooksException("Unable to encode output stream.", e);
+                    final Charset charset;
+                    try {
+                        charset = Charset.forName(executionContext.getContentEncoding());
+                    } catch (IllegalArgumentException e) {
+                        throw new SmooksException("Unable to encode output stream.", e);
+                    }
+                    return new SinkWriter(outputStream, charset, flushPolicy, bufferSize);
+                } else {
+                    return new SinkWriter(outputStream, StandardCharsets.UTF_8);
                 }
             } else {
                 throw new SmooksException(String.format("Invalid [%s]. No OutputStream instance.", sink.getClass().getName()));
@@ -154,6 +170,36 @@ public abstract class AbstractFilter implements Filter {
         }
     }
 
+    /**
+     * Flushes the writer at document end. A {@link SinkWriter} is finished, draining its buffers into the sink.
+     *
+     * @param writer the writer returned by {@link #getWriter(Sink, ExecutionContext)}
+     * @throws IOException if the writer fails to flush
+     */
+    protected void flush(final Writer writer) throws IOException {
+        if (writer instanceof SinkWriter) {
+            ((SinkWriter) writer).finish();
+        } else {
+            writer.flush();
+        }
+    }
+
+    /**
+     * Returns the buffers of a {@link SinkWriter} that was not finished, for example because filtering failed,
+     * after draining whatever output it still holds.
+     *
+     * @param writer the writer returned by {@link #getWriter(Sink, ExecutionContext)}, or <code>null</code>
+     */
+    protected void release(final Writer writer) {
+        if (writer instanceof SinkWriter && !((SinkWriter) writer).isFinished()) {
+            try {
+                ((SinkWriter) writer).finish();
+            } catch (Throwable throwable) {
+                LOGGER.debug("Failed to drain output stream buffer.", throwable);
+            }
+        }
+    }
+
     protected void close(Source source) {
         try {
             if (source instanceof StreamSource) {
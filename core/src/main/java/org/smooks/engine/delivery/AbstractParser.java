@@ -49,6 +49,8 @@ import org.smooks.api.SmooksConfigException;
 import org.smooks.api.SmooksException;
 import org.smooks.api.TypedKey;
 import org.smooks.api.delivery.ContentDeliveryConfig;
+import org.smooks.api.delivery.Filter;
+import org.smooks.api.delivery.ReaderPool;
 import org.smooks.api.io.Source;
 import org.smooks.api.lifecycle.LifecycleManager;
 import org.smooks.api.resource.config.Parameter;
@@ -59,6 +61,7 @@ import org.smooks.assertion.AssertArgument;
 import org.smooks.engine.injector.Scope;
 import org.smooks.engine.lifecycle.PostConstructLifecyclePhase;
 import org.smooks.engine.lookup.LifecycleManagerLookup;
+import org.smooks.engine.resource.config.ParameterAccessor;
 import org.smooks.engine.resource.reader.NullSourceXMLReader;
 import org.smooks.engine.resource.reader.XStreamXMLReader;
 import org.smooks.engine.xml.NamespaceManager;
@@ -88,12 +91,14 @@ import org.xml.sax.helpers.XMLReaderFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Stack;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Abstract Parser.
@@ -107,7 +112,7 @@ public class AbstractParser {
     public static final String FEATURE_OFF = "feature-off";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractParser.class);
-    private static final TypedKey<Stack<XMLReader>> XML_READER_STACK_TYPED_KEY = TypedKey.of();
+    private static final TypedKey<Stack<XMLReader>> XML_READER_STACK_TYPED_KEY = TypedKey.ofSlot();
 
     private final ExecutionContext executionContext;
     private final ResourceConfig saxDriverConfig;
@@ -259,6 +264,35 @@ public class AbstractParser {
         }
     }
 
+    /**
+     * Borrows an {@link XMLReader} from the reader pool, waiting up to the {@link Filter#READER_POOL_BORROW_TIMEOUT}
+     * (in milliseconds) for a reader to be returned when all the readers of a bounded pool are borrowed.
+     *
+     * @param readerPool       the pool to borrow the reader from
+     * @param executionContext the execution context of the filter
+     * @return the pooled reader, or <code>null</code> if the caller should create a new reader
+     * @throws InterruptedIOException if interrupted while waiting for a reader
+     */
+    protected XMLReader borrowXMLReader(final ReaderPool readerPool, final ExecutionContext executionContext) throws InterruptedIOException {
+        final ContentDeliveryConfig contentDeliveryConfig = executionContext.getContentDeliveryRuntime().getContentDeliveryConfig();
+        final long borrowTimeout;
+        if (contentDeliveryConfig instanceof AbstractContentDeliveryConfig) {
+            borrowTimeout = ((AbstractContentDeliveryConfig) contentDeliveryConfig).getReaderPoolBorrowTimeout();
+        } else {
+            borrowTimeout = Long.parseLong(ParameterAccessor.getParameterValue(Filter.READER_POOL_BORROW_TIMEOUT, String.class, "0", contentDeliveryConfig));
+        }
+        if (borrowTimeout > 0) {
+            try {
+                return readerPool.borrowXMLReader(borrowTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a pooled XMLReader");
+            }
+        } else {
+            return readerPool.borrowXMLReader();
+        }
+    }
+
     protected XMLReader createXMLReader() throws SAXException {
         XMLReader xmlReader;
         Source source = FilterSource.getSource(executionContext);
@@ -0,0 +1,278 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery;
+
+import org.smooks.api.delivery.ReaderPool;
+import org.xml.sax.XMLReader;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Base class for {@link ReaderPool}s keeping their readers in an array of slots.
+ * <p>
+ * A slot is either unallocated (<code>null</code>), holds an idle {@link XMLReader}, or is marked as borrowed. Borrowing
+ * and returning start scanning the slots from an index derived from the current thread so that threads tend to
+ * contend on different slots and to get back the reader they last returned. Neither operation allocates.
+ * <p>
+ * The pool keeps track of hits, misses, timeouts, discarded readers, and created readers. A miss is counted as a
+ * created reader since the caller creates a new reader when the pool is empty.
+ */
+public abstract class AbstractReaderPool implements ReaderPool {
+
+    protected static final Object BORROWED = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder discards = new LongAdder();
+    private final LongAdder createdReaders = new LongAdder();
+    private final AtomicInteger outstandingReaders = new AtomicInteger();
+    private final Object returnMonitor = new Object();
+    private volatile int waiters;
+
+    /**
+     * Gets the slots currently backing this pool.
+     *
+     * @return the slots of <code>this</code> pool
+     */
+    protected abstract AtomicReferenceArray<Object> getSlots();
+
+    /**
+     * Gets the number of readers this pool is expected to lend at most before callers wait for a reader to be
+     * returned.
+     *
+     * @return the maximum number of outstanding readers, or {@link Integer#MAX_VALUE} if callers never wait
+     */
+    protected abstract int getMaxOutstandingReaders();
+
+    /**
+     * Puts an idle reader in this pool.
+     *
+     * @param xmlReader the reader to pool
+     * @return <code>true</code> if the reader was pooled, otherwise <code>false</code> when the pool is full
+     */
+    protected boolean offer(final XMLReader xmlReader) {
+        return offer(getSlots(), xmlReader);
+    }
+
+    @Override
+    public XMLReader borrowXMLReader() {
+        final XMLReader xmlReader = poll(getSlots());
+        if (xmlReader == null) {
+            onMiss();
+        } else {
+            onHit();
+        }
+
+        return xmlReader;
+    }
+
+    @Override
+    public XMLReader borrowXMLReader(final long timeout, final TimeUnit timeUnit) throws InterruptedException {
+        XMLReader xmlReader = poll(getSlots());
+        if (xmlReader == null && timeout > 0 && outstandingReaders.get() >= getMaxOutstandingReaders()) {
+            final long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+            synchronized (returnMonitor) {
+                waiters++;
+                try {
+                    while ((xmlReader = poll(getSlots())) == null) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(returnMonitor, remaining);
+                    }
+                } finally {
+                    waiters--;
+                }
+            }
+            if (xmlReader == null) {
+                timeouts.increment();
+            }
+        }
+
+        if (xmlReader == null) {
+            onMiss();
+        } else {
+            onHit();
+        }
+
+        return xmlReader;
+    }
+
+    /**
+     * Return an {@link XMLReader} instance to the reader pool associated with this ContentDelivery config instance.
+     *
+     * @param xmlReader The XMLReader instance to be returned. If the pool is full, the instance is left to the GC (i.e. lost).
+     */
+    @Override
+    public void returnXMLReader(final XMLReader xmlReader) {
+        outstandingReaders.decrementAndGet();
+        if (offer(xmlReader)) {
+            if (waiters > 0) {
+                synchronized (returnMonitor) {
+                    returnMonitor.notify();
+                }
+            }
+        } else {
+            discards.increment();
+        }
+    }
+
+    /**
+     * Pre-populates this pool with new readers. No more readers are created once the pool is full.
+     *
+     * @param xmlReaderSupplier creates the readers to pool
+     * @param count             the number of readers to create
+     * @return the number of readers pooled, which is less than <code>count</code> when the pool is full
+     */
+    public int warmUp(final Supplier<? extends XMLReader> xmlReaderSupplier, final int count) {
+        int pooled = 0;
+        for (int i = 0; i < count; i++) {
+            if (isFull()) {
+                break;
+            }
+            final XMLReader xmlReader = xmlReaderSupplier.get();
+            createdReaders.increment();
+            if (!offer(xmlReader)) {
+                discards.increment();
+                break;
+            }
+            pooled++;
+        }
+
+        return pooled;
+    }
+
+    /**
+     * Whether every slot of this pool holds an idle reader, meaning a reader offered to this pool is discarded.
+     *
+     * @return <code>true</code> if this pool is full, otherwise <code>false</code>
+     */
+    protected boolean isFull() {
+        final AtomicReferenceArray<Object> slots = getSlots();
+        for (int i = 0; i < slots.length(); i++) {
+            if (!(slots.get(i) instanceof XMLReader)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        final AtomicReferenceArray<Object> slots = getSlots();
+        final Map<String, String> properties = new HashMap<>();
+        int unallocatedReaders = 0;
+        int activeReaders = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) == BORROWED) {
+                activeReaders++;
+            } else {
+                unallocatedReaders++;
+            }
+        }
+        properties.put("unallocatedReaders", String.valueOf(unallocatedReaders));
+        properties.put("activeReaders", String.valueOf(activeReaders));
+        properties.put("hits", String.valueOf(hits.sum()));
+        properties.put("misses", String.valueOf(misses.sum()));
+        properties.put("timeouts", String.valueOf(timeouts.sum()));
+        properties.put("discards", String.valueOf(discards.sum()));
+        properties.put("createdReaders", String.valueOf(createdReaders.sum()));
+
+        return properties;
+    }
+
+    private void onHit() {
+        hits.increment();
+        outstandingReaders.incrementAndGet();
+    }
+
+    private void onMiss() {
+        misses.increment();
+        createdReaders.increment();
+        outstandingReaders.incrementAndGet();
+    }
+
+    protected static XMLReader poll(final AtomicReferenceArray<Object> slots) {
+        final int length = slots.length();
+        final int start = homeIndex(length);
+        for (int i = 0; i < length; i++) {
+            final int index = (start + i) % length;
+            final Object slot = slots.get(index);
+            if (slot instanceof XMLReader && slots.compareAndSet(index, slot, BORROWED)) {
+                return (XMLReader) slot;
+            }
+        }
+
+        return null;
+    }
+
+    protected static boolean offer(final AtomicReferenceArray<Object> slots, final XMLReader xmlReader) {
+        final int length = slots.length();
+        final int start = homeIndex(length);
+        for (int i = 0; i < length; i++) {
+            final int index = (start + i) % length;
+            if (slots.compareAndSet(index, BORROWED, xmlReader) || slots.compareAndSet(index, null, xmlReader)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static int homeIndex(final int length) {
+        if (length == 0) {
+            return 0;
+        }
+        final long hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 33) % length);
+    }
+}
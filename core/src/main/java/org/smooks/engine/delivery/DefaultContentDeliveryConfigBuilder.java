@@ -82,6 +82,7 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -128,6 +129,8 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
     private final List<FilterProvider> filterProviders;
     private final LifecycleManager lifecycleManager;
 
+    private final Map<BuildPhase, Long> buildPhaseTimings = Collections.synchronizedMap(new EnumMap<>(BuildPhase.class));
+
     private volatile ContentDeliveryConfig contentDeliveryConfig;
 
     protected enum Event {
@@ -136,6 +139,17 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
         CONTENT_DELIVERY_CONFIG_CREATED
     }
 
+    /**
+     * Phases of a {@link #build(List)} which are timed.
+     */
+    public enum BuildPhase {
+        LOAD,
+        SORT,
+        CONTENT_HANDLER_CREATION,
+        LIFECYCLE,
+        FILTER_CONFIG
+    }
+
     /**
      * Private (hidden) constructor.
      *
@@ -163,11 +177,16 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
     @Override
     public ContentDeliveryConfig build(List<ContentHandlerBinding<Visitor>> extendedContentHandlerBindings) {
         if (contentDeliveryConfig == null) {
-            synchronized (DefaultContentDeliveryConfigBuilder.class) {
+            // only the registry reads and writes of a build are serialised with the other builders of the registry (see
+            // load and processExpansionConfigurations) so that the profiles of a Smooks instance build concurrently
+            synchronized (this) {
                 if (contentDeliveryConfig == null) {
+                    final long startTime = System.nanoTime();
                     load(profileSet);
-                    fireEvent(Event.CONTENT_DELIVERY_BUILDER_CREATED);
-                    contentDeliveryConfig = buildConfig(extendedContentHandlerBindings);
+                    timePhase(BuildPhase.LIFECYCLE, () -> fireEvent(Event.CONTENT_DELIVERY_BUILDER_CREATED));
+                    final ContentDeliveryConfig builtContentDeliveryConfig = buildConfig(extendedContentHandlerBindings);
+                    logBuildPhaseTimings(builtContentDeliveryConfig, System.nanoTime() - startTime);
+                    contentDeliveryConfig = builtContentDeliveryConfig;
                 }
             }
         }
@@ -175,6 +194,40 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
         return contentDeliveryConfig;
     }
 
+    /**
+     * Gets how long each phase of the build took.
+     *
+     * @return phase durations in nanoseconds, empty until the config is built
+     */
+    public Map<BuildPhase, Long> getBuildPhaseTimings() {
+        final Map<BuildPhase, Long> buildPhaseTimingsCopy = new EnumMap<>(BuildPhase.class);
+        synchronized (buildPhaseTimings) {
+            buildPhaseTimingsCopy.putAll(buildPhaseTimings);
+        }
+        return Collections.unmodifiableMap(buildPhaseTimingsCopy);
+    }
+
+    protected void timePhase(BuildPhase buildPhase, Runnable phase) {
+        final long startTime = System.nanoTime();
+        try {
+            phase.run();
+        } finally {
+            buildPhaseTimings.merge(buildPhase, System.nanoTime() - startTime, Long::sum);
+        }
+    }
+
+    protected void logBuildPhaseTimings(ContentDeliveryConfig builtContentDeliveryConfig, long buildTime) {
+        final StringBuilder message = new StringBuilder(String.format("Built content delivery config for profile [%s] in %.3f ms", profileSet.getBaseProfile(), buildTime / 1e6));
+        String separator = " (";
+        for (Entry<BuildPhase, Long> buildPhaseTiming : getBuildPhaseTimings().entrySet()) {
+            message.append(separator).append(buildPhaseTiming.getKey().name().toLowerCase().replace('_', ' ')).append(String.format(": %.3f ms", buildPhaseTiming.getValue() / 1e6));
+            separator = ", ";
+        }
+        message.append(')');
+        builtContentDeliveryConfig.getContentDeliveryConfigExecutionEvents().add(new DefaultContentDeliveryConfigExecutionEvent(message.toString()));
+        LOGGER.debug(message.toString());
+    }
+
     protected ContentDeliveryConfig buildConfig(List<ContentHandlerBinding<Visitor>> extendedContentHandlerBindings) {
         if (extendedContentHandlerBindings != null) {
             visitorBindings.addAll(extendedContentHandlerBindings);
@@ -185,8 +238,10 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
         configBuilderEvents.add(new DefaultContentDeliveryConfigExecutionEvent("SAX/DOM support characteristics of the Resource Configuration map:\n" + getResourceFilterCharacteristics()));
         configBuilderEvents.add(new DefaultContentDeliveryConfigExecutionEvent(String.format("Activating %s filter", filterProvider.getName())));
 
+        final long startTime = System.nanoTime();
         ContentDeliveryConfig contentDeliveryConfig = filterProvider.createContentDeliveryConfig(visitorBindings, registry, resourceConfigTable, configBuilderEvents);
-        fireEvent(Event.CONTENT_DELIVERY_CONFIG_CREATED);
+        buildPhaseTimings.merge(BuildPhase.FILTER_CONFIG, System.nanoTime() - startTime, Long::sum);
+        timePhase(BuildPhase.LIFECYCLE, () -> fireEvent(Event.CONTENT_DELIVERY_CONFIG_CREATED));
 
         return contentDeliveryConfig;
     }
@@ -256,18 +311,23 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
      * for the specified device.
      */
     protected void load(ProfileSet profileSet) {
-        resourceConfigs.clear();
-        resourceConfigs.addAll(Arrays.asList(registry.lookup(new ResourceConfigsProfileSetLookup(registry, profileSet))));
+        timePhase(BuildPhase.LOAD, () -> {
+            resourceConfigs.clear();
+            // other builders of the registry may be adding expansion configurations to its resource config sequences
+            synchronized (registry) {
+                resourceConfigs.addAll(Arrays.asList(registry.lookup(new ResourceConfigsProfileSetLookup(registry, profileSet))));
+            }
 
-        // Build and sort the resourceConfigTable table - non-transforming elements.
-        buildResourceConfigTable(resourceConfigs);
-        sortResourceConfigs(resourceConfigTable, profileSet);
+            // Build and sort the resourceConfigTable table - non-transforming elements.
+            buildResourceConfigTable(resourceConfigs);
+        });
+        timePhase(BuildPhase.SORT, () -> sortResourceConfigs(resourceConfigTable, profileSet));
 
         // Extract the ContentDeliveryUnits and build the tables
-        extractContentHandlers();
+        timePhase(BuildPhase.CONTENT_HANDLER_CREATION, this::extractContentHandlers);
 
         // Tell all interested listeners that all the handlers have now been created.
-        fireEvent(Event.CONTENT_HANDLERS_CREATED);
+        timePhase(BuildPhase.LIFECYCLE, () -> fireEvent(Event.CONTENT_HANDLERS_CREATED));
 
         if (LOGGER.isDebugEnabled()) {
             logResourceConfig(profileSet);
@@ -531,7 +591,9 @@ public class DefaultContentDeliveryConfigBuilder implements ContentDeliveryConfi
          */
         private void processExpansionConfigurations(List<ResourceConfig> additionalConfigs) {
             for (final ResourceConfig resourceConfig : additionalConfigs) {
-                registry.registerResourceConfig(resourceConfig);
+                synchronized (registry) {
+                    registry.registerResourceConfig(resourceConfig);
+                }
                 // Try adding it as a ContentHandler instance...
                 if (!applyContentDeliveryUnitStrategy(resourceConfig)) {
                     // Else just add it to the main list...
@@ -58,14 +58,13 @@ import org.smooks.engine.delivery.sax.ng.SaxNgFilterProvider;
 import org.smooks.engine.lookup.GlobalParamsLookup;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultContentDeliveryRuntimeFactory implements ContentDeliveryRuntimeFactory {
-    private final Map<ContentDeliveryConfigBuilder, ReaderPool> readerPools = new HashMap<>();
-    private final Map<String, ContentDeliveryConfigBuilder> contentDeliveryConfigBuilders = new HashMap<>();
+    private final Map<ContentDeliveryConfigBuilder, ReaderPool> readerPools = new ConcurrentHashMap<>();
+    private final Map<String, ContentDeliveryConfigBuilder> contentDeliveryConfigBuilders = new ConcurrentHashMap<>();
     private final Registry registry;
     private final ReaderPoolFactory readerPoolFactory;
 
@@ -76,19 +75,12 @@ public class DefaultContentDeliveryRuntimeFactory implements ContentDeliveryRunt
 
     @Override
     public ContentDeliveryRuntime create(final ProfileSet profileSet, final List<ContentHandlerBinding<Visitor>> extendedContentHandlerBindings) {
-        ContentDeliveryConfigBuilder contentDeliveryConfigBuilder = contentDeliveryConfigBuilders.get(profileSet.getBaseProfile());
-        if (contentDeliveryConfigBuilder == null) {
-            synchronized (this) {
-                if (contentDeliveryConfigBuilders.get(profileSet.getBaseProfile()) == null) {
-                    contentDeliveryConfigBuilder = new DefaultContentDeliveryConfigBuilder(profileSet, registry, Arrays.asList(new SaxNgFilterProvider(), new DOMFilterProvider()));
-                    final int readerPoolSize = Integer.parseInt(registry.lookup(new GlobalParamsLookup(registry)).getParameterValue(Filter.READER_POOL_SIZE, String.class, "0"));
-                    readerPools.put(contentDeliveryConfigBuilder, readerPoolFactory.create(readerPoolSize));
-                    contentDeliveryConfigBuilders.put(profileSet.getBaseProfile(), contentDeliveryConfigBuilder);
-                } else {
-                    contentDeliveryConfigBuilder = contentDeliveryConfigBuilders.get(profileSet.getBaseProfile());
-                }
-            }
-        }
+        final ContentDeliveryConfigBuilder contentDeliveryConfigBuilder = contentDeliveryConfigBuilders.computeIfAbsent(profileSet.getBaseProfile(), baseProfile -> {
+            final ContentDeliveryConfigBuilder newContentDeliveryConfigBuilder = new DefaultContentDeliveryConfigBuilder(profileSet, registry, Arrays.asList(new SaxNgFilterProvider(), new DOMFilterProvider()));
+            final int readerPoolSize = Integer.parseInt(registry.lookup(new GlobalParamsLookup(registry)).getParameterValue(Filter.READER_POOL_SIZE, String.class, "0"));
+            readerPools.put(newContentDeliveryConfigBuilder, readerPoolFactory.create(readerPoolSize));
+            return newContentDeliveryConfigBuilder;
+        });
         return new DefaultContentDeliveryRuntime(readerPools.get(contentDeliveryConfigBuilder), contentDeliveryConfigBuilder.build(extendedContentHandlerBindings));
     }
 }
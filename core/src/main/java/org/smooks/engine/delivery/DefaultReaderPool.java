@@ -43,18 +43,16 @@
 package org.smooks.engine.delivery;
 
 import jakarta.annotation.Resource;
-import org.smooks.api.delivery.ReaderPool;
-import org.xml.sax.XMLReader;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Properties;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * A pool of readers with an upper bound. Readers returned to a full pool are discarded.
+ */
 @Resource(name = "DefaultReaderPool")
-public class DefaultReaderPool implements ReaderPool {
-    private final AtomicReferenceArray<Optional<XMLReader>> xmlReaderPool;
+public class DefaultReaderPool extends AbstractReaderPool {
+    private final AtomicReferenceArray<Object> xmlReaderPool;
     private final int maxReaderPoolSize;
 
     public DefaultReaderPool(final int maxReaderPoolSize) {
@@ -63,52 +61,19 @@ public class DefaultReaderPool implements ReaderPool {
     }
 
     @Override
-    public XMLReader borrowXMLReader() {
-        for (int i = 0; i < xmlReaderPool.length(); i++) {
-            Optional<XMLReader> xmlReader = xmlReaderPool.get(i);
-            if (xmlReader != null) {
-                xmlReader = xmlReaderPool.getAndSet(i, Optional.empty());
-                if (xmlReader.isPresent()) {
-                    return xmlReader.get();
-                }
-            }
-        }
-
-        return null;
+    protected AtomicReferenceArray<Object> getSlots() {
+        return xmlReaderPool;
     }
 
-    /**
-     * Return an {@link XMLReader} instance to the reader pool associated with this ContentDelivery config instance.
-     *
-     * @param xmlReader The XMLReader instance to be returned. If the pool is full, the instance is left to the GC (i.e. lost).
-     */
     @Override
-    public void returnXMLReader(XMLReader xmlReader) {
-        for (int i = 0; i < xmlReaderPool.length(); i++) {
-            Optional<XMLReader> optionalXMLReader = Optional.of(xmlReader);
-            if (xmlReaderPool.compareAndSet(i, Optional.empty(), optionalXMLReader) ||
-                    xmlReaderPool.compareAndSet(i, null, optionalXMLReader)) {
-                return;
-            }
-        }
+    protected int getMaxOutstandingReaders() {
+        return maxReaderPoolSize > 0 ? maxReaderPoolSize : Integer.MAX_VALUE;
     }
 
     @Override
     public Map<String, String> getProperties() {
-        Map<String, String> properties = new HashMap<>(3);
+        final Map<String, String> properties = super.getProperties();
         properties.put("maxReadersSize", String.valueOf(maxReaderPoolSize));
-        int unallocatedReaders = 0;
-        int activeReaders = 0;
-        for (int i = 0; i < xmlReaderPool.length(); i++) {
-            Optional<XMLReader> xmlReader = xmlReaderPool.get(i);
-            if (xmlReader == null || xmlReader.isPresent()) {
-                unallocatedReaders++;
-            } else {
-                activeReaders++;
-            }
-        }
-        properties.put("unallocatedReaders", String.valueOf(unallocatedReaders));
-        properties.put("activeReaders", String.valueOf(activeReaders));
 
         return properties;
     }
@@ -116,4 +81,4 @@ public class DefaultReaderPool implements ReaderPool {
     public int getMaxReaderPoolSize() {
         return maxReaderPoolSize;
     }
-}
\ No newline at end of file
+}
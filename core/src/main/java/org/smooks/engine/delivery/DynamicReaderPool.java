@@ -42,80 +42,81 @@
  */
 package org.smooks.engine.delivery;
 
-import org.smooks.api.delivery.ReaderPool;
 import org.xml.sax.XMLReader;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Properties;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * A pool of readers without an upper bound which means that it grows on-demand.
  */
-public class DynamicReaderPool implements ReaderPool {
-    private final AtomicReference<AtomicReferenceArray<Optional<XMLReader>>> xmlReaderPoolReference = new AtomicReference<>();
+public class DynamicReaderPool extends AbstractReaderPool {
+    private final AtomicReference<AtomicReferenceArray<Object>> xmlReaderPoolReference = new AtomicReference<>();
 
     public DynamicReaderPool() {
         xmlReaderPoolReference.set(new AtomicReferenceArray<>(16));
     }
 
     @Override
-    public XMLReader borrowXMLReader() {
-        final AtomicReferenceArray<Optional<XMLReader>> xmlReaderPool = xmlReaderPoolReference.get();
-        for (int i = 0; i < xmlReaderPool.length(); i++) {
-            Optional<XMLReader> xmlReader = xmlReaderPool.get(i);
-            if (xmlReader != null) {
-                xmlReader = xmlReaderPool.getAndSet(i, Optional.empty());
-                if (xmlReader.isPresent()) {
-                    return xmlReader.get();
-                }
-            }
-        }
+    protected AtomicReferenceArray<Object> getSlots() {
+        return xmlReaderPoolReference.get();
+    }
 
-        return null;
+    @Override
+    protected int getMaxOutstandingReaders() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected boolean isFull() {
+        return false;
     }
 
     /**
-     * Return an {@link XMLReader} instance to the reader pool associated with this ContentDelivery config instance.
-     *
-     * @param xmlReader The XMLReader instance to be returned. If the pool is full, the pool is re-sized to accommodate
-     *                  the new reader.
+     * Puts an idle reader in this pool. If the pool is full, the pool is re-sized to accommodate the new reader and
+     * the idle readers of the old pool are moved to the new pool.
      */
     @Override
-    public void returnXMLReader(final XMLReader xmlReader) {
-        final AtomicReferenceArray<Optional<XMLReader>> xmlReaderPool = xmlReaderPoolReference.get();
-        for (int i = 0; i < xmlReaderPool.length(); i++) {
-            Optional<XMLReader> optionalXMLReader = Optional.of(xmlReader);
-            if (xmlReaderPool.compareAndSet(i, Optional.empty(), optionalXMLReader) ||
-                    xmlReaderPool.compareAndSet(i, null, optionalXMLReader)) {
-                return;
+    protected boolean offer(final XMLReader xmlReader) {
+        while (true) {
+            final AtomicReferenceArray<Object> xmlReaderPool = xmlReaderPoolReference.get();
+            if (offer(xmlReader, xmlReaderPool)) {
+                return true;
             }
+            final AtomicReferenceArray<Object> newXMLReaderPool = new AtomicReferenceArray<>(xmlReaderPool.length() * 2);
+            if (xmlReaderPoolReference.compareAndSet(xmlReaderPool, newXMLReaderPool)) {
+                transfer(xmlReaderPool, newXMLReaderPool);
+            }
+        }
+    }
+
+    private boolean offer(final XMLReader xmlReader, final AtomicReferenceArray<Object> xmlReaderPool) {
+        if (!offer(xmlReaderPool, xmlReader)) {
+            return false;
+        }
+        final AtomicReferenceArray<Object> currentXMLReaderPool = xmlReaderPoolReference.get();
+        if (currentXMLReaderPool != xmlReaderPool) {
+            // the pool was re-sized while offering: move the reader to the new pool unless it was already moved or borrowed
+            transfer(xmlReaderPool, currentXMLReaderPool);
         }
 
-        xmlReaderPoolReference.compareAndSet(xmlReaderPool, new AtomicReferenceArray<>(xmlReaderPool.length() * 2));
-        returnXMLReader(xmlReader);
+        return true;
     }
 
-    @Override
-    public Map<String, String> getProperties() {
-        final AtomicReferenceArray<Optional<XMLReader>> xmlReaderPool = xmlReaderPoolReference.get();
-        Map<String, String> properties = new HashMap<>(3);
-        properties.put("readerPoolSize", String.valueOf(xmlReaderPool.length()));
-        int unallocatedReaders = 0;
-        int activeReaders = 0;
-        for (int i = 0; i < xmlReaderPool.length(); i++) {
-            Optional<XMLReader> xmlReader = xmlReaderPool.get(i);
-            if (xmlReader == null || xmlReader.isPresent()) {
-                unallocatedReaders++;
-            } else {
-                activeReaders++;
+    private void transfer(final AtomicReferenceArray<Object> fromXMLReaderPool, final AtomicReferenceArray<Object> toXMLReaderPool) {
+        for (int i = 0; i < fromXMLReaderPool.length(); i++) {
+            final Object slot = fromXMLReaderPool.get(i);
+            if (slot instanceof XMLReader && fromXMLReaderPool.compareAndSet(i, slot, null)) {
+                offer((XMLReader) slot);
             }
         }
-        properties.put("unallocatedReaders", String.valueOf(unallocatedReaders));
-        properties.put("activeReaders", String.valueOf(activeReaders));
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        final Map<String, String> properties = super.getProperties();
+        properties.put("readerPoolSize", String.valueOf(xmlReaderPoolReference.get().length()));
 
         return properties;
     }
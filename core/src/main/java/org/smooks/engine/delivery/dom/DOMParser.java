@@ -161,10 +161,12 @@ public class DOMParser extends AbstractParser {
             ReaderPool readerPool = executionContext.getContentDeliveryRuntime().getReaderPool();
 
             XMLReader domReader = getXMLReader(executionContext);
+            // only a reader borrowed from the pool, or created in its place, goes back to the pool
+            final boolean isPooledReader = domReader == null;
 
             try {
                 if (domReader == null) {
-                    domReader = readerPool.borrowXMLReader();
+                    domReader = borrowXMLReader(readerPool, executionContext);
                 }
                 if (domReader == null) {
                     domReader = createXMLReader();
@@ -191,7 +193,7 @@ public class DOMParser extends AbstractParser {
                         try {
                             detachXMLReader(executionContext);
                         } finally {
-                            if (domReader != null) {
+                            if (isPooledReader && domReader != null) {
                                 readerPool.returnXMLReader(domReader);
                             }
                         }
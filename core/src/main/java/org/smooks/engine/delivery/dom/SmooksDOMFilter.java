@@ -204,7 +204,7 @@ public class SmooksDOMFilter extends AbstractFilter {
      * request.  This is needed because Xerces doesn't allow "overwriting" of
      * the document root node.
      */
-    private static final TypedKey<Node> DELIVERY_NODE_REQUEST_KEY = TypedKey.of();
+    private static final TypedKey<Node> DELIVERY_NODE_REQUEST_KEY = TypedKey.ofSlot();
 
     private final Boolean closeSource;
     private final Boolean closeSink;
@@ -310,9 +310,11 @@ public class SmooksDOMFilter extends AbstractFilter {
 
                 try {
                     serialize(resultNode, writer);
-                    writer.flush();
+                    flush(writer);
                 } catch (IOException e) {
                     LOGGER.debug("Error writing result to output stream.", e);
+                } finally {
+                    release(writer);
                 }
             } else if (sink instanceof DOMSink) {
                 ((DOMSink) sink).setNode(resultNode);
@@ -52,18 +52,17 @@ import org.smooks.api.delivery.fragment.Fragment;
 import org.smooks.api.expression.ExecutionContextExpressionEvaluator;
 import org.smooks.engine.resource.config.xpath.IndexedSelectorPath;
 import org.smooks.engine.resource.config.xpath.JaxenPatternSelectorPath;
+import org.smooks.engine.resource.config.xpath.SelectorPathMatcher;
 import org.smooks.engine.resource.config.xpath.step.AttributeSelectorStep;
 import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.UserDataHandler;
 
 import javax.xml.XMLConstants;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Arrays;
 import java.util.Properties;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
 
 public class NodeFragment implements Fragment<Node> {
 
@@ -71,32 +70,129 @@ public class NodeFragment implements Fragment<Node> {
         @Override
         public void handle(final short operation, final String key, final Object data, final Node src, final Node dst) {
             dst.setUserData(key, data, this);
+            if (data instanceof FragmentState && dst.getNodeType() != Node.DOCUMENT_NODE && getDocument(dst) != getDocument(src)) {
+                // inheritable reservations taken through the copy are counted in the original's document
+                getFragmentState(getDocument(dst)).isHoldingCopies = true;
+            }
         }
     };
 
+    public static final String FRAGMENT_STATE_USER_DATA_KEY = "fragmentState";
+
+    /**
+     * @deprecated reservations are held in the {@link FragmentState} found under {@link #FRAGMENT_STATE_USER_DATA_KEY}
+     */
+    @Deprecated
     public static final String RESERVATIONS_USER_DATA_KEY = "reservations";
+
+    /**
+     * @deprecated the id is held in the {@link FragmentState} found under {@link #FRAGMENT_STATE_USER_DATA_KEY}: use
+     * {@link #getId()} instead
+     */
+    @Deprecated
     public static final String ID_USER_DATA_KEY = "id";
 
     private final Node node;
     private final boolean isReservationInheritable;
-    private String id;
-    private int hash;
+    private long id;
+    private String idAsString;
 
-    protected static class Reservation {
-        private final Object token;
-        private final boolean inheritable;
+    /**
+     * Identity and reservations of a node, attached to the node as user data the first time either is needed.
+     * <p>
+     * Reservations are kept in parallel arrays since a node rarely holds more than a couple of them. Inheritable
+     * reservations are not copied down to descendants: they are looked up on the ancestors when a descendant is
+     * reserved or released, and only when the owner document holds at least one inheritable reservation.
+     * <p>
+     * The state is shared by copies of the node so that a reservation taken through a copy, e.g., a node imported
+     * into a nested execution's document with {@link #importNode(Document, Node)}, is honoured on the original node
+     * as well. Inheritable reservations are always counted in the document of the original node, and a lookup
+     * reaching a copy carries on with the ancestors of the original.
+     */
+    public static class FragmentState {
+        private final long id;
+        private String idAsString;
+        // the node the state belongs to, set only once the node is imported into another document
+        private Node node;
+        private long[] reservationIds;
+        private Object[] reservationTokens;
+        private boolean[] inheritableReservations;
+        private int reservationCount;
+        private int documentInheritableReservationCount;
+        private boolean isHoldingCopies;
+
+        public FragmentState() {
+            this(Math.abs(ThreadLocalRandom.current().nextLong()));
+        }
 
-        Reservation(final Object token, final boolean inheritable) {
-            this.token = token;
-            this.inheritable = inheritable;
+        protected FragmentState(final long id) {
+            this.id = id;
         }
 
-        public Object getToken() {
-            return token;
+        public long getId() {
+            return id;
+        }
+
+        public String getIdAsString() {
+            if (idAsString == null) {
+                idAsString = String.valueOf(id);
+            }
+            return idAsString;
+        }
+
+        protected int indexOf(final long reservationId) {
+            for (int i = 0; i < reservationCount; i++) {
+                if (reservationIds[i] == reservationId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        protected int getDocumentInheritableReservationCount() {
+            return documentInheritableReservationCount;
+        }
+
+        protected void add(final long reservationId, final Object token, final boolean inheritable) {
+            if (reservationIds == null) {
+                reservationIds = new long[2];
+                reservationTokens = new Object[2];
+                inheritableReservations = new boolean[2];
+            } else if (reservationCount == reservationIds.length) {
+                reservationIds = Arrays.copyOf(reservationIds, reservationCount * 2);
+                reservationTokens = Arrays.copyOf(reservationTokens, reservationCount * 2);
+                inheritableReservations = Arrays.copyOf(inheritableReservations, reservationCount * 2);
+            }
+            reservationIds[reservationCount] = reservationId;
+            reservationTokens[reservationCount] = token;
+            inheritableReservations[reservationCount] = inheritable;
+            reservationCount++;
         }
 
-        public boolean isInheritable() {
-            return inheritable;
+        protected void remove(final int index) {
+            reservationCount--;
+            reservationIds[index] = reservationIds[reservationCount];
+            reservationTokens[index] = reservationTokens[reservationCount];
+            inheritableReservations[index] = inheritableReservations[reservationCount];
+            reservationTokens[reservationCount] = null;
+        }
+
+        /**
+         * Copies this state, leaving out the given reservation. The copy has the same id as this state.
+         *
+         * @param reservationId the reservation to leave out
+         * @return a detached copy of this state
+         */
+        public FragmentState copyWithout(final long reservationId) {
+            final FragmentState fragmentState = new FragmentState(id);
+            fragmentState.idAsString = idAsString;
+            fragmentState.node = node;
+            for (int i = 0; i < reservationCount; i++) {
+                if (reservationIds[i] != reservationId) {
+                    fragmentState.add(reservationIds[i], reservationTokens[i], inheritableReservations[i]);
+                }
+            }
+            return fragmentState;
         }
     }
 
@@ -107,31 +203,24 @@ public class NodeFragment implements Fragment<Node> {
     public NodeFragment(final Node node, final boolean isReservationInheritable) {
         this.node = node;
         this.isReservationInheritable = isReservationInheritable;
-
-        Map<Long, Reservation> reservations = (Map<Long, Reservation>) node.getUserData(RESERVATIONS_USER_DATA_KEY);
-        if (reservations == null) {
-            reservations = new HashMap<>();
-            node.setUserData(RESERVATIONS_USER_DATA_KEY, reservations, COPY_USER_DATA_HANDLER);
-        }
-
-        Node parentNode = node.getParentNode();
-        while (parentNode != null) {
-            final Map<Long, Reservation> parentNodeReservations = (Map<Long, Reservation>) parentNode.getUserData(RESERVATIONS_USER_DATA_KEY);
-            if (parentNodeReservations != null && !parentNodeReservations.isEmpty()) {
-                reservations.putAll(parentNodeReservations.entrySet().stream().filter(e -> e.getValue().isInheritable()).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
-            }
-            parentNode = parentNode.getParentNode();
-        }
     }
 
     @Override
     public String getId() {
-        if (id == null) {
-            id = (String) node.getUserData(ID_USER_DATA_KEY);
-            if (id == null) {
-                id = String.valueOf(Math.abs(ThreadLocalRandom.current().nextLong()));
-                node.setUserData(ID_USER_DATA_KEY, id, COPY_USER_DATA_HANDLER);
-            }
+        if (idAsString == null) {
+            final FragmentState fragmentState = getFragmentState(node);
+            id = fragmentState.getId();
+            idAsString = fragmentState.getIdAsString();
+        }
+        return idAsString;
+    }
+
+    /**
+     * @return the id of this fragment as a primitive, sparing the string conversion of {@link #getId()}
+     */
+    public long getPrimitiveId() {
+        if (idAsString == null) {
+            getId();
         }
         return id;
     }
@@ -143,23 +232,122 @@ public class NodeFragment implements Fragment<Node> {
 
     @Override
     public boolean reserve(final long id, final Object token) {
-        return ((Map<Long, Reservation>) node.getUserData(RESERVATIONS_USER_DATA_KEY)).
-                computeIfAbsent(id, key -> new Reservation(token, isReservationInheritable)).
-                getToken().equals(token);
+        final FragmentState fragmentState = getFragmentState(node);
+        final Object inheritedToken = getInheritedToken(id);
+        if (inheritedToken != null) {
+            return inheritedToken.equals(token);
+        }
+
+        final int index = fragmentState.indexOf(id);
+        if (index < 0) {
+            fragmentState.add(id, token, isReservationInheritable);
+            if (isReservationInheritable) {
+                getFragmentState(getOriginalDocument(fragmentState)).documentInheritableReservationCount++;
+            }
+            return true;
+        } else {
+            return fragmentState.reservationTokens[index].equals(token);
+        }
     }
 
     @Override
     public boolean release(final long id, final Object token) {
-        final Map<Long, Reservation> reservedTokens = (Map<Long, Reservation>) node.getUserData(RESERVATIONS_USER_DATA_KEY);
-        final Object reservedToken = reservedTokens.getOrDefault(id, new Reservation(token, isReservationInheritable)).getToken();
-        if (reservedToken.equals(token)) {
-            reservedTokens.remove(id);
+        final FragmentState fragmentState = getFragmentState(node);
+        final Object inheritedToken = getInheritedToken(id);
+        if (inheritedToken != null) {
+            return inheritedToken.equals(token);
+        }
+
+        final int index = fragmentState.indexOf(id);
+        if (index < 0) {
+            return true;
+        } else if (fragmentState.reservationTokens[index].equals(token)) {
+            if (fragmentState.inheritableReservations[index]) {
+                getFragmentState(getOriginalDocument(fragmentState)).documentInheritableReservationCount--;
+            }
+            fragmentState.remove(index);
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Looks up the token of an inheritable reservation held by an ancestor. The outermost ancestor wins. The lookup
+     * carries on with the ancestors of the original node when it reaches a copy imported from another document.
+     *
+     * @param id the reservation id
+     * @return the token or <code>null</code> when no ancestor holds an inheritable reservation with the given id
+     */
+    protected Object getInheritedToken(final long id) {
+        final FragmentState documentFragmentState = (FragmentState) getDocument(node).getUserData(FRAGMENT_STATE_USER_DATA_KEY);
+        if (documentFragmentState == null || (documentFragmentState.documentInheritableReservationCount <= 0 && !documentFragmentState.isHoldingCopies)) {
+            return null;
+        }
+
+        Object inheritedToken = null;
+        Node parentNode = getOriginal(node).getParentNode();
+        while (parentNode != null) {
+            final FragmentState parentFragmentState = (FragmentState) parentNode.getUserData(FRAGMENT_STATE_USER_DATA_KEY);
+            if (parentFragmentState != null) {
+                final int index = parentFragmentState.indexOf(id);
+                if (index >= 0 && parentFragmentState.inheritableReservations[index]) {
+                    inheritedToken = parentFragmentState.reservationTokens[index];
+                }
+            }
+            parentNode = getOriginal(parentNode).getParentNode();
+        }
+
+        return inheritedToken;
+    }
+
+    /**
+     * Imports a node, together with its descendants, into the given document. Unlike {@link Document#importNode(Node, boolean)},
+     * the copy shares the state of the node even when no fragment was reserved on the node yet, so that reservations
+     * taken through the copy are honoured on the node and reservations inherited by the node are inherited by the
+     * descendants of the copy.
+     *
+     * @param document the document to import the node into
+     * @param node     the node to import
+     * @return the copy of the node, owned by <code>document</code>
+     */
+    public static Node importNode(final Document document, final Node node) {
+        // only imported nodes point back to themselves from their state: the JDK DOM keeps user data in a weak map
+        // keyed by node which a strong reference from the value would defeat
+        getFragmentState(node).node = node;
+        return document.importNode(node, true);
+    }
+
+    /**
+     * @return the node from which the given node was imported, or the node itself when it is not a copy from another
+     * document
+     */
+    protected static Node getOriginal(final Node node) {
+        final FragmentState fragmentState = (FragmentState) node.getUserData(FRAGMENT_STATE_USER_DATA_KEY);
+        if (fragmentState == null || fragmentState.node == null || fragmentState.node == node || getDocument(fragmentState.node) == getDocument(node)) {
+            return node;
+        }
+        return fragmentState.node;
+    }
+
+    protected Node getOriginalDocument(final FragmentState fragmentState) {
+        return getDocument(fragmentState.node == null ? node : fragmentState.node);
+    }
+
+    protected static Node getDocument(final Node node) {
+        final Document ownerDocument = node.getOwnerDocument();
+        return ownerDocument == null ? node : ownerDocument;
+    }
+
+    protected static FragmentState getFragmentState(final Node node) {
+        FragmentState fragmentState = (FragmentState) node.getUserData(FRAGMENT_STATE_USER_DATA_KEY);
+        if (fragmentState == null) {
+            fragmentState = new FragmentState();
+            node.setUserData(FRAGMENT_STATE_USER_DATA_KEY, fragmentState, COPY_USER_DATA_HANDLER);
+        }
+        return fragmentState;
+    }
+
     @Override
     public boolean isMatch(final SelectorPath selectorPath, final ExecutionContext executionContext) {
         if (!assertConditionTrue(executionContext, selectorPath)) {
@@ -189,7 +377,7 @@ public class NodeFragment implements Fragment<Node> {
             return false;
         }
         for (int i = selectorPath.size() - 1; i >= 0; i--) {
-            if (!selectorPath.get(i).evaluate(new NodeFragment(nodeUnderTest), executionContext)) {
+            if (!selectorPath.get(i).evaluate(nodeUnderTest == this.node ? this : new NodeFragment(nodeUnderTest), executionContext)) {
                 return false;
             }
             if (nodeUnderTest.getNodeType() == Node.ATTRIBUTE_NODE) {
@@ -203,6 +391,11 @@ public class NodeFragment implements Fragment<Node> {
     }
 
     protected boolean isPatternMatch(final Node node, final SelectorPath selectorPath) throws JaxenException {
+        final SelectorPathMatcher selectorPathMatcher = ((JaxenPatternSelectorPath) selectorPath).getSelectorPathMatcher();
+        if (selectorPathMatcher != null) {
+            return selectorPathMatcher.matches(node);
+        }
+
         final SimpleNamespaceContext simpleNamespaceContext = new SimpleNamespaceContext();
         final Properties namespaces = selectorPath.getNamespaces();
         for (String namespacePrefix : namespaces.stringPropertyNames()) {
@@ -245,10 +438,7 @@ public class NodeFragment implements Fragment<Node> {
 
     @Override
     public int hashCode() {
-        if (hash == 0) {
-            hash = Objects.hash(getId());
-        }
-        return hash;
+        return Long.hashCode(getPrimitiveId());
     }
 
     @Override
@@ -259,6 +449,6 @@ public class NodeFragment implements Fragment<Node> {
         if (!(o instanceof NodeFragment)) {
             return false;
         }
-        return this.getId().equals(((NodeFragment) o).getId());
+        return getPrimitiveId() == ((NodeFragment) o).getPrimitiveId();
     }
 }
\ No newline at end of file
@@ -105,11 +105,15 @@ public class ExceptionInterceptor extends AbstractInterceptorVisitor implements
         try {
             intercept(invocation, invocationArgs);
         } catch (Throwable t) {
-            processVisitorException(t, exceptionMessage, executionContext, fragment, visitSequence, visitorBinding);
+            processVisitorException(t, exceptionMessage, executionContext, fragment, visitSequence, visitorBinding, terminateOnVisitorException);
         }
     }
 
-    private void processVisitorException(final Throwable t, final String exceptionMessage, final ExecutionContext executionContext, final Fragment<?> fragment, final VisitSequence visitSequence, final ContentHandlerBinding<Visitor> visitorBinding) {
+    /**
+     * Notifies the execution event listeners of the visitor failure, then either rethrows it or logs it, depending on
+     * <code>terminateOnVisitorException</code>. A {@link TerminateException} is always rethrown.
+     */
+    static void processVisitorException(final Throwable t, final String exceptionMessage, final ExecutionContext executionContext, final Fragment<?> fragment, final VisitSequence visitSequence, final ContentHandlerBinding<Visitor> visitorBinding, final boolean terminateOnVisitorException) {
         for (ExecutionEventListener executionEventListener : executionContext.getContentDeliveryRuntime().getExecutionEventListeners()) {
             executionEventListener.onEvent(new VisitExecutionEvent<>(fragment, visitorBinding, visitSequence, executionContext, t));
         }
@@ -0,0 +1,346 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.interceptor;
+
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.TypedKey;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.delivery.Filter;
+import org.smooks.api.delivery.event.ExecutionEventListener;
+import org.smooks.api.delivery.fragment.Fragment;
+import org.smooks.api.delivery.sax.StreamSinkWriter;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
+import org.smooks.api.lifecycle.PostFragmentLifecycle;
+import org.smooks.engine.delivery.event.ResourceTargetingExecutionEvent;
+import org.smooks.engine.delivery.event.VisitExecutionEvent;
+import org.smooks.engine.delivery.event.VisitSequence;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.delivery.interceptor.StreamSinkWriterInterceptor.StreamSinkWriterDelegateCharacterData;
+import org.smooks.engine.delivery.interceptor.StreamSinkWriterInterceptor.StreamSinkWriterDelegateElement;
+import org.smooks.engine.delivery.sax.ng.bridge.Bridge;
+import org.smooks.engine.delivery.sax.ng.bridge.BridgeInterceptor;
+import org.smooks.engine.lookup.GlobalParamsLookup;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Single interceptor standing in for a chain of the built-in interceptors.
+ * <p/>
+ * {@link InterceptorVisitorChainFactory} creates one per visitor binding when the configured interceptors are all
+ * built-in: {@link ExecutionEventInterceptor}, {@link TextConsumerInterceptor}, {@link StreamSinkWriterInterceptor},
+ * {@link ExceptionInterceptor} and, outermost, {@link StaticProxyInterceptor}, optionally wrapped in the
+ * {@link BridgeInterceptor} and {@link StaticProxyInterceptor} pair which nested Smooks instances append to the system
+ * interceptors. The features of those interceptors run in the same order as in the chain, but only the ones which apply to the
+ * visitor are switched on, and the visitor is called directly rather than through {@link Invocation}s. A visitor
+ * which is not a text consumer nor a stream sink writer costs one call inside a <code>try</code>/<code>catch</code>
+ * when no execution event listeners are registered.
+ */
+public class FusedInterceptorVisitor extends StaticProxyInterceptor {
+
+    protected final boolean isBridge;
+    protected final boolean isExecutionEventEmitter;
+    protected final boolean isExceptionHandler;
+    protected final boolean isTextConsumerInterceptor;
+    protected final boolean isStreamSinkWriterInterceptor;
+
+    protected boolean isTextConsumer;
+    protected boolean isStreamingTextConsumer;
+    protected boolean isStreamSinkWriter;
+    protected boolean terminateOnVisitorException;
+    protected String visitBeforeExceptionMessage;
+    protected String visitAfterExceptionMessage;
+    protected String visitChildTextExceptionMessage;
+    protected String visitChildElementExceptionMessage;
+
+    private BeforeVisitor beforeVisitor;
+    private AfterVisitor afterVisitor;
+    private ChildrenVisitor childrenVisitor;
+    private PostFragmentLifecycle postFragmentLifecycle;
+
+    public FusedInterceptorVisitor(final List<Class<? extends InterceptorVisitor>> interceptorVisitorClasses) {
+        isBridge = interceptorVisitorClasses.contains(BridgeInterceptor.class);
+        isExecutionEventEmitter = interceptorVisitorClasses.contains(ExecutionEventInterceptor.class);
+        isExceptionHandler = interceptorVisitorClasses.contains(ExceptionInterceptor.class);
+        isTextConsumerInterceptor = interceptorVisitorClasses.contains(TextConsumerInterceptor.class);
+        isStreamSinkWriterInterceptor = interceptorVisitorClasses.contains(StreamSinkWriterInterceptor.class);
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        final Visitor visitor = visitorBinding.getContentHandler();
+        beforeVisitor = visitor instanceof BeforeVisitor ? (BeforeVisitor) visitor : null;
+        afterVisitor = visitor instanceof AfterVisitor ? (AfterVisitor) visitor : null;
+        childrenVisitor = visitor instanceof ChildrenVisitor ? (ChildrenVisitor) visitor : null;
+        postFragmentLifecycle = visitor instanceof PostFragmentLifecycle ? (PostFragmentLifecycle) visitor : null;
+
+        isTextConsumer = isTextConsumerInterceptor && TextConsumerInterceptor.isTextConsumer(visitorBinding);
+        isStreamingTextConsumer = isTextConsumer && TextConsumerInterceptor.isStreamingTextConsumer(visitorBinding);
+        isStreamSinkWriter = isStreamSinkWriterInterceptor && visitor.getClass().isAnnotationPresent(StreamSinkWriter.class);
+        if (isExceptionHandler) {
+            terminateOnVisitorException = Boolean.parseBoolean(applicationContext.getRegistry().lookup(new GlobalParamsLookup(applicationContext.getRegistry())).getParameterValue(Filter.TERMINATE_ON_VISITOR_EXCEPTION, String.class, "true"));
+            visitBeforeExceptionMessage = String.format("Error in %s while processing visitBefore SAX NG event", visitor.getClass().getName());
+            visitAfterExceptionMessage = String.format("Error in %s while processing visitAfter SAX NG event", visitor.getClass().getName());
+            visitChildTextExceptionMessage = String.format("Error in %s while processing visitChildText SAX NG event", visitor.getClass().getName());
+            visitChildElementExceptionMessage = String.format("Error in %s while processing visitChildElement SAX NG event", visitor.getClass().getName());
+        }
+    }
+
+    @Override
+    public ContentHandlerBinding<Visitor> getTarget() {
+        return visitorBinding;
+    }
+
+    @Override
+    public void visitBefore(final Element element, final ExecutionContext executionContext) {
+        if (isBridge) {
+            if (Bridge.isBridge(element)) {
+                if (isBridgeVisit(element, "visitBefore", executionContext)) {
+                    exceptionVisitBefore(executionContext.get(TypedKey.of(element.getAttribute("source"))), executionContext);
+                }
+            } else if (new NodeFragment(element).isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+                exceptionVisitBefore(element, executionContext);
+            }
+        } else {
+            exceptionVisitBefore(element, executionContext);
+        }
+    }
+
+    @Override
+    public void visitAfter(final Element element, final ExecutionContext executionContext) {
+        if (isBridge) {
+            if (Bridge.isBridge(element)) {
+                if (isBridgeVisit(element, "visitChildText", executionContext) || isBridgeVisit(element, "visitAfter", executionContext)) {
+                    if (element.getAttribute("visit").equals("visitChildText")) {
+                        visitChildText(executionContext.get(TypedKey.of(element.getAttribute("source"))), executionContext);
+                    } else {
+                        exceptionVisitAfter(executionContext.get(TypedKey.of(element.getAttribute("source"))), executionContext);
+                    }
+                }
+            } else if (new NodeFragment(element).isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+                exceptionVisitAfter(element, executionContext);
+            }
+        } else {
+            exceptionVisitAfter(element, executionContext);
+        }
+    }
+
+    @Override
+    public void visitChildText(final CharacterData characterData, final ExecutionContext executionContext) {
+        if (!isBridge || new NodeFragment(characterData.getParentNode()).isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
+            exceptionVisitChildText(characterData, executionContext);
+        }
+    }
+
+    @Override
+    public void visitChildElement(final Element childElement, final ExecutionContext executionContext) {
+        if (isExceptionHandler) {
+            try {
+                streamVisitChildElement(childElement, executionContext);
+            } catch (Throwable t) {
+                ExceptionInterceptor.processVisitorException(t, visitChildElementExceptionMessage, executionContext, new NodeFragment(childElement.getParentNode()), VisitSequence.AFTER, visitorBinding, terminateOnVisitorException);
+            }
+        } else {
+            streamVisitChildElement(childElement, executionContext);
+        }
+    }
+
+    @Override
+    public void onPostFragment(final Fragment<?> fragment, final ExecutionContext executionContext) {
+        if (postFragmentLifecycle != null) {
+            postFragmentLifecycle.onPostFragment(fragment, executionContext);
+        }
+    }
+
+    protected void exceptionVisitBefore(final Element element, final ExecutionContext executionContext) {
+        if (isExceptionHandler) {
+            try {
+                streamVisitBefore(element, executionContext);
+            } catch (Throwable t) {
+                ExceptionInterceptor.processVisitorException(t, visitBeforeExceptionMessage, executionContext, new NodeFragment(element), VisitSequence.BEFORE, visitorBinding, terminateOnVisitorException);
+            }
+        } else {
+            streamVisitBefore(element, executionContext);
+        }
+    }
+
+    protected void exceptionVisitAfter(final Element element, final ExecutionContext executionContext) {
+        if (isExceptionHandler) {
+            try {
+                streamVisitAfter(element, executionContext);
+            } catch (Throwable t) {
+                ExceptionInterceptor.processVisitorException(t, visitAfterExceptionMessage, executionContext, new NodeFragment(element), VisitSequence.AFTER, visitorBinding, terminateOnVisitorException);
+            }
+        } else {
+            streamVisitAfter(element, executionContext);
+        }
+    }
+
+    protected void exceptionVisitChildText(final CharacterData characterData, final ExecutionContext executionContext) {
+        if (isExceptionHandler) {
+            try {
+                streamVisitChildText(characterData, executionContext);
+            } catch (Throwable t) {
+                ExceptionInterceptor.processVisitorException(t, visitChildTextExceptionMessage, executionContext, new NodeFragment(characterData), VisitSequence.AFTER, visitorBinding, terminateOnVisitorException);
+            }
+        } else {
+            streamVisitChildText(characterData, executionContext);
+        }
+    }
+
+    protected void streamVisitBefore(final Element element, final ExecutionContext executionContext) {
+        if (isStreamSinkWriter) {
+            final StreamSinkWriterDelegateElement streamSinkWriterDelegateElement = new StreamSinkWriterDelegateElement(element);
+            StreamSinkWriterInterceptor.visitWithFragmentWriter(this, streamSinkWriterDelegateElement, executionContext, () -> eventVisitBefore(streamSinkWriterDelegateElement, executionContext));
+        } else {
+            eventVisitBefore(element, executionContext);
+        }
+    }
+
+    protected void streamVisitAfter(final Element element, final ExecutionContext executionContext) {
+        if (isStreamSinkWriter) {
+            final StreamSinkWriterDelegateElement streamSinkWriterDelegateElement = new StreamSinkWriterDelegateElement(element);
+            StreamSinkWriterInterceptor.visitWithFragmentWriter(this, streamSinkWriterDelegateElement, executionContext, () -> textVisitAfter(streamSinkWriterDelegateElement, executionContext));
+        } else {
+            textVisitAfter(element, executionContext);
+        }
+    }
+
+    protected void streamVisitChildText(final CharacterData characterData, final ExecutionContext executionContext) {
+        if (isStreamSinkWriter) {
+            final StreamSinkWriterDelegateCharacterData streamSinkWriterDelegateCharacterData = new StreamSinkWriterDelegateCharacterData(characterData);
+            StreamSinkWriterInterceptor.visitWithFragmentWriter(this, streamSinkWriterDelegateCharacterData, executionContext, () -> textVisitChildText(streamSinkWriterDelegateCharacterData, executionContext));
+        } else {
+            textVisitChildText(characterData, executionContext);
+        }
+    }
+
+    protected void streamVisitChildElement(final Element childElement, final ExecutionContext executionContext) {
+        if (isStreamSinkWriter) {
+            final StreamSinkWriterDelegateElement streamSinkWriterDelegateElement = new StreamSinkWriterDelegateElement(childElement);
+            StreamSinkWriterInterceptor.visitWithFragmentWriter(this, streamSinkWriterDelegateElement, executionContext, () -> eventVisitChildElement(streamSinkWriterDelegateElement, executionContext));
+        } else {
+            eventVisitChildElement(childElement, executionContext);
+        }
+    }
+
+    protected void textVisitAfter(final Element element, final ExecutionContext executionContext) {
+        if (isTextConsumer) {
+            TextConsumerInterceptor.visitAfterWithText(element, executionContext, isStreamingTextConsumer, () -> eventVisitAfter(element, executionContext));
+        } else {
+            eventVisitAfter(element, executionContext);
+        }
+    }
+
+    protected void textVisitChildText(final CharacterData characterData, final ExecutionContext executionContext) {
+        if (isTextConsumer) {
+            TextConsumerInterceptor.accumulateChildText(characterData, executionContext, this);
+        }
+        eventVisitChildText(characterData, executionContext);
+    }
+
+    protected void eventVisitBefore(final Element element, final ExecutionContext executionContext) {
+        if (isExecutionEventEmitter && beforeVisitor != null && !executionContext.getContentDeliveryRuntime().getExecutionEventListeners().isEmpty()) {
+            final NodeFragment nodeFragment = new NodeFragment(element);
+            for (ExecutionEventListener executionEventListener : executionContext.getContentDeliveryRuntime().getExecutionEventListeners()) {
+                executionEventListener.onEvent(new ResourceTargetingExecutionEvent<>(nodeFragment, visitorBinding.getResourceConfig(), VisitSequence.BEFORE));
+            }
+            beforeVisitor.visitBefore(element, executionContext);
+            onEvent(executionContext, element, VisitSequence.BEFORE);
+        } else if (beforeVisitor != null) {
+            beforeVisitor.visitBefore(element, executionContext);
+        }
+    }
+
+    protected void eventVisitAfter(final Element element, final ExecutionContext executionContext) {
+        if (afterVisitor != null) {
+            afterVisitor.visitAfter(element, executionContext);
+            onEvent(executionContext, element, VisitSequence.AFTER);
+        }
+    }
+
+    protected void eventVisitChildText(final CharacterData characterData, final ExecutionContext executionContext) {
+        if (childrenVisitor != null) {
+            childrenVisitor.visitChildText(characterData, executionContext);
+            onEvent(executionContext, characterData, VisitSequence.AFTER);
+        }
+    }
+
+    protected void eventVisitChildElement(final Element childElement, final ExecutionContext executionContext) {
+        if (childrenVisitor != null) {
+            childrenVisitor.visitChildElement(childElement, executionContext);
+            onEvent(executionContext, childElement.getParentNode(), VisitSequence.AFTER);
+        }
+    }
+
+    private boolean isBridgeVisit(final Element bridge, final String currentVisit, final ExecutionContext executionContext) {
+        if (bridge.getAttribute("visit").equals(currentVisit)) {
+            final Node sourceNode = executionContext.get(TypedKey.of(bridge.getAttribute("source")));
+            if (sourceNode instanceof CharacterData) {
+                return new NodeFragment(sourceNode.getParentNode()).isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext);
+            } else {
+                return new NodeFragment(sourceNode).isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext);
+            }
+        }
+        return false;
+    }
+
+    private void onEvent(final ExecutionContext executionContext, final Node node, final VisitSequence visitSequence) {
+        if (isExecutionEventEmitter) {
+            final List<ExecutionEventListener> executionEventListeners = executionContext.getContentDeliveryRuntime().getExecutionEventListeners();
+            if (!executionEventListeners.isEmpty()) {
+                final Fragment<Node> fragment = new NodeFragment(node);
+                for (ExecutionEventListener executionEventListener : executionEventListeners) {
+                    executionEventListener.onEvent(new VisitExecutionEvent<>(fragment, visitorBinding, visitSequence, executionContext));
+                }
+            }
+        }
+    }
+}
@@ -49,17 +49,22 @@ import org.smooks.api.resource.config.ResourceConfig;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
 import org.smooks.engine.delivery.DefaultContentHandlerBinding;
+import org.smooks.engine.delivery.sax.ng.bridge.BridgeInterceptor;
 import org.smooks.engine.injector.Scope;
 import org.smooks.engine.lifecycle.PostConstructLifecyclePhase;
 import org.smooks.engine.lookup.LifecycleManagerLookup;
 import org.smooks.engine.resource.config.DefaultResourceConfig;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class InterceptorVisitorChainFactory {
+    protected static final List<Class<? extends InterceptorVisitor>> FUSABLE_INTERCEPTOR_VISITOR_CLASSES = Collections.unmodifiableList(Arrays.asList(ExecutionEventInterceptor.class, TextConsumerInterceptor.class, StreamSinkWriterInterceptor.class, ExceptionInterceptor.class, StaticProxyInterceptor.class));
+
     protected final List<InterceptorVisitorDefinition> interceptorVisitorDefinitions = new ArrayList<>();
     protected final ApplicationContext applicationContext;
 
@@ -71,8 +76,13 @@ public class InterceptorVisitorChainFactory {
         if (interceptorVisitorDefinitions.isEmpty()) {
             return visitorBinding;
         } else {
+            final List<InterceptorVisitorDefinition> orderedInterceptorVisitorDefinitions = applyCustomFirstSystemLastOrder(interceptorVisitorDefinitions);
+            if (isFusable(orderedInterceptorVisitorDefinitions)) {
+                return createFusedInterceptor(visitorBinding, orderedInterceptorVisitorDefinitions);
+            }
+
             ContentHandlerBinding<Visitor> interceptedVisitorBinding = visitorBinding;
-            for (InterceptorVisitorDefinition interceptorVisitorDefinition : applyCustomFirstSystemLastOrder(interceptorVisitorDefinitions)) {
+            for (InterceptorVisitorDefinition interceptorVisitorDefinition : orderedInterceptorVisitorDefinitions) {
                 InterceptorVisitor interceptorVisitor;
                 try {
                     interceptorVisitor = interceptorVisitorDefinition.getInterceptorVisitorClass().newInstance();
@@ -80,19 +90,60 @@ public class InterceptorVisitorChainFactory {
                     throw new SmooksException(e.getMessage(), e);
                 }
                 interceptorVisitor.setVisitorBinding(interceptedVisitorBinding);
-
-                final ResourceConfig interceptorResourceConfig = new DefaultResourceConfig(visitorBinding.getResourceConfig());
-                if (!interceptorVisitorDefinition.getResourceConfig().getSelectorPath().getSelector().equals(ResourceConfig.SELECTOR_NONE)) {
-                    interceptorResourceConfig.setSelector(interceptorVisitorDefinition.getResourceConfig().getSelectorPath().getSelector(), interceptorResourceConfig.getSelectorPath().getNamespaces());
-                }
-                applicationContext.getRegistry().lookup(new LifecycleManagerLookup()).applyPhase(interceptorVisitor, new PostConstructLifecyclePhase(new Scope(applicationContext.getRegistry(), interceptorResourceConfig, interceptorVisitor)));
-                interceptedVisitorBinding = new DefaultContentHandlerBinding<>(interceptorVisitor, interceptorResourceConfig);
+                interceptedVisitorBinding = postConstruct(interceptorVisitor, visitorBinding, interceptorVisitorDefinition);
             }
 
             return interceptedVisitorBinding;
         }
     }
 
+    /**
+     * Whether the interceptors, innermost first, can be replaced with a single {@link FusedInterceptorVisitor}: they
+     * must all be built-in, each appearing at most once and in the order of {@link #FUSABLE_INTERCEPTOR_VISITOR_CLASSES},
+     * with the {@link StaticProxyInterceptor} outermost. The {@link BridgeInterceptor} and {@link StaticProxyInterceptor}
+     * pair of <code>nested-smooks-interceptors.xml</code> may follow them since the bridge is then outermost, which is
+     * where the fused visitor applies it. A bridge anywhere else leaves the chain unfused.
+     */
+    protected boolean isFusable(final List<InterceptorVisitorDefinition> orderedInterceptorVisitorDefinitions) {
+        int size = orderedInterceptorVisitorDefinitions.size();
+        final boolean isBridged = size >= 2 && orderedInterceptorVisitorDefinitions.get(size - 2).getInterceptorVisitorClass().equals(BridgeInterceptor.class) &&
+                orderedInterceptorVisitorDefinitions.get(size - 1).getInterceptorVisitorClass().equals(StaticProxyInterceptor.class);
+        if (isBridged) {
+            size -= 2;
+            if (size == 0) {
+                return true;
+            }
+        }
+
+        int lastIndex = -1;
+        for (InterceptorVisitorDefinition interceptorVisitorDefinition : orderedInterceptorVisitorDefinitions.subList(0, size)) {
+            final int index = FUSABLE_INTERCEPTOR_VISITOR_CLASSES.indexOf(interceptorVisitorDefinition.getInterceptorVisitorClass());
+            if (index <= lastIndex) {
+                return false;
+            }
+            lastIndex = index;
+        }
+
+        return lastIndex == FUSABLE_INTERCEPTOR_VISITOR_CLASSES.size() - 1;
+    }
+
+    protected ContentHandlerBinding<Visitor> createFusedInterceptor(final ContentHandlerBinding<Visitor> visitorBinding, final List<InterceptorVisitorDefinition> orderedInterceptorVisitorDefinitions) {
+        final FusedInterceptorVisitor fusedInterceptorVisitor = new FusedInterceptorVisitor(orderedInterceptorVisitorDefinitions.stream().map(InterceptorVisitorDefinition::getInterceptorVisitorClass).collect(Collectors.toList()));
+        fusedInterceptorVisitor.setVisitorBinding(visitorBinding);
+
+        return postConstruct(fusedInterceptorVisitor, visitorBinding, orderedInterceptorVisitorDefinitions.get(orderedInterceptorVisitorDefinitions.size() - 1));
+    }
+
+    protected ContentHandlerBinding<Visitor> postConstruct(final InterceptorVisitor interceptorVisitor, final ContentHandlerBinding<Visitor> visitorBinding, final InterceptorVisitorDefinition interceptorVisitorDefinition) {
+        final ResourceConfig interceptorResourceConfig = new DefaultResourceConfig(visitorBinding.getResourceConfig());
+        if (!interceptorVisitorDefinition.getResourceConfig().getSelectorPath().getSelector().equals(ResourceConfig.SELECTOR_NONE)) {
+            interceptorResourceConfig.setSelector(interceptorVisitorDefinition.getResourceConfig().getSelectorPath().getSelector(), interceptorResourceConfig.getSelectorPath().getNamespaces());
+        }
+        applicationContext.getRegistry().lookup(new LifecycleManagerLookup()).applyPhase(interceptorVisitor, new PostConstructLifecyclePhase(new Scope(applicationContext.getRegistry(), interceptorResourceConfig, interceptorVisitor)));
+
+        return new DefaultContentHandlerBinding<>(interceptorVisitor, interceptorResourceConfig);
+    }
+
     protected List<InterceptorVisitorDefinition> applyCustomFirstSystemLastOrder(List<InterceptorVisitorDefinition> interceptorVisitorDefinitions) {
         List<InterceptorVisitorDefinition> systemInterceptorVisitorDefinitions = new ArrayList<>();
         List<InterceptorVisitorDefinition> nonSystemInterceptorVisitorDefinitions = new ArrayList<>();
@@ -58,8 +58,6 @@ import org.w3c.dom.*;
 import jakarta.annotation.PostConstruct;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 public class StreamSinkWriterInterceptor extends AbstractInterceptorVisitor implements ElementVisitor, DOMElementVisitor {
 
@@ -107,15 +105,23 @@ public class StreamSinkWriterInterceptor extends AbstractInterceptorVisitor impl
     }
 
     protected <T extends Visitor> void intercept(final Invocation<T> invocation, final StreamSinkWriterDelegateNode streamResultWriterDelegateNode, final ExecutionContext executionContext) {
+        visitWithFragmentWriter(this, streamResultWriterDelegateNode, executionContext, () -> super.intercept(invocation, streamResultWriterDelegateNode, executionContext));
+    }
+
+    /**
+     * Runs the visit with the execution context's stream writer swapped for a {@link FragmentWriter} exclusively
+     * reserving the node's fragment, kept across visits in a memento owned by <code>visitor</code>.
+     */
+    static void visitWithFragmentWriter(final Visitor visitor, final StreamSinkWriterDelegateNode streamResultWriterDelegateNode, final ExecutionContext executionContext, final Runnable visit) {
         final NodeFragment nodeFragment = new NodeFragment(streamResultWriterDelegateNode.getDelegateNode());
-        executionContext.getMementoCaretaker().stash(new SimpleVisitorMemento<>(nodeFragment, this, new FragmentWriter(executionContext, nodeFragment, false)), writerMemento -> {
+        executionContext.getMementoCaretaker().stash(new SimpleVisitorMemento<>(nodeFragment, visitor, new FragmentWriter(executionContext, nodeFragment, false)), writerMemento -> {
             try {
                 writerMemento.getState().park();
             } catch (IOException e) {
                 throw new SmooksException(e);
             }
             executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, writerMemento.getState());
-            super.intercept(invocation, streamResultWriterDelegateNode, executionContext);
+            visit.run();
             executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, writerMemento.getState().getDelegateWriter());
 
             return writerMemento;
@@ -312,10 +318,8 @@ public class StreamSinkWriterInterceptor extends AbstractInterceptorVisitor impl
         @Override
         public Object getUserData(String key) {
             final Object userData = node.getUserData(key);
-            if (NodeFragment.RESERVATIONS_USER_DATA_KEY.equals(key)) {
-                final Map<Long, Object> reservedTokens = new HashMap<>((Map<Long, Object>) userData);
-                reservedTokens.remove(FragmentWriter.RESERVED_WRITE_FRAGMENT_ID);
-                return reservedTokens;
+            if (NodeFragment.FRAGMENT_STATE_USER_DATA_KEY.equals(key) && userData != null) {
+                return ((NodeFragment.FragmentState) userData).copyWithout(FragmentWriter.RESERVED_WRITE_FRAGMENT_ID);
             } else {
                 return userData;
             }
@@ -45,7 +45,6 @@ package org.smooks.engine.delivery.interceptor;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
 import org.smooks.api.delivery.ContentHandlerBinding;
-import org.smooks.api.delivery.fragment.Fragment;
 import org.smooks.api.delivery.sax.TextConsumer;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.resource.visitor.dom.DOMElementVisitor;
@@ -54,6 +53,8 @@ import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
 import org.smooks.api.resource.visitor.sax.ng.ElementVisitor;
 import org.smooks.api.resource.visitor.sax.ng.ParameterizedVisitor;
 import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.delivery.sax.ng.AccumulatedText;
+import org.smooks.engine.delivery.sax.ng.TextAccumulator;
 import org.smooks.engine.memento.TextAccumulatorMemento;
 import org.smooks.engine.resource.config.xpath.IndexedSelectorPath;
 import org.smooks.engine.resource.config.xpath.step.ElementSelectorStep;
@@ -66,51 +67,89 @@ import jakarta.annotation.PostConstruct;
 public class TextConsumerInterceptor extends AbstractInterceptorVisitor implements ElementVisitor, DOMElementVisitor {
 
     protected boolean isTextConsumer;
+    protected boolean isStreamingTextConsumer;
 
     @PostConstruct
     public void postConstruct() {
-        final ContentHandlerBinding<Visitor> visitorBinding = getTarget();
+        isTextConsumer = isTextConsumer(getTarget());
+        isStreamingTextConsumer = isTextConsumer && isStreamingTextConsumer(getTarget());
+    }
+
+    /**
+     * Whether the visitor is handed the text accumulated from its element's children on <code>visitAfter</code>.
+     */
+    public static boolean isTextConsumer(final ContentHandlerBinding<Visitor> visitorBinding) {
         if (!(visitorBinding.getContentHandler() instanceof ParameterizedVisitor) || (((ParameterizedVisitor) visitorBinding.getContentHandler()).getMaxNodeDepth() == 1)) {
             if (visitorBinding.getContentHandler().getClass().isAnnotationPresent(TextConsumer.class)) {
-                isTextConsumer = true;
+                return true;
             } else if (visitorBinding.getContentHandler() instanceof AfterVisitor &&
                     visitorBinding.getResourceConfig().getSelectorPath() instanceof IndexedSelectorPath &&
                     ((IndexedSelectorPath) visitorBinding.getResourceConfig().getSelectorPath()).getTargetSelectorStep() instanceof ElementSelectorStep) {
-                isTextConsumer = ((ElementSelectorStep) ((IndexedSelectorPath) visitorBinding.getResourceConfig().getSelectorPath()).getTargetSelectorStep()).accessesText();
+                return ((ElementSelectorStep) ((IndexedSelectorPath) visitorBinding.getResourceConfig().getSelectorPath()).getTargetSelectorStep()).accessesText();
             } else {
-                isTextConsumer = false;
+                return false;
             }
         } else {
-            isTextConsumer = false;
+            return false;
         }
     }
 
-    @Override
-    public void visitBefore(final Element element, final ExecutionContext executionContext) throws SmooksException {
-        intercept(visitBeforeInvocation, element, executionContext);
+    /**
+     * Whether the visitor reads the accumulated text from the {@link TextAccumulator} instead of the element's text
+     * content.
+     */
+    public static boolean isStreamingTextConsumer(final ContentHandlerBinding<Visitor> visitorBinding) {
+        final TextConsumer textConsumer = visitorBinding.getContentHandler().getClass().getAnnotation(TextConsumer.class);
+        return textConsumer != null && textConsumer.streaming();
     }
 
-    @Override
-    public void visitAfter(final Element element, final ExecutionContext executionContext) throws SmooksException {
-        if (isTextConsumer) {
+    static void visitAfterWithText(final Element element, final ExecutionContext executionContext, final boolean isStreamingTextConsumer, final Runnable visitAfter) {
+        final TextAccumulator textAccumulator = executionContext.get(TextAccumulator.TEXT_ACCUMULATOR_TYPED_KEY);
+        if (textAccumulator != null) {
+            if (isStreamingTextConsumer) {
+                visitAfter.run();
+                return;
+            }
+            final AccumulatedText accumulatedText = textAccumulator.getSelectedText();
+            element.setTextContent(accumulatedText == null ? "" : accumulatedText.toString());
+        } else {
             final TextAccumulatorMemento textAccumulatorMemento = new TextAccumulatorMemento(new NodeFragment(element));
             executionContext.getMementoCaretaker().restore(textAccumulatorMemento);
             executionContext.getMementoCaretaker().capture(textAccumulatorMemento);
             element.setTextContent(textAccumulatorMemento.getText());
         }
-        intercept(visitAfterInvocation, element, executionContext);
+        visitAfter.run();
+        element.setTextContent("");
+    }
+
+    static void accumulateChildText(final CharacterData characterData, final ExecutionContext executionContext, final Object reservingVisitor) {
+        if (executionContext.get(TextAccumulator.TEXT_ACCUMULATOR_TYPED_KEY) == null) {
+            // the SAX NG content handler accumulates the text itself when it has a text accumulator
+            final NodeFragment parentNodeFragment = new NodeFragment(characterData.getParentNode());
+            if (parentNodeFragment.reserve(parentNodeFragment.getPrimitiveId(), reservingVisitor)) {
+                executionContext.getMementoCaretaker().stash(new TextAccumulatorMemento(parentNodeFragment), textAccumulatorMemento -> textAccumulatorMemento.accumulateText(characterData.getTextContent()));
+            }
+        }
+    }
+
+    @Override
+    public void visitBefore(final Element element, final ExecutionContext executionContext) throws SmooksException {
+        intercept(visitBeforeInvocation, element, executionContext);
+    }
+
+    @Override
+    public void visitAfter(final Element element, final ExecutionContext executionContext) throws SmooksException {
         if (isTextConsumer) {
-            element.setTextContent("");
+            visitAfterWithText(element, executionContext, isStreamingTextConsumer, () -> intercept(visitAfterInvocation, element, executionContext));
+        } else {
+            intercept(visitAfterInvocation, element, executionContext);
         }
     }
 
     @Override
     public void visitChildText(final CharacterData characterData, final ExecutionContext executionContext) throws SmooksException {
         if (isTextConsumer) {
-            final Fragment<Node> parentNodeFragment = new NodeFragment(characterData.getParentNode());
-            if (parentNodeFragment.reserve(Long.parseLong(parentNodeFragment.getId()), this)) {
-                executionContext.getMementoCaretaker().stash(new TextAccumulatorMemento(parentNodeFragment), textAccumulatorMemento -> textAccumulatorMemento.accumulateText(characterData.getTextContent()));
-            }
+            accumulateChildText(characterData, executionContext, this);
         }
         intercept(visitChildTextInvocation, characterData, executionContext);
     }
@@ -0,0 +1,266 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.CharArrayReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Text accumulated by {@link TextAccumulator} for an element.
+ * <p/>
+ * The text is appended in place to a growable buffer. Past the spill threshold, the buffer is moved to a temporary
+ * file and the text appended from then on is written to the file. The file holds UTF-16 code units so that the text
+ * can still be accessed at random through the {@link CharSequence} methods, although reading it through
+ * {@link #openReader()} is the efficient way to consume spilled text.
+ */
+public final class AccumulatedText implements CharSequence {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final int SPILL_WINDOW_CAPACITY = 4096;
+
+    private final int spillThreshold;
+    private char[] chars = new char[INITIAL_CAPACITY];
+    private int length;
+    private File spillFile;
+    private OutputStream spillOutputStream;
+    private RandomAccessFile spillRandomAccessFile;
+    private byte[] spillBytes;
+    private long spillLength;
+    private char[] spillWindow;
+    private long spillWindowStart;
+    private int spillWindowLength;
+
+    AccumulatedText(final int spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    void append(final char[] ch, final int start, final int count) throws IOException {
+        if (spillFile == null) {
+            if (spillThreshold > 0 && length + count > spillThreshold) {
+                spill();
+                writeToSpillFile(ch, start, count);
+            } else {
+                if (length + count > chars.length) {
+                    chars = Arrays.copyOf(chars, Math.max(length + count, chars.length * 2));
+                }
+                System.arraycopy(ch, start, chars, length, count);
+                length += count;
+            }
+        } else {
+            writeToSpillFile(ch, start, count);
+        }
+    }
+
+    /**
+     * Whether the text was moved to a temporary file.
+     *
+     * @return <code>true</code> if the text is held in a temporary file
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Opens a {@link Reader} streaming the text accumulated so far. The reader must be closed when spilled.
+     *
+     * @return a reader over the text
+     * @throws IOException if the spilled text cannot be read
+     */
+    public Reader openReader() throws IOException {
+        if (spillFile == null) {
+            return new CharArrayReader(chars, 0, length);
+        } else {
+            spillOutputStream.flush();
+            return new InputStreamReader(new BufferedInputStream(new FileInputStream(spillFile)), StandardCharsets.UTF_16BE);
+        }
+    }
+
+    @Override
+    public int length() {
+        if (spillFile == null) {
+            return length;
+        } else if (spillLength > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Accumulated text is too long to be accessed as a CharSequence: read it with openReader() instead");
+        } else {
+            return (int) spillLength;
+        }
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        if (spillFile == null) {
+            return chars[index];
+        } else {
+            if (index < spillWindowStart || index >= spillWindowStart + spillWindowLength) {
+                try {
+                    fillSpillWindow(index);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return spillWindow[(int) (index - spillWindowStart)];
+        }
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException(String.format("start %s, end %s", start, end));
+        }
+        if (spillFile == null) {
+            return new String(chars, start, end - start);
+        } else {
+            try {
+                final RandomAccessFile randomAccessFile = getSpillRandomAccessFile();
+                final byte[] bytes = new byte[(end - start) * 2];
+                randomAccessFile.seek((long) start * 2);
+                randomAccessFile.readFully(bytes);
+                return new String(bytes, StandardCharsets.UTF_16BE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (spillFile == null) {
+            return new String(chars, 0, length);
+        } else {
+            return subSequence(0, length()).toString();
+        }
+    }
+
+    void clear() {
+        length = 0;
+        if (chars.length > MAX_RETAINED_CAPACITY) {
+            chars = new char[INITIAL_CAPACITY];
+        }
+        if (spillFile != null) {
+            try {
+                spillOutputStream.close();
+                if (spillRandomAccessFile != null) {
+                    spillRandomAccessFile.close();
+                }
+            } catch (IOException ignored) {
+                // the file is deleted below anyway
+            } finally {
+                spillFile.delete();
+                spillFile = null;
+                spillOutputStream = null;
+                spillRandomAccessFile = null;
+                spillLength = 0;
+                spillWindow = null;
+                spillWindowStart = 0;
+                spillWindowLength = 0;
+            }
+        }
+    }
+
+    private void spill() throws IOException {
+        spillFile = File.createTempFile("smooks-text-", ".utf16");
+        spillOutputStream = new BufferedOutputStream(new FileOutputStream(spillFile));
+        final int inMemoryLength = length;
+        length = 0;
+        writeToSpillFile(chars, 0, inMemoryLength);
+        chars = new char[INITIAL_CAPACITY];
+    }
+
+    private void writeToSpillFile(final char[] ch, final int start, final int count) throws IOException {
+        if (spillBytes == null || spillBytes.length < count * 2) {
+            spillBytes = new byte[Math.max(count * 2, 8192)];
+        }
+        for (int i = 0; i < count; i++) {
+            final char c = ch[start + i];
+            spillBytes[i * 2] = (byte) (c >>> 8);
+            spillBytes[i * 2 + 1] = (byte) c;
+        }
+        spillOutputStream.write(spillBytes, 0, count * 2);
+        spillLength += count;
+    }
+
+    /**
+     * Reads the window of spilled text holding the char at <code>index</code> so that sequential
+     * {@link #charAt(int)} calls do not each seek in the file.
+     */
+    private void fillSpillWindow(final int index) throws IOException {
+        if (spillWindow == null) {
+            spillWindow = new char[SPILL_WINDOW_CAPACITY];
+        }
+        final RandomAccessFile randomAccessFile = getSpillRandomAccessFile();
+        spillWindowStart = index - (index % SPILL_WINDOW_CAPACITY);
+        spillWindowLength = (int) Math.min(SPILL_WINDOW_CAPACITY, spillLength - spillWindowStart);
+        if (spillBytes == null || spillBytes.length < spillWindowLength * 2) {
+            spillBytes = new byte[Math.max(spillWindowLength * 2, 8192)];
+        }
+        randomAccessFile.seek(spillWindowStart * 2);
+        randomAccessFile.readFully(spillBytes, 0, spillWindowLength * 2);
+        for (int i = 0; i < spillWindowLength; i++) {
+            spillWindow[i] = (char) (((spillBytes[i * 2] & 0xFF) << 8) | (spillBytes[i * 2 + 1] & 0xFF));
+        }
+    }
+
+    private RandomAccessFile getSpillRandomAccessFile() throws IOException {
+        spillOutputStream.flush();
+        if (spillRandomAccessFile == null) {
+            spillRandomAccessFile = new RandomAccessFile(spillFile, "r");
+        }
+        return spillRandomAccessFile;
+    }
+}
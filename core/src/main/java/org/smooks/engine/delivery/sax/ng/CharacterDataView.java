@@ -0,0 +1,541 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.w3c.dom.CDATASection;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Comment;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
+import org.w3c.dom.UserDataHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lightweight, reusable {@link CharacterData} handed to {@link org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor}s
+ * in place of a DOM text, CDATA section, or comment node.
+ * <p>
+ * The view is a {@link CharSequence} over the character buffer reported by the SAX parser: no <code>String</code> is
+ * created unless a visitor asks for one through {@link #getData()}, {@link #getTextContent()} or {@link #toString()},
+ * and the view is not attached to its parent. Data, name, type, parent, and user data accessors are answered by the
+ * view itself. Any other DOM operation, including a mutation, materialises the node, appends it to the (materialised)
+ * parent, and delegates to the materialised node from then on.
+ * <p>
+ * A view is only valid for the duration of the <code>characters</code> event it represents, after which it is
+ * {@link #clear() cleared} and reused by the {@link SaxNgContentHandler}. Visitors which need the text later must copy
+ * it.
+ */
+public abstract class CharacterDataView implements CharacterData, CharSequence {
+
+    private final Document ownerDocument;
+
+    private Node parentNode;
+    private char[] characters;
+    private int offset;
+    private int length;
+    private String data;
+    private Map<String, UserData> userData;
+    private CharacterData node;
+
+    private static final class UserData {
+        private final Object data;
+        private final UserDataHandler handler;
+
+        private UserData(final Object data, final UserDataHandler handler) {
+            this.data = data;
+            this.handler = handler;
+        }
+    }
+
+    protected CharacterDataView(final Document ownerDocument) {
+        this.ownerDocument = ownerDocument;
+    }
+
+    /**
+     * Points this view at a new run of characters.
+     *
+     * @param parentNode the node the character data would be appended to
+     * @param characters the parser's character buffer
+     * @param offset     the start offset of the run in <code>characters</code>
+     * @param length     the number of characters in the run
+     */
+    public void set(final Node parentNode, final char[] characters, final int offset, final int length) {
+        this.parentNode = parentNode;
+        this.characters = characters;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Releases every reference held by this view so that it can be reused.
+     */
+    public void clear() {
+        parentNode = null;
+        characters = null;
+        offset = 0;
+        length = 0;
+        data = null;
+        userData = null;
+        node = null;
+    }
+
+    public boolean isMaterialized() {
+        return node != null;
+    }
+
+    /**
+     * Removes the materialised node, if any, from its parent.
+     */
+    public void detach() {
+        if (node != null && node.getParentNode() != null) {
+            node.getParentNode().removeChild(node);
+        }
+    }
+
+    /**
+     * The parser buffer backing this view. Only the range starting at {@link #getOffset()} and spanning
+     * {@link #getLength()} characters belongs to the view.
+     *
+     * @return the character buffer, or <code>null</code> once the view has been materialised
+     */
+    public char[] getCharacters() {
+        return node == null ? characters : null;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Creates the DOM node this view stands for and appends it to the parent node, materialising the parent first
+     * when the parent is an {@link ElementView}.
+     *
+     * @return the materialised node
+     */
+    public CharacterData materialize() {
+        if (node == null) {
+            final CharacterData newNode = createNode(ownerDocument, getData());
+            if (userData != null) {
+                for (Map.Entry<String, UserData> userDataEntry : userData.entrySet()) {
+                    newNode.setUserData(userDataEntry.getKey(), userDataEntry.getValue().data, userDataEntry.getValue().handler);
+                }
+                userData = null;
+            }
+            if (parentNode instanceof ElementView) {
+                ((ElementView) parentNode).materialize().appendChild(newNode);
+            } else if (parentNode != null) {
+                parentNode.appendChild(newNode);
+            }
+            node = newNode;
+        }
+
+        return node;
+    }
+
+    protected abstract CharacterData createNode(Document ownerDocument, String data);
+
+    @Override
+    public int length() {
+        return node == null ? length : node.getLength();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (node != null) {
+            return node.getData().charAt(index);
+        }
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return characters[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return getData().subSequence(start, end);
+    }
+
+    @Override
+    public String getData() throws DOMException {
+        if (node != null) {
+            return node.getData();
+        }
+        if (data == null) {
+            data = new String(characters, offset, length);
+        }
+        return data;
+    }
+
+    @Override
+    public void setData(final String data) throws DOMException {
+        materialize().setData(data);
+    }
+
+    @Override
+    public int getLength() {
+        return length();
+    }
+
+    @Override
+    public String substringData(final int offset, final int count) throws DOMException {
+        if (node != null) {
+            return node.substringData(offset, count);
+        }
+        if (offset < 0 || offset > length || count < 0) {
+            throw new DOMException(DOMException.INDEX_SIZE_ERR, "Offset " + offset + " out of bounds");
+        }
+        return new String(characters, this.offset + offset, Math.min(count, length - offset));
+    }
+
+    @Override
+    public void appendData(final String arg) throws DOMException {
+        materialize().appendData(arg);
+    }
+
+    @Override
+    public void insertData(final int offset, final String arg) throws DOMException {
+        materialize().insertData(offset, arg);
+    }
+
+    @Override
+    public void deleteData(final int offset, final int count) throws DOMException {
+        materialize().deleteData(offset, count);
+    }
+
+    @Override
+    public void replaceData(final int offset, final int count, final String arg) throws DOMException {
+        materialize().replaceData(offset, count, arg);
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return getData();
+    }
+
+    @Override
+    public void setNodeValue(final String nodeValue) throws DOMException {
+        materialize().setNodeValue(nodeValue);
+    }
+
+    @Override
+    public Node getParentNode() {
+        return node == null ? parentNode : node.getParentNode();
+    }
+
+    @Override
+    public NodeList getChildNodes() {
+        return materialize().getChildNodes();
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return null;
+    }
+
+    @Override
+    public Node getLastChild() {
+        return null;
+    }
+
+    @Override
+    public Node getPreviousSibling() {
+        return materialize().getPreviousSibling();
+    }
+
+    @Override
+    public Node getNextSibling() {
+        return materialize().getNextSibling();
+    }
+
+    @Override
+    public NamedNodeMap getAttributes() {
+        return null;
+    }
+
+    @Override
+    public Document getOwnerDocument() {
+        return ownerDocument;
+    }
+
+    @Override
+    public Node insertBefore(final Node newChild, final Node refChild) throws DOMException {
+        return materialize().insertBefore(newChild, refChild);
+    }
+
+    @Override
+    public Node replaceChild(final Node newChild, final Node oldChild) throws DOMException {
+        return materialize().replaceChild(newChild, oldChild);
+    }
+
+    @Override
+    public Node removeChild(final Node oldChild) throws DOMException {
+        return materialize().removeChild(oldChild);
+    }
+
+    @Override
+    public Node appendChild(final Node newChild) throws DOMException {
+        return materialize().appendChild(newChild);
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return false;
+    }
+
+    @Override
+    public Node cloneNode(final boolean deep) {
+        return node == null ? createNode(ownerDocument, getData()) : node.cloneNode(deep);
+    }
+
+    @Override
+    public void normalize() {
+    }
+
+    @Override
+    public boolean isSupported(final String feature, final String version) {
+        return materialize().isSupported(feature, version);
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return null;
+    }
+
+    @Override
+    public String getPrefix() {
+        return null;
+    }
+
+    @Override
+    public void setPrefix(final String prefix) throws DOMException {
+    }
+
+    @Override
+    public String getLocalName() {
+        return null;
+    }
+
+    @Override
+    public boolean hasAttributes() {
+        return false;
+    }
+
+    @Override
+    public String getBaseURI() {
+        return materialize().getBaseURI();
+    }
+
+    @Override
+    public short compareDocumentPosition(final Node other) throws DOMException {
+        return materialize().compareDocumentPosition(other);
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+        return getData();
+    }
+
+    @Override
+    public void setTextContent(final String textContent) throws DOMException {
+        materialize().setTextContent(textContent);
+    }
+
+    @Override
+    public boolean isSameNode(final Node other) {
+        return this == other || (node != null && node.isSameNode(other));
+    }
+
+    @Override
+    public String lookupPrefix(final String namespaceURI) {
+        return materialize().lookupPrefix(namespaceURI);
+    }
+
+    @Override
+    public boolean isDefaultNamespace(final String namespaceURI) {
+        return materialize().isDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public String lookupNamespaceURI(final String prefix) {
+        return materialize().lookupNamespaceURI(prefix);
+    }
+
+    @Override
+    public boolean isEqualNode(final Node arg) {
+        return materialize().isEqualNode(arg);
+    }
+
+    @Override
+    public Object getFeature(final String feature, final String version) {
+        return materialize().getFeature(feature, version);
+    }
+
+    @Override
+    public Object setUserData(final String key, final Object data, final UserDataHandler handler) {
+        if (node != null) {
+            return node.setUserData(key, data, handler);
+        }
+        if (userData == null) {
+            userData = new HashMap<>();
+        }
+        final UserData previousUserData = data == null ? userData.remove(key) : userData.put(key, new UserData(data, handler));
+        return previousUserData == null ? null : previousUserData.data;
+    }
+
+    @Override
+    public Object getUserData(final String key) {
+        if (node != null) {
+            return node.getUserData(key);
+        }
+        if (userData == null) {
+            return null;
+        }
+        final UserData userDataEntry = userData.get(key);
+        return userDataEntry == null ? null : userDataEntry.data;
+    }
+
+    @Override
+    public String toString() {
+        return getData();
+    }
+
+    /**
+     * {@link Text} view.
+     */
+    public static class TextView extends CharacterDataView implements Text {
+
+        public TextView(final Document ownerDocument) {
+            super(ownerDocument);
+        }
+
+        @Override
+        protected CharacterData createNode(final Document ownerDocument, final String data) {
+            return ownerDocument.createTextNode(data);
+        }
+
+        @Override
+        public String getNodeName() {
+            return "#text";
+        }
+
+        @Override
+        public short getNodeType() {
+            return Node.TEXT_NODE;
+        }
+
+        @Override
+        public Text splitText(final int offset) throws DOMException {
+            return ((Text) materialize()).splitText(offset);
+        }
+
+        @Override
+        public boolean isElementContentWhitespace() {
+            return ((Text) materialize()).isElementContentWhitespace();
+        }
+
+        @Override
+        public String getWholeText() {
+            return isMaterialized() ? ((Text) materialize()).getWholeText() : getData();
+        }
+
+        @Override
+        public Text replaceWholeText(final String content) throws DOMException {
+            return ((Text) materialize()).replaceWholeText(content);
+        }
+    }
+
+    /**
+     * {@link CDATASection} view.
+     */
+    public static class CDATASectionView extends TextView implements CDATASection {
+
+        public CDATASectionView(final Document ownerDocument) {
+            super(ownerDocument);
+        }
+
+        @Override
+        protected CharacterData createNode(final Document ownerDocument, final String data) {
+            return ownerDocument.createCDATASection(data);
+        }
+
+        @Override
+        public String getNodeName() {
+            return "#cdata-section";
+        }
+
+        @Override
+        public short getNodeType() {
+            return Node.CDATA_SECTION_NODE;
+        }
+    }
+
+    /**
+     * {@link Comment} view.
+     */
+    public static class CommentView extends CharacterDataView implements Comment {
+
+        public CommentView(final Document ownerDocument) {
+            super(ownerDocument);
+        }
+
+        @Override
+        protected CharacterData createNode(final Document ownerDocument, final String data) {
+            return ownerDocument.createComment(data);
+        }
+
+        @Override
+        public String getNodeName() {
+            return "#comment";
+        }
+
+        @Override
+        public short getNodeType() {
+            return Node.COMMENT_NODE;
+        }
+    }
+}
@@ -43,6 +43,7 @@
 package org.smooks.engine.delivery.sax.ng;
 
 import org.smooks.api.delivery.sax.TextType;
+import org.smooks.engine.delivery.fragment.NodeFragment;
 
 class ContentHandlerState {
     private TextType textType = TextType.TEXT;
@@ -50,6 +51,12 @@ class ContentHandlerState {
     private boolean isNullProcessor;
     private SaxNgVisitorBindings visitorBindings;
     private int maxDepth = 1;
+    private int inheritedMaxDepth;
+    private int depth;
+    private ElementView elementView;
+    private NodeFragment nodeFragment;
+    private boolean isTextConsumed;
+    private boolean isTextContentConsumed;
 
     public ContentHandlerState getPreviousContentHandlerState() {
         return previousContentHandlerState;
@@ -61,6 +68,7 @@ class ContentHandlerState {
 
     public void setPreviousContentHandlerState(ContentHandlerState previousContentHandlerState) {
         this.previousContentHandlerState = previousContentHandlerState;
+        inheritedMaxDepth = previousContentHandlerState == null ? 0 : previousContentHandlerState.getEffectiveMaxDepth();
     }
 
     public void setNullProcessor(boolean nullProcessor) {
@@ -90,4 +98,65 @@ class ContentHandlerState {
     public void setMaxDepth(int maxDepth) {
         this.maxDepth = maxDepth;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the largest max depth of this state and the states it is nested in. The value is carried over from the
+     * previous state when {@link #setPreviousContentHandlerState(ContentHandlerState)} is called, so it does not walk
+     * the state chain.
+     */
+    public int getEffectiveMaxDepth() {
+        return Math.max(maxDepth, inheritedMaxDepth);
+    }
+
+    /**
+     * Gets the depth of this state's node as computed by {@link org.smooks.support.DomUtils#getDepth(org.w3c.dom.Node)},
+     * that is, its number of element ancestors.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public ElementView getElementView() {
+        return elementView;
+    }
+
+    public void setElementView(ElementView elementView) {
+        this.elementView = elementView;
+    }
+
+    public NodeFragment getNodeFragment() {
+        return nodeFragment;
+    }
+
+    public void setNodeFragment(NodeFragment nodeFragment) {
+        this.nodeFragment = nodeFragment;
+    }
+
+    /**
+     * Whether a text consumer selected for this state's element, as judged when the element was started, needs the
+     * element's text to be accumulated.
+     */
+    public boolean isTextConsumed() {
+        return isTextConsumed;
+    }
+
+    public void setTextConsumed(boolean textConsumed) {
+        isTextConsumed = textConsumed;
+    }
+
+    /**
+     * Whether a text consumer selected for this state's element reads the accumulated text from the element's text
+     * content as opposed to streaming it.
+     */
+    public boolean isTextContentConsumed() {
+        return isTextContentConsumed;
+    }
+
+    public void setTextContentConsumed(boolean textContentConsumed) {
+        isTextContentConsumed = textContentConsumed;
+    }
+}
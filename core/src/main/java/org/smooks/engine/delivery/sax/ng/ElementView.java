@@ -0,0 +1,548 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.TypeInfo;
+import org.w3c.dom.UserDataHandler;
+import org.xml.sax.Attributes;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lightweight, reusable {@link Element} handed to {@link org.smooks.api.delivery.sax.DomFree DOM-free} visitors in
+ * place of a DOM element.
+ * <p>
+ * The view holds references to the name and attribute strings reported by the SAX parser instead of copying them into
+ * a DOM node, and it is not attached to its parent. Name, namespace, attribute, text content, and user data accessors
+ * are answered by the view itself. Any other DOM operation materialises the element, together with any of its
+ * ancestors which are themselves views, into the owner document and delegates to the materialised element from then
+ * on.
+ * <p>
+ * A view is only valid until the end element event of the element it represents, after which it is
+ * {@link #clear() cleared} and recycled by the {@link SaxNgContentHandler}.
+ */
+public class ElementView implements Element {
+
+    private static final int INITIAL_ATTRIBUTE_CAPACITY = 8;
+
+    private final Document ownerDocument;
+
+    private Node parentNode;
+    private String namespaceURI;
+    private String localName;
+    private String prefix;
+    private String tagName;
+    private String textContent = "";
+    private int attributeCount;
+    private String[] attributeURIs = new String[INITIAL_ATTRIBUTE_CAPACITY];
+    private String[] attributeLocalNames = new String[INITIAL_ATTRIBUTE_CAPACITY];
+    private String[] attributeNames = new String[INITIAL_ATTRIBUTE_CAPACITY];
+    private String[] attributeValues = new String[INITIAL_ATTRIBUTE_CAPACITY];
+    private Map<String, UserData> userData;
+    private Element element;
+
+    private static final class UserData {
+        private final Object data;
+        private final UserDataHandler handler;
+
+        private UserData(final Object data, final UserDataHandler handler) {
+            this.data = data;
+            this.handler = handler;
+        }
+    }
+
+    public ElementView(final Document ownerDocument) {
+        this.ownerDocument = ownerDocument;
+    }
+
+    /**
+     * Points this view at a new element.
+     *
+     * @param parentNode the node the element would be appended to
+     * @param qName      the element's qualified name
+     * @param attributes the element's attributes as reported by the SAX parser
+     */
+    public void set(final Node parentNode, final QName qName, final Attributes attributes) {
+        this.parentNode = parentNode;
+        namespaceURI = XMLConstants.NULL_NS_URI.equals(qName.getNamespaceURI()) ? null : qName.getNamespaceURI();
+        localName = qName.getLocalPart();
+        prefix = XMLConstants.DEFAULT_NS_PREFIX.equals(qName.getPrefix()) ? null : qName.getPrefix();
+        tagName = prefix == null ? localName : prefix + ":" + localName;
+
+        final int length = attributes.getLength();
+        if (length > attributeValues.length) {
+            final int capacity = Math.max(length, attributeValues.length * 2);
+            attributeURIs = new String[capacity];
+            attributeLocalNames = new String[capacity];
+            attributeNames = new String[capacity];
+            attributeValues = new String[capacity];
+        }
+        for (int i = 0; i < length; i++) {
+            final String attributeURI = attributes.getURI(i);
+            if (XMLConstants.NULL_NS_URI.equals(attributeURI)) {
+                attributeURIs[i] = null;
+                attributeNames[i] = attributes.getLocalName(i);
+            } else {
+                attributeURIs[i] = attributeURI;
+                attributeNames[i] = attributes.getQName(i);
+            }
+            attributeLocalNames[i] = attributes.getLocalName(i);
+            attributeValues[i] = attributes.getValue(i);
+        }
+        attributeCount = length;
+    }
+
+    /**
+     * Releases every reference held by this view so that it can be recycled.
+     */
+    public void clear() {
+        Arrays.fill(attributeURIs, 0, attributeCount, null);
+        Arrays.fill(attributeLocalNames, 0, attributeCount, null);
+        Arrays.fill(attributeNames, 0, attributeCount, null);
+        Arrays.fill(attributeValues, 0, attributeCount, null);
+        attributeCount = 0;
+        parentNode = null;
+        namespaceURI = null;
+        localName = null;
+        prefix = null;
+        tagName = null;
+        textContent = "";
+        userData = null;
+        element = null;
+    }
+
+    public boolean isMaterialized() {
+        return element != null;
+    }
+
+    /**
+     * Removes the materialised element, if any, from its parent.
+     */
+    public void detach() {
+        if (element != null && element.getParentNode() != null) {
+            element.getParentNode().removeChild(element);
+        }
+    }
+
+    /**
+     * Creates the DOM element this view stands for and appends it to the parent node, materialising the parent first
+     * when the parent is itself a view.
+     *
+     * @return the materialised element
+     */
+    public Element materialize() {
+        if (element == null) {
+            final Element newElement = ownerDocument.createElementNS(namespaceURI, tagName);
+            for (int i = 0; i < attributeCount; i++) {
+                if (attributeURIs[i] == null) {
+                    newElement.setAttribute(attributeNames[i], attributeValues[i]);
+                } else {
+                    newElement.setAttributeNS(attributeURIs[i], attributeNames[i], attributeValues[i]);
+                }
+            }
+            if (!textContent.isEmpty()) {
+                newElement.setTextContent(textContent);
+            }
+            if (userData != null) {
+                for (Map.Entry<String, UserData> userDataEntry : userData.entrySet()) {
+                    newElement.setUserData(userDataEntry.getKey(), userDataEntry.getValue().data, userDataEntry.getValue().handler);
+                }
+                userData = null;
+            }
+            element = newElement;
+            parentNode.appendChild(newElement);
+        }
+
+        return element;
+    }
+
+    @Override
+    public String getTagName() {
+        return element == null ? tagName : element.getTagName();
+    }
+
+    @Override
+    public String getNodeName() {
+        return element == null ? tagName : element.getNodeName();
+    }
+
+    @Override
+    public String getNodeValue() throws DOMException {
+        return null;
+    }
+
+    @Override
+    public void setNodeValue(final String nodeValue) throws DOMException {
+
+    }
+
+    @Override
+    public short getNodeType() {
+        return Node.ELEMENT_NODE;
+    }
+
+    @Override
+    public Node getParentNode() {
+        return parentNode;
+    }
+
+    @Override
+    public Document getOwnerDocument() {
+        return ownerDocument;
+    }
+
+    @Override
+    public String getNamespaceURI() {
+        return element == null ? namespaceURI : element.getNamespaceURI();
+    }
+
+    @Override
+    public String getPrefix() {
+        return element == null ? prefix : element.getPrefix();
+    }
+
+    @Override
+    public String getLocalName() {
+        return element == null ? localName : element.getLocalName();
+    }
+
+    @Override
+    public boolean hasAttributes() {
+        return element == null ? attributeCount > 0 : element.hasAttributes();
+    }
+
+    @Override
+    public String getAttribute(final String name) {
+        if (element != null) {
+            return element.getAttribute(name);
+        }
+        final int index = indexOf(name);
+        return index == -1 ? "" : attributeValues[index];
+    }
+
+    @Override
+    public boolean hasAttribute(final String name) {
+        return element == null ? indexOf(name) != -1 : element.hasAttribute(name);
+    }
+
+    @Override
+    public String getAttributeNS(final String namespaceURI, final String localName) throws DOMException {
+        if (element != null) {
+            return element.getAttributeNS(namespaceURI, localName);
+        }
+        final int index = indexOf(namespaceURI, localName);
+        return index == -1 ? "" : attributeValues[index];
+    }
+
+    @Override
+    public boolean hasAttributeNS(final String namespaceURI, final String localName) throws DOMException {
+        return element == null ? indexOf(namespaceURI, localName) != -1 : element.hasAttributeNS(namespaceURI, localName);
+    }
+
+    @Override
+    public String getTextContent() throws DOMException {
+        return element == null ? textContent : element.getTextContent();
+    }
+
+    @Override
+    public void setTextContent(final String textContent) throws DOMException {
+        if (element == null) {
+            this.textContent = textContent == null ? "" : textContent;
+        } else {
+            element.setTextContent(textContent);
+        }
+    }
+
+    @Override
+    public Object getUserData(final String key) {
+        if (element != null) {
+            return element.getUserData(key);
+        }
+        if (userData == null) {
+            return null;
+        }
+        final UserData userDataEntry = userData.get(key);
+        return userDataEntry == null ? null : userDataEntry.data;
+    }
+
+    @Override
+    public Object setUserData(final String key, final Object data, final UserDataHandler handler) {
+        if (element != null) {
+            return element.setUserData(key, data, handler);
+        }
+        if (userData == null) {
+            userData = new HashMap<>();
+        }
+        final UserData previousUserData = data == null ? userData.remove(key) : userData.put(key, new UserData(data, handler));
+        return previousUserData == null ? null : previousUserData.data;
+    }
+
+    @Override
+    public boolean isSameNode(final Node other) {
+        return this == other || (element != null && element.isSameNode(other));
+    }
+
+    private int indexOf(final String name) {
+        for (int i = 0; i < attributeCount; i++) {
+            if (attributeNames[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(final String namespaceURI, final String localName) {
+        final String attributeURI = namespaceURI == null || namespaceURI.equals(XMLConstants.NULL_NS_URI) ? null : namespaceURI;
+        for (int i = 0; i < attributeCount; i++) {
+            if (attributeURI == null) {
+                if (attributeURIs[i] == null && attributeNames[i].equals(localName)) {
+                    return i;
+                }
+            } else if (attributeURI.equals(attributeURIs[i]) && attributeLocalNames[i].equals(localName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public NodeList getChildNodes() {
+        return materialize().getChildNodes();
+    }
+
+    @Override
+    public Node getFirstChild() {
+        return materialize().getFirstChild();
+    }
+
+    @Override
+    public Node getLastChild() {
+        return materialize().getLastChild();
+    }
+
+    @Override
+    public Node getPreviousSibling() {
+        return materialize().getPreviousSibling();
+    }
+
+    @Override
+    public Node getNextSibling() {
+        return materialize().getNextSibling();
+    }
+
+    @Override
+    public NamedNodeMap getAttributes() {
+        return materialize().getAttributes();
+    }
+
+    @Override
+    public Node insertBefore(final Node newChild, final Node refChild) throws DOMException {
+        return materialize().insertBefore(newChild, refChild);
+    }
+
+    @Override
+    public Node replaceChild(final Node newChild, final Node oldChild) throws DOMException {
+        return materialize().replaceChild(newChild, oldChild);
+    }
+
+    @Override
+    public Node removeChild(final Node oldChild) throws DOMException {
+        return materialize().removeChild(oldChild);
+    }
+
+    @Override
+    public Node appendChild(final Node newChild) throws DOMException {
+        return materialize().appendChild(newChild);
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return materialize().hasChildNodes();
+    }
+
+    @Override
+    public Node cloneNode(final boolean deep) {
+        return materialize().cloneNode(deep);
+    }
+
+    @Override
+    public void normalize() {
+        materialize().normalize();
+    }
+
+    @Override
+    public boolean isSupported(final String feature, final String version) {
+        return materialize().isSupported(feature, version);
+    }
+
+    @Override
+    public void setPrefix(final String prefix) throws DOMException {
+        materialize().setPrefix(prefix);
+    }
+
+    @Override
+    public String getBaseURI() {
+        return materialize().getBaseURI();
+    }
+
+    @Override
+    public short compareDocumentPosition(final Node other) throws DOMException {
+        return materialize().compareDocumentPosition(other);
+    }
+
+    @Override
+    public String lookupPrefix(final String namespaceURI) {
+        return materialize().lookupPrefix(namespaceURI);
+    }
+
+    @Override
+    public boolean isDefaultNamespace(final String namespaceURI) {
+        return materialize().isDefaultNamespace(namespaceURI);
+    }
+
+    @Override
+    public String lookupNamespaceURI(final String prefix) {
+        return materialize().lookupNamespaceURI(prefix);
+    }
+
+    @Override
+    public boolean isEqualNode(final Node arg) {
+        return materialize().isEqualNode(arg);
+    }
+
+    @Override
+    public Object getFeature(final String feature, final String version) {
+        return materialize().getFeature(feature, version);
+    }
+
+    @Override
+    public void setAttribute(final String name, final String value) throws DOMException {
+        materialize().setAttribute(name, value);
+    }
+
+    @Override
+    public void removeAttribute(final String name) throws DOMException {
+        materialize().removeAttribute(name);
+    }
+
+    @Override
+    public Attr getAttributeNode(final String name) {
+        return materialize().getAttributeNode(name);
+    }
+
+    @Override
+    public Attr setAttributeNode(final Attr newAttr) throws DOMException {
+        return materialize().setAttributeNode(newAttr);
+    }
+
+    @Override
+    public Attr removeAttributeNode(final Attr oldAttr) throws DOMException {
+        return materialize().removeAttributeNode(oldAttr);
+    }
+
+    @Override
+    public NodeList getElementsByTagName(final String name) {
+        return materialize().getElementsByTagName(name);
+    }
+
+    @Override
+    public void setAttributeNS(final String namespaceURI, final String qualifiedName, final String value) throws DOMException {
+        materialize().setAttributeNS(namespaceURI, qualifiedName, value);
+    }
+
+    @Override
+    public void removeAttributeNS(final String namespaceURI, final String localName) throws DOMException {
+        materialize().removeAttributeNS(namespaceURI, localName);
+    }
+
+    @Override
+    public Attr getAttributeNodeNS(final String namespaceURI, final String localName) throws DOMException {
+        return materialize().getAttributeNodeNS(namespaceURI, localName);
+    }
+
+    @Override
+    public Attr setAttributeNodeNS(final Attr newAttr) throws DOMException {
+        return materialize().setAttributeNodeNS(newAttr);
+    }
+
+    @Override
+    public NodeList getElementsByTagNameNS(final String namespaceURI, final String localName) throws DOMException {
+        return materialize().getElementsByTagNameNS(namespaceURI, localName);
+    }
+
+    @Override
+    public TypeInfo getSchemaTypeInfo() {
+        return materialize().getSchemaTypeInfo();
+    }
+
+    @Override
+    public void setIdAttribute(final String name, final boolean isId) throws DOMException {
+        materialize().setIdAttribute(name, isId);
+    }
+
+    @Override
+    public void setIdAttributeNS(final String namespaceURI, final String localName, final boolean isId) throws DOMException {
+        materialize().setIdAttributeNS(namespaceURI, localName, isId);
+    }
+
+    @Override
+    public void setIdAttributeNode(final Attr idAttr, final boolean isId) throws DOMException {
+        materialize().setIdAttributeNode(idAttr, isId);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + getNodeName() + ": null]";
+    }
+}
@@ -0,0 +1,104 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.TypedKey;
+import org.w3c.dom.Node;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Per-parse registry of callbacks run by {@link SaxNgContentHandler} when a given element ends.
+ * <p/>
+ * A visitor that needs to act on the end of an element other than the one it is bound to, such as the parent of the
+ * fragments it is visiting, registers a callback here instead of adding an
+ * {@link org.smooks.api.delivery.event.ExecutionEventListener}: registering a listener would switch the content handler
+ * off its listener-free fast paths for the whole parse. A callback runs once, before the <code>visitAfter</code>
+ * visitors of its element.
+ */
+public class EndElementCallbacks {
+
+    public static final TypedKey<EndElementCallbacks> END_ELEMENT_CALLBACKS_TYPED_KEY = TypedKey.ofSlot();
+
+    private final Map<Node, Runnable> callbacks = new IdentityHashMap<>();
+
+    /**
+     * Registers a callback to run when the given element ends, replacing any callback already registered for it.
+     *
+     * @param executionContext the execution context of the parse
+     * @param element          the element whose end triggers the callback
+     * @param callback         the callback to run
+     */
+    public static void register(final ExecutionContext executionContext, final Node element, final Runnable callback) {
+        EndElementCallbacks endElementCallbacks = executionContext.get(END_ELEMENT_CALLBACKS_TYPED_KEY);
+        if (endElementCallbacks == null) {
+            endElementCallbacks = new EndElementCallbacks();
+            executionContext.put(END_ELEMENT_CALLBACKS_TYPED_KEY, endElementCallbacks);
+        }
+        endElementCallbacks.callbacks.put(element, callback);
+    }
+
+    /**
+     * Removes the callback registered for the given element, if any.
+     *
+     * @param executionContext the execution context of the parse
+     * @param element          the element whose callback is removed
+     */
+    public static void unregister(final ExecutionContext executionContext, final Node element) {
+        final EndElementCallbacks endElementCallbacks = executionContext.get(END_ELEMENT_CALLBACKS_TYPED_KEY);
+        if (endElementCallbacks != null) {
+            endElementCallbacks.callbacks.remove(element);
+        }
+    }
+
+    void onEndElement(final Node element) {
+        if (!callbacks.isEmpty()) {
+            final Runnable callback = callbacks.remove(element);
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+}
@@ -46,9 +46,11 @@ import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksConfigException;
 import org.smooks.api.SmooksException;
 import org.smooks.api.delivery.ContentDeliveryConfig;
+import org.smooks.api.delivery.ContentHandler;
 import org.smooks.api.delivery.ContentHandlerBinding;
 import org.smooks.api.delivery.Filter;
 import org.smooks.api.delivery.FilterBypass;
+import org.smooks.api.resource.config.xpath.SelectorPath;
 import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
 import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
 import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
@@ -56,11 +58,13 @@ import org.smooks.engine.delivery.AbstractContentDeliveryConfig;
 import org.smooks.engine.delivery.ContentHandlerBindingIndex;
 import org.smooks.engine.delivery.ordering.Sorter;
 import org.smooks.engine.resource.config.ParameterAccessor;
+import org.smooks.engine.resource.config.xpath.JaxenPatternSelectorPath;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -78,6 +82,7 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
     private final ContentHandlerBindingIndex<AfterVisitor> afterVisitorIndex = new ContentHandlerBindingIndex<>();
     private volatile Map<String, SaxNgVisitorBindings> reducedIndex;
     private Integer maxNodeDepth;
+    private Integer textSpillThreshold;
     private Boolean rewriteEntities;
     private Boolean maintainElementStack;
     private Boolean reverseVisitOrderOnVisitAfter;
@@ -207,9 +212,24 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
             sort();
         }
 
+        compileSelectorPaths(beforeVisitorIndex.values());
+        compileSelectorPaths(childVisitorIndex.values());
+        compileSelectorPaths(afterVisitorIndex.values());
+
         return reducedIndex;
     }
 
+    protected <T extends ContentHandler> void compileSelectorPaths(final Collection<List<ContentHandlerBinding<T>>> contentHandlerBindings) {
+        for (List<ContentHandlerBinding<T>> contentHandlerBindingList : contentHandlerBindings) {
+            for (ContentHandlerBinding<T> contentHandlerBinding : contentHandlerBindingList) {
+                final SelectorPath selectorPath = contentHandlerBinding.getResourceConfig().getSelectorPath();
+                if (selectorPath instanceof JaxenPatternSelectorPath) {
+                    ((JaxenPatternSelectorPath) selectorPath).compile();
+                }
+            }
+        }
+    }
+
     public SaxNgVisitorBindings get(String... selectors) {
         SaxNgVisitorBindings saxNgVisitorBindings = saxNgVisitorBindingsCache.get(String.join(":", selectors));
         if (saxNgVisitorBindings == null) {
@@ -311,4 +331,11 @@ public class SaxNgContentDeliveryConfig extends AbstractContentDeliveryConfig {
         }
         return maxNodeDepth;
     }
-}
\ No newline at end of file
+
+    public int getTextSpillThreshold() {
+        if (textSpillThreshold == null) {
+            textSpillThreshold = Integer.parseInt(ParameterAccessor.getParameterValue(Filter.TEXT_ACCUMULATOR_SPILL_THRESHOLD, String.class, Integer.toString(TextAccumulator.DEFAULT_SPILL_THRESHOLD), this));
+        }
+        return textSpillThreshold;
+    }
+}
@@ -66,7 +66,6 @@ import org.smooks.engine.lookup.LifecycleManagerLookup;
 import org.smooks.engine.memento.TextAccumulatorMemento;
 import org.smooks.engine.xml.DocType;
 import org.smooks.io.Stream;
-import org.smooks.support.DomUtils;
 import org.smooks.support.XmlUtils;
 import org.w3c.dom.CharacterData;
 import org.w3c.dom.Document;
@@ -79,11 +78,12 @@ import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import java.io.IOException;
 import java.io.Writer;
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 
 public class SaxNgContentHandler extends SmooksContentHandler {
 
-    private final StringBuilder cdataNodeBuilder = new StringBuilder();
     private final ExecutionContext executionContext;
     private final Writer writer;
     private final SaxNgContentDeliveryConfig deliveryConfig;
@@ -92,14 +92,25 @@ public class SaxNgContentHandler extends SmooksContentHandler {
     private final int globalMaxNodeDepth;
     private final boolean maintainElementStack;
     private final boolean reverseVisitOrderOnVisitAfter;
+    private final boolean defaultSerializationOn;
     private final boolean rewriteEntities;
     private final LifecycleManager lifecycleManager;
     private final StringBuilder entityBuilder = new StringBuilder(10);
+    private char[] entityChars = new char[10];
+    private char[] cdataChars = new char[256];
+    private int cdataLength;
     private final DocumentBuilder documentBuilder;
+    private final Deque<ElementView> elementViewPool = new ArrayDeque<>();
+    private final int textSpillThreshold;
 
     private ContentHandlerState currentContentHandlerState;
     private NodeFragment currentNodeFragment;
     private Document document;
+    private CharacterDataView textView;
+    private CharacterDataView cdataSectionView;
+    private CharacterDataView commentView;
+    private TextAccumulator textAccumulator;
+    private TextAccumulator previousTextAccumulator;
 
     public SaxNgContentHandler(final ExecutionContext executionContext, final DocumentBuilder documentBuilder) {
         this(executionContext, documentBuilder, null);
@@ -123,18 +134,50 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         maintainElementStack = deliveryConfig.isMaintainElementStack();
         globalMaxNodeDepth = deliveryConfig.getMaxNodeDepth() == 0 ? Integer.MAX_VALUE : deliveryConfig.getMaxNodeDepth();
         reverseVisitOrderOnVisitAfter = deliveryConfig.isReverseVisitOrderOnVisitAfter();
+        defaultSerializationOn = deliveryConfig.isDefaultSerializationOn();
+        textSpillThreshold = deliveryConfig.getTextSpillThreshold();
     }
 
     @Override
     public void close() {
+        releaseTextAccumulator();
     }
 
     @Override
     public void startDocument() {
         document = documentBuilder.newDocument();
         document.setStrictErrorChecking(false);
+        elementViewPool.clear();
+        textView = new CharacterDataView.TextView(document);
+        cdataSectionView = new CharacterDataView.CDATASectionView(document);
+        commentView = new CharacterDataView.CommentView(document);
         currentNodeFragment = null;
         currentContentHandlerState = new ContentHandlerState();
+        if (textAccumulator == null) {
+            textAccumulator = new TextAccumulator(textSpillThreshold);
+            previousTextAccumulator = executionContext.get(TextAccumulator.TEXT_ACCUMULATOR_TYPED_KEY);
+            executionContext.put(TextAccumulator.TEXT_ACCUMULATOR_TYPED_KEY, textAccumulator);
+        } else {
+            textAccumulator.releaseAll();
+        }
+    }
+
+    @Override
+    public void endDocument() {
+        releaseTextAccumulator();
+    }
+
+    private void releaseTextAccumulator() {
+        if (textAccumulator != null) {
+            textAccumulator.releaseAll();
+            if (previousTextAccumulator == null) {
+                executionContext.remove(TextAccumulator.TEXT_ACCUMULATOR_TYPED_KEY);
+            } else {
+                executionContext.put(TextAccumulator.TEXT_ACCUMULATOR_TYPED_KEY, previousTextAccumulator);
+            }
+            textAccumulator = null;
+            previousTextAccumulator = null;
+        }
     }
 
     @Override
@@ -158,18 +201,26 @@ public class SaxNgContentHandler extends SmooksContentHandler {
             final ContentHandlerState contentHandlerState = new ContentHandlerState();
             contentHandlerState.setNullProcessor(true);
             contentHandlerState.setPreviousContentHandlerState(currentContentHandlerState);
+            contentHandlerState.setDepth(currentContentHandlerState.getDepth());
             currentContentHandlerState = contentHandlerState;
             final StartFragmentExecutionEvent<Node> startFragmentEvent = new StartFragmentExecutionEvent<>(currentNodeFragment);
             for (ExecutionEventListener executionEventListener : contentDeliveryRuntime.getExecutionEventListeners()) {
                 executionEventListener.onEvent(startFragmentEvent);
             }
         } else {
-            final Element element = document.createElementNS(elementQName.getNamespaceURI(), elementQName.getPrefix().equals("") ? elementQName.getLocalPart() : elementQName.getPrefix() + ":" + elementQName.getLocalPart());
-            for (int i = 0; i < startEvent.attributes.getLength(); i++) {
-                if (XMLConstants.NULL_NS_URI.equals(startEvent.attributes.getURI(i))) {
-                    element.setAttribute(startEvent.attributes.getLocalName(i), startEvent.attributes.getValue(i));
-                } else {
-                    element.setAttributeNS(startEvent.attributes.getURI(i), startEvent.attributes.getQName(i), startEvent.attributes.getValue(i));
+            final Element element;
+            if (!isRoot && isElementViewable(visitorBindings)) {
+                final ElementView elementView = elementViewPool.isEmpty() ? new ElementView(document) : elementViewPool.pop();
+                elementView.set(currentNodeFragment.unwrap(), elementQName, startEvent.attributes);
+                element = elementView;
+            } else {
+                element = document.createElementNS(elementQName.getNamespaceURI(), elementQName.getPrefix().equals("") ? elementQName.getLocalPart() : elementQName.getPrefix() + ":" + elementQName.getLocalPart());
+                for (int i = 0; i < startEvent.attributes.getLength(); i++) {
+                    if (XMLConstants.NULL_NS_URI.equals(startEvent.attributes.getURI(i))) {
+                        element.setAttribute(startEvent.attributes.getLocalName(i), startEvent.attributes.getValue(i));
+                    } else {
+                        element.setAttributeNS(startEvent.attributes.getURI(i), startEvent.attributes.getQName(i), startEvent.attributes.getValue(i));
+                    }
                 }
             }
 
@@ -179,7 +230,9 @@ public class SaxNgContentHandler extends SmooksContentHandler {
                 }
                 document.appendChild(element);
             } else {
-                currentNodeFragment.unwrap().appendChild(element);
+                if (!(element instanceof ElementView)) {
+                    currentNodeFragment.unwrap().appendChild(element);
+                }
                 onChildElement(element);
             }
 
@@ -187,6 +240,29 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         }
     }
 
+    /**
+     * Determines whether the element about to be started can be represented by an {@link ElementView} instead of a
+     * DOM element. This is the case when neither the visitors bound to the element nor the children visitors bound to
+     * its parent need a DOM tree, and when the element is too deep to be retained in the tree after its end event.
+     *
+     * @param visitorBindings the visitors bound to the element about to be started
+     * @return <code>true</code> if an <code>ElementView</code> can be used
+     */
+    protected boolean isElementViewable(final SaxNgVisitorBindings visitorBindings) {
+        if (visitorBindings != null && !visitorBindings.isDomFree(defaultSerializationOn)) {
+            return false;
+        }
+        final SaxNgVisitorBindings parentVisitorBindings = currentContentHandlerState.getVisitorBindings();
+        if (parentVisitorBindings != null && !parentVisitorBindings.isChildVisitorsDomFree(defaultSerializationOn)) {
+            return false;
+        }
+        if (globalVisitorBindings != null && (parentVisitorBindings == null || parentVisitorBindings.getChildVisitors() == null) && !globalVisitorBindings.isChildVisitorsDomFree(defaultSerializationOn)) {
+            return false;
+        }
+
+        return currentContentHandlerState.getDepth() + 1 >= Math.max(globalMaxNodeDepth, findMaxNodeDepth(currentContentHandlerState));
+    }
+
     @SuppressWarnings("RedundantThrows")
     @Override
     public void endElement(final EndElementEvent endEvent) throws SAXException {
@@ -197,29 +273,47 @@ public class SaxNgContentHandler extends SmooksContentHandler {
             }
         }
 
+        if (currentContentHandlerState.isNullProcessor()) {
+            // no node was created for the element so there is nothing to visit or to remove from the tree
+            currentContentHandlerState = currentContentHandlerState.getPreviousContentHandlerState();
+            return;
+        }
+
         final Node currentNode = this.currentNodeFragment.unwrap();
-        final boolean isMaxNodeDepth = DomUtils.getDepth(currentNode) >= Math.max(globalMaxNodeDepth, findMaxNodeDepth(currentContentHandlerState));
+        final EndElementCallbacks endElementCallbacks = executionContext.get(EndElementCallbacks.END_ELEMENT_CALLBACKS_TYPED_KEY);
+        if (endElementCallbacks != null) {
+            endElementCallbacks.onEndElement(currentNode);
+        }
+        final boolean isMaxNodeDepth = currentContentHandlerState.getDepth() >= Math.max(globalMaxNodeDepth, findMaxNodeDepth(currentContentHandlerState));
+        final int depth = currentContentHandlerState.getDepth();
+        final boolean isTextConsumed = textAccumulator != null && currentContentHandlerState.isTextConsumed();
         if (currentContentHandlerState.getVisitorBindings() != null) {
-            if (isMaxNodeDepth) {
+            if (isTextConsumed) {
+                textAccumulator.select(depth);
+                if (isMaxNodeDepth && currentContentHandlerState.isTextContentConsumed()) {
+                    final AccumulatedText accumulatedText = textAccumulator.peek(depth);
+                    currentNode.setTextContent(accumulatedText == null ? "" : accumulatedText.toString());
+                }
+            } else if (isMaxNodeDepth) {
                 final TextAccumulatorMemento textAccumulatorMemento = new TextAccumulatorMemento(currentNodeFragment);
                 executionContext.getMementoCaretaker().restore(textAccumulatorMemento);
                 currentNode.setTextContent(textAccumulatorMemento.getText());
             }
-            List<ContentHandlerBinding<AfterVisitor>> afterVisitorBindings = currentContentHandlerState.getVisitorBindings().getAfterVisitors();
+            VisitorDispatchTable<AfterVisitor> afterVisitors = currentContentHandlerState.getVisitorBindings().getAfterVisitorDispatchTable();
 
-            if (afterVisitorBindings == null && globalVisitorBindings != null) {
-                afterVisitorBindings = globalVisitorBindings.getAfterVisitors();
+            if (afterVisitors == null && globalVisitorBindings != null) {
+                afterVisitors = globalVisitorBindings.getAfterVisitorDispatchTable();
             }
 
-            if (afterVisitorBindings != null) {
+            if (afterVisitors != null) {
                 if (reverseVisitOrderOnVisitAfter) {
                     // We work through the mappings in reverse order on the end element event...    
-                    for (int i = afterVisitorBindings.size() - 1; i >= 0; i--) {
-                        visitAfter(afterVisitorBindings.get(i));
+                    for (int i = afterVisitors.size - 1; i >= 0; i--) {
+                        visitAfter(afterVisitors, i);
                     }
                 } else {
-                    for (final ContentHandlerBinding<AfterVisitor> afterVisitorBinding : afterVisitorBindings) {
-                        visitAfter(afterVisitorBinding);
+                    for (int i = 0; i < afterVisitors.size; i++) {
+                        visitAfter(afterVisitors, i);
                     }
                 }
             }
@@ -229,63 +323,87 @@ public class SaxNgContentHandler extends SmooksContentHandler {
                 throw new SmooksException(e.getMessage(), e);
             }
 
-            final List<ContentHandlerBinding<? extends Visitor>> visitorBindings = currentContentHandlerState.getVisitorBindings().getAll();
-            final PostFragmentPhase postFragmentPhase = new PostFragmentPhase(currentNodeFragment, executionContext);
-            for (final ContentHandlerBinding<? extends Visitor> visitorBinding : visitorBindings) {
-                if (currentNodeFragment.isMatch(visitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
-                    lifecycleManager.applyPhase(visitorBinding.getContentHandler(), postFragmentPhase);
+            final VisitorDispatchTable<Visitor> postFragmentLifecycles = currentContentHandlerState.getVisitorBindings().getPostFragmentLifecycleDispatchTable();
+            if (postFragmentLifecycles.size > 0) {
+                final PostFragmentPhase postFragmentPhase = new PostFragmentPhase(currentNodeFragment, executionContext);
+                for (int i = 0; i < postFragmentLifecycles.size; i++) {
+                    if (postFragmentLifecycles.isMatch(i, currentNodeFragment, executionContext)) {
+                        lifecycleManager.applyPhase(postFragmentLifecycles.getVisitor(i), postFragmentPhase);
+                    }
                 }
             }
         }
 
+        if (isTextConsumed) {
+            textAccumulator.release(depth);
+        }
         executionContext.getMementoCaretaker().forget(currentNodeFragment);
 
         final ContentHandlerState previousContentHandlerState = currentContentHandlerState.getPreviousContentHandlerState();
         final Node parentNode = currentNode.getParentNode();
         if (isMaxNodeDepth) {
-            parentNode.removeChild(currentNode);
+            if (currentNode instanceof ElementView) {
+                ((ElementView) currentNode).detach();
+            } else {
+                parentNode.removeChild(currentNode);
+            }
         }
-        this.currentNodeFragment = new NodeFragment(parentNode);
+        final ElementView elementView = currentContentHandlerState.getElementView();
+        if (elementView != null) {
+            elementView.clear();
+            elementViewPool.push(elementView);
+        }
+        final NodeFragment parentNodeFragment = previousContentHandlerState.getNodeFragment();
+        this.currentNodeFragment = parentNodeFragment != null && parentNodeFragment.unwrap() == parentNode ? parentNodeFragment : new NodeFragment(parentNode);
         currentContentHandlerState = previousContentHandlerState;
     }
 
     protected int findMaxNodeDepth(final ContentHandlerState contentHandlerState) {
-        ContentHandlerState previousNodeState = contentHandlerState;
-        int maxNodeDepth = 0;
-        while (previousNodeState != null) {
-            maxNodeDepth = Math.max(previousNodeState.getMaxDepth(), maxNodeDepth);
-            previousNodeState = previousNodeState.getPreviousContentHandlerState();
-        }
-
-        return maxNodeDepth;
+        return contentHandlerState.getEffectiveMaxDepth();
     }
 
     protected void visitBefore(final Element element, final SaxNgVisitorBindings saxNgVisitorBindings) {
         currentNodeFragment = new NodeFragment(element);
         final ContentHandlerState contentHandlerState = new ContentHandlerState();
         contentHandlerState.setPreviousContentHandlerState(currentContentHandlerState);
+        contentHandlerState.setDepth(currentContentHandlerState.getPreviousContentHandlerState() == null ? 0 : currentContentHandlerState.getDepth() + 1);
         contentHandlerState.setVisitorBindings(saxNgVisitorBindings);
+        contentHandlerState.setNodeFragment(currentNodeFragment);
+        if (element instanceof ElementView) {
+            contentHandlerState.setElementView((ElementView) element);
+        }
 
         currentContentHandlerState = contentHandlerState;
         if (currentContentHandlerState.getVisitorBindings() != null) {
-            List<ContentHandlerBinding<BeforeVisitor>> visitBeforeBindings = currentContentHandlerState.getVisitorBindings().getBeforeVisitors();
+            VisitorDispatchTable<BeforeVisitor> beforeVisitors = currentContentHandlerState.getVisitorBindings().getBeforeVisitorDispatchTable();
 
-            if (visitBeforeBindings == null && globalVisitorBindings != null) {
-                visitBeforeBindings = globalVisitorBindings.getBeforeVisitors();
+            if (beforeVisitors == null && globalVisitorBindings != null) {
+                beforeVisitors = globalVisitorBindings.getBeforeVisitorDispatchTable();
             }
 
-            if (visitBeforeBindings != null) {
+            if (beforeVisitors != null) {
                 int maxNodeDepth = 1;
-                for (final ContentHandlerBinding<BeforeVisitor> visitBeforeBinding : visitBeforeBindings) {
-                    if (currentNodeFragment.isMatch(visitBeforeBinding.getResourceConfig().getSelectorPath(), executionContext)) {
-                        if (visitBeforeBinding.getContentHandler() instanceof ParameterizedVisitor) {
-                            maxNodeDepth = Math.max(maxNodeDepth, ((ParameterizedVisitor) visitBeforeBinding.getContentHandler()).getMaxNodeDepth());
+                for (int i = 0; i < beforeVisitors.size; i++) {
+                    if (beforeVisitors.isMatch(i, currentNodeFragment, executionContext)) {
+                        final BeforeVisitor beforeVisitor = beforeVisitors.getVisitor(i);
+                        if (beforeVisitors.parameterized[i]) {
+                            maxNodeDepth = Math.max(maxNodeDepth, ((ParameterizedVisitor) beforeVisitor).getMaxNodeDepth());
                         }
-                        visitBeforeBinding.getContentHandler().visitBefore(element, executionContext);
+                        beforeVisitor.visitBefore(element, executionContext);
                     }
                 }
                 currentContentHandlerState.setMaxDepth(maxNodeDepth);
             }
+
+            if (textAccumulator != null) {
+                VisitorDispatchTable<AfterVisitor> afterVisitors = currentContentHandlerState.getVisitorBindings().getAfterVisitorDispatchTable();
+                if (afterVisitors == null && globalVisitorBindings != null) {
+                    afterVisitors = globalVisitorBindings.getAfterVisitorDispatchTable();
+                }
+                if (afterVisitors != null && afterVisitors.hasTextConsumers) {
+                    selectTextConsumers(afterVisitors);
+                }
+            }
         }
 
         if (!contentDeliveryRuntime.getExecutionEventListeners().isEmpty()) {
@@ -296,17 +414,34 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         }
     }
 
-    protected void onChildElement(final Element childElement) {
+    /**
+     * Decides whether the current element's text is to be accumulated from the text consumers among its after
+     * visitors which may be selected for the element. The decision is made when the element is started, before any of
+     * its text is read.
+     */
+    private void selectTextConsumers(final VisitorDispatchTable<AfterVisitor> afterVisitors) {
+        for (int i = 0; i < afterVisitors.size; i++) {
+            if (afterVisitors.textConsumers[i] && afterVisitors.isMatchOnStart(i, currentNodeFragment, executionContext)) {
+                currentContentHandlerState.setTextConsumed(true);
+                if (!afterVisitors.streamingTextConsumers[i]) {
+                    currentContentHandlerState.setTextContentConsumed(true);
+                    return;
+                }
+            }
+        }
+    }
+
+        protected void onChildElement(final Element childElement) {
         if (currentContentHandlerState.getVisitorBindings() != null) {
-            List<ContentHandlerBinding<ChildrenVisitor>> childVisitorBindings = currentContentHandlerState.getVisitorBindings().getChildVisitors();
-            if (childVisitorBindings == null && globalVisitorBindings != null) {
-                childVisitorBindings = globalVisitorBindings.getChildVisitors();
+            VisitorDispatchTable<ChildrenVisitor> childVisitors = currentContentHandlerState.getVisitorBindings().getChildVisitorDispatchTable();
+            if (childVisitors == null && globalVisitorBindings != null) {
+                childVisitors = globalVisitorBindings.getChildVisitorDispatchTable();
             }
 
-            if (childVisitorBindings != null) {
-                for (final ContentHandlerBinding<ChildrenVisitor> contentHandlerBinding : childVisitorBindings) {
-                    if (currentNodeFragment.isMatch(contentHandlerBinding.getResourceConfig().getSelectorPath(), executionContext)) {
-                        contentHandlerBinding.getContentHandler().visitChildElement(childElement, executionContext);
+            if (childVisitors != null) {
+                for (int i = 0; i < childVisitors.size; i++) {
+                    if (childVisitors.isMatch(i, currentNodeFragment, executionContext)) {
+                        childVisitors.getVisitor(i).visitChildElement(childElement, executionContext);
                     }
                 }
             }
@@ -319,70 +454,118 @@ public class SaxNgContentHandler extends SmooksContentHandler {
         }
     }
 
+    private void visitAfter(final VisitorDispatchTable<AfterVisitor> afterVisitors, final int index) {
+        if (afterVisitors.isMatch(index, currentNodeFragment, executionContext)) {
+            afterVisitors.getVisitor(index).visitAfter((Element) currentNodeFragment.unwrap(), executionContext);
+        }
+    }
+
     @Override
     public void characters(final char[] ch, final int start, final int length) {
         if (currentContentHandlerState.getTextType() != TextType.CDATA) {
             doCharacters(ch, start, length);
         } else {
-            cdataNodeBuilder.append(ch, start, length);
+            if (cdataLength + length > cdataChars.length) {
+                cdataChars = Arrays.copyOf(cdataChars, Math.max(cdataLength + length, cdataChars.length * 2));
+            }
+            System.arraycopy(ch, start, cdataChars, cdataLength, length);
+            cdataLength += length;
         }
     }
 
     protected void doCharacters(final char[] ch, final int start, final int length) {
-        if (!rewriteEntities && currentContentHandlerState.getTextType() == TextType.ENTITY) {
-            entityBuilder.setLength(0);
-            entityBuilder.append("&#").append((int) ch[start]).append(';');
-            entityBuilder.getChars(0, entityBuilder.length(), new char[entityBuilder.length()], 0);
-        }
-
         if (currentNodeFragment != null) {
-            final CharacterData characterData;
-            switch (currentContentHandlerState.getTextType()) {
-                case CDATA:
-                    characterData = document.createCDATASection(new String(ch, start, length));
-                    break;
-                case COMMENT:
-                    characterData = document.createComment(new String(ch, start, length));
-                    break;
-                case ENTITY:
-                    if (!rewriteEntities) {
-                        entityBuilder.setLength(0);
-
-                        entityBuilder.append("&#").append((int) ch[start]).append(';');
-                        char[] newBuf = new char[entityBuilder.length()];
-                        entityBuilder.getChars(0, newBuf.length, newBuf, 0);
-
-                        characterData = document.createTextNode(new String(newBuf, 0, newBuf.length));
-                        break;
-                    }
-                default:
-                    characterData = document.createTextNode(new String(ch, start, length));
+            final TextType textType = currentContentHandlerState.getTextType();
+            final char[] characters;
+            final int offset;
+            final int count;
+            if (textType == TextType.ENTITY && !rewriteEntities) {
+                entityBuilder.setLength(0);
+                entityBuilder.append("&#").append((int) ch[start]).append(';');
+                if (entityChars.length < entityBuilder.length()) {
+                    entityChars = new char[entityBuilder.length()];
+                }
+                entityBuilder.getChars(0, entityBuilder.length(), entityChars, 0);
+                characters = entityChars;
+                offset = 0;
+                count = entityBuilder.length();
+            } else {
+                characters = ch;
+                offset = start;
+                count = length;
             }
 
             final Node currentNode = currentNodeFragment.unwrap();
-            currentNode.appendChild(characterData);
+            final boolean isDetached = currentNode instanceof ElementView && !((ElementView) currentNode).isMaterialized();
+            final boolean isRetained = !isDetached && (currentContentHandlerState.getDepth() + 1) < Math.max(globalMaxNodeDepth, findMaxNodeDepth(currentContentHandlerState));
+            final SaxNgVisitorBindings visitorBindings = currentContentHandlerState.isNullProcessor() ? null : currentContentHandlerState.getVisitorBindings();
+            if (textAccumulator != null && currentContentHandlerState.isTextConsumed()) {
+                try {
+                    textAccumulator.append(currentContentHandlerState.getDepth(), characters, offset, count);
+                } catch (IOException e) {
+                    throw new SmooksException(e.getMessage(), e);
+                }
+            }
+            final boolean isViewable = !isRetained && contentDeliveryRuntime.getExecutionEventListeners().isEmpty() && (visitorBindings == null || visitorBindings.isChildTextViewable());
 
-            if (!currentContentHandlerState.isNullProcessor() && currentContentHandlerState.getVisitorBindings() != null) {
-                final List<ContentHandlerBinding<ChildrenVisitor>> childVisitorBindings = currentContentHandlerState.getVisitorBindings().getChildVisitors();
+            final CharacterData characterData;
+            if (isViewable) {
+                final CharacterDataView characterDataView;
+                switch (textType) {
+                    case CDATA:
+                        characterDataView = cdataSectionView;
+                        break;
+                    case COMMENT:
+                        characterDataView = commentView;
+                        break;
+                    default:
+                        characterDataView = textView;
+                }
+                characterDataView.set(currentNode, characters, offset, count);
+                characterData = characterDataView;
+            } else {
+                switch (textType) {
+                    case CDATA:
+                        characterData = document.createCDATASection(new String(characters, offset, count));
+                        break;
+                    case COMMENT:
+                        characterData = document.createComment(new String(characters, offset, count));
+                        break;
+                    default:
+                        characterData = document.createTextNode(new String(characters, offset, count));
+                }
+                if (!isDetached) {
+                    currentNode.appendChild(characterData);
+                }
+            }
 
-                if (childVisitorBindings != null) {
-                    for (final ContentHandlerBinding<ChildrenVisitor> childrenVisitorBinding : childVisitorBindings) {
-                        if (currentNodeFragment.isMatch(childrenVisitorBinding.getResourceConfig().getSelectorPath(), executionContext)) {
-                            childrenVisitorBinding.getContentHandler().visitChildText(characterData, executionContext);
+            try {
+                if (visitorBindings != null) {
+                    final VisitorDispatchTable<ChildrenVisitor> childVisitors = visitorBindings.getChildVisitorDispatchTable();
+
+                    if (childVisitors != null) {
+                        for (int i = 0; i < childVisitors.size; i++) {
+                            if (childVisitors.isMatch(i, currentNodeFragment, executionContext)) {
+                                childVisitors.getVisitor(i).visitChildText(characterData, executionContext);
+                            }
                         }
                     }
                 }
-            }
 
-            if (!contentDeliveryRuntime.getExecutionEventListeners().isEmpty()) {
-                final CharDataFragmentExecutionEvent charFragmentEvent = new CharDataFragmentExecutionEvent(new NodeFragment(characterData));
-                for (ExecutionEventListener executionEventListener : contentDeliveryRuntime.getExecutionEventListeners()) {
-                    executionEventListener.onEvent(charFragmentEvent);
+                if (!contentDeliveryRuntime.getExecutionEventListeners().isEmpty()) {
+                    final CharDataFragmentExecutionEvent charFragmentEvent = new CharDataFragmentExecutionEvent(new NodeFragment(characterData));
+                    for (ExecutionEventListener executionEventListener : contentDeliveryRuntime.getExecutionEventListeners()) {
+                        executionEventListener.onEvent(charFragmentEvent);
+                    }
+                }
+            } finally {
+                if (isViewable) {
+                    final CharacterDataView characterDataView = (CharacterDataView) characterData;
+                    characterDataView.detach();
+                    characterDataView.clear();
+                } else if (!isDetached && !isRetained) {
+                    currentNode.removeChild(characterData);
                 }
-            }
-
-            if ((DomUtils.getDepth(currentNode) + 1) >= Math.max(globalMaxNodeDepth, findMaxNodeDepth(currentContentHandlerState))) {
-                currentNode.removeChild(characterData);
             }
         }
     }
@@ -402,19 +585,16 @@ public class SaxNgContentHandler extends SmooksContentHandler {
     @Override
     public void startCDATA() {
         currentContentHandlerState.setTextType(TextType.CDATA);
-        cdataNodeBuilder.setLength(0);
+        cdataLength = 0;
     }
 
     @Override
     public void endCDATA() {
         try {
-            final char[] chars = new char[cdataNodeBuilder.length()];
-
-            cdataNodeBuilder.getChars(0, chars.length, chars, 0);
-            doCharacters(chars, 0, chars.length);
+            doCharacters(cdataChars, 0, cdataLength);
             currentContentHandlerState.setTextType(TextType.TEXT);
         } finally {
-            cdataNodeBuilder.setLength(0);
+            cdataLength = 0;
         }
     }
 
@@ -50,6 +50,7 @@ import org.smooks.api.io.Sink;
 import org.smooks.api.io.Source;
 import org.smooks.engine.delivery.AbstractFilter;
 import org.smooks.engine.delivery.sax.ng.terminate.TerminateException;
+import org.smooks.io.DOMWriter;
 import org.smooks.io.Stream;
 import org.smooks.io.sink.DOMSink;
 import org.smooks.io.sink.FilterSink;
@@ -62,11 +63,11 @@ import org.smooks.io.source.ReaderSource;
 import org.smooks.io.source.StreamSource;
 import org.smooks.io.source.URLSource;
 import org.smooks.support.DomUtils;
-import org.smooks.support.XmlUtils;
 
 import javax.xml.parsers.DocumentBuilder;
-import java.io.StringReader;
+import javax.xml.stream.XMLStreamException;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 
 public class SaxNgFilter extends AbstractFilter {
 
@@ -76,9 +77,15 @@ public class SaxNgFilter extends AbstractFilter {
     protected final boolean closeSource;
     protected final boolean closeSink;
     protected final SaxNgParser parser;
+    protected final DocumentBuilder documentBuilder;
+
+    protected Sink pushSink;
+    protected Writer pushWriter;
+    protected boolean isPushTerminated;
 
     public SaxNgFilter(ExecutionContext executionContext, DocumentBuilder documentBuilder, boolean closeSource, boolean closeSink) {
         this.executionContext = executionContext;
+        this.documentBuilder = documentBuilder;
         this.closeSource = closeSource;
         this.closeSink = closeSink;
         parser = new SaxNgParser(executionContext, documentBuilder);
@@ -86,7 +93,10 @@ public class SaxNgFilter extends AbstractFilter {
 
     @Override
     public void doFilter() throws SmooksException {
-        Source source = FilterSource.getSource(executionContext);
+        doFilter(FilterSource.getSource(executionContext), getSink());
+    }
+
+    protected Sink getSink() {
         Sink sink = FilterSink.getSink(executionContext, StreamSink.class);
         if (sink == null) {
             sink = FilterSink.getSink(executionContext, WriterSink.class);
@@ -95,28 +105,33 @@ public class SaxNgFilter extends AbstractFilter {
             }
         }
 
-        doFilter(source, sink);
+        return sink;
     }
 
-    protected void doFilter(Source source, Sink sink) {
-        if (!(source instanceof StreamSource || source instanceof ReaderSource || source instanceof JavaSource || source instanceof DOMSource || source instanceof URLSource)) {
-            throw new SmooksException(String.format("Unsupported [%s] source type: SAX NG filter supports StreamSource, JavaSource, DOMSource, and URLSource", source.getClass().getName()));
-        }
+    protected void assertSupportedSink(Sink sink) {
         if (!(sink instanceof FilterSink)) {
             if (sink != null && !(sink instanceof StreamSink) && !(sink instanceof WriterSink) && !(sink instanceof DOMSink)) {
                 throw new SmooksException(String.format("Unsupported [%s] sink type: SAX NG filter supports StreamSink and DOMSink", sink.getClass().getName()));
             }
         }
+    }
+
+    protected void doFilter(Source source, Sink sink) {
+        if (!(source instanceof StreamSource || source instanceof ReaderSource || source instanceof JavaSource || source instanceof DOMSource || source instanceof URLSource)) {
+            throw new SmooksException(String.format("Unsupported [%s] source type: SAX NG filter supports StreamSource, JavaSource, DOMSource, and URLSource", source.getClass().getName()));
+        }
+        assertSupportedSink(sink);
 
+        Writer writer = null;
         try {
-            final Writer writer = getWriter(sink, executionContext);
+            writer = getWriter(sink, executionContext);
             executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, writer);
             parser.parse(source, executionContext);
 
             if (sink instanceof DOMSink) {
-                ((DOMSink) sink).setNode(XmlUtils.parseStream(new StringReader(writer.toString())));
+                ((DOMSink) sink).setNode(((DOMWriter) writer).getDocument());
             } else {
-                writer.flush();
+                flush(writer);
             }
         } catch (TerminateException e) {
             if (LOGGER.isDebugEnabled()) {
@@ -125,6 +140,7 @@ public class SaxNgFilter extends AbstractFilter {
         } catch (Exception e) {
             throw new SmooksException("Failed to filter source", e);
         } finally {
+            release(writer);
             if (closeSource) {
                 close(source);
             }
@@ -134,6 +150,83 @@ public class SaxNgFilter extends AbstractFilter {
         }
     }
 
+    /**
+     * Begins filtering content pushed through {@link #push(ByteBuffer)} rather than read from the
+     * {@link FilterSource#getSource(ExecutionContext) source}. The content is filtered as it is pushed, and the
+     * filter completes on {@link #endPush()}. {@link #releasePush()} must be called in any case once pushing stops.
+     */
+    public void beginPush() {
+        pushSink = getSink();
+        assertSupportedSink(pushSink);
+        pushWriter = getWriter(pushSink, executionContext);
+        executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, pushWriter);
+        parser.beginPush(executionContext);
+    }
+
+    public void push(ByteBuffer byteBuffer) throws SmooksException {
+        if (isPushTerminated) {
+            return;
+        }
+        try {
+            parser.push(byteBuffer);
+        } catch (TerminateException e) {
+            onPushTerminated(e);
+        } catch (SmooksException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SmooksException("Failed to filter source", e);
+        }
+    }
+
+    public void endPush() throws SmooksException {
+        if (isPushTerminated) {
+            return;
+        }
+        try {
+            parser.endPush();
+            if (pushSink instanceof DOMSink) {
+                ((DOMSink) pushSink).setNode(((DOMWriter) pushWriter).getDocument());
+            } else {
+                flush(pushWriter);
+            }
+        } catch (TerminateException e) {
+            onPushTerminated(e);
+        } catch (SmooksException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SmooksException("Failed to filter source", e);
+        }
+    }
+
+    public void releasePush() {
+        try {
+            parser.releasePush();
+        } catch (XMLStreamException e) {
+            LOGGER.debug("Failed to close push parser", e);
+        } finally {
+            release(pushWriter);
+            if (closeSink) {
+                close(pushSink);
+            }
+        }
+    }
+
+    private void onPushTerminated(TerminateException e) {
+        isPushTerminated = true;
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Terminated filtering on element {}", DomUtils.getXPath(e.getElement()));
+        }
+    }
+
+    @Override
+    protected Writer getWriter(final Sink sink, final ExecutionContext executionContext) {
+        if (sink instanceof DOMSink) {
+            return new DOMWriter(documentBuilder.newDocument());
+        } else {
+            return super.getWriter(sink, executionContext);
+        }
+    }
+
     @Override
     public void close() {
         parser.close();
@@ -54,13 +54,16 @@ import org.xml.sax.SAXException;
 import org.xml.sax.XMLReader;
 
 import javax.xml.parsers.DocumentBuilder;
+import javax.xml.stream.XMLStreamException;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class SaxNgParser extends AbstractParser implements Closeable {
 
     private final DocumentBuilder documentBuilder;
     private SaxNgContentHandler saxHandler;
+    private SaxNgPushParser pushParser;
 
     public SaxNgParser(final ExecutionContext executionContext, final DocumentBuilder documentBuilder) {
         super(executionContext);
@@ -73,7 +76,7 @@ public class SaxNgParser extends AbstractParser implements Closeable {
 
         XMLReader xmlReader = null;
         try {
-            xmlReader = readerPool.borrowXMLReader();
+            xmlReader = borrowXMLReader(readerPool, executionContext);
             if (xmlReader == null) {
                 xmlReader = createXMLReader();
             }
@@ -106,6 +109,37 @@ public class SaxNgParser extends AbstractParser implements Closeable {
         }
     }
 
+    /**
+     * Prepares to parse content pushed through {@link #push(ByteBuffer)} instead of reading it from a {@link Source}.
+     *
+     * @param executionContext the execution context of the filter
+     */
+    protected void beginPush(ExecutionContext executionContext) {
+        saxHandler = new SaxNgContentHandler(executionContext, documentBuilder);
+        executionContext.put(NamespaceManager.NAMESPACE_DECLARATION_STACK_TYPED_KEY, new NamespaceDeclarationStack());
+        pushParser = new SaxNgPushParser(saxHandler);
+    }
+
+    protected void push(ByteBuffer byteBuffer) throws SAXException, XMLStreamException {
+        pushParser.feed(byteBuffer);
+    }
+
+    protected void endPush() throws SAXException, XMLStreamException {
+        pushParser.endOfInput();
+    }
+
+    protected void releasePush() throws XMLStreamException {
+        try {
+            if (pushParser != null) {
+                pushParser.close();
+            }
+        } finally {
+            if (saxHandler != null) {
+                saxHandler.detachHandler();
+            }
+        }
+    }
+
     @Override
     public void close() {
         if (saxHandler != null) {
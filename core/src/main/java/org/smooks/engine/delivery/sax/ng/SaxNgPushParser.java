@@ -0,0 +1,201 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import com.fasterxml.aalto.AsyncByteBufferFeeder;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import org.codehaus.stax2.DTDInfo;
+import org.xml.sax.SAXException;
+import org.xml.sax.ext.DefaultHandler2;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.nio.ByteBuffer;
+
+/**
+ * Parses UTF-8 encoded XML pushed to it in {@link ByteBuffer} chunks with Aalto's non-blocking parser, reporting the
+ * parsed content to a SAX handler as each chunk is fed. The chunks are handed to Aalto's
+ * {@link AsyncByteBufferFeeder} as is, unlike {@link org.smooks.io.SAXWriter} and {@link org.smooks.io.DOMWriter},
+ * which encode the written chars into a byte array for an {@link com.fasterxml.aalto.AsyncByteArrayFeeder}.
+ * <p>
+ * Events are reported as a namespace-aware {@link org.xml.sax.XMLReader} with the
+ * <code>namespace-prefixes</code> feature on would report them: namespace declarations are passed as
+ * <code>xmlns</code> attributes in addition to the prefix mapping events.
+ */
+@NotThreadSafe
+public class SaxNgPushParser {
+
+    protected static final InputFactoryImpl ASYNC_XML_INPUT_FACTORY;
+
+    static {
+        ASYNC_XML_INPUT_FACTORY = new InputFactoryImpl();
+        ASYNC_XML_INPUT_FACTORY.configureForSpeed();
+    }
+
+    private final DefaultHandler2 handler;
+    private final AsyncXMLStreamReader<AsyncByteBufferFeeder> asyncXMLStreamReader;
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    public SaxNgPushParser(final DefaultHandler2 handler) {
+        this.handler = handler;
+        asyncXMLStreamReader = ASYNC_XML_INPUT_FACTORY.createAsyncForByteBuffer();
+    }
+
+    /**
+     * Parses the remaining bytes of a chunk. The chunk is fully consumed when this method returns.
+     *
+     * @param byteBuffer the next chunk of the document
+     * @throws XMLStreamException if the content is not well-formed
+     * @throws SAXException       if the handler fails
+     */
+    public void feed(final ByteBuffer byteBuffer) throws XMLStreamException, SAXException {
+        asyncXMLStreamReader.getInputFeeder().feedInput(byteBuffer);
+        dispatch();
+    }
+
+    /**
+     * Signals that the document has been fully pushed, reporting the events held back until the end of input was
+     * known.
+     *
+     * @throws XMLStreamException if the document is incomplete or not well-formed
+     * @throws SAXException       if the handler fails
+     */
+    public void endOfInput() throws XMLStreamException, SAXException {
+        asyncXMLStreamReader.getInputFeeder().endOfInput();
+        dispatch();
+        // the async parser keeps reporting incomplete input instead of failing when the document ends prematurely
+        if (asyncXMLStreamReader.getEventType() != XMLStreamConstants.END_DOCUMENT) {
+            throw new XMLStreamException("Premature end of document", asyncXMLStreamReader.getLocation());
+        }
+    }
+
+    public void close() throws XMLStreamException {
+        asyncXMLStreamReader.close();
+    }
+
+    protected void dispatch() throws XMLStreamException, SAXException {
+        while (asyncXMLStreamReader.hasNext()) {
+            final int event = asyncXMLStreamReader.next();
+            switch (event) {
+                case AsyncXMLStreamReader.EVENT_INCOMPLETE:
+                    return;
+                case XMLStreamConstants.START_DOCUMENT:
+                    handler.startDocument();
+                    break;
+                case XMLStreamConstants.DTD:
+                    final DTDInfo dtdInfo = asyncXMLStreamReader.getDTDInfo();
+                    if (dtdInfo != null) {
+                        handler.startDTD(dtdInfo.getDTDRootName(), dtdInfo.getDTDPublicId(), dtdInfo.getDTDSystemId());
+                        handler.endDTD();
+                    }
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    final QName name = asyncXMLStreamReader.getName();
+                    handler.endElement(name.getNamespaceURI(), name.getLocalPart(), toQName(name.getPrefix(), name.getLocalPart()));
+                    for (int i = 0, n = asyncXMLStreamReader.getNamespaceCount(); i < n; i++) {
+                        handler.endPrefixMapping(toPrefix(asyncXMLStreamReader.getNamespacePrefix(i)));
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                    handler.characters(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    break;
+                case XMLStreamConstants.SPACE:
+                    handler.ignorableWhitespace(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    break;
+                case XMLStreamConstants.CDATA:
+                    handler.startCDATA();
+                    handler.characters(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    handler.endCDATA();
+                    break;
+                case XMLStreamConstants.COMMENT:
+                    handler.comment(asyncXMLStreamReader.getTextCharacters(), asyncXMLStreamReader.getTextStart(), asyncXMLStreamReader.getTextLength());
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                    handler.processingInstruction(asyncXMLStreamReader.getPITarget(), asyncXMLStreamReader.getPIData());
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    handler.endDocument();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    protected void startElement() throws SAXException {
+        attributes.clear();
+        for (int i = 0, n = asyncXMLStreamReader.getNamespaceCount(); i < n; i++) {
+            final String prefix = toPrefix(asyncXMLStreamReader.getNamespacePrefix(i));
+            final String namespaceURI = asyncXMLStreamReader.getNamespaceURI(i);
+            handler.startPrefixMapping(prefix, namespaceURI == null ? XMLConstants.NULL_NS_URI : namespaceURI);
+            if (prefix.isEmpty()) {
+                attributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, XMLConstants.XMLNS_ATTRIBUTE, XMLConstants.XMLNS_ATTRIBUTE, "CDATA", namespaceURI == null ? XMLConstants.NULL_NS_URI : namespaceURI);
+            } else {
+                attributes.addAttribute(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, prefix, XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix, "CDATA", namespaceURI);
+            }
+        }
+        for (int i = 0, n = asyncXMLStreamReader.getAttributeCount(); i < n; i++) {
+            final QName attributeName = asyncXMLStreamReader.getAttributeName(i);
+            attributes.addAttribute(attributeName.getNamespaceURI(), attributeName.getLocalPart(), toQName(attributeName.getPrefix(), attributeName.getLocalPart()), asyncXMLStreamReader.getAttributeType(i), asyncXMLStreamReader.getAttributeValue(i));
+        }
+
+        final QName name = asyncXMLStreamReader.getName();
+        handler.startElement(name.getNamespaceURI(), name.getLocalPart(), toQName(name.getPrefix(), name.getLocalPart()), attributes);
+    }
+
+    private static String toPrefix(final String prefix) {
+        return prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix;
+    }
+
+    private static String toQName(final String prefix, final String localPart) {
+        return prefix == null || prefix.isEmpty() ? localPart : prefix + ":" + localPart;
+    }
+}
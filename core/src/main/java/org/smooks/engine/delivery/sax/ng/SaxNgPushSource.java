@@ -0,0 +1,160 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
+import org.smooks.io.source.PushSource;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link PushSource} feeding a {@link SaxNgFilter} which was {@link SaxNgFilter#beginPush() begun} for pushed content.
+ * <p>
+ * Each push and the final close run under the application context class loader, when one is set, as the blocking
+ * <code>filterSource</code> does. Once this source is closed or aborted, the filter is released and the close handler
+ * supplied by the caller tears down the rest of the filter execution.
+ */
+@NotThreadSafe
+public class SaxNgPushSource implements PushSource {
+
+    private final ExecutionContext executionContext;
+    private final SaxNgFilter saxNgFilter;
+    private final ClassLoader classLoader;
+    private final Runnable closeHandler;
+    private boolean isClosed;
+
+    public SaxNgPushSource(final ExecutionContext executionContext, final SaxNgFilter saxNgFilter, final ClassLoader classLoader, final Runnable closeHandler) {
+        this.executionContext = executionContext;
+        this.saxNgFilter = saxNgFilter;
+        this.classLoader = classLoader;
+        this.closeHandler = closeHandler;
+    }
+
+    @Override
+    public void push(final ByteBuffer byteBuffer) throws SmooksException {
+        assertNotClosed();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        setContextClassLoader(classLoader);
+        try {
+            saxNgFilter.push(byteBuffer);
+        } catch (Throwable t) {
+            throw abort(t);
+        } finally {
+            setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Override
+    public void close() throws SmooksException {
+        assertNotClosed();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        setContextClassLoader(classLoader);
+        try {
+            try {
+                saxNgFilter.endPush();
+            } catch (Throwable t) {
+                throw abort(t);
+            }
+            release();
+        } finally {
+            setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Override
+    public void abort() {
+        if (isClosed) {
+            return;
+        }
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        setContextClassLoader(classLoader);
+        try {
+            release();
+        } finally {
+            setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    /**
+     * Aborts this source because its filter failed, recording the failure as the termination error of the execution
+     * context.
+     *
+     * @param throwable the failure
+     * @return the failure as a {@link SmooksException} to be thrown by the caller
+     */
+    public SmooksException abort(final Throwable throwable) {
+        final SmooksException smooksException = throwable instanceof SmooksException ? (SmooksException) throwable : new SmooksException("Smooks Filtering operation failed", throwable);
+        executionContext.setTerminationError(throwable);
+        release();
+
+        return smooksException;
+    }
+
+    private void release() {
+        isClosed = true;
+        try {
+            saxNgFilter.releasePush();
+        } finally {
+            closeHandler.run();
+        }
+    }
+
+    private void assertNotClosed() {
+        if (isClosed) {
+            throw new IllegalStateException("Push source is closed");
+        }
+    }
+
+    private void setContextClassLoader(final ClassLoader contextClassLoader) {
+        if (classLoader != null) {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+}
@@ -43,10 +43,17 @@
 package org.smooks.engine.delivery.sax.ng;
 
 import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.delivery.sax.DomFree;
+import org.smooks.api.delivery.sax.TextConsumer;
+import org.smooks.api.resource.config.xpath.SelectorPath;
 import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
 import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
 import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
 import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ParameterizedVisitor;
+import org.smooks.engine.resource.config.xpath.IndexedSelectorPath;
+import org.smooks.engine.resource.config.xpath.step.ElementSelectorStep;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -58,6 +65,15 @@ class SaxNgVisitorBindings {
     private List<ContentHandlerBinding<ChildrenVisitor>> childVisitors;
     private List<ContentHandlerBinding<AfterVisitor>> afterVisitors;
     public volatile List<ContentHandlerBinding<? extends Visitor>> visitors;
+    private volatile Boolean domFreeGivenDefaultSerializationOn;
+    private volatile Boolean domFreeGivenDefaultSerializationOff;
+    private volatile Boolean childVisitorsDomFreeGivenDefaultSerializationOn;
+    private volatile Boolean childVisitorsDomFreeGivenDefaultSerializationOff;
+    private volatile Boolean childTextViewable;
+    private volatile VisitorDispatchTable<BeforeVisitor> beforeVisitorDispatchTable;
+    private volatile VisitorDispatchTable<ChildrenVisitor> childVisitorDispatchTable;
+    private volatile VisitorDispatchTable<AfterVisitor> afterVisitorDispatchTable;
+    private volatile VisitorDispatchTable<Visitor> postFragmentLifecycleDispatchTable;
 
     public List<ContentHandlerBinding<BeforeVisitor>> getBeforeVisitors() {
         return beforeVisitors;
@@ -65,6 +81,11 @@ class SaxNgVisitorBindings {
 
     public void setBeforeVisitors(List<ContentHandlerBinding<BeforeVisitor>> beforeVisitors) {
         this.beforeVisitors = beforeVisitors;
+        domFreeGivenDefaultSerializationOn = null;
+        domFreeGivenDefaultSerializationOff = null;
+        beforeVisitorDispatchTable = null;
+        postFragmentLifecycleDispatchTable = null;
+        visitors = null;
     }
 
     public List<ContentHandlerBinding<ChildrenVisitor>> getChildVisitors() {
@@ -73,6 +94,14 @@ class SaxNgVisitorBindings {
 
     public void setChildVisitors(List<ContentHandlerBinding<ChildrenVisitor>> childVisitors) {
         this.childVisitors = childVisitors;
+        domFreeGivenDefaultSerializationOn = null;
+        domFreeGivenDefaultSerializationOff = null;
+        childVisitorsDomFreeGivenDefaultSerializationOn = null;
+        childVisitorsDomFreeGivenDefaultSerializationOff = null;
+        childTextViewable = null;
+        childVisitorDispatchTable = null;
+        postFragmentLifecycleDispatchTable = null;
+        visitors = null;
     }
 
     public List<ContentHandlerBinding<AfterVisitor>> getAfterVisitors() {
@@ -81,6 +110,11 @@ class SaxNgVisitorBindings {
 
     public void setAfterVisitors(List<ContentHandlerBinding<AfterVisitor>> afterVisitors) {
         this.afterVisitors = afterVisitors;
+        domFreeGivenDefaultSerializationOn = null;
+        domFreeGivenDefaultSerializationOff = null;
+        afterVisitorDispatchTable = null;
+        postFragmentLifecycleDispatchTable = null;
+        visitors = null;
     }
 
     public List<ContentHandlerBinding<? extends Visitor>> getAll() {
@@ -105,6 +139,130 @@ class SaxNgVisitorBindings {
         return visitors;
     }
 
+    /**
+     * @return the before visitors as a dispatch table or <code>null</code> if there are no before visitor bindings
+     */
+    public VisitorDispatchTable<BeforeVisitor> getBeforeVisitorDispatchTable() {
+        if (beforeVisitorDispatchTable == null && beforeVisitors != null) {
+            beforeVisitorDispatchTable = VisitorDispatchTable.of(beforeVisitors);
+        }
+        return beforeVisitorDispatchTable;
+    }
+
+    /**
+     * @return the children visitors as a dispatch table or <code>null</code> if there are no children visitor bindings
+     */
+    public VisitorDispatchTable<ChildrenVisitor> getChildVisitorDispatchTable() {
+        if (childVisitorDispatchTable == null && childVisitors != null) {
+            childVisitorDispatchTable = VisitorDispatchTable.of(childVisitors);
+        }
+        return childVisitorDispatchTable;
+    }
+
+    /**
+     * @return the after visitors as a dispatch table or <code>null</code> if there are no after visitor bindings
+     */
+    public VisitorDispatchTable<AfterVisitor> getAfterVisitorDispatchTable() {
+        if (afterVisitorDispatchTable == null && afterVisitors != null) {
+            afterVisitorDispatchTable = VisitorDispatchTable.of(afterVisitors);
+        }
+        return afterVisitorDispatchTable;
+    }
+
+    /**
+     * @return the distinct bound visitors which take part in the post-fragment phase, as a dispatch table
+     */
+    public VisitorDispatchTable<Visitor> getPostFragmentLifecycleDispatchTable() {
+        if (postFragmentLifecycleDispatchTable == null) {
+            postFragmentLifecycleDispatchTable = VisitorDispatchTable.ofPostFragmentLifecycles(getAll());
+        }
+        return postFragmentLifecycleDispatchTable;
+    }
+
+    /**
+     * Whether every bound visitor is {@link DomFree DOM-free}, meaning the visited element can be an {@link ElementView}.
+     * The {@link SystemConsumeSerializerVisitor} does not touch the element when default serialization is off so it
+     * is then regarded as DOM-free. The result is computed once for each value of
+     * <code>isDefaultSerializationOn</code>.
+     *
+     * @param isDefaultSerializationOn whether default serialization is on in the owning content delivery config
+     */
+    public boolean isDomFree(final boolean isDefaultSerializationOn) {
+        Boolean domFree = isDefaultSerializationOn ? domFreeGivenDefaultSerializationOn : domFreeGivenDefaultSerializationOff;
+        if (domFree == null) {
+            domFree = getAll().stream().allMatch(visitorBinding -> isDomFree(visitorBinding) || (!isDefaultSerializationOn && isSystemSerializer(visitorBinding)));
+            if (isDefaultSerializationOn) {
+                domFreeGivenDefaultSerializationOn = domFree;
+            } else {
+                domFreeGivenDefaultSerializationOff = domFree;
+            }
+        }
+        return domFree;
+    }
+
+    /**
+     * Whether every bound {@link ChildrenVisitor} is {@link DomFree DOM-free}, meaning child elements can be
+     * {@link ElementView}s. As with {@link #isDomFree(boolean)}, the {@link SystemConsumeSerializerVisitor} is regarded
+     * as DOM-free when default serialization is off.
+     *
+     * @param isDefaultSerializationOn whether default serialization is on in the owning content delivery config
+     */
+    public boolean isChildVisitorsDomFree(final boolean isDefaultSerializationOn) {
+        Boolean childVisitorsDomFree = isDefaultSerializationOn ? childVisitorsDomFreeGivenDefaultSerializationOn : childVisitorsDomFreeGivenDefaultSerializationOff;
+        if (childVisitorsDomFree == null) {
+            childVisitorsDomFree = childVisitors == null || childVisitors.stream().allMatch(childVisitorBinding -> isDomFree(childVisitorBinding) || (!isDefaultSerializationOn && isSystemSerializer(childVisitorBinding)));
+            if (isDefaultSerializationOn) {
+                childVisitorsDomFreeGivenDefaultSerializationOn = childVisitorsDomFree;
+            } else {
+                childVisitorsDomFreeGivenDefaultSerializationOff = childVisitorsDomFree;
+            }
+        }
+        return childVisitorsDomFree;
+    }
+
+    /**
+     * Whether every bound {@link ChildrenVisitor} is either {@link DomFree DOM-free} or one of the built-in serializers,
+     * which write child text out as soon as they are given it, meaning child text can be handed out as a
+     * {@link CharacterDataView}.
+     */
+    public boolean isChildTextViewable() {
+        if (childTextViewable == null) {
+            childTextViewable = childVisitors == null || childVisitors.stream().allMatch(childVisitorBinding -> isDomFree(childVisitorBinding) || isBuiltInSerializer(childVisitorBinding));
+        }
+        return childTextViewable;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static ContentHandlerBinding<Visitor> getTargetVisitorBinding(final ContentHandlerBinding<? extends Visitor> visitorBinding) {
+        return visitorBinding.getContentHandler() instanceof InterceptorVisitor ? ((InterceptorVisitor) visitorBinding.getContentHandler()).getTarget() : (ContentHandlerBinding<Visitor>) visitorBinding;
+    }
+
+    protected static boolean isBuiltInSerializer(final ContentHandlerBinding<? extends Visitor> visitorBinding) {
+        final ContentHandlerBinding<? extends Visitor> targetVisitorBinding = visitorBinding.getContentHandler() instanceof InterceptorVisitor ? ((InterceptorVisitor) visitorBinding.getContentHandler()).getTarget() : visitorBinding;
+        final Class<?> visitorClass = targetVisitorBinding.getContentHandler().getClass();
+        return visitorClass.equals(SimpleSerializerVisitor.class) || visitorClass.equals(ConsumeSerializerVisitor.class) || visitorClass.equals(SystemConsumeSerializerVisitor.class);
+    }
+
+    protected static boolean isSystemSerializer(final ContentHandlerBinding<? extends Visitor> visitorBinding) {
+        return getTargetVisitorBinding(visitorBinding).getContentHandler().getClass().equals(SystemConsumeSerializerVisitor.class);
+    }
+
+    protected static boolean isDomFree(final ContentHandlerBinding<? extends Visitor> visitorBinding) {
+        final ContentHandlerBinding<? extends Visitor> targetVisitorBinding = visitorBinding.getContentHandler() instanceof InterceptorVisitor ? ((InterceptorVisitor) visitorBinding.getContentHandler()).getTarget() : visitorBinding;
+        final Visitor visitor = targetVisitorBinding.getContentHandler();
+        if (!visitor.getClass().isAnnotationPresent(DomFree.class) || visitor.getClass().isAnnotationPresent(TextConsumer.class)) {
+            return false;
+        }
+        if (visitor instanceof ParameterizedVisitor && ((ParameterizedVisitor) visitor).getMaxNodeDepth() != 1) {
+            return false;
+        }
+        final SelectorPath selectorPath = targetVisitorBinding.getResourceConfig().getSelectorPath();
+
+        return !(selectorPath instanceof IndexedSelectorPath &&
+                ((IndexedSelectorPath) selectorPath).getTargetSelectorStep() instanceof ElementSelectorStep &&
+                ((ElementSelectorStep) ((IndexedSelectorPath) selectorPath).getTargetSelectorStep()).accessesText());
+    }
+
     public SaxNgVisitorBindings merge(SaxNgVisitorBindings map) {
         if (map == null) {
             // No need to merge...
@@ -0,0 +1,159 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.TypedKey;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Per-parse accumulator of the text consumed by {@link org.smooks.api.delivery.sax.TextConsumer} visitors.
+ * <p/>
+ * {@link SaxNgContentHandler} appends the characters of an element's text children straight from the parser's buffer
+ * into the {@link AccumulatedText} kept for the element's depth, selects that text while the element's
+ * <code>visitAfter</code> visitors run, and releases it once the element ends. A visitor reads the text of the element
+ * it is visiting with {@link #getText(ExecutionContext)} or {@link #openReader(ExecutionContext)}.
+ */
+public class TextAccumulator {
+
+    public static final TypedKey<TextAccumulator> TEXT_ACCUMULATOR_TYPED_KEY = TypedKey.ofSlot();
+    public static final int DEFAULT_SPILL_THRESHOLD = 4 * 1024 * 1024;
+
+    private final int spillThreshold;
+    private AccumulatedText[] accumulatedTexts = new AccumulatedText[16];
+    private boolean[] isAccumulating = new boolean[16];
+    private int selectedDepth = -1;
+
+    /**
+     * @param spillThreshold number of chars past which an element's text is moved to a temporary file, or a value
+     *                       lower than 1 to keep all text in memory
+     */
+    public TextAccumulator(final int spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Gets the text accumulated for the element being visited after.
+     *
+     * @param executionContext the execution context of the visit
+     * @return the accumulated text, or an empty sequence when no text was accumulated
+     */
+    public static CharSequence getText(final ExecutionContext executionContext) {
+        final TextAccumulator textAccumulator = executionContext.get(TEXT_ACCUMULATOR_TYPED_KEY);
+        final AccumulatedText accumulatedText = textAccumulator == null ? null : textAccumulator.getSelectedText();
+        return accumulatedText == null ? "" : accumulatedText;
+    }
+
+    /**
+     * Opens a {@link Reader} over the text accumulated for the element being visited after.
+     *
+     * @param executionContext the execution context of the visit
+     * @return a reader over the accumulated text
+     * @throws IOException if the spilled text cannot be read
+     */
+    public static Reader openReader(final ExecutionContext executionContext) throws IOException {
+        final TextAccumulator textAccumulator = executionContext.get(TEXT_ACCUMULATOR_TYPED_KEY);
+        final AccumulatedText accumulatedText = textAccumulator == null ? null : textAccumulator.getSelectedText();
+        return accumulatedText == null ? new StringReader("") : accumulatedText.openReader();
+    }
+
+    public void append(final int depth, final char[] ch, final int start, final int length) throws IOException {
+        if (depth >= accumulatedTexts.length) {
+            accumulatedTexts = Arrays.copyOf(accumulatedTexts, Math.max(depth + 1, accumulatedTexts.length * 2));
+            isAccumulating = Arrays.copyOf(isAccumulating, accumulatedTexts.length);
+        }
+        AccumulatedText accumulatedText = accumulatedTexts[depth];
+        if (accumulatedText == null) {
+            accumulatedText = new AccumulatedText(spillThreshold);
+            accumulatedTexts[depth] = accumulatedText;
+        }
+        isAccumulating[depth] = true;
+        accumulatedText.append(ch, start, length);
+    }
+
+    /**
+     * Gets the text accumulated so far for the element at the given depth.
+     *
+     * @return the accumulated text, or <code>null</code> when no text was accumulated
+     */
+    public AccumulatedText peek(final int depth) {
+        return depth < accumulatedTexts.length && isAccumulating[depth] ? accumulatedTexts[depth] : null;
+    }
+
+    public void select(final int depth) {
+        selectedDepth = depth;
+    }
+
+    public AccumulatedText getSelectedText() {
+        return selectedDepth < 0 ? null : peek(selectedDepth);
+    }
+
+    /**
+     * Discards the text accumulated for the element at the given depth, keeping its buffer for the next element at
+     * that depth.
+     */
+    public void release(final int depth) {
+        if (depth < accumulatedTexts.length && isAccumulating[depth]) {
+            accumulatedTexts[depth].clear();
+            isAccumulating[depth] = false;
+        }
+        if (selectedDepth == depth) {
+            selectedDepth = -1;
+        }
+    }
+
+    public void releaseAll() {
+        for (int i = 0; i < accumulatedTexts.length; i++) {
+            release(i);
+        }
+        selectedDepth = -1;
+    }
+
+    public int getSpillThreshold() {
+        return spillThreshold;
+    }
+}
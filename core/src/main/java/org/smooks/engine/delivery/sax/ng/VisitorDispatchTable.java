@@ -0,0 +1,235 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.lifecycle.PostFragmentLifecycle;
+import org.smooks.api.resource.config.xpath.SelectorPath;
+import org.smooks.api.resource.config.xpath.SelectorStep;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ParameterizedVisitor;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.delivery.interceptor.StaticProxyInterceptor;
+import org.smooks.engine.delivery.interceptor.TextConsumerInterceptor;
+import org.smooks.engine.resource.config.xpath.JaxenPatternSelectorPath;
+import org.smooks.engine.resource.config.xpath.SelectorPathMatcher;
+import org.smooks.engine.resource.config.xpath.step.ElementSelectorStep;
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flattened form of a list of {@link ContentHandlerBinding}s which {@link SaxNgContentHandler} walks by index.
+ * <p>
+ * Everything which can be decided without the event at hand is decided once, when the table is built: the visitor
+ * behind each binding, whether it is a {@link ParameterizedVisitor}, and how much matching it needs. A binding whose
+ * selector has no condition, no predicate, no namespace, and no ancestor step (e.g., <code>b</code> or <code>*</code>)
+ * is matched by comparing the element's local name instead of calling {@link NodeFragment#isMatch}. Bindings whose
+ * visitor is a text consumer, as told by {@link TextConsumerInterceptor#isTextConsumer}, are flagged so that the
+ * element's text is accumulated only when one of them is selected.
+ *
+ * @param <T> the visitor type
+ */
+final class VisitorDispatchTable<T extends Visitor> {
+
+    private static final VisitorDispatchTable<?> EMPTY = new VisitorDispatchTable<>(new ArrayList<>());
+
+    final int size;
+    private final Visitor[] visitors;
+    final boolean[] parameterized;
+    private final SelectorPath[] selectorPaths;
+    private final String[] elementNames;
+    final boolean[] textConsumers;
+    final boolean[] streamingTextConsumers;
+    final boolean hasTextConsumers;
+
+    private VisitorDispatchTable(final List<? extends ContentHandlerBinding<? extends T>> contentHandlerBindings) {
+        size = contentHandlerBindings.size();
+        visitors = new Visitor[size];
+        parameterized = new boolean[size];
+        selectorPaths = new SelectorPath[size];
+        elementNames = new String[size];
+        textConsumers = new boolean[size];
+        streamingTextConsumers = new boolean[size];
+        boolean hasTextConsumers = false;
+        for (int i = 0; i < size; i++) {
+            final ContentHandlerBinding<? extends T> contentHandlerBinding = contentHandlerBindings.get(i);
+            final SelectorPath selectorPath = contentHandlerBinding.getResourceConfig().getSelectorPath();
+            visitors[i] = contentHandlerBinding.getContentHandler();
+            parameterized[i] = visitors[i] instanceof ParameterizedVisitor;
+            final SelectorPathMatcher selectorPathMatcher = getElementNameMatcher(selectorPath);
+            if (selectorPathMatcher == null) {
+                selectorPaths[i] = selectorPath;
+            } else {
+                elementNames[i] = selectorPathMatcher.getElementName();
+            }
+            final ContentHandlerBinding<Visitor> targetVisitorBinding = SaxNgVisitorBindings.getTargetVisitorBinding(contentHandlerBinding);
+            textConsumers[i] = TextConsumerInterceptor.isTextConsumer(targetVisitorBinding);
+            streamingTextConsumers[i] = textConsumers[i] && TextConsumerInterceptor.isStreamingTextConsumer(targetVisitorBinding);
+            hasTextConsumers |= textConsumers[i];
+        }
+        this.hasTextConsumers = hasTextConsumers;
+    }
+
+    /**
+     * Builds the table for a list of bindings in the list's order.
+     *
+     * @param contentHandlerBindings the bindings, or <code>null</code>
+     * @return the table or <code>null</code> when <code>contentHandlerBindings</code> is <code>null</code>
+     */
+    static <T extends Visitor> VisitorDispatchTable<T> of(final List<ContentHandlerBinding<T>> contentHandlerBindings) {
+        return contentHandlerBindings == null ? null : new VisitorDispatchTable<>(contentHandlerBindings);
+    }
+
+    /**
+     * Builds the table of the bindings whose visitor receives {@link PostFragmentLifecycle#onPostFragment} calls,
+     * leaving out every other binding.
+     *
+     * @param contentHandlerBindings the bindings
+     * @return the table, which is empty when no visitor implements <code>PostFragmentLifecycle</code>
+     */
+    @SuppressWarnings("unchecked")
+    static VisitorDispatchTable<Visitor> ofPostFragmentLifecycles(final List<ContentHandlerBinding<? extends Visitor>> contentHandlerBindings) {
+        final List<ContentHandlerBinding<? extends Visitor>> postFragmentLifecycleBindings = new ArrayList<>();
+        for (ContentHandlerBinding<? extends Visitor> contentHandlerBinding : contentHandlerBindings) {
+            if (isPostFragmentLifecycle(contentHandlerBinding.getContentHandler())) {
+                postFragmentLifecycleBindings.add(contentHandlerBinding);
+            }
+        }
+
+        return postFragmentLifecycleBindings.isEmpty() ? (VisitorDispatchTable<Visitor>) EMPTY : new VisitorDispatchTable<>(postFragmentLifecycleBindings);
+    }
+
+    /**
+     * Gets the visitor at <code>index</code>.
+     */
+    @SuppressWarnings("unchecked")
+    T getVisitor(final int index) {
+        return (T) visitors[index];
+    }
+
+    /**
+     * Whether the visitor at <code>index</code> is selected for the fragment.
+     */
+    boolean isMatch(final int index, final NodeFragment nodeFragment, final ExecutionContext executionContext) {
+        final SelectorPath selectorPath = selectorPaths[index];
+        if (selectorPath == null) {
+            final String elementName = elementNames[index];
+            if (elementName == null) {
+                return true;
+            }
+            final Node node = nodeFragment.unwrap();
+            final String localName = node.getLocalName();
+            return elementName.equals(localName == null ? node.getNodeName() : localName);
+        } else {
+            return nodeFragment.isMatch(selectorPath, executionContext);
+        }
+    }
+
+    /**
+     * Whether the visitor at <code>index</code> may be selected for the fragment, judged when the fragment's element
+     * is started. A selector with a condition, or with a predicate on text which has yet to be read, cannot be decided
+     * then so the visitor is taken to be selected.
+     */
+    boolean isMatchOnStart(final int index, final NodeFragment nodeFragment, final ExecutionContext executionContext) {
+        final SelectorPath selectorPath = selectorPaths[index];
+        if (selectorPath != null) {
+            if (selectorPath.getConditionEvaluator() != null) {
+                return true;
+            }
+            for (SelectorStep selectorStep : selectorPath) {
+                if (selectorStep instanceof ElementSelectorStep && ((ElementSelectorStep) selectorStep).accessesText()) {
+                    return true;
+                }
+            }
+        }
+        return isMatch(index, nodeFragment, executionContext);
+    }
+
+    /**
+     * Gets the matcher of a selector path which needs nothing but an element name test, as described in
+     * {@link SelectorPathMatcher#isElementNameTest()}.
+     *
+     * @return the matcher or <code>null</code> if the selector path has to be matched in full
+     */
+    private static SelectorPathMatcher getElementNameMatcher(final SelectorPath selectorPath) {
+        if (!(selectorPath instanceof JaxenPatternSelectorPath) || selectorPath.getConditionEvaluator() != null) {
+            return null;
+        }
+        for (SelectorStep selectorStep : selectorPath) {
+            if (!selectorStep.getPredicates().isEmpty()) {
+                return null;
+            }
+        }
+        final SelectorPathMatcher selectorPathMatcher = ((JaxenPatternSelectorPath) selectorPath).getSelectorPathMatcher();
+
+        return selectorPathMatcher != null && selectorPathMatcher.isElementNameTest() ? selectorPathMatcher : null;
+    }
+
+    /**
+     * Whether applying the post-fragment phase to the visitor reaches a {@link PostFragmentLifecycle} implementation.
+     * A {@link StaticProxyInterceptor} always implements the interface but only forwards the call to the next
+     * implementation down its chain, so the chain is followed until an implementation which does more than forward is
+     * found.
+     */
+    private static boolean isPostFragmentLifecycle(final Visitor visitor) {
+        Visitor nextVisitor = visitor;
+        if (!(nextVisitor instanceof PostFragmentLifecycle)) {
+            return false;
+        }
+        while (nextVisitor instanceof StaticProxyInterceptor) {
+            nextVisitor = ((StaticProxyInterceptor) nextVisitor).getVisitorBinding().getContentHandler();
+            while (!(nextVisitor instanceof PostFragmentLifecycle) && nextVisitor instanceof InterceptorVisitor) {
+                nextVisitor = ((InterceptorVisitor) nextVisitor).getVisitorBinding().getContentHandler();
+            }
+            if (!(nextVisitor instanceof PostFragmentLifecycle)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -33,6 +33,7 @@ import org.w3c.dom.UserDataHandler;
 import org.w3c.dom.events.Event;
 import org.w3c.dom.events.EventListener;
 import org.w3c.dom.events.EventTarget;
+import org.smooks.engine.delivery.fragment.NodeFragment;
 
 /**
  * NodeImpl provides the basic structure of a DOM tree. It is never used
@@ -164,6 +165,17 @@ public abstract class NodeImpl
 
     /** Table for user data attached to this document nodes. */
     protected Map userData;  // serialized as Hashtable
+
+    /**
+     * Key of the user data held inline in {@link #inlineUserData} rather than in {@link #userData}. The Smooks
+     * engine reads and writes the fragment state of each node it visits, so keeping it in a field spares the
+     * per-node map and record allocations.
+     */
+    protected static final String INLINE_USER_DATA_KEY = NodeFragment.FRAGMENT_STATE_USER_DATA_KEY;
+
+    /** User data associated to {@link #INLINE_USER_DATA_KEY}. */
+    protected transient Object inlineUserData;
+    protected transient UserDataHandler inlineUserDataHandler;
     //
     // Constructors
     //
@@ -300,7 +312,7 @@ public abstract class NodeImpl
      * @param operation The operation - import, clone, or delete.
      */
     protected void callUserDataHandlers(Node n, Node c, short operation) {
-        if (userData == null) {
+        if (userData == null && inlineUserData == null) {
             return;
         }
         //Hashtable t = (Hashtable) userData.get(n);
@@ -1825,6 +1837,12 @@ public abstract class NodeImpl
     public Object setUserData(String key,
                               Object data,
                               UserDataHandler handler) {
+        if (isInlineUserDataKey(key)) {
+            Object previousData = inlineUserData;
+            inlineUserData = data;
+            inlineUserDataHandler = data == null ? null : handler;
+            return previousData;
+        }
         if (data == null) {
             if (userData != null) {
                 Object o = userData.remove(key);
@@ -1856,6 +1874,9 @@ public abstract class NodeImpl
      * @since DOM Level 3
      */
     public Object getUserData(String key) {
+        if (isInlineUserDataKey(key)) {
+            return inlineUserData;
+        }
         if (userData == null) {
             return null;
         }
@@ -1868,9 +1889,24 @@ public abstract class NodeImpl
     }
 
 	protected Map getUserDataRecord(){
-        return userData;
+        // the records are only read to call their handlers so inline user data without a handler is left out
+        if (inlineUserDataHandler == null) {
+            return userData;
+        }
+        final Map<String, ParentNode.UserDataRecord> userDataRecord = new HashMap<>();
+        if (userData != null) {
+            for (Object entry : userData.entrySet()) {
+                userDataRecord.put((String) ((Map.Entry) entry).getKey(), (ParentNode.UserDataRecord) ((Map.Entry) entry).getValue());
+            }
+        }
+        userDataRecord.put(INLINE_USER_DATA_KEY, new ParentNode.UserDataRecord(inlineUserData, inlineUserDataHandler));
+        return userDataRecord;
 	}
 
+    private static boolean isInlineUserDataKey(String key) {
+        return key == INLINE_USER_DATA_KEY || INLINE_USER_DATA_KEY.equals(key);
+    }
+
     //
     // Public methods
     //
@@ -0,0 +1,66 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.lookup;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A registry lookup whose result depends solely on the registered entries and whose {@link #equals(Object)} and
+ * {@link #hashCode()} identify the query (e.g., the instance type or the converter source/target pair).
+ * <p/>
+ * The {@link org.smooks.engine.DefaultRegistry} indexes the results of such lookups so that repeated lookups,
+ * typically issued once or more per filtered message, do not scan the whole registry. The index is invalidated
+ * whenever an object is registered or de-registered. Implementations must therefore return results which are not
+ * modified by the caller.
+ *
+ * @param <R> lookup result type
+ */
+public interface IndexedLookup<R> extends Function<Map<Object, Object>, R> {
+
+    @Override
+    boolean equals(Object obj);
+
+    @Override
+    int hashCode();
+}
@@ -42,8 +42,8 @@
  */
 package org.smooks.engine.lookup;
 
+import java.util.Collections;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -51,7 +51,7 @@ import java.util.stream.Collectors;
  *
  * @param <T> criteria to match type
  */
-public class InstanceLookup<T> implements Function<Map<Object, Object>, Map<Object, T>> {
+public class InstanceLookup<T> implements IndexedLookup<Map<Object, T>> {
 
     private final Class<T> type;
 
@@ -61,9 +61,25 @@ public class InstanceLookup<T> implements Function<Map<Object, Object>, Map<Obje
 
     @Override
     public Map<Object, T> apply(final Map<Object, Object> registryEntries) {
-        return (Map<Object, T>) registryEntries.entrySet().
+        return Collections.unmodifiableMap((Map<Object, T>) registryEntries.entrySet().
                 stream().
                 filter(kv -> type.isInstance(kv.getValue())).
-                collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
+                collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue())));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return type.equals(((InstanceLookup<?>) o).type);
+    }
+
+    @Override
+    public int hashCode() {
+        return type.hashCode();
     }
 }
@@ -43,14 +43,16 @@
 package org.smooks.engine.lookup.converter;
 
 import org.smooks.api.converter.TypeConverterFactory;
+import org.smooks.engine.lookup.IndexedLookup;
 import org.smooks.support.ClassUtils;
 
 import jakarta.annotation.Resource;
 
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
-public class NameTypeConverterFactoryLookup<S, T> implements TypeConverterFactoryLookup<S, T> {
+public class NameTypeConverterFactoryLookup<S, T> implements TypeConverterFactoryLookup<S, T>, IndexedLookup<TypeConverterFactory<S, T>> {
     private final String name;
 
     public NameTypeConverterFactoryLookup(final String name) {
@@ -76,4 +78,20 @@ public class NameTypeConverterFactoryLookup<S, T> implements TypeConverterFactor
 
         return (TypeConverterFactory<S, T>) typeConverterFactory;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Objects.equals(name, ((NameTypeConverterFactoryLookup<?, ?>) o).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(name);
+    }
 }
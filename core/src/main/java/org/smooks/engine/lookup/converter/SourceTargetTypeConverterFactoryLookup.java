@@ -45,11 +45,14 @@ package org.smooks.engine.lookup.converter;
 import org.smooks.api.converter.TypeConverterDescriptor;
 import org.smooks.api.converter.TypeConverterFactory;
 import org.smooks.engine.converter.DefaultTypeConverterDescriptor;
+import org.smooks.engine.lookup.IndexedLookup;
 
+import java.util.Comparator;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
-public class SourceTargetTypeConverterFactoryLookup<S, T> implements TypeConverterFactoryLookup<S, T> {
+public class SourceTargetTypeConverterFactoryLookup<S, T> implements TypeConverterFactoryLookup<S, T>, IndexedLookup<TypeConverterFactory<S, T>> {
 
     private final TypeConverterDescriptor<Class<S>, Class<T>> typeConverterDescriptor;
 
@@ -66,8 +69,25 @@ public class SourceTargetTypeConverterFactoryLookup<S, T> implements TypeConvert
     public TypeConverterFactory<S, T> lookup(final Set<TypeConverterFactory<?, ?>> typeConverterFactories) {
         return (TypeConverterFactory<S, T>) typeConverterFactories.stream().
                 filter(t -> t.getTypeConverterDescriptor().getSourceType().equals(typeConverterDescriptor.getSourceType()) && t.getTypeConverterDescriptor().getTargetType().equals(typeConverterDescriptor.getTargetType())).
-                sorted((o1, o2) -> o2.getTypeConverterDescriptor().getPriority().compareTo(o1.getTypeConverterDescriptor().getPriority())).
-                findFirst().
+                max(Comparator.comparing(t -> t.getTypeConverterDescriptor().getPriority())).
                 orElse(null);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SourceTargetTypeConverterFactoryLookup<?, ?> that = (SourceTargetTypeConverterFactoryLookup<?, ?>) o;
+        return Objects.equals(typeConverterDescriptor.getSourceType(), that.typeConverterDescriptor.getSourceType()) &&
+                Objects.equals(typeConverterDescriptor.getTargetType(), that.typeConverterDescriptor.getTargetType());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(typeConverterDescriptor.getSourceType(), typeConverterDescriptor.getTargetType());
+    }
 }
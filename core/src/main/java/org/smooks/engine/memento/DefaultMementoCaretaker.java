@@ -98,6 +98,18 @@ public class DefaultMementoCaretaker implements MementoCaretaker {
         mementoAnchors.remove(fragment);
     }
 
+    /**
+     * Forgets every saved <code>Memento</code> so that this caretaker can serve another execution.
+     */
+    public void clear() {
+        for (final Set<String> anchors : mementoAnchors.values()) {
+            for (final String anchor : anchors) {
+                typedMap.remove(TypedKey.of(anchor));
+            }
+        }
+        mementoAnchors.clear();
+    }
+
     @Override
     public <T extends Memento> T stash(T defaultMemento, Function<T, T> function) {
         restore(defaultMemento);
@@ -0,0 +1,271 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.memento;
+
+import org.smooks.api.delivery.fragment.Fragment;
+import org.smooks.api.memento.Memento;
+import org.smooks.api.memento.MementoCaretaker;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * {@link MementoCaretaker} keeping <code>Memento</code>s in a stack of frames, one frame per fragment.
+ * <p>
+ * Frames are pushed in document order when a fragment captures its first <code>Memento</code> and are popped when
+ * the fragment is forgotten, which the SAX NG filter does at the end of each element. The frame of a fragment
+ * is therefore found by scanning down from the top of the stack, usually after one or two comparisons. Within a
+ * frame, <code>Memento</code>s are told apart by their class, visitor and typed key instead of an anchor string, so
+ * no anchors are built for the built-in <code>Memento</code> types. Other <code>Memento</code> types fall back to
+ * their anchor.
+ * <p>
+ * Unlike {@link DefaultMementoCaretaker}, {@link TextAccumulatorMemento}s are kept in place instead of being
+ * copied on capture: a restored <code>TextAccumulatorMemento</code> shares the text buffer of the saved one. Select
+ * this caretaker with {@link org.smooks.FilterSettings#setMementoCaretakerType(org.smooks.MementoCaretakerType)}.
+ */
+@NotThreadSafe
+public class DepthStackMementoCaretaker implements MementoCaretaker {
+
+    private Frame[] frames = new Frame[16];
+    private int depth;
+
+    protected static final class Frame {
+        private Fragment<?> fragment;
+        private Class<?>[] mementoClasses = new Class<?>[4];
+        private Object[] visitors = new Object[4];
+        private Object[] stateKeys = new Object[4];
+        private Memento[] mementos = new Memento[4];
+        private int size;
+
+        private int indexOf(final Class<?> mementoClass, final Object visitor, final Object stateKey) {
+            for (int i = 0; i < size; i++) {
+                if (mementoClasses[i] == mementoClass && visitors[i] == visitor && (stateKeys[i] == stateKey || (stateKey != null && stateKey.equals(stateKeys[i])))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void add(final Class<?> mementoClass, final Object visitor, final Object stateKey, final Memento memento) {
+            if (size == mementos.length) {
+                mementoClasses = Arrays.copyOf(mementoClasses, size * 2);
+                visitors = Arrays.copyOf(visitors, size * 2);
+                stateKeys = Arrays.copyOf(stateKeys, size * 2);
+                mementos = Arrays.copyOf(mementos, size * 2);
+            }
+            mementoClasses[size] = mementoClass;
+            visitors[size] = visitor;
+            stateKeys[size] = stateKey;
+            mementos[size] = memento;
+            size++;
+        }
+
+        private void remove(final int index) {
+            size--;
+            mementoClasses[index] = mementoClasses[size];
+            visitors[index] = visitors[size];
+            stateKeys[index] = stateKeys[size];
+            mementos[index] = mementos[size];
+            mementoClasses[size] = null;
+            visitors[size] = null;
+            stateKeys[size] = null;
+            mementos[size] = null;
+        }
+
+        private void clear() {
+            Arrays.fill(mementoClasses, 0, size, null);
+            Arrays.fill(visitors, 0, size, null);
+            Arrays.fill(stateKeys, 0, size, null);
+            Arrays.fill(mementos, 0, size, null);
+            size = 0;
+            fragment = null;
+        }
+    }
+
+    @Override
+    public void capture(final Memento memento) {
+        Frame frame = findFrame(memento.getFragment());
+        if (frame == null) {
+            frame = pushFrame(memento.getFragment());
+        }
+        final Memento savedMemento = memento instanceof TextAccumulatorMemento ? memento : memento.copy();
+        final Class<?> mementoClass = getMementoClass(memento);
+        final Object visitor = getVisitor(memento);
+        final Object stateKey = getStateKey(memento);
+        final int index = frame.indexOf(mementoClass, visitor, stateKey);
+        if (index < 0) {
+            frame.add(mementoClass, visitor, stateKey, savedMemento);
+        } else {
+            frame.mementos[index] = savedMemento;
+        }
+    }
+
+    @Override
+    public void restore(final Memento memento) {
+        final Memento savedMemento = get(memento);
+        if (savedMemento != null) {
+            if (memento instanceof TextAccumulatorMemento && savedMemento instanceof TextAccumulatorMemento) {
+                ((TextAccumulatorMemento) memento).share((TextAccumulatorMemento) savedMemento);
+            } else {
+                memento.restore(savedMemento);
+            }
+        }
+    }
+
+    @Override
+    public boolean exists(final Memento memento) {
+        return get(memento) != null;
+    }
+
+    @Override
+    public void forget(final Memento memento) {
+        final Frame frame = findFrame(memento.getFragment());
+        if (frame != null) {
+            final int index = frame.indexOf(getMementoClass(memento), getVisitor(memento), getStateKey(memento));
+            if (index >= 0) {
+                frame.remove(index);
+            }
+        }
+    }
+
+    @Override
+    public void forget(final Fragment<?> fragment) {
+        for (int i = depth - 1; i >= 0; i--) {
+            final Frame frame = frames[i];
+            if (isSameFragment(frame.fragment, fragment)) {
+                frame.clear();
+                System.arraycopy(frames, i + 1, frames, i, depth - i - 1);
+                depth--;
+                frames[depth] = frame;
+                return;
+            }
+        }
+    }
+
+    @Override
+    public <T extends Memento> T stash(final T defaultMemento, final Function<T, T> function) {
+        restore(defaultMemento);
+        final T newVisitorMemento = function.apply(defaultMemento);
+        capture(newVisitorMemento);
+
+        return newVisitorMemento;
+    }
+
+    /**
+     * Forgets every saved <code>Memento</code> so that this caretaker can serve another execution. The frames are
+     * kept for reuse.
+     */
+    public void clear() {
+        for (int i = 0; i < depth; i++) {
+            frames[i].clear();
+        }
+        depth = 0;
+    }
+
+    protected Memento get(final Memento memento) {
+        final Frame frame = findFrame(memento.getFragment());
+        if (frame == null) {
+            return null;
+        }
+        final int index = frame.indexOf(getMementoClass(memento), getVisitor(memento), getStateKey(memento));
+
+        return index < 0 ? null : frame.mementos[index];
+    }
+
+    protected Frame findFrame(final Fragment<?> fragment) {
+        for (int i = depth - 1; i >= 0; i--) {
+            if (isSameFragment(frames[i].fragment, fragment)) {
+                return frames[i];
+            }
+        }
+        return null;
+    }
+
+    protected Frame pushFrame(final Fragment<?> fragment) {
+        if (depth == frames.length) {
+            frames = Arrays.copyOf(frames, depth * 2);
+        }
+        Frame frame = frames[depth];
+        if (frame == null) {
+            frame = new Frame();
+            frames[depth] = frame;
+        }
+        frame.fragment = fragment;
+        depth++;
+
+        return frame;
+    }
+
+    protected boolean isSameFragment(final Fragment<?> fragment, final Fragment<?> otherFragment) {
+        return fragment == otherFragment || fragment.equals(otherFragment);
+    }
+
+    protected Class<?> getMementoClass(final Memento memento) {
+        return isAnchored(memento) ? null : memento.getClass();
+    }
+
+    protected Object getVisitor(final Memento memento) {
+        if (memento instanceof AbstractVisitorMemento) {
+            return ((AbstractVisitorMemento) memento).getVisitor();
+        } else if (memento instanceof TextAccumulatorVisitorMemento) {
+            return ((TextAccumulatorVisitorMemento) memento).getVisitor();
+        } else {
+            return null;
+        }
+    }
+
+    protected Object getStateKey(final Memento memento) {
+        if (memento instanceof VisitorMemento) {
+            return ((VisitorMemento<?>) memento).getTypedKey();
+        } else if (isAnchored(memento)) {
+            return memento.getAnchor();
+        } else {
+            return null;
+        }
+    }
+
+    private boolean isAnchored(final Memento memento) {
+        return !(memento instanceof AbstractVisitorMemento) && !(memento instanceof TextAccumulatorMemento);
+    }
+}
@@ -50,7 +50,7 @@ public class TextAccumulatorMemento implements Memento {
     private static final TypedKey<String> ANCHOR_TYPED_KEY = TypedKey.of();
 
     protected final Fragment<?> fragment;
-    protected final StringBuilder stringBuilder = new StringBuilder();
+    protected StringBuilder stringBuilder = new StringBuilder();
     protected String anchor;
 
     public TextAccumulatorMemento(final Fragment<?> fragment) {
@@ -83,6 +83,20 @@ public class TextAccumulatorMemento implements Memento {
         return anchor;
     }
 
+    /**
+     * Restores this <code>TextAccumulatorMemento</code> from another one by sharing its text buffer instead of copying
+     * it. Text accumulated afterwards is visible to both mementos.
+     *
+     * @param textAccumulatorMemento the <code>TextAccumulatorMemento</code> restoring this one
+     */
+    public void share(final TextAccumulatorMemento textAccumulatorMemento) {
+        if (stringBuilder.length() == 0) {
+            stringBuilder = textAccumulatorMemento.stringBuilder;
+        } else {
+            restore(textAccumulatorMemento);
+        }
+    }
+
     public TextAccumulatorMemento accumulateText(final String text) {
         stringBuilder.append(text);
         return this;
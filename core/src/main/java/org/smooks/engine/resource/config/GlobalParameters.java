@@ -0,0 +1,166 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config;
+
+import org.smooks.api.delivery.ContentDeliveryConfig;
+import org.smooks.api.delivery.Filter;
+import org.smooks.api.resource.config.Parameter;
+import org.smooks.api.resource.config.ParameterDecodeException;
+import org.smooks.api.resource.config.ResourceConfig;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of the {@link ParameterAccessor#GLOBAL_PARAMETERS global parameters} targeted at a
+ * {@link ContentDeliveryConfig}.
+ * <p/>
+ * The <code>global-parameters</code> resource configs are resolved once, the first definition of a parameter winning,
+ * so that lookups are a single map probe instead of a walk over the resource configs. Values decoded through a
+ * {@link ParameterDecoder} are memoized.
+ * <p/>
+ * System properties are consulted only when the {@link Filter#SYSTEM_PROPERTY_PARAMETERS} global parameter is
+ * <code>true</code>, and then only for parameters that are not configured. A system property is read once, on first
+ * lookup, and held by the snapshot until it is reloaded.
+ *
+ * @see org.smooks.engine.delivery.AbstractContentDeliveryConfig#reloadGlobalParameters()
+ */
+public class GlobalParameters {
+
+    private static final Object NULL_VALUE = new Object();
+
+    private final Map<String, Parameter<?>> parameters;
+    private final boolean systemPropertyParameters;
+    private final long generation;
+    private final Map<String, Object> systemPropertyParametersCache = new ConcurrentHashMap<>();
+    private final Map<String, Object> decodedValues = new ConcurrentHashMap<>();
+
+    /**
+     * @param resourceConfigs the <code>global-parameters</code> resource configs in precedence order, or null
+     * @param generation      the {@link ParameterAccessor#getGlobalParametersGeneration() generation} the snapshot is
+     *                        taken at
+     */
+    public GlobalParameters(List<ResourceConfig> resourceConfigs, long generation) {
+        Map<String, Parameter<?>> parameters = new LinkedHashMap<>();
+        if (resourceConfigs != null) {
+            for (ResourceConfig resourceConfig : resourceConfigs) {
+                for (String name : resourceConfig.getParameters().keySet()) {
+                    if (!parameters.containsKey(name)) {
+                        Parameter<?> parameter = resourceConfig.getParameter(name, Object.class);
+                        if (parameter != null) {
+                            parameters.put(name, parameter);
+                        }
+                    }
+                }
+            }
+        }
+        this.parameters = Collections.unmodifiableMap(parameters);
+        Parameter<?> systemPropertyParametersParameter = parameters.get(Filter.SYSTEM_PROPERTY_PARAMETERS);
+        this.systemPropertyParameters = systemPropertyParametersParameter != null && Boolean.parseBoolean(String.valueOf(systemPropertyParametersParameter.getValue()).trim());
+        this.generation = generation;
+    }
+
+    /**
+     * Gets the named parameter. The parameter is not converted: <code>T</code> is whatever type the caller expects the
+     * parameter to be.
+     *
+     * @param name the parameter name
+     * @return the parameter, or null if the parameter is not defined
+     */
+    public <T> Parameter<T> getParameter(String name) {
+        @SuppressWarnings("unchecked") final Parameter<T> parameter = (Parameter<T>) lookupParameter(name);
+        return parameter;
+    }
+
+    private Parameter<?> lookupParameter(String name) {
+        Parameter<?> parameter = parameters.get(name);
+        if (parameter == null && systemPropertyParameters) {
+            Object systemPropertyParameter = systemPropertyParametersCache.get(name);
+            if (systemPropertyParameter == null) {
+                String systemValue = System.getProperty(name);
+                systemPropertyParameter = systemValue != null ? new DefaultParameter<>(name, systemValue) : NULL_VALUE;
+                systemPropertyParametersCache.put(name, systemPropertyParameter);
+            }
+            return systemPropertyParameter == NULL_VALUE ? null : (Parameter<?>) systemPropertyParameter;
+        }
+
+        return parameter;
+    }
+
+    /**
+     * Gets the value of the named parameter as decoded by the {@link ParameterDecoder} for the parameter type.
+     *
+     * @param name                  the parameter name
+     * @param contentDeliveryConfig the config to look up the parameter decoder from
+     * @return the decoded value, or null if the parameter is not defined
+     * @throws ParameterDecodeException unable to decode the parameter value
+     */
+    public Object getDecodedValue(String name, ContentDeliveryConfig contentDeliveryConfig) throws ParameterDecodeException {
+        Object decodedValue = decodedValues.get(name);
+        if (decodedValue == null) {
+            Parameter<?> parameter = lookupParameter(name);
+            if (parameter == null) {
+                return null;
+            }
+            decodedValue = parameter.getValue(contentDeliveryConfig);
+            decodedValues.put(name, decodedValue == null ? NULL_VALUE : decodedValue);
+        }
+
+        return decodedValue == NULL_VALUE ? null : decodedValue;
+    }
+
+    public Map<String, Parameter<?>> getParameters() {
+        return parameters;
+    }
+
+    public boolean isSystemPropertyParameters() {
+        return systemPropertyParameters;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+}
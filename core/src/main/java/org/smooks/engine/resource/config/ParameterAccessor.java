@@ -50,11 +50,14 @@ import org.smooks.api.ExecutionContext;
 import org.smooks.assertion.AssertArgument;
 import org.smooks.api.delivery.ContentDeliveryConfig;
 import org.smooks.api.Registry;
+import org.smooks.api.resource.config.ParameterDecodeException;
+import org.smooks.engine.delivery.AbstractContentDeliveryConfig;
 import org.smooks.engine.lookup.ResourceConfigSeqsLookup;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Accessor class for looking up global parameters.
@@ -69,6 +72,11 @@ import java.util.Properties;
  * value through the {@link #getParameterObject(String, ContentDeliveryConfig)} method,
  * returning whatever Java type defined by the {@link ParameterDecoder}
  * implementation.  As an example, see {@link TokenizedStringParameterDecoder}.
+ * <p/>
+ * Lookups against an {@link AbstractContentDeliveryConfig} are served from its {@link GlobalParameters} snapshot.
+ * {@link #setParameter(String, Object, Smooks)} and {@link #removeParameter(String, Smooks)} invalidate the
+ * snapshots. Code modifying global parameter resource configs directly should call
+ * {@link AbstractContentDeliveryConfig#reloadGlobalParameters()} or {@link #reloadGlobalParameters()}.
  *
  * @author tfennelly
  */
@@ -79,6 +87,8 @@ public abstract class ParameterAccessor {
      */
     public static final String GLOBAL_PARAMETERS = "global-parameters";
 
+    private static final AtomicLong GLOBAL_PARAMETERS_GENERATION = new AtomicLong();
+
     /**
      * Get the named parameter String value.
      *
@@ -129,11 +139,38 @@ public abstract class ParameterAccessor {
         AssertArgument.isNotNullAndNotEmpty(name, "name");
         AssertArgument.isNotNull(config, "config");
 
-        return getParameter(name, valueType, config.getResourceConfigs());
+        if (config instanceof AbstractContentDeliveryConfig) {
+            return ((AbstractContentDeliveryConfig) config).getGlobalParameters().getParameter(name);
+        } else {
+            return getParameter(name, valueType, config.getResourceConfigs());
+        }
+    }
+
+    /**
+     * Get the named parameter value decoded by the {@link ParameterDecoder} for the parameter type.
+     *
+     * @param name   Parameter name.
+     * @param config The {@link ContentDeliveryConfig} for the requesting device.
+     * @return The decoded parameter value, or null if not defined.
+     * @throws ParameterDecodeException Unable to decode the parameter value.
+     */
+    public static Object getParameterObject(String name, ContentDeliveryConfig config) throws ParameterDecodeException {
+        AssertArgument.isNotNullAndNotEmpty(name, "name");
+        AssertArgument.isNotNull(config, "config");
+
+        if (config instanceof AbstractContentDeliveryConfig) {
+            return ((AbstractContentDeliveryConfig) config).getGlobalParameters().getDecodedValue(name, config);
+        } else {
+            Parameter<?> parameter = getParameter(name, Object.class, config.getResourceConfigs());
+            return parameter != null ? parameter.getValue(config) : null;
+        }
     }
 
     /**
      * Get the named parameter from the supplied resource config map.
+     * <p/>
+     * The resource configs are walked on every call and System properties are always checked as a fallback. Prefer
+     * {@link #getParameter(String, Class, ContentDeliveryConfig)} outside of content delivery config construction.
      *
      * @param name                      The parameter name.
      * @param resourceConfigsBySelector The resource configuration map.
@@ -195,6 +232,7 @@ public abstract class ParameterAccessor {
 
         resourceConfig.setParameter(name, value);
         smooks.getApplicationContext().getRegistry().registerResourceConfig(resourceConfig);
+        reloadGlobalParameters();
     }
 
     public static void removeParameter(String name, Smooks smooks) {
@@ -208,5 +246,18 @@ public abstract class ParameterAccessor {
                 }
             }
         }
+        reloadGlobalParameters();
+    }
+
+    /**
+     * Invalidate the {@link GlobalParameters} snapshots of all content delivery configs. Each snapshot is rebuilt on
+     * its next lookup.
+     */
+    public static void reloadGlobalParameters() {
+        GLOBAL_PARAMETERS_GENERATION.incrementAndGet();
+    }
+
+    public static long getGlobalParametersGeneration() {
+        return GLOBAL_PARAMETERS_GENERATION.get();
     }
 }
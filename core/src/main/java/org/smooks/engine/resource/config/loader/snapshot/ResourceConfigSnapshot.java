@@ -0,0 +1,321 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config.loader.snapshot;
+
+import org.smooks.api.SmooksConfigException;
+import org.smooks.api.expression.ExpressionEvaluator;
+import org.smooks.api.profile.Profile;
+import org.smooks.api.profile.ProfileSet;
+import org.smooks.api.resource.config.Parameter;
+import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.api.resource.config.ResourceConfigSeq;
+import org.smooks.api.resource.config.xpath.SelectorPath;
+import org.smooks.engine.expression.ExpressionEvaluatorFactory;
+import org.smooks.engine.profile.DefaultProfileSet;
+import org.smooks.engine.resource.config.DefaultResourceConfig;
+import org.smooks.engine.resource.config.DefaultResourceConfigSeq;
+import org.smooks.support.XmlUtils;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compact binary form of a resolved {@link ResourceConfigSeq}.
+ * <p/>
+ * A snapshot holds the {@link ResourceConfig}s exactly as {@link org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader}
+ * left them, that is, after imports, extension configurations and condition references have been resolved. Reading a
+ * snapshot back therefore skips XML parsing, XSD validation and the nested Smooks instances used for extension
+ * digestion. Content handlers are still created, and sorted, when the content delivery config is built.
+ * <p/>
+ * Only {@link String} parameter values are supported, which is what the XML loader produces.
+ *
+ * @see SnapshotResourceConfigLoader
+ * @see ResourceConfigSnapshotCompiler
+ */
+public final class ResourceConfigSnapshot {
+
+    /**
+     * Leading bytes of every snapshot: "SMKS".
+     */
+    public static final int MAGIC = 0x534D4B53;
+    public static final int VERSION = 1;
+
+    private static final ExpressionEvaluatorFactory EXPRESSION_EVALUATOR_FACTORY = new ExpressionEvaluatorFactory();
+
+    private ResourceConfigSnapshot() {
+
+    }
+
+    /**
+     * Write a snapshot of the supplied {@link ResourceConfigSeq}.
+     *
+     * @param resourceConfigSeq the resolved resource configs
+     * @param outputStream      the target stream. The stream is flushed but not closed.
+     * @throws IOException           error writing to the stream
+     * @throws SmooksConfigException a resource config cannot be represented in a snapshot
+     */
+    public static void write(ResourceConfigSeq resourceConfigSeq, OutputStream outputStream) throws IOException {
+        DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+
+        dataOutputStream.writeInt(MAGIC);
+        dataOutputStream.writeInt(VERSION);
+        dataOutputStream.writeBoolean(resourceConfigSeq.isSystem());
+
+        List<ProfileSet> profileSets = resourceConfigSeq.getProfiles();
+        dataOutputStream.writeInt(profileSets.size());
+        for (ProfileSet profileSet : profileSets) {
+            writeString(dataOutputStream, profileSet.getBaseProfile());
+            List<String> subProfiles = new ArrayList<>();
+            for (Iterator<?> iterator = profileSet.iterator(); iterator.hasNext(); ) {
+                subProfiles.add(((Profile) iterator.next()).getName());
+            }
+            dataOutputStream.writeInt(subProfiles.size());
+            for (String subProfile : subProfiles) {
+                writeString(dataOutputStream, subProfile);
+            }
+        }
+
+        dataOutputStream.writeInt(resourceConfigSeq.size());
+        for (int i = 0; i < resourceConfigSeq.size(); i++) {
+            writeResourceConfig(dataOutputStream, resourceConfigSeq.get(i));
+        }
+        dataOutputStream.flush();
+    }
+
+    /**
+     * Read a snapshot previously produced by {@link #write(ResourceConfigSeq, OutputStream)}.
+     *
+     * @param inputStream the snapshot stream
+     * @param baseURI     the base URI to be associated with the resource configs
+     * @return the resource configs held in the snapshot
+     * @throws IOException           error reading the stream
+     * @throws SmooksConfigException the stream is not a snapshot or is of an unsupported version
+     */
+    public static ResourceConfigSeq read(InputStream inputStream, String baseURI) throws IOException {
+        DataInputStream dataInputStream = new DataInputStream(inputStream);
+
+        if (dataInputStream.readInt() != MAGIC) {
+            throw new SmooksConfigException("Stream '" + baseURI + "' is not a Smooks resource config snapshot.");
+        }
+        int version = dataInputStream.readInt();
+        if (version != VERSION) {
+            throw new SmooksConfigException("Unsupported resource config snapshot version " + version + " in '" + baseURI + "'. Expected version " + VERSION + ".");
+        }
+
+        DefaultResourceConfigSeq resourceConfigSeq = new DefaultResourceConfigSeq(baseURI);
+        resourceConfigSeq.setSystem(dataInputStream.readBoolean());
+
+        int profileSetCount = dataInputStream.readInt();
+        for (int i = 0; i < profileSetCount; i++) {
+            DefaultProfileSet profileSet = new DefaultProfileSet(readString(dataInputStream));
+            int subProfileCount = dataInputStream.readInt();
+            for (int j = 0; j < subProfileCount; j++) {
+                profileSet.addProfile(readString(dataInputStream));
+            }
+            resourceConfigSeq.add(profileSet);
+        }
+
+        int resourceConfigCount = dataInputStream.readInt();
+        for (int i = 0; i < resourceConfigCount; i++) {
+            resourceConfigSeq.add(readResourceConfig(dataInputStream));
+        }
+
+        return resourceConfigSeq;
+    }
+
+    private static void writeResourceConfig(DataOutputStream dataOutputStream, ResourceConfig resourceConfig) throws IOException {
+        SelectorPath selectorPath = resourceConfig.getSelectorPath();
+        writeString(dataOutputStream, selectorPath.getSelector());
+        writeProperties(dataOutputStream, selectorPath.getNamespaces());
+
+        ExpressionEvaluator conditionEvaluator = selectorPath.getConditionEvaluator();
+        if (conditionEvaluator != null) {
+            dataOutputStream.writeBoolean(true);
+            writeString(dataOutputStream, conditionEvaluator.getClass().getName());
+            writeString(dataOutputStream, conditionEvaluator.getExpression());
+        } else {
+            dataOutputStream.writeBoolean(false);
+        }
+
+        writeString(dataOutputStream, resourceConfig.getProfile());
+        writeString(dataOutputStream, resourceConfig.getResource());
+        writeString(dataOutputStream, resourceConfig.getResourceType());
+        dataOutputStream.writeBoolean(resourceConfig.isSystem());
+
+        List<Parameter<?>> parameters = new ArrayList<>();
+        for (Map.Entry<String, Object> parameterEntry : resourceConfig.getParameters().entrySet()) {
+            if (parameterEntry.getValue() instanceof Parameter) {
+                parameters.add((Parameter<?>) parameterEntry.getValue());
+            } else {
+                for (Object parameter : (List<?>) parameterEntry.getValue()) {
+                    parameters.add((Parameter<?>) parameter);
+                }
+            }
+        }
+        dataOutputStream.writeInt(parameters.size());
+        for (Parameter<?> parameter : parameters) {
+            Object value = parameter.getValue();
+            if (value != null && !(value instanceof String)) {
+                throw new SmooksConfigException("Cannot snapshot parameter '" + parameter.getName() + "' of resource config " + resourceConfig + ". Snapshots only support String parameter values but found " + value.getClass().getName() + ".");
+            }
+            writeString(dataOutputStream, parameter.getName());
+            writeString(dataOutputStream, parameter.getType());
+            writeString(dataOutputStream, (String) value);
+            writeString(dataOutputStream, parameter.getXml() != null ? serialize(parameter.getXml()) : null);
+        }
+    }
+
+    private static ResourceConfig readResourceConfig(DataInputStream dataInputStream) throws IOException {
+        String selector = readString(dataInputStream);
+        Properties namespaces = readProperties(dataInputStream);
+        DefaultResourceConfig resourceConfig = new DefaultResourceConfig(selector, namespaces);
+
+        if (dataInputStream.readBoolean()) {
+            String evaluatorClassName = readString(dataInputStream);
+            String expression = readString(dataInputStream);
+            resourceConfig.getSelectorPath().setConditionEvaluator(EXPRESSION_EVALUATOR_FACTORY.create(evaluatorClassName, expression));
+        }
+
+        resourceConfig.setProfile(readString(dataInputStream));
+        resourceConfig.setResource(readString(dataInputStream));
+        resourceConfig.setResourceType(readString(dataInputStream));
+        resourceConfig.setSystem(dataInputStream.readBoolean());
+
+        int parameterCount = dataInputStream.readInt();
+        for (int i = 0; i < parameterCount; i++) {
+            String name = readString(dataInputStream);
+            String type = readString(dataInputStream);
+            String value = readString(dataInputStream);
+            String xml = readString(dataInputStream);
+
+            Parameter<String> parameter = resourceConfig.setParameter(name, type, value);
+            if (xml != null) {
+                parameter.setXml(parse(xml));
+            }
+        }
+
+        return resourceConfig;
+    }
+
+    private static void writeProperties(DataOutputStream dataOutputStream, Properties properties) throws IOException {
+        if (properties == null) {
+            dataOutputStream.writeInt(0);
+            return;
+        }
+        dataOutputStream.writeInt(properties.stringPropertyNames().size());
+        for (String name : properties.stringPropertyNames()) {
+            writeString(dataOutputStream, name);
+            writeString(dataOutputStream, properties.getProperty(name));
+        }
+    }
+
+    private static Properties readProperties(DataInputStream dataInputStream) throws IOException {
+        Properties properties = new Properties();
+        int count = dataInputStream.readInt();
+        for (int i = 0; i < count; i++) {
+            properties.setProperty(readString(dataInputStream), readString(dataInputStream));
+        }
+        return properties;
+    }
+
+    // DataOutputStream#writeUTF is capped at 64K which inline resources such as templates can exceed
+    private static void writeString(DataOutputStream dataOutputStream, String string) throws IOException {
+        if (string == null) {
+            dataOutputStream.writeInt(-1);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            dataOutputStream.writeInt(bytes.length);
+            dataOutputStream.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream dataInputStream) throws IOException {
+        int length = dataInputStream.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        dataInputStream.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String serialize(Element element) {
+        try {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
+            StringWriter stringWriter = new StringWriter();
+            transformer.transform(new DOMSource(element), new StreamResult(stringWriter));
+            return stringWriter.toString();
+        } catch (TransformerException e) {
+            throw new SmooksConfigException("Failed to serialize parameter XML.", e);
+        }
+    }
+
+    private static Element parse(String xml) throws IOException {
+        try {
+            return XmlUtils.parseStream(new StringReader(xml)).getDocumentElement();
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new SmooksConfigException("Failed to parse parameter XML held in resource config snapshot.", e);
+        }
+    }
+}
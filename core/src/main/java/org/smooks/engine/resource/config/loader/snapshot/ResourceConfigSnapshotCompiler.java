@@ -0,0 +1,125 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config.loader.snapshot;
+
+import org.smooks.api.SmooksConfigException;
+import org.smooks.api.resource.config.ResourceConfigSeq;
+import org.smooks.api.resource.config.loader.ResourceConfigLoader;
+import org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader;
+import org.smooks.resource.URIResourceLocator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+
+/**
+ * Build-time step which resolves an XML Smooks configuration into a {@link ResourceConfigSnapshot}.
+ * <p/>
+ * The {@link #main(String[])} method makes the compiler straightforward to run from a build, for example, with the
+ * <code>exec-maven-plugin</code> <code>java</code> goal during the <code>process-classes</code> phase:
+ * <pre>
+ * &lt;mainClass&gt;org.smooks.engine.resource.config.loader.snapshot.ResourceConfigSnapshotCompiler&lt;/mainClass&gt;
+ * &lt;arguments&gt;
+ *     &lt;argument&gt;${project.basedir}/src/main/resources/smooks-config.xml&lt;/argument&gt;
+ *     &lt;argument&gt;${project.build.outputDirectory}/smooks-config.snapshot&lt;/argument&gt;
+ * &lt;/arguments&gt;
+ * </pre>
+ * The compiler must run with the application's classpath since extension configurations are resolved at this point.
+ */
+public class ResourceConfigSnapshotCompiler {
+
+    private final ResourceConfigLoader resourceConfigLoader;
+    private final ClassLoader classLoader;
+
+    public ResourceConfigSnapshotCompiler() {
+        this(new XmlResourceConfigLoader(), ResourceConfigSnapshotCompiler.class.getClassLoader());
+    }
+
+    public ResourceConfigSnapshotCompiler(ResourceConfigLoader resourceConfigLoader, ClassLoader classLoader) {
+        this.resourceConfigLoader = resourceConfigLoader;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Resolve an XML configuration and write its snapshot.
+     *
+     * @param configURI    the XML configuration, resolved by a {@link URIResourceLocator}
+     * @param outputStream the snapshot target. The stream is not closed.
+     * @return the resolved resource configs
+     * @throws IOException error reading the configuration or writing the snapshot
+     */
+    public ResourceConfigSeq compile(String configURI, OutputStream outputStream) throws IOException {
+        URIResourceLocator resourceLocator = new URIResourceLocator();
+        URI resolvedConfigURI = resourceLocator.resolveURI(configURI);
+        ResourceConfigSeq resourceConfigSeq;
+        try (InputStream inputStream = resourceLocator.getResource(configURI)) {
+            if (inputStream == null) {
+                throw new SmooksConfigException("Failed to find Smooks configuration '" + configURI + "'.");
+            }
+            resourceConfigSeq = resourceConfigLoader.load(inputStream, resolvedConfigURI.toString(), classLoader);
+        }
+        ResourceConfigSnapshot.write(resourceConfigSeq, outputStream);
+
+        return resourceConfigSeq;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: " + ResourceConfigSnapshotCompiler.class.getName() + " <smooks-config> <snapshot-file>");
+            System.exit(1);
+        }
+
+        File snapshotFile = new File(args[1]);
+        File parentDir = snapshotFile.getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+            throw new IOException("Failed to create directory '" + parentDir + "'.");
+        }
+        try (OutputStream outputStream = new FileOutputStream(snapshotFile)) {
+            ResourceConfigSeq resourceConfigSeq = new ResourceConfigSnapshotCompiler().compile(args[0], outputStream);
+            System.out.println("Wrote " + resourceConfigSeq.size() + " resource configs from '" + args[0] + "' to '" + snapshotFile + "'.");
+        }
+    }
+}
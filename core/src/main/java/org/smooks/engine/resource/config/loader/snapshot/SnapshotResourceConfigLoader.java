@@ -0,0 +1,103 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config.loader.snapshot;
+
+import org.smooks.api.SmooksConfigException;
+import org.smooks.api.resource.config.ResourceConfigSeq;
+import org.smooks.api.resource.config.loader.ResourceConfigLoader;
+import org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link ResourceConfigLoader} which loads {@link ResourceConfigSnapshot}s and hands any other stream to a delegate
+ * loader, by default the {@link XmlResourceConfigLoader}.
+ * <p/>
+ * The stream is sniffed for the snapshot magic number so precompiled snapshots and XML configurations can be mixed
+ * freely, for example, <code>new Smooks("smooks-config.snapshot")</code> alongside XML configurations.
+ */
+public class SnapshotResourceConfigLoader implements ResourceConfigLoader {
+
+    private final ResourceConfigLoader delegate;
+
+    public SnapshotResourceConfigLoader() {
+        this(new XmlResourceConfigLoader());
+    }
+
+    public SnapshotResourceConfigLoader(ResourceConfigLoader delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public ResourceConfigSeq load(InputStream inputStream, String baseURI, ClassLoader classLoader) {
+        InputStream markableInputStream = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        try {
+            if (isSnapshot(markableInputStream)) {
+                return ResourceConfigSnapshot.read(markableInputStream, baseURI);
+            }
+        } catch (IOException e) {
+            throw new SmooksConfigException(e);
+        }
+
+        return delegate.load(markableInputStream, baseURI, classLoader);
+    }
+
+    public ResourceConfigLoader getDelegate() {
+        return delegate;
+    }
+
+    private boolean isSnapshot(InputStream inputStream) throws IOException {
+        inputStream.mark(Integer.BYTES);
+        try {
+            return new DataInputStream(inputStream).readInt() == ResourceConfigSnapshot.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            inputStream.reset();
+        }
+    }
+}
@@ -61,7 +61,7 @@ import java.util.Stack;
  */
 public class ExtensionContext {
 
-    public static final TypedKey<ExtensionContext> EXTENSION_CONTEXT_TYPED_KEY = TypedKey.of();
+    public static final TypedKey<ExtensionContext> EXTENSION_CONTEXT_TYPED_KEY = TypedKey.ofSlot();
 
     private final XmlResourceConfigLoader xmlResourceConfigLoader;
     private final String defaultProfile;
@@ -46,8 +46,12 @@ import org.jaxen.pattern.Pattern;
 import org.jaxen.saxpath.SAXPathException;
 import org.smooks.api.SmooksException;
 
+import java.util.Properties;
+
 public abstract class JaxenPatternSelectorPath extends AbstractSelectorPath {
     protected final Pattern pattern;
+    private volatile SelectorPathMatcher selectorPathMatcher;
+    private volatile boolean compiled;
 
     public JaxenPatternSelectorPath(final String selector) {
         this.selector = selector;
@@ -61,4 +65,30 @@ public abstract class JaxenPatternSelectorPath extends AbstractSelectorPath {
     public Pattern getPattern() {
         return pattern;
     }
+
+    /**
+     * Gets the compiled form of this selector path, compiling it first if needed.
+     *
+     * @return the compiled matcher or <code>null</code> if the selector can only be matched with {@link #getPattern()}
+     */
+    public SelectorPathMatcher getSelectorPathMatcher() {
+        if (!compiled) {
+            compile();
+        }
+        return selectorPathMatcher;
+    }
+
+    /**
+     * Compiles this selector path into a {@link SelectorPathMatcher} against the current namespace mappings.
+     */
+    public synchronized void compile() {
+        selectorPathMatcher = SelectorPathMatcher.compile(selector, namespaces);
+        compiled = true;
+    }
+
+    @Override
+    public void setNamespaces(Properties namespaces) {
+        super.setNamespaces(namespaces);
+        compiled = false;
+    }
 }
@@ -0,0 +1,344 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config.xpath;
+
+import org.jaxen.Context;
+import org.jaxen.ContextSupport;
+import org.jaxen.JaxenException;
+import org.jaxen.JaxenHandler;
+import org.jaxen.SimpleNamespaceContext;
+import org.jaxen.SimpleVariableContext;
+import org.jaxen.XPathFunctionContext;
+import org.jaxen.dom.DocumentNavigator;
+import org.jaxen.expr.BinaryExpr;
+import org.jaxen.expr.DefaultAllNodeStep;
+import org.jaxen.expr.DefaultFilterExpr;
+import org.jaxen.expr.DefaultNameStep;
+import org.jaxen.expr.DefaultXPathFactory;
+import org.jaxen.expr.Expr;
+import org.jaxen.expr.FilterExpr;
+import org.jaxen.expr.LocationPath;
+import org.jaxen.expr.NumberExpr;
+import org.jaxen.expr.Predicate;
+import org.jaxen.expr.PredicateSet;
+import org.jaxen.expr.Step;
+import org.jaxen.expr.TextNodeStep;
+import org.jaxen.saxpath.Axis;
+import org.jaxen.saxpath.SAXPathException;
+import org.jaxen.saxpath.XPathReader;
+import org.jaxen.saxpath.helpers.XPathReaderFactory;
+import org.smooks.api.SmooksException;
+import org.w3c.dom.Attr;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.xml.XMLConstants;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Properties;
+
+/**
+ * Selector pattern compiled into an array of node tests which is matched against a node and its ancestors.
+ * <p>
+ * A <code>SelectorPathMatcher</code> gives the same answers as the Jaxen {@link org.jaxen.pattern.Pattern} produced
+ * by {@link PatternParser} for the same selector, but without creating a Jaxen context for each match: name and
+ * namespace tests are resolved once at compile time and compared directly against the DOM. Predicates which
+ * {@link PatternParser} turns into pattern filters (e.g., <code>a[@type = 'x']</code>) are still evaluated by Jaxen,
+ * but only for the step they belong to. Selectors which cannot be compiled (e.g., unions and text, comment, or
+ * processing instruction steps) yield <code>null</code> from {@link #compile(String, Properties)} so that the caller
+ * can fall back to the Jaxen pattern.
+ */
+public final class SelectorPathMatcher {
+
+    private static final short ELEMENT_TEST = Node.ELEMENT_NODE;
+    private static final short ATTRIBUTE_TEST = Node.ATTRIBUTE_NODE;
+    private static final short DOCUMENT_TEST = Node.DOCUMENT_NODE;
+
+    private final NodeTest[] nodeTests;
+    private final ContextSupport contextSupport;
+
+    private SelectorPathMatcher(final NodeTest[] nodeTests, final ContextSupport contextSupport) {
+        this.nodeTests = nodeTests;
+        this.contextSupport = contextSupport;
+    }
+
+    /**
+     * Compiles an XPath selector.
+     *
+     * @param xpathExpression the selector as an XPath expression, that is, with <code>#document</code> already
+     *                        replaced
+     * @param namespaces      the prefix to namespace URI mappings of the selector
+     * @return the compiled matcher or <code>null</code> if the selector cannot be compiled
+     */
+    public static SelectorPathMatcher compile(final String xpathExpression, final Properties namespaces) {
+        final Expr rootExpr;
+        try {
+            final XPathReader reader = XPathReaderFactory.createReader();
+            final JaxenHandler handler = new JaxenHandler();
+            handler.setXPathFactory(new DefaultXPathFactory());
+            reader.setXPathHandler(handler);
+            reader.parse(xpathExpression);
+            rootExpr = handler.getXPathExpr().getRootExpr();
+        } catch (SAXPathException e) {
+            throw new SmooksException(e);
+        }
+        if (!(rootExpr instanceof LocationPath)) {
+            return null;
+        }
+
+        final SimpleNamespaceContext simpleNamespaceContext = new SimpleNamespaceContext();
+        if (namespaces != null) {
+            for (String namespacePrefix : namespaces.stringPropertyNames()) {
+                simpleNamespaceContext.addNamespace(namespacePrefix, namespaces.getProperty(namespacePrefix));
+            }
+        }
+        final ContextSupport contextSupport = new ContextSupport(simpleNamespaceContext, XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance());
+
+        // mirrors PatternParser#convertExpr(LocationPath): steps are visited backwards, from the target to the root
+        final LocationPath locationPath = (LocationPath) rootExpr;
+        final List<?> steps = locationPath.getSteps();
+        final List<NodeTest> nodeTests = new ArrayList<>();
+        for (ListIterator<?> iterator = steps.listIterator(steps.size()); iterator.hasPrevious(); ) {
+            final Step step = (Step) iterator.previous();
+            if (!nodeTests.isEmpty()) {
+                final int axis = step.getAxis();
+                nodeTests.get(nodeTests.size() - 1).isAncestorAxis = (axis == Axis.DESCENDANT || axis == Axis.DESCENDANT_OR_SELF);
+            }
+            final NodeTest nodeTest = compileStep(step, nodeTests.isEmpty(), contextSupport);
+            if (nodeTest == null) {
+                return null;
+            }
+            nodeTests.add(nodeTest);
+        }
+        if (locationPath.isAbsolute()) {
+            nodeTests.add(new NodeTest(DOCUMENT_TEST, null, null, null));
+        }
+        if (nodeTests.isEmpty()) {
+            return null;
+        }
+
+        return new SelectorPathMatcher(nodeTests.toArray(new NodeTest[0]), contextSupport);
+    }
+
+    private static NodeTest compileStep(final Step step, final boolean isTarget, final ContextSupport contextSupport) {
+        final boolean isAttributeAxis = step.getAxis() == Axis.ATTRIBUTE;
+        if (isAttributeAxis && !isTarget) {
+            return null;
+        }
+
+        if (step instanceof DefaultAllNodeStep) {
+            if (isAttributeAxis) {
+                return null;
+            }
+            return new NodeTest(ELEMENT_TEST, null, null, null);
+        } else if (step instanceof DefaultNameStep) {
+            final DefaultNameStep nameStep = (DefaultNameStep) step;
+            final String prefix = nameStep.getPrefix();
+            final String localName = nameStep.isMatchesAnyName() ? null : nameStep.getLocalName();
+            final String namespaceURI;
+            if (prefix.length() == 0 || (nameStep.isMatchesAnyName() && prefix.equals("*"))) {
+                namespaceURI = null;
+            } else {
+                final String translatedNamespaceURI = contextSupport.translateNamespacePrefixToUri(prefix);
+                namespaceURI = translatedNamespaceURI == null ? "" : translatedNamespaceURI;
+            }
+
+            return new NodeTest(isAttributeAxis ? ATTRIBUTE_TEST : ELEMENT_TEST, localName, namespaceURI, compileFilter(nameStep));
+        } else {
+            return null;
+        }
+    }
+
+    private static FilterExpr compileFilter(final Step step) {
+        FilterExpr filterExpr = null;
+        for (Object predicate : step.getPredicates()) {
+            final Expr predicateExpr = ((Predicate) predicate).getExpr();
+            if (!(predicateExpr instanceof NumberExpr) && !containsTextNode(predicateExpr)) {
+                if (filterExpr == null) {
+                    filterExpr = new DefaultFilterExpr(new PredicateSet());
+                }
+                filterExpr.addPredicate((Predicate) predicate);
+            }
+        }
+
+        return filterExpr;
+    }
+
+    /**
+     * Whether the expression selects a text node, in which case it cannot be evaluated before the element's text is
+     * read.
+     */
+    private static boolean containsTextNode(final Expr expr) {
+        if (expr instanceof LocationPath) {
+            for (Object step : ((LocationPath) expr).getSteps()) {
+                if (step instanceof TextNodeStep) {
+                    return true;
+                }
+                for (Object predicate : ((Step) step).getPredicates()) {
+                    if (containsTextNode(((Predicate) predicate).getExpr())) {
+                        return true;
+                    }
+                }
+            }
+        } else if (expr instanceof BinaryExpr) {
+            return containsTextNode(((BinaryExpr) expr).getLHS()) || containsTextNode(((BinaryExpr) expr).getRHS());
+        }
+
+        return false;
+    }
+
+    /**
+     * Whether this matcher only tests that the node is an element and, optionally, its local name: there is no
+     * namespace test, no ancestor step, and no predicate.
+     *
+     * @return <code>true</code> if the selector is a bare element name or <code>*</code>
+     * @see #getElementName()
+     */
+    public boolean isElementNameTest() {
+        return nodeTests.length == 1 && nodeTests[0].nodeType == ELEMENT_TEST && nodeTests[0].namespaceURI == null && nodeTests[0].filterExpr == null;
+    }
+
+    /**
+     * @return the local name tested by the target step or <code>null</code> when the target step matches any name
+     */
+    public String getElementName() {
+        return nodeTests[0].localName;
+    }
+
+    /**
+     * Tests whether a node matches the compiled selector. When the selector targets an attribute and the node is an
+     * element, the node matches if any of its attributes matches.
+     *
+     * @param node the node under test
+     * @return <code>true</code> if the node matches
+     * @throws JaxenException if a predicate that could not be compiled fails to evaluate
+     */
+    public boolean matches(final Node node) throws JaxenException {
+        if (nodeTests[0].nodeType == ATTRIBUTE_TEST && node.getNodeType() == Node.ELEMENT_NODE) {
+            if (!node.hasAttributes()) {
+                return false;
+            }
+            final NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                if (matches(0, attributes.item(i))) {
+                    return true;
+                }
+            }
+            return false;
+        } else {
+            return matches(0, node);
+        }
+    }
+
+    private boolean matches(final int index, final Node node) throws JaxenException {
+        final NodeTest nodeTest = nodeTests[index];
+        if (!nodeTest.test(node)) {
+            return false;
+        }
+        if (index + 1 < nodeTests.length) {
+            Node ancestor = getParentNode(node);
+            if (nodeTest.isAncestorAxis) {
+                while (!matches(index + 1, ancestor)) {
+                    if (ancestor == null || ancestor.getNodeType() == Node.DOCUMENT_NODE) {
+                        return false;
+                    }
+                    ancestor = getParentNode(ancestor);
+                }
+            } else if (!matches(index + 1, ancestor)) {
+                return false;
+            }
+        }
+        if (nodeTest.filterExpr != null) {
+            final Context context = new Context(contextSupport);
+            context.setNodeSet(Collections.singletonList(node));
+            return nodeTest.filterExpr.asBoolean(context);
+        }
+
+        return true;
+    }
+
+    private static Node getParentNode(final Node node) {
+        if (node.getNodeType() == Node.ATTRIBUTE_NODE) {
+            return ((Attr) node).getOwnerElement();
+        } else {
+            return node.getParentNode();
+        }
+    }
+
+    private static final class NodeTest {
+        private final short nodeType;
+        private final String localName;
+        private final String namespaceURI;
+        private final FilterExpr filterExpr;
+        private boolean isAncestorAxis;
+
+        private NodeTest(final short nodeType, final String localName, final String namespaceURI, final FilterExpr filterExpr) {
+            this.nodeType = nodeType;
+            this.localName = localName;
+            this.namespaceURI = namespaceURI;
+            this.filterExpr = filterExpr;
+        }
+
+        private boolean test(final Node node) {
+            if (node == null || node.getNodeType() != nodeType) {
+                return false;
+            }
+            if (nodeType == DOCUMENT_TEST) {
+                return true;
+            }
+            if (nodeType == ATTRIBUTE_TEST && XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(node.getNamespaceURI())) {
+                return false;
+            }
+            if (localName != null) {
+                final String nodeLocalName = node.getLocalName();
+                if (!localName.equals(nodeLocalName == null ? node.getNodeName() : nodeLocalName)) {
+                    return false;
+                }
+            }
+
+            return namespaceURI == null || namespaceURI.equals(node.getNamespaceURI());
+        }
+    }
+}
@@ -56,7 +56,7 @@ import java.util.Map;
  */
 public class DOMModel {
 
-    public static final TypedKey<DOMModel> DOM_MODEL_TYPED_KEY = TypedKey.of();
+    public static final TypedKey<DOMModel> DOM_MODEL_TYPED_KEY = TypedKey.ofSlot();
     private final Map<String, Element> models = new LinkedHashMap<String, Element>();
 
     public Map<String, Element> getModels() {
@@ -92,7 +92,7 @@ class ChildEventListener extends BridgeAwareExecutionEventListener {
     }
 
     protected void visitBefore(final VisitorMemento<Node> sourceTreeMemento, final Fragment<Node> childFragment) {
-        final Node childNode = sourceTreeMemento.getState().getOwnerDocument().importNode(childFragment.unwrap(), true);
+        final Node childNode = NodeFragment.importNode(sourceTreeMemento.getState().getOwnerDocument(), childFragment.unwrap());
         nestedSmooksVisitor.filterSource(visitedFragment, new NodeFragment(sourceTreeMemento.getState().appendChild(childNode)), selectorWriter, executionContext, "visitBefore");
         currentNodeDepth++;
         executionContext.getMementoCaretaker().capture(new SimpleVisitorMemento<>(visitedFragment, nestedSmooksVisitor, childNode));
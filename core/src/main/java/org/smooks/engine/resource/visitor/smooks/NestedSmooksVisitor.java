@@ -115,9 +115,10 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
         OUTPUT_TO
     }
 
+    // not a slot key: the bridge element carries the key's name and the nested execution looks the source up by name
     protected static final TypedKey<Node> SOURCE_BRIDGE_TYPED_KEY = TypedKey.of();
-    protected static final TypedKey<DocumentBuilder> CACHED_DOCUMENT_BUILDER_TYPED_KEY = TypedKey.of();
-    protected static final TypedKey<ExecutionContext> NESTED_EXECUTION_CONTEXT_MEMENTO_TYPED_KEY = TypedKey.of();
+    protected static final TypedKey<DocumentBuilder> CACHED_DOCUMENT_BUILDER_TYPED_KEY = TypedKey.ofSlot();
+    protected static final TypedKey<ExecutionContext> NESTED_EXECUTION_CONTEXT_MEMENTO_TYPED_KEY = TypedKey.ofSlot();
 
     protected BeanId bindBeanId;
 
@@ -205,7 +206,7 @@ public class NestedSmooksVisitor implements BeforeVisitor, AfterVisitor, Produce
     protected Node deAttach(final Node node, ExecutionContext executionContext) {
         final Document document = executionContext.get(CACHED_DOCUMENT_BUILDER_TYPED_KEY).newDocument();
         document.setStrictErrorChecking(false);
-        final Node copyNode = document.importNode(node, true);
+        final Node copyNode = NodeFragment.importNode(document, node);
         document.appendChild(copyNode);
 
         return copyNode;
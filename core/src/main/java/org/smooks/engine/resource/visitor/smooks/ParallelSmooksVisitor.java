@@ -0,0 +1,263 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.visitor.smooks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksConfigException;
+import org.smooks.api.SmooksException;
+import org.smooks.api.TypedKey;
+import org.smooks.api.bean.context.BeanIdStore;
+import org.smooks.api.lifecycle.PostExecutionLifecycle;
+import org.smooks.api.resource.visitor.sax.ng.ParameterizedVisitor;
+import org.smooks.engine.bean.context.StandaloneBeanContext;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.delivery.sax.ng.EndElementCallbacks;
+import org.smooks.io.FragmentWriter;
+import org.smooks.io.Stream;
+import org.smooks.io.sink.WriterSink;
+import org.smooks.io.source.DOMSource;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Filters the fragments selected by this visitor, called records, concurrently on a worker pool.
+ * <p>
+ * Each record is detached from the source once it has been fully read, that is, on
+ * {@link #visitAfter(Element, ExecutionContext)}, and then filtered through the nested {@link org.smooks.Smooks} with
+ * its own child {@link ExecutionContext} and {@link org.smooks.api.bean.context.BeanContext}. The child
+ * <code>BeanContext</code> is seeded with a snapshot of the beans in the parent <code>BeanContext</code> at the time
+ * the record was read. Unlike {@link NestedSmooksVisitor}, the detached record is handed to the nested
+ * <code>Smooks</code> as a plain {@link DOMSource} so that the record is copied only once.
+ * <p>
+ * The result of each record replaces the record in the execution sink stream. In ordered mode (the default), results
+ * are written in document order, together with any content in between records. Otherwise, results are written as soon
+ * as they are available. Either way, all outstanding records are written before the parent of the records is closed.
+ * <p>
+ * Parameters:
+ * <ul>
+ *     <li><code>threads</code>: size of the worker pool. Defaults to the number of available processors.</li>
+ *     <li><code>virtualThreads</code>: run each record on a virtual thread when the JVM supports them. Defaults to
+ *     <code>false</code>.</li>
+ *     <li><code>ordered</code>: write results in document order. Defaults to <code>true</code>.</li>
+ *     <li><code>maxInFlight</code>: maximum number of records held in memory before the filtering thread blocks.
+ *     Defaults to four times the number of threads.</li>
+ * </ul>
+ */
+public class ParallelSmooksVisitor extends NestedSmooksVisitor implements ParameterizedVisitor, PostExecutionLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSmooksVisitor.class);
+
+    protected static final TypedKey<RecordQueue> RECORD_QUEUE_TYPED_KEY = TypedKey.ofSlot();
+
+    @Inject
+    @Named("threads")
+    protected Optional<Integer> threadsOptional = Optional.empty();
+
+    @Inject
+    @Named("virtualThreads")
+    protected Boolean virtualThreads = false;
+
+    @Inject
+    @Named("ordered")
+    protected Boolean ordered = true;
+
+    @Inject
+    @Named("maxInFlight")
+    protected Optional<Integer> maxInFlightOptional = Optional.empty();
+
+    protected int threads;
+    protected int maxInFlight;
+    protected ExecutorService executorService;
+
+    @Override
+    @PostConstruct
+    public void postConstruct() throws SAXException, IOException, URISyntaxException, ClassNotFoundException {
+        super.postConstruct();
+        if (action != null && action != Action.REPLACE) {
+            throw new SmooksConfigException(String.format("Unsupported action [%s]: records filtered in parallel can only replace the selected fragment", action));
+        }
+
+        threads = threadsOptional.orElse(Runtime.getRuntime().availableProcessors());
+        maxInFlight = maxInFlightOptional.orElse(threads * 4);
+        if (threads < 1 || maxInFlight < 1) {
+            throw new SmooksConfigException("Parameters [threads] and [maxInFlight] must be greater than 0");
+        }
+        executorService = newExecutorService();
+    }
+
+    protected ExecutorService newExecutorService() {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LOGGER.warn("Virtual threads are not supported by this JVM: falling back to a pool of {} platform threads", threads);
+            }
+        }
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final Thread thread = new Thread(runnable, "smooks-parallel-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    @Override
+    public void visitBefore(final Element element, final ExecutionContext executionContext) {
+        RecordQueue recordQueue = executionContext.get(RECORD_QUEUE_TYPED_KEY);
+        if (recordQueue == null) {
+            recordQueue = new RecordQueue(executorService, ordered, Stream.out(executionContext));
+            executionContext.put(RECORD_QUEUE_TYPED_KEY, recordQueue);
+            if (element.getParentNode() instanceof Element) {
+                EndElementCallbacks.register(executionContext, element.getParentNode(), () -> drain(executionContext));
+            }
+        } else {
+            recordQueue.enqueueInterleaved();
+        }
+
+        try {
+            new FragmentWriter(executionContext, new NodeFragment(element, true), false).park();
+        } catch (IOException e) {
+            throw new SmooksException(e);
+        }
+    }
+
+    @Override
+    public void visitAfter(final Element element, final ExecutionContext executionContext) {
+        final RecordQueue recordQueue = executionContext.get(RECORD_QUEUE_TYPED_KEY);
+        final Node record = deAttach(element, executionContext);
+        final ExecutionContext nestedExecutionContext = nestedSmooks.createExecutionContext();
+        nestedExecutionContext.setContentEncoding(executionContext.getContentEncoding());
+        final Map<String, Object> beanMap = new HashMap<>(executionContext.getBeanContext().getBeanMap());
+        final BeanIdStore beanIdStore = nestedSmooks.getApplicationContext().getBeanIdStore();
+        for (String beanId : beanMap.keySet()) {
+            beanIdStore.register(beanId);
+        }
+        nestedExecutionContext.setBeanContext(new StandaloneBeanContext(nestedExecutionContext, beanIdStore, beanMap));
+
+        while (recordQueue.size() >= maxInFlight) {
+            recordQueue.writeNext();
+        }
+        recordQueue.submit(() -> {
+            final StringWriter recordWriter = new StringWriter();
+            nestedSmooks.filterSource(nestedExecutionContext, new DOMSource(record.getOwnerDocument()), new WriterSink<>(recordWriter));
+            return recordWriter.toString();
+        });
+        recordQueue.writeCompleted();
+
+        if (element.getParentNode() instanceof Element) {
+            if (ordered) {
+                executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, recordQueue.getInterleavedWriter());
+            }
+        } else {
+            drain(executionContext);
+        }
+    }
+
+    protected void drain(final ExecutionContext executionContext) {
+        final RecordQueue recordQueue = executionContext.get(RECORD_QUEUE_TYPED_KEY);
+        executionContext.remove(RECORD_QUEUE_TYPED_KEY);
+        executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, recordQueue.getWriter());
+        recordQueue.drain();
+    }
+
+    @Override
+    public void onPostExecution(final ExecutionContext executionContext) {
+        final RecordQueue recordQueue = executionContext.get(RECORD_QUEUE_TYPED_KEY);
+        if (recordQueue != null) {
+            executionContext.remove(RECORD_QUEUE_TYPED_KEY);
+            executionContext.put(Stream.STREAM_WRITER_TYPED_KEY, recordQueue.getWriter());
+            recordQueue.cancel();
+        }
+    }
+
+    @Override
+    public int getMaxNodeDepth() {
+        return Integer.MAX_VALUE;
+    }
+
+    public void setThreads(Integer threads) {
+        this.threadsOptional = Optional.ofNullable(threads);
+    }
+
+    public void setVirtualThreads(Boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public void setOrdered(Boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    public void setMaxInFlight(Integer maxInFlight) {
+        this.maxInFlightOptional = Optional.ofNullable(maxInFlight);
+    }
+
+    @Override
+    @PreDestroy
+    public void preDestroy() {
+        if (executorService != null) {
+            executorService.shutdownNow();
+        }
+        super.preDestroy();
+    }
+}
@@ -0,0 +1,163 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.visitor.smooks;
+
+import org.smooks.api.SmooksException;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Records submitted by a {@link ParallelSmooksVisitor} which have yet to be written to the execution sink stream.
+ * <p>
+ * A <code>RecordQueue</code> is confined to the filtering thread: only the filtering of the records themselves happens
+ * on the worker pool. In ordered mode, content written to the stream in between records is captured by the
+ * {@link #getInterleavedWriter() interleaved writer} and queued behind the records preceding it.
+ */
+class RecordQueue {
+    private final Deque<Future<String>> futures = new ArrayDeque<>();
+    private final CompletionService<String> completionService;
+    private final StringWriter interleavedWriter = new StringWriter();
+    private final boolean ordered;
+    private final Writer writer;
+
+    RecordQueue(final ExecutorService executorService, final boolean ordered, final Writer writer) {
+        this.completionService = new ExecutorCompletionService<>(executorService);
+        this.ordered = ordered;
+        this.writer = writer;
+    }
+
+    void submit(final Callable<String> record) {
+        futures.addLast(completionService.submit(record));
+    }
+
+    void enqueueInterleaved() {
+        final StringBuffer interleaved = interleavedWriter.getBuffer();
+        if (interleaved.length() > 0) {
+            futures.addLast(CompletableFuture.completedFuture(interleaved.toString()));
+            interleaved.setLength(0);
+        }
+    }
+
+    void writeCompleted() {
+        if (ordered) {
+            while (!futures.isEmpty() && futures.peekFirst().isDone()) {
+                write(futures.pollFirst());
+            }
+        } else {
+            Future<String> future;
+            while ((future = completionService.poll()) != null) {
+                futures.remove(future);
+                write(future);
+            }
+        }
+    }
+
+    void writeNext() {
+        if (ordered) {
+            write(futures.pollFirst());
+        } else {
+            final Future<String> future;
+            try {
+                future = completionService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SmooksException(e);
+            }
+            futures.remove(future);
+            write(future);
+        }
+    }
+
+    void drain() {
+        enqueueInterleaved();
+        while (!futures.isEmpty()) {
+            writeNext();
+        }
+    }
+
+    void cancel() {
+        for (Future<String> future : futures) {
+            future.cancel(true);
+        }
+        futures.clear();
+    }
+
+    int size() {
+        return futures.size();
+    }
+
+    Writer getWriter() {
+        return writer;
+    }
+
+    Writer getInterleavedWriter() {
+        return interleavedWriter;
+    }
+
+    private void write(final Future<String> future) {
+        try {
+            writer.write(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new SmooksException(e);
+        } catch (ExecutionException e) {
+            cancel();
+            throw new SmooksException(e.getCause().getMessage(), e.getCause());
+        } catch (IOException e) {
+            cancel();
+            throw new SmooksException(e);
+        }
+    }
+}
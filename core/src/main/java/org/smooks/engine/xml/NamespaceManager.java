@@ -68,7 +68,7 @@ import java.util.Properties;
  */
 public class NamespaceManager {
 
-    public static final TypedKey<NamespaceDeclarationStack> NAMESPACE_DECLARATION_STACK_TYPED_KEY = TypedKey.of();
+    public static final TypedKey<NamespaceDeclarationStack> NAMESPACE_DECLARATION_STACK_TYPED_KEY = TypedKey.ofSlot();
 
     /**
      * Logger.
@@ -95,6 +95,10 @@ public abstract class AbstractOutputStreamResource implements DOMVisitBefore, Co
     @Inject
     private String resourceName;
 
+    // derived from the resource name on first use so that they are not rebuilt on every visit
+    private TypedKey<Object> resourceTypedKey;
+    private TypedKey<Object> outputStreamTypedKey;
+
     @Inject
     private Charset writerEncoding = StandardCharsets.UTF_8;
 
@@ -128,6 +132,8 @@ public abstract class AbstractOutputStreamResource implements DOMVisitBefore, Co
     public AbstractOutputStreamResource setResourceName(String resourceName) {
         AssertArgument.isNotNullAndNotEmpty(resourceName, "resourceName");
         this.resourceName = resourceName;
+        resourceTypedKey = null;
+        outputStreamTypedKey = null;
         return this;
     }
 
@@ -172,16 +178,38 @@ public abstract class AbstractOutputStreamResource implements DOMVisitBefore, Co
      */
     protected void closeResource(final ExecutionContext executionContext) {
         try {
-            Closeable output = executionContext.get(TypedKey.of(OUTPUTSTREAM_CONTEXT_KEY_PREFIX + getResourceName()));
+            Closeable output = (Closeable) executionContext.get(getOutputStreamTypedKey());
             close(output);
         } finally {
-            executionContext.remove(TypedKey.of(OUTPUTSTREAM_CONTEXT_KEY_PREFIX + getResourceName()));
-            executionContext.remove(TypedKey.of(RESOURCE_CONTEXT_KEY_PREFIX + getResourceName()));
+            executionContext.remove(getOutputStreamTypedKey());
+            executionContext.remove(getResourceTypedKey());
         }
     }
 
     private void bind(final ExecutionContext executionContext) {
-        executionContext.put(TypedKey.of(RESOURCE_CONTEXT_KEY_PREFIX + getResourceName()), this);
+        executionContext.put(getResourceTypedKey(), this);
+    }
+
+    private TypedKey<Object> getResourceTypedKey() {
+        if (resourceTypedKey == null) {
+            resourceTypedKey = resourceTypedKey(getResourceName());
+        }
+        return resourceTypedKey;
+    }
+
+    private TypedKey<Object> getOutputStreamTypedKey() {
+        if (outputStreamTypedKey == null) {
+            outputStreamTypedKey = outputStreamTypedKey(getResourceName());
+        }
+        return outputStreamTypedKey;
+    }
+
+    static TypedKey<Object> resourceTypedKey(final String resourceName) {
+        return TypedKey.of(RESOURCE_CONTEXT_KEY_PREFIX + resourceName);
+    }
+
+    static TypedKey<Object> outputStreamTypedKey(final String resourceName) {
+        return TypedKey.of(OUTPUTSTREAM_CONTEXT_KEY_PREFIX + resourceName);
     }
 
     private void close(final Closeable closeable) {
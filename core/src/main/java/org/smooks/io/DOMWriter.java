@@ -0,0 +1,321 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import com.fasterxml.aalto.AsyncByteArrayFeeder;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link Writer} building a DOM straight from the markup written to it.
+ * <p/>
+ * Written characters are fed, chunk by chunk, into a non-blocking XML parser whose events are turned into nodes of
+ * the target {@link Document}. Unlike serializing to a string and parsing the result, the output is never held as a
+ * whole in textual form. As with {@link org.smooks.support.XmlUtils#parseStream(java.io.Reader)}, document type
+ * declarations are rejected.
+ */
+public class DOMWriter extends Writer {
+    private static final InputFactoryImpl ASYNC_XML_INPUT_FACTORY;
+    private static final int CHUNK_SIZE = 4096;
+    private static final String XML_DECLARATION_START = "<?xml";
+    private static final Pattern DECLARED_ENCODING_PATTERN = Pattern.compile("\\s+encoding\\s*=\\s*(\"[^\"]*\"|'[^']*')");
+
+    static {
+        ASYNC_XML_INPUT_FACTORY = new InputFactoryImpl();
+        ASYNC_XML_INPUT_FACTORY.configureForLowMemUsage();
+    }
+
+    private final Document document;
+    private final AsyncXMLStreamReader<AsyncByteArrayFeeder> asyncXMLStreamReader;
+    private final CharsetEncoder charsetEncoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final char[] chars = new char[CHUNK_SIZE];
+    private final CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private final ByteBuffer byteBuffer = ByteBuffer.allocate(CHUNK_SIZE * 3 + 4);
+    private int charCount;
+    private Node currentNode;
+    private int lastEvent = -1;
+    private boolean ended;
+    private boolean isDeclarationChecked;
+
+    public DOMWriter(final Document document) {
+        this.document = document;
+        this.currentNode = document;
+        asyncXMLStreamReader = ASYNC_XML_INPUT_FACTORY.createAsyncForByteArray();
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        if (charCount == chars.length) {
+            parseChars(false);
+        }
+        chars[charCount++] = (char) c;
+    }
+
+    @Override
+    public void write(final char[] cbuf, int off, int len) throws IOException {
+        while (len > 0) {
+            if (charCount == chars.length) {
+                parseChars(false);
+            }
+            final int n = Math.min(len, chars.length - charCount);
+            System.arraycopy(cbuf, off, chars, charCount, n);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(final String str, int off, int len) throws IOException {
+        while (len > 0) {
+            if (charCount == chars.length) {
+                parseChars(false);
+            }
+            final int n = Math.min(len, chars.length - charCount);
+            str.getChars(off, off + n, chars, charCount);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Parses the characters written so far into the document.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (!ended) {
+            parseChars(false);
+        }
+    }
+
+    /**
+     * Parses the remaining characters and returns the complete document.
+     *
+     * @return the document built from the written markup
+     * @throws IOException if the written markup is not a well-formed document
+     */
+    public Document getDocument() throws IOException {
+        if (!ended) {
+            parseChars(true);
+            asyncXMLStreamReader.getInputFeeder().endOfInput();
+            nextEvents();
+            ended = true;
+            if (document.getDocumentElement() == null) {
+                throw new IOException("Premature end of document: no root element was written");
+            }
+        }
+        return document;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            asyncXMLStreamReader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void parseChars(final boolean endOfInput) throws IOException {
+        if (ended) {
+            throw new IOException("Document already built");
+        }
+        if (!isDeclarationChecked && !stripDeclaredEncoding(endOfInput)) {
+            return;
+        }
+        charBuffer.limit(charCount);
+        charBuffer.position(0);
+        byteBuffer.clear();
+        // the byte buffer is sized so that a chunk of chars always fits
+        final CoderResult coderResult = charsetEncoder.encode(charBuffer, byteBuffer, endOfInput);
+        if (coderResult.isError()) {
+            coderResult.throwException();
+        }
+        if (endOfInput) {
+            charsetEncoder.flush(byteBuffer);
+        }
+        // a trailing high surrogate stays behind until its low surrogate is written
+        final int remaining = charBuffer.remaining();
+        if (remaining > 0) {
+            System.arraycopy(chars, charBuffer.position(), chars, 0, remaining);
+        }
+        charCount = remaining;
+
+        if (byteBuffer.position() > 0) {
+            try {
+                asyncXMLStreamReader.getInputFeeder().feedInput(byteBuffer.array(), 0, byteBuffer.position());
+            } catch (XMLStreamException e) {
+                throw new IOException(e);
+            }
+            nextEvents();
+        }
+    }
+
+    /**
+     * Removes the encoding declared in the XML declaration, if any, since the written chars are always fed to the
+     * parser as UTF-8 whatever encoding the markup declares.
+     *
+     * @return <code>false</code> when more chars are needed to tell where the XML declaration ends
+     */
+    private boolean stripDeclaredEncoding(final boolean endOfInput) {
+        final String head = new String(chars, 0, charCount);
+        final int declarationEnd = head.indexOf("?>");
+        if (declarationEnd < 0 && !endOfInput && charCount < chars.length && (XML_DECLARATION_START.startsWith(head) || head.startsWith(XML_DECLARATION_START))) {
+            return false;
+        }
+        isDeclarationChecked = true;
+        if (declarationEnd > XML_DECLARATION_START.length() && head.startsWith(XML_DECLARATION_START) && Character.isWhitespace(head.charAt(XML_DECLARATION_START.length()))) {
+            final Matcher matcher = DECLARED_ENCODING_PATTERN.matcher(head).region(XML_DECLARATION_START.length(), declarationEnd);
+            if (matcher.find()) {
+                System.arraycopy(chars, matcher.end(), chars, matcher.start(), charCount - matcher.end());
+                charCount -= matcher.end() - matcher.start();
+            }
+        }
+        return true;
+    }
+
+    private void nextEvents() throws IOException {
+        try {
+            while (asyncXMLStreamReader.hasNext()) {
+                final int event = asyncXMLStreamReader.next();
+                if (event == AsyncXMLStreamReader.EVENT_INCOMPLETE) {
+                    break;
+                }
+                onEvent(event);
+                lastEvent = event;
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void onEvent(final int event) throws IOException {
+        switch (event) {
+            case XMLStreamConstants.START_ELEMENT:
+                final Element element = document.createElementNS(toNamespaceURI(asyncXMLStreamReader.getNamespaceURI()), toQualifiedName(asyncXMLStreamReader.getName()));
+                for (int i = 0; i < asyncXMLStreamReader.getNamespaceCount(); i++) {
+                    final String namespacePrefix = asyncXMLStreamReader.getNamespacePrefix(i);
+                    if (namespacePrefix == null || namespacePrefix.equals(XMLConstants.DEFAULT_NS_PREFIX)) {
+                        element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, XMLConstants.XMLNS_ATTRIBUTE, asyncXMLStreamReader.getNamespaceURI(i));
+                    } else {
+                        element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, XMLConstants.XMLNS_ATTRIBUTE + ":" + namespacePrefix, asyncXMLStreamReader.getNamespaceURI(i));
+                    }
+                }
+                for (int i = 0; i < asyncXMLStreamReader.getAttributeCount(); i++) {
+                    final QName attributeName = asyncXMLStreamReader.getAttributeName(i);
+                    element.setAttributeNS(toNamespaceURI(attributeName.getNamespaceURI()), toQualifiedName(attributeName), asyncXMLStreamReader.getAttributeValue(i));
+                }
+                currentNode.appendChild(element);
+                currentNode = element;
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                currentNode = currentNode.getParentNode();
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.SPACE:
+                // whitespace outside the root element is not part of the DOM
+                if (currentNode != document) {
+                    final String text = asyncXMLStreamReader.getText();
+                    final Node lastChild = currentNode.getLastChild();
+                    if ((lastEvent == XMLStreamConstants.CHARACTERS || lastEvent == XMLStreamConstants.SPACE) && lastChild != null && lastChild.getNodeType() == Node.TEXT_NODE) {
+                        ((Text) lastChild).appendData(text);
+                    } else {
+                        currentNode.appendChild(document.createTextNode(text));
+                    }
+                }
+                break;
+            case XMLStreamConstants.CDATA:
+                final Node lastChild = currentNode.getLastChild();
+                if (lastEvent == XMLStreamConstants.CDATA && lastChild != null && lastChild.getNodeType() == Node.CDATA_SECTION_NODE) {
+                    ((Text) lastChild).appendData(asyncXMLStreamReader.getText());
+                } else {
+                    currentNode.appendChild(document.createCDATASection(asyncXMLStreamReader.getText()));
+                }
+                break;
+            case XMLStreamConstants.COMMENT:
+                currentNode.appendChild(document.createComment(asyncXMLStreamReader.getText()));
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                currentNode.appendChild(document.createProcessingInstruction(asyncXMLStreamReader.getPITarget(), asyncXMLStreamReader.getPIData()));
+                break;
+            case XMLStreamConstants.ENTITY_REFERENCE:
+                currentNode.appendChild(document.createEntityReference(asyncXMLStreamReader.getLocalName()));
+                break;
+            case XMLStreamConstants.DTD:
+                throw new IOException("DOCTYPE is disallowed");
+            case XMLStreamConstants.START_DOCUMENT:
+            case XMLStreamConstants.END_DOCUMENT:
+                break;
+            default:
+                throw new IOException("Unexpected XML event " + event);
+        }
+    }
+
+    private static String toNamespaceURI(final String namespaceURI) {
+        return namespaceURI == null || namespaceURI.equals(XMLConstants.NULL_NS_URI) ? null : namespaceURI;
+    }
+
+    private static String toQualifiedName(final QName name) {
+        return name.getPrefix() == null || name.getPrefix().equals(XMLConstants.DEFAULT_NS_PREFIX) ? name.getLocalPart() : name.getPrefix() + ":" + name.getLocalPart();
+    }
+}
@@ -42,6 +42,7 @@
  */
 package org.smooks.io;
 
+import org.smooks.engine.delivery.sax.ng.CharacterDataView;
 import org.smooks.support.XmlUtils;
 import org.w3c.dom.*;
 
@@ -145,7 +146,14 @@ public class DomSerializer {
                 break;
             }
             case Node.TEXT_NODE: {
-                if (rewriteEntities) {
+                if (node instanceof CharacterDataView && ((CharacterDataView) node).getCharacters() != null) {
+                    final CharacterDataView characterDataView = (CharacterDataView) node;
+                    if (rewriteEntities) {
+                        XmlUtils.encodeTextValue(characterDataView.getCharacters(), characterDataView.getOffset(), characterDataView.length(), writer);
+                    } else {
+                        writer.write(characterDataView.getCharacters(), characterDataView.getOffset(), characterDataView.length());
+                    }
+                } else if (rewriteEntities) {
                     String textString = ((Text) node).getData();
                     XmlUtils.encodeTextValue(textString.toCharArray(), 0, textString.length(), writer);
                 } else {
@@ -164,7 +172,7 @@ public class DomSerializer {
      */
     public void writeElementComment(Comment comment, Writer writer) throws IOException {
         writer.write("<!--");
-        writer.write(comment.getData());
+        writeData(comment, writer);
         writer.write("-->");
     }
 
@@ -182,10 +190,19 @@ public class DomSerializer {
      */
     public void writeElementCDATA(CDATASection cdata, Writer writer) throws IOException {
         writer.write("<![CDATA[");
-        writer.write(cdata.getData());
+        writeData(cdata, writer);
         writer.write("]]>");
     }
 
+    protected void writeData(CharacterData characterData, Writer writer) throws IOException {
+        if (characterData instanceof CharacterDataView && ((CharacterDataView) characterData).getCharacters() != null) {
+            final CharacterDataView characterDataView = (CharacterDataView) characterData;
+            writer.write(characterDataView.getCharacters(), characterDataView.getOffset(), characterDataView.length());
+        } else {
+            writer.write(characterData.getData());
+        }
+    }
+
     public Boolean getCloseEmptyElements() {
         return closeEmptyElements;
     }
@@ -50,8 +50,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
 
-import static org.smooks.io.AbstractOutputStreamResource.OUTPUTSTREAM_CONTEXT_KEY_PREFIX;
-import static org.smooks.io.AbstractOutputStreamResource.RESOURCE_CONTEXT_KEY_PREFIX;
+import static org.smooks.io.AbstractOutputStreamResource.outputStreamTypedKey;
+import static org.smooks.io.AbstractOutputStreamResource.resourceTypedKey;
 
 public class ResourceOutputStream extends OutputStream {
 
@@ -75,11 +75,11 @@ public class ResourceOutputStream extends OutputStream {
      * @throws SmooksException Unable to access OutputStream.
      */
     protected OutputStream getOutputStream(final String resourceName, final ExecutionContext executionContext) throws SmooksException {
-        TypedKey<Object> resourceKey = TypedKey.of(OUTPUTSTREAM_CONTEXT_KEY_PREFIX + resourceName);
+        TypedKey<Object> resourceKey = outputStreamTypedKey(resourceName);
         Object resourceIOObj = executionContext.get(resourceKey);
 
         if (resourceIOObj == null) {
-            AbstractOutputStreamResource resource = executionContext.get(TypedKey.of(RESOURCE_CONTEXT_KEY_PREFIX + resourceName));
+            AbstractOutputStreamResource resource = (AbstractOutputStreamResource) executionContext.get(resourceTypedKey(resourceName));
             OutputStream outputStream = openOutputStream(resource, resourceName, executionContext);
 
             executionContext.put(resourceKey, outputStream);
@@ -50,8 +50,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
 
-import static org.smooks.io.AbstractOutputStreamResource.OUTPUTSTREAM_CONTEXT_KEY_PREFIX;
-import static org.smooks.io.AbstractOutputStreamResource.RESOURCE_CONTEXT_KEY_PREFIX;
+import static org.smooks.io.AbstractOutputStreamResource.outputStreamTypedKey;
+import static org.smooks.io.AbstractOutputStreamResource.resourceTypedKey;
 
 public class ResourceWriter extends Writer {
 
@@ -97,11 +97,11 @@ public class ResourceWriter extends Writer {
      * @throws SmooksException Unable to access OutputStream.
      */
     protected Writer getOutputWriter(final String resourceName, final ExecutionContext executionContext) throws SmooksException {
-        final TypedKey<Object> resourceKey = TypedKey.of(OUTPUTSTREAM_CONTEXT_KEY_PREFIX + resourceName);
+        final TypedKey<Object> resourceKey = outputStreamTypedKey(resourceName);
         final Object resourceIOObj = executionContext.get(resourceKey);
 
         if (resourceIOObj == null) {
-            final AbstractOutputStreamResource resource = executionContext.get(TypedKey.of(RESOURCE_CONTEXT_KEY_PREFIX + resourceName));
+            final AbstractOutputStreamResource resource = (AbstractOutputStreamResource) executionContext.get(resourceTypedKey(resourceName));
             final OutputStream outputStream = openOutputStream(resource, executionContext);
             if (outputStream != null) {
                 Writer outputStreamWriter = new java.io.OutputStreamWriter(outputStream, resource.getWriterEncoding());
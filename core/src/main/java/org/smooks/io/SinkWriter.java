@@ -0,0 +1,286 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import org.smooks.FlushPolicy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Buffered {@link Writer} encoding characters straight into a {@link org.smooks.io.sink.StreamSink} <code>OutputStream</code>.
+ * <p/>
+ * Characters and encoded bytes are held in buffers borrowed from a shared pool, and the underlying stream is only
+ * flushed as dictated by the writer's {@link FlushPolicy}. Visitors needing the output to reach the stream at a given
+ * point call {@link Stream#flush(org.smooks.api.ExecutionContext)}. The writer must be {@link #finish() finished} at
+ * document end so that the buffers are drained and returned to the pool.
+ */
+public class SinkWriter extends Writer {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int MIN_BUFFER_SIZE = 16;
+    private static final int BUFFERS_POOL_CAPACITY = 64;
+    private static final int MAX_BUFFERS_POOLS = 8;
+    private static final ConcurrentMap<Integer, BlockingQueue<Buffers>> BUFFERS_POOLS = new ConcurrentHashMap<>();
+
+    private final OutputStream outputStream;
+    private final CharsetEncoder charsetEncoder;
+    private final FlushPolicy flushPolicy;
+    private Buffers buffers;
+    private int charCount;
+
+    public SinkWriter(final OutputStream outputStream, final Charset charset) {
+        this(outputStream, charset, FlushPolicy.ELEMENT, DEFAULT_BUFFER_SIZE);
+    }
+
+    public SinkWriter(final OutputStream outputStream, final Charset charset, final FlushPolicy flushPolicy, final int bufferSize) {
+        this.outputStream = outputStream;
+        this.flushPolicy = flushPolicy;
+        this.charsetEncoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.buffers = borrowBuffers(Math.max(bufferSize, MIN_BUFFER_SIZE));
+    }
+
+    @Override
+    public void write(final int c) throws IOException {
+        final char[] chars = ensureOpen().chars;
+        if (charCount == chars.length) {
+            encodeChars(false);
+        }
+        chars[charCount++] = (char) c;
+    }
+
+    @Override
+    public void write(final char[] cbuf, int off, int len) throws IOException {
+        final char[] chars = ensureOpen().chars;
+        while (len > 0) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            final int n = Math.min(len, chars.length - charCount);
+            System.arraycopy(cbuf, off, chars, charCount, n);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(final String str, int off, int len) throws IOException {
+        final char[] chars = ensureOpen().chars;
+        while (len > 0) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            final int n = Math.min(len, chars.length - charCount);
+            str.getChars(off, off + n, chars, charCount);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Flushes the underlying stream under the {@link FlushPolicy#ELEMENT} policy. Otherwise, or once the writer is
+     * {@link #finish() finished}, a no-op.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (flushPolicy == FlushPolicy.ELEMENT && buffers != null) {
+            forceFlush();
+        }
+    }
+
+    /**
+     * Encodes the buffered characters and flushes them through to the underlying stream, regardless of the
+     * writer's {@link FlushPolicy}.
+     */
+    public void forceFlush() throws IOException {
+        ensureOpen();
+        encodeChars(false);
+        writeBytes();
+        outputStream.flush();
+    }
+
+    /**
+     * Drains the buffers into the underlying stream, flushes it, and returns the buffers to the pool. Further
+     * writes fail. Calling this method more than once has no effect.
+     */
+    public void finish() throws IOException {
+        if (buffers != null) {
+            try {
+                encodeChars(true);
+                while (charsetEncoder.flush(buffers.bytes).isOverflow()) {
+                    writeBytes();
+                }
+                writeBytes();
+                outputStream.flush();
+            } finally {
+                returnBuffers(buffers);
+                buffers = null;
+                charCount = 0;
+            }
+        }
+    }
+
+    public boolean isFinished() {
+        return buffers == null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            outputStream.close();
+        }
+    }
+
+    public FlushPolicy getFlushPolicy() {
+        return flushPolicy;
+    }
+
+    private Buffers ensureOpen() throws IOException {
+        if (buffers == null) {
+            throw new IOException("Writer finished");
+        }
+        return buffers;
+    }
+
+    private void encodeChars(final boolean endOfInput) throws IOException {
+        final CharBuffer charBuffer = buffers.charBuffer;
+        charBuffer.limit(charCount);
+        charBuffer.position(0);
+        while (true) {
+            final CoderResult coderResult = charsetEncoder.encode(charBuffer, buffers.bytes, endOfInput);
+            if (coderResult.isOverflow()) {
+                drainBytes();
+            } else {
+                if (coderResult.isError()) {
+                    coderResult.throwException();
+                }
+                break;
+            }
+        }
+        if (!buffers.bytes.hasRemaining()) {
+            drainBytes();
+        }
+        // a trailing high surrogate stays behind until its low surrogate is written
+        final int remaining = charBuffer.remaining();
+        if (remaining > 0) {
+            System.arraycopy(buffers.chars, charBuffer.position(), buffers.chars, 0, remaining);
+        }
+        charCount = remaining;
+    }
+
+    private void drainBytes() throws IOException {
+        writeBytes();
+        if (flushPolicy == FlushPolicy.BUFFER) {
+            outputStream.flush();
+        }
+    }
+
+    private void writeBytes() throws IOException {
+        final ByteBuffer bytes = buffers.bytes;
+        if (bytes.position() > 0) {
+            outputStream.write(bytes.array(), bytes.arrayOffset(), bytes.position());
+            bytes.clear();
+        }
+    }
+
+    private static Buffers borrowBuffers(final int bufferSize) {
+        final BlockingQueue<Buffers> buffersPool = getBuffersPool(bufferSize);
+        final Buffers pooledBuffers = buffersPool == null ? null : buffersPool.poll();
+        if (pooledBuffers != null) {
+            return pooledBuffers;
+        } else {
+            return new Buffers(bufferSize);
+        }
+    }
+
+    private static void returnBuffers(final Buffers buffers) {
+        final BlockingQueue<Buffers> buffersPool = getBuffersPool(buffers.chars.length);
+        if (buffersPool != null) {
+            buffers.bytes.clear();
+            buffersPool.offer(buffers);
+        }
+    }
+
+    /**
+     * Gets the pool of buffers of the given size. Buffers are pooled by size so that writers configured with
+     * different buffer sizes do not evict each other's buffers. Only the first {@link #MAX_BUFFERS_POOLS} sizes
+     * are pooled: buffers of any other size are left to the garbage collector.
+     *
+     * @return the pool, or <code>null</code> if buffers of this size are not pooled
+     */
+    private static BlockingQueue<Buffers> getBuffersPool(final int bufferSize) {
+        final BlockingQueue<Buffers> buffersPool = BUFFERS_POOLS.get(bufferSize);
+        if (buffersPool != null || BUFFERS_POOLS.size() >= MAX_BUFFERS_POOLS) {
+            return buffersPool;
+        }
+        return BUFFERS_POOLS.computeIfAbsent(bufferSize, size -> new ArrayBlockingQueue<>(BUFFERS_POOL_CAPACITY));
+    }
+
+    private static final class Buffers {
+        private final char[] chars;
+        private final CharBuffer charBuffer;
+        private final ByteBuffer bytes;
+
+        private Buffers(final int bufferSize) {
+            chars = new char[bufferSize];
+            charBuffer = CharBuffer.wrap(chars);
+            bytes = ByteBuffer.allocate(bufferSize);
+        }
+    }
+}
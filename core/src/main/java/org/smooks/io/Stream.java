@@ -45,10 +45,11 @@ package org.smooks.io;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.TypedKey;
 
+import java.io.IOException;
 import java.io.Writer;
 
 public final class Stream {
-    public static final TypedKey<Writer> STREAM_WRITER_TYPED_KEY = TypedKey.of();
+    public static final TypedKey<Writer> STREAM_WRITER_TYPED_KEY = TypedKey.ofSlot();
 
     private Stream() {
 
@@ -57,4 +58,19 @@ public final class Stream {
     public static Writer out(final ExecutionContext executionContext) {
         return executionContext.get(STREAM_WRITER_TYPED_KEY);
     }
+
+    /**
+     * Flushes the execution context's output through to the sink, whatever the configured {@link org.smooks.FlushPolicy}.
+     *
+     * @param executionContext the execution context holding the output writer
+     * @throws IOException if the writer fails to flush
+     */
+    public static void flush(final ExecutionContext executionContext) throws IOException {
+        final Writer writer = out(executionContext);
+        if (writer instanceof SinkWriter) {
+            ((SinkWriter) writer).forceFlush();
+        } else if (writer != null) {
+            writer.flush();
+        }
+    }
 }
\ No newline at end of file
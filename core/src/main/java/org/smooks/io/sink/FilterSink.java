@@ -53,7 +53,7 @@ import org.smooks.api.io.Sink;
  */
 public abstract class FilterSink implements Sink {
 
-    public static final TypedKey<Sink[]> SINKS_TYPED_KEY = TypedKey.of();
+    public static final TypedKey<Sink[]> SINKS_TYPED_KEY = TypedKey.ofSlot();
 
     private String systemId;
 
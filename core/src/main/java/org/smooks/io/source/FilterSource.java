@@ -53,7 +53,7 @@ import org.smooks.api.io.Source;
  */
 public abstract class FilterSource implements Source {
 
-    public static final TypedKey<Source> SOURCE_TYPED_KEY = TypedKey.of();
+    public static final TypedKey<Source> SOURCE_TYPED_KEY = TypedKey.ofSlot();
 
     public static Source getSource(ExecutionContext executionContext) {
         return executionContext.get(SOURCE_TYPED_KEY);
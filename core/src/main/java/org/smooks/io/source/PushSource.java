@@ -0,0 +1,95 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io.source;
+
+import org.smooks.api.SmooksException;
+import org.smooks.api.io.Source;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link Source} whose content is pushed by the caller as it becomes available instead of being pulled by the filter.
+ * <p/>
+ * A push source is opened with {@link org.smooks.Smooks#openPushSource(org.smooks.api.ExecutionContext, org.smooks.api.io.Sink...)}.
+ * Each {@link #push(ByteBuffer)} filters as much of the document as the bytes pushed so far allow, on the calling
+ * thread, and returns without waiting for more content. {@link #close()} signals the end of the document and completes
+ * the filter. No thread is held by the filter in between pushes.
+ * <p/>
+ * A push source is not thread-safe: pushes, and the final close, must not overlap, though they may be made from
+ * different threads one after the other.
+ */
+public interface PushSource extends Source, Closeable {
+
+    /**
+     * Filters the next chunk of the document. The chunk's remaining bytes are consumed before this method returns, so the
+     * buffer may be reused by the caller.
+     *
+     * @param byteBuffer the next chunk of the UTF-8 encoded document
+     * @throws SmooksException       if filtering fails, in which case this source is aborted
+     * @throws IllegalStateException if this source is closed or aborted
+     */
+    void push(ByteBuffer byteBuffer) throws SmooksException;
+
+    /**
+     * Signals the end of the document, completing the filter and releasing its resources.
+     *
+     * @throws SmooksException       if the document is incomplete or filtering fails
+     * @throws IllegalStateException if this source is already closed or aborted
+     */
+    @Override
+    void close() throws SmooksException;
+
+    /**
+     * Stops filtering without completing the document, for example because the upload was cancelled, and releases the
+     * resources of the filter. Aborting a closed or aborted source has no effect.
+     */
+    void abort();
+
+    /**
+     * Tells whether this source is closed or aborted.
+     *
+     * @return <code>true</code> if no more content can be pushed
+     */
+    boolean isClosed();
+}
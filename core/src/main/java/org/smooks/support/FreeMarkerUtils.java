@@ -60,7 +60,7 @@ import java.util.Set;
  */
 public abstract class FreeMarkerUtils {
 
-    private static final TypedKey<Map<String, ElementToNodeModel>> ELEMENT_TO_NODE_MODEL_TYPED_KEY = TypedKey.of();
+    private static final TypedKey<Map<String, ElementToNodeModel>> ELEMENT_TO_NODE_MODEL_TYPED_KEY = TypedKey.ofSlot();
 
     /**
      * Get a "merged" model for FreeMarker templating.
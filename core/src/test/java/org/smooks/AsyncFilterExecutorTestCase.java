@@ -0,0 +1,169 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.io.sink.StringSink;
+import org.smooks.io.source.StringSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncFilterExecutorTestCase {
+
+    @Test
+    public void testSubmitGivenMaxInFlightReached() {
+        List<Runnable> runnables = new ArrayList<>();
+        AsyncFilterExecutor asyncFilterExecutor = new AsyncFilterExecutor(runnables::add, 2, 1);
+
+        CompletableFuture<Void> fooFuture = asyncFilterExecutor.submit(() -> {
+        });
+        CompletableFuture<Void> barFuture = asyncFilterExecutor.submit(() -> {
+            throw new IllegalStateException();
+        });
+        CompletableFuture<Void> bazFuture = asyncFilterExecutor.submit(() -> {
+        });
+        CompletableFuture<Void> quxFuture = asyncFilterExecutor.submit(() -> {
+        });
+
+        assertEquals(2, runnables.size());
+        assertEquals(2, asyncFilterExecutor.getInFlight());
+        assertEquals(1, asyncFilterExecutor.getQueueDepth());
+        assertTrue(quxFuture.isCompletedExceptionally());
+        assertEquals(1, asyncFilterExecutor.getRejectedCount());
+
+        runnables.get(0).run();
+        assertTrue(fooFuture.isDone());
+        assertFalse(fooFuture.isCompletedExceptionally());
+        assertEquals(3, runnables.size());
+        assertEquals(0, asyncFilterExecutor.getQueueDepth());
+
+        runnables.get(1).run();
+        assertTrue(barFuture.isCompletedExceptionally());
+        runnables.get(2).run();
+        assertTrue(bazFuture.isDone());
+
+        assertEquals(0, asyncFilterExecutor.getInFlight());
+        assertEquals(2, asyncFilterExecutor.getCompletedCount());
+        assertEquals(1, asyncFilterExecutor.getFailedCount());
+        assertTrue(asyncFilterExecutor.getMaxLatencyNanos() > 0);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        List<Runnable> runnables = new ArrayList<>();
+        AsyncFilterExecutor asyncFilterExecutor = new AsyncFilterExecutor(runnables::add, 1, 1);
+
+        CompletableFuture<Void> fooFuture = asyncFilterExecutor.submit(() -> {
+        });
+        CompletableFuture<Void> barFuture = asyncFilterExecutor.submit(() -> {
+        });
+        asyncFilterExecutor.close();
+        CompletableFuture<Void> bazFuture = asyncFilterExecutor.submit(() -> {
+        });
+
+        assertTrue(asyncFilterExecutor.isClosed());
+        assertEquals(0, asyncFilterExecutor.getQueueDepth());
+        ExecutionException executionException = assertThrows(ExecutionException.class, barFuture::get);
+        assertTrue(executionException.getCause() instanceof RejectedExecutionException);
+        assertTrue(bazFuture.isCompletedExceptionally());
+        assertEquals(2, asyncFilterExecutor.getRejectedCount());
+        assertFalse(asyncFilterExecutor.awaitTermination(0, TimeUnit.SECONDS));
+
+        runnables.get(0).run();
+        assertEquals(1, runnables.size());
+        assertTrue(fooFuture.isDone());
+        assertFalse(fooFuture.isCompletedExceptionally());
+        assertTrue(asyncFilterExecutor.awaitTermination(0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFilterSourceAsync() throws Exception {
+        Smooks smooks = new Smooks();
+        try {
+            smooks.addVisitor((AfterVisitor) (element, executionContext) -> {
+                if (element.getAttribute("id").equals("bar")) {
+                    throw new SmooksException("bar");
+                }
+            }, "a");
+
+            StringSink stringSink = new StringSink();
+            ExecutionContext executionContext = smooks.createExecutionContext();
+            smooks.filterSourceAsync(executionContext, new StringSource("<a id=\"foo\">foo</a>"), stringSink).get(30, TimeUnit.SECONDS);
+            assertEquals("<a id=\"foo\">foo</a>", stringSink.getResult());
+
+            ExecutionException executionException = assertThrows(ExecutionException.class, () -> smooks.filterSourceAsync(new StringSource("<a id=\"bar\">bar</a>")).get(30, TimeUnit.SECONDS));
+            assertTrue(executionException.getCause() instanceof SmooksException);
+            assertEquals(2, smooks.getAsyncFilterExecutor().getCompletedCount() + smooks.getAsyncFilterExecutor().getFailedCount());
+        } finally {
+            smooks.close();
+        }
+    }
+
+    @Test
+    public void testSetAsyncFilterExecutor() {
+        Smooks smooks = new Smooks();
+        AsyncFilterExecutor asyncFilterExecutor = new AsyncFilterExecutor(runnable -> {
+            throw new RejectedExecutionException();
+        }, 1, 0);
+        smooks.setAsyncFilterExecutor(asyncFilterExecutor);
+
+        assertSame(asyncFilterExecutor, smooks.getAsyncFilterExecutor());
+        assertSame(asyncFilterExecutor, smooks.getApplicationContext().getRegistry().lookup(AsyncFilterExecutor.class));
+        assertTrue(smooks.filterSourceAsync(new StringSource("<a/>")).isCompletedExceptionally());
+        assertEquals(1, asyncFilterExecutor.getRejectedCount());
+    }
+}
@@ -0,0 +1,137 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
+import org.smooks.api.TypedKey;
+import org.smooks.api.profile.Profile;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.io.sink.StringSink;
+import org.smooks.io.source.StringSource;
+import org.w3c.dom.Element;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExecutionContextPoolTestCase {
+
+    private static final TypedKey<String> TEST_TYPED_KEY = TypedKey.of("test");
+
+    @Test
+    public void testReleasedExecutionContextIsReset() {
+        Smooks smooks = new Smooks();
+        CountingVisitor countingVisitor = new CountingVisitor();
+        smooks.addVisitor(countingVisitor, "a");
+        ExecutionContextPool executionContextPool = smooks.createExecutionContextPool(Profile.DEFAULT_PROFILE, 1);
+
+        ExecutionContext executionContext = executionContextPool.acquire();
+        executionContext.put(TEST_TYPED_KEY, "foo");
+        executionContext.getBeanContext().addBean("bar", "baz");
+        StringSink stringSink = new StringSink();
+        smooks.filterSource(executionContext, new StringSource("<a>foo</a>"), stringSink);
+        assertEquals("<a>foo</a>", stringSink.getResult());
+        executionContextPool.release(executionContext);
+        assertEquals(1, executionContextPool.getIdleCount());
+
+        ExecutionContext recycledExecutionContext = executionContextPool.acquire();
+        assertSame(executionContext, recycledExecutionContext);
+        assertEquals(0, executionContextPool.getIdleCount());
+        assertNull(recycledExecutionContext.get(TEST_TYPED_KEY));
+        assertNull(recycledExecutionContext.getBeanContext().getBean("bar"));
+        assertNull(recycledExecutionContext.getTerminationError());
+
+        stringSink = new StringSink();
+        smooks.filterSource(recycledExecutionContext, new StringSource("<a>bar</a>"), stringSink);
+        assertEquals("<a>bar</a>", stringSink.getResult());
+        assertEquals(2, countingVisitor.callCount);
+    }
+
+    @Test
+    public void testReleaseGivenMaxIdleReached() {
+        Smooks smooks = new Smooks();
+        ExecutionContextPool executionContextPool = smooks.createExecutionContextPool(Profile.DEFAULT_PROFILE, 1);
+
+        ExecutionContext fooExecutionContext = executionContextPool.acquire();
+        ExecutionContext barExecutionContext = executionContextPool.acquire();
+        assertNotSame(fooExecutionContext, barExecutionContext);
+        executionContextPool.release(fooExecutionContext);
+        executionContextPool.release(barExecutionContext);
+
+        assertEquals(1, executionContextPool.getIdleCount());
+        assertSame(fooExecutionContext, executionContextPool.acquire());
+    }
+
+    @Test
+    public void testReuseWhileInUse() {
+        Smooks smooks = new Smooks();
+        ExecutionContextPool executionContextPool = smooks.createExecutionContextPool(Profile.DEFAULT_PROFILE, 1);
+        smooks.addVisitor((AfterVisitor) (element, executionContext) -> executionContextPool.release(executionContext), "a");
+
+        ExecutionContext executionContext = executionContextPool.acquire();
+        SmooksException smooksException = assertThrows(SmooksException.class, () -> smooks.filterSource(executionContext, new StringSource("<a/>")));
+        Throwable cause = smooksException;
+        while (!(cause instanceof IllegalStateException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        assertEquals(IllegalStateException.class, cause.getClass());
+
+        executionContextPool.release(executionContext);
+        assertThrows(IllegalStateException.class, () -> executionContextPool.release(executionContext));
+        assertThrows(IllegalStateException.class, () -> smooks.filterSource(executionContext, new StringSource("<a/>")));
+        assertThrows(IllegalArgumentException.class, () -> executionContextPool.release(smooks.createExecutionContext()));
+    }
+
+    private static class CountingVisitor implements AfterVisitor {
+        private int callCount;
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+            callCount++;
+        }
+    }
+}
@@ -46,6 +46,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksException;
+import org.smooks.api.io.Sink;
 import org.smooks.api.resource.visitor.dom.DOMVisitAfter;
 import org.smooks.api.resource.visitor.dom.DOMVisitBefore;
 import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
@@ -60,11 +61,21 @@ import org.w3c.dom.Element;
 import org.xml.sax.SAXException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -97,6 +108,45 @@ public class SmooksTestCase {
         assertSame(contextClassLoader, Thread.currentThread().getContextClassLoader());
     }
 
+	@Test
+    public void test_warmUp() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Smooks smooks1 = new Smooks();
+            TestSAXVisitorAfter visitor = new TestSAXVisitorAfter();
+            smooks1.addVisitor(visitor, "a");
+            Smooks smooks2 = new Smooks(getClass().getResourceAsStream("test_setClassLoader_01.xml"));
+
+            CompletableFuture.allOf(smooks1.warmUp(executorService), smooks2.warmUp(executorService)).get(30, TimeUnit.SECONDS);
+
+            assertThrows(UnsupportedOperationException.class, () -> smooks1.addVisitor(new TestSAXVisitorAfter(), "b"));
+            smooks1.filterSource(new StringSource("<a/>"));
+            assertEquals(1, visitor.callCount);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+	@Test
+    public void test_warmUpGivenProfiles() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            Smooks smooks = new Smooks(getClass().getResourceAsStream("/org/smooks/engine/delivery/smooks-config-close-filter-io.xml"));
+            AtomicInteger taskCount = new AtomicInteger();
+
+            smooks.warmUp(command -> {
+                taskCount.incrementAndGet();
+                executorService.execute(command);
+            }).get(30, TimeUnit.SECONDS);
+
+            // one task for the default profile and one for each declared profile
+            assertEquals(5, taskCount.get());
+            smooks.filterSource(smooks.createExecutionContext("sax-close"), new StringSource("<a/>"));
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
 	@Test
     public void test_addVisitor_DOM_01() {
         Smooks smooks = new Smooks();
@@ -128,6 +178,31 @@ public class SmooksTestCase {
     }
 
 
+	@Test
+    public void test_filterSources() {
+        Smooks smooks = new Smooks();
+        TestSAXVisitorAfter visitor = new TestSAXVisitorAfter();
+        smooks.addVisitor(visitor, "a");
+        Set<ExecutionContext> executionContexts = new HashSet<>();
+        smooks.addVisitor((AfterVisitor) (element, executionContext) -> {
+            assertNull(executionContext.getBeanContext().getBean("text"));
+            executionContext.getBeanContext().addBean("text", element.getTextContent());
+            executionContexts.add(executionContext);
+        }, "a");
+
+        List<StringSink> sinks = new ArrayList<>();
+        smooks.filterSources(Arrays.asList(new StringSource("<a>foo</a>"), new StringSource("<a>bar</a>")), source -> {
+            StringSink sink = new StringSink();
+            sinks.add(sink);
+            return new Sink[]{sink};
+        });
+
+        assertEquals(2, visitor.callCount);
+        assertEquals(1, executionContexts.size());
+        assertEquals("<a>foo</a>", sinks.get(0).getResult());
+        assertEquals("<a>bar</a>", sinks.get(1).getResult());
+    }
+
 	@Test
     public void test_setResourceLocator() throws IOException, SAXException {
         Smooks smooks = new Smooks("classpath:/org/smooks/test_setClassLoader_01.xml");
@@ -51,6 +51,9 @@ import org.smooks.engine.profile.DefaultProfileSet;
 
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -74,6 +77,31 @@ public class DefaultExecutionContextTestCase {
         assertTrue(attributes.containsValue(value));
     }
 
+    @Test
+    public void testSlotTypedKey() {
+        final TypedKey<String> slotTypedKey = TypedKey.ofSlot();
+        final TypedKey<String> lateSlotTypedKey = TypedKey.ofSlot();
+        assertNull(context.get(slotTypedKey));
+        assertEquals("default", context.getOrDefault(slotTypedKey, "default"));
+
+        Map<TypedKey<Object>, Object> attributes = context.getAll();
+        context.put(slotTypedKey, "foo");
+        context.put(lateSlotTypedKey, "bar");
+        assertEquals("foo", context.get(slotTypedKey));
+        assertEquals("bar", context.get(lateSlotTypedKey));
+        assertEquals("bar", attributes.get(lateSlotTypedKey));
+        assertEquals(attributes.size(), attributes.entrySet().stream().count());
+        assertTrue(attributes.values().contains("foo"));
+
+        context.put(slotTypedKey, null);
+        assertNull(context.getOrDefault(slotTypedKey, "default"));
+        assertTrue(context.getAll().containsKey(slotTypedKey));
+
+        context.remove(slotTypedKey);
+        assertEquals("default", context.getOrDefault(slotTypedKey, "default"));
+        assertFalse(context.getAll().containsKey(slotTypedKey));
+    }
+
     @BeforeEach
     public void setup() {
         Smooks smooks = new Smooks();
@@ -44,6 +44,9 @@ package org.smooks.engine;
 
 import org.junit.jupiter.api.Test;
 import org.smooks.api.Registry;
+import org.smooks.api.converter.TypeConverterFactory;
+import org.smooks.engine.lookup.InstanceLookup;
+import org.smooks.engine.lookup.converter.TypeConverterFactoryLookup;
 import org.smooks.engine.lookup.converter.SourceTargetTypeConverterFactoryLookup;
 import org.smooks.engine.profile.DefaultProfileStore;
 import org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader;
@@ -52,9 +55,14 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.util.Enumeration;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DefaultRegistryTestCase {
 
@@ -84,4 +92,32 @@ public class DefaultRegistryTestCase {
         Registry registry = new DefaultRegistry(getClass().getClassLoader(), new XmlResourceConfigLoader(), new DefaultProfileStore());
         assertNotNull(registry.lookup(new SourceTargetTypeConverterFactoryLookup<>(BigDecimal.class, String.class)));
     }
+
+    @Test
+    public void testIndexedLookupIsInvalidatedOnRegistration() {
+        Registry registry = new DefaultRegistry(getClass().getClassLoader(), new XmlResourceConfigLoader(), new DefaultProfileStore());
+        registry.registerObject("foo", new StringBuilder("bar"));
+
+        Map<Object, StringBuilder> stringBuilders = registry.lookup(new InstanceLookup<>(StringBuilder.class));
+        assertEquals(1, stringBuilders.size());
+        assertSame(stringBuilders, registry.lookup(new InstanceLookup<>(StringBuilder.class)));
+        assertSame(registry.lookup(new SourceTargetTypeConverterFactoryLookup<>(BigDecimal.class, String.class)), registry.lookup(new SourceTargetTypeConverterFactoryLookup<>(BigDecimal.class, String.class)));
+
+        registry.registerObject("baz", new StringBuilder("qux"));
+        assertEquals(2, registry.lookup(new InstanceLookup<>(StringBuilder.class)).size());
+
+        registry.deRegisterObject("foo");
+        stringBuilders = registry.lookup(new InstanceLookup<>(StringBuilder.class));
+        assertEquals(1, stringBuilders.size());
+        assertEquals("qux", stringBuilders.get("baz").toString());
+    }
+
+    @Test
+    public void testTypeConverterFactoriesAreUnmodifiable() {
+        Registry registry = new DefaultRegistry(getClass().getClassLoader(), new XmlResourceConfigLoader(), new DefaultProfileStore());
+        Set<TypeConverterFactory<?, ?>> typeConverterFactories = registry.lookup(TypeConverterFactoryLookup.TYPE_CONVERTER_FACTORY_REGISTRY_KEY);
+
+        assertThrows(UnsupportedOperationException.class, typeConverterFactories::clear);
+        assertNotNull(registry.lookup(new SourceTargetTypeConverterFactoryLookup<>(BigDecimal.class, String.class)));
+    }
 }
@@ -0,0 +1,116 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.api.TypedKey;
+import org.smooks.api.memento.MementoCaretaker;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.memento.DepthStackMementoCaretaker;
+import org.smooks.engine.memento.SimpleVisitorMemento;
+import org.smooks.engine.memento.TextAccumulatorMemento;
+import org.smooks.engine.memento.VisitorMemento;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DepthStackMementoCaretakerTestCase {
+
+    @Test
+    public void testRestore() throws ParserConfigurationException {
+        MementoCaretaker mementoCaretaker = new DepthStackMementoCaretaker();
+        VisitorMemento<String> visitorMemento = new SimpleVisitorMemento<>(new NodeFragment(DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument()), new Visitor() {
+        }, "foo");
+        mementoCaretaker.restore(visitorMemento);
+        assertEquals("foo", visitorMemento.getState());
+        assertFalse(mementoCaretaker.exists(visitorMemento));
+    }
+
+    @Test
+    public void testCaptureGivenNestedFragments() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element parent = document.createElement("a");
+        Element child = document.createElement("b");
+        document.appendChild(parent);
+        parent.appendChild(child);
+        Visitor visitor = new Visitor() {
+        };
+        TypedKey<String> typedKey = TypedKey.of();
+
+        MementoCaretaker mementoCaretaker = new DepthStackMementoCaretaker();
+        mementoCaretaker.capture(new VisitorMemento<>(new NodeFragment(parent), visitor, typedKey, "foo"));
+        mementoCaretaker.capture(new VisitorMemento<>(new NodeFragment(child), visitor, typedKey, "bar"));
+
+        VisitorMemento<String> parentVisitorMemento = new VisitorMemento<>(new NodeFragment(parent), visitor, typedKey);
+        mementoCaretaker.restore(parentVisitorMemento);
+        assertEquals("foo", parentVisitorMemento.getState());
+
+        mementoCaretaker.forget(new NodeFragment(child));
+        VisitorMemento<String> childVisitorMemento = new VisitorMemento<>(new NodeFragment(child), visitor, typedKey);
+        assertFalse(mementoCaretaker.exists(childVisitorMemento));
+        assertTrue(mementoCaretaker.exists(parentVisitorMemento));
+
+        mementoCaretaker.forget(parentVisitorMemento);
+        assertFalse(mementoCaretaker.exists(parentVisitorMemento));
+    }
+
+    @Test
+    public void testStashGivenTextAccumulatorMemento() throws ParserConfigurationException {
+        NodeFragment nodeFragment = new NodeFragment(DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument());
+        MementoCaretaker mementoCaretaker = new DepthStackMementoCaretaker();
+
+        mementoCaretaker.stash(new TextAccumulatorMemento(nodeFragment), textAccumulatorMemento -> textAccumulatorMemento.accumulateText("foo"));
+        mementoCaretaker.stash(new TextAccumulatorMemento(nodeFragment), textAccumulatorMemento -> textAccumulatorMemento.accumulateText("bar"));
+
+        TextAccumulatorMemento textAccumulatorMemento = new TextAccumulatorMemento(nodeFragment);
+        mementoCaretaker.restore(textAccumulatorMemento);
+        assertEquals("foobar", textAccumulatorMemento.getText());
+    }
+}
@@ -46,19 +46,27 @@ import org.junit.jupiter.api.Test;
 import org.smooks.Smooks;
 import org.smooks.StreamFilterType;
 import org.smooks.api.ExecutionContext;
+import org.smooks.api.Registry;
 import org.smooks.api.SmooksException;
+import org.smooks.api.delivery.ContentDeliveryConfig;
 import org.smooks.api.delivery.Filter;
+import org.smooks.api.profile.Profile;
+import org.smooks.api.profile.ProfileSet;
 import org.smooks.api.resource.visitor.Visitor;
 import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
 import org.smooks.engine.delivery.dom.DOMContentDeliveryConfig;
+import org.smooks.engine.delivery.dom.DOMFilterProvider;
 import org.smooks.engine.delivery.sax.ng.SaxNgContentDeliveryConfig;
+import org.smooks.engine.delivery.sax.ng.SaxNgFilterProvider;
 import org.smooks.engine.delivery.sax.ng.Visitor01;
 import org.smooks.testkit.TextUtils;
 import org.xml.sax.SAXException;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -81,6 +89,21 @@ public class DefaultContentDeliveryConfigBuilderTestCase {
         assertTrue(((InterceptorVisitor)config.getAfterVisitorIndex().get("b").get(0).getContentHandler()).getTarget().getContentHandler() instanceof Visitor01);
     }
 
+	@Test
+    public void testBuildPhaseTimings() throws IOException, SAXException {
+        Smooks smooks = new Smooks(getClass().getResourceAsStream("smooks-config-sax.xml"));
+        Registry registry = smooks.getApplicationContext().getRegistry();
+        ProfileSet profileSet = smooks.getApplicationContext().getProfileStore().getProfileSet(Profile.DEFAULT_PROFILE);
+        DefaultContentDeliveryConfigBuilder contentDeliveryConfigBuilder = new DefaultContentDeliveryConfigBuilder(profileSet, registry, Arrays.asList(new SaxNgFilterProvider(), new DOMFilterProvider()));
+        assertTrue(contentDeliveryConfigBuilder.getBuildPhaseTimings().isEmpty());
+
+        ContentDeliveryConfig contentDeliveryConfig = contentDeliveryConfigBuilder.build(null);
+
+        assertSame(contentDeliveryConfig, contentDeliveryConfigBuilder.build(null));
+        assertEquals(EnumSet.allOf(DefaultContentDeliveryConfigBuilder.BuildPhase.class), contentDeliveryConfigBuilder.getBuildPhaseTimings().keySet());
+        assertTrue(contentDeliveryConfig.getContentDeliveryConfigExecutionEvents().stream().anyMatch(event -> event.getMessage().contains("Built content delivery config for profile [" + Profile.DEFAULT_PROFILE + "]")));
+    }
+
 	@Test
     public void testDom() throws IOException, SAXException {
         Smooks smooks = new Smooks(getClass().getResourceAsStream("smooks-config-dom.xml"));
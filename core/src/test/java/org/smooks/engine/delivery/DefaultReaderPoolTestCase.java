@@ -46,9 +46,17 @@ import org.junit.jupiter.api.Test;
 import org.smooks.api.delivery.ReaderPool;
 import org.smooks.engine.resource.reader.NullSourceXMLReader;
 
+import org.xml.sax.XMLReader;
+
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class DefaultReaderPoolTestCase {
 
@@ -96,4 +104,81 @@ public class DefaultReaderPoolTestCase {
         assertEquals("4", properties.get("unallocatedReaders"));
         assertEquals("1", properties.get("activeReaders"));
     }
+
+    @Test
+    public void testGetPropertiesCounters() {
+        ReaderPool readerPool = new DefaultReaderPool(1);
+        XMLReader xmlReader = readerPool.borrowXMLReader();
+        assertNull(xmlReader);
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+        readerPool.returnXMLReader(new NullSourceXMLReader());
+        readerPool.borrowXMLReader();
+
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("1", properties.get("hits"));
+        assertEquals("1", properties.get("misses"));
+        assertEquals("1", properties.get("createdReaders"));
+        assertEquals("1", properties.get("discards"));
+        assertEquals("0", properties.get("timeouts"));
+    }
+
+    @Test
+    public void testWarmUp() {
+        DefaultReaderPool readerPool = new DefaultReaderPool(3);
+        assertEquals(3, readerPool.warmUp(NullSourceXMLReader::new, 5));
+
+        Map<String, String> properties = readerPool.getProperties();
+        assertEquals("3", properties.get("createdReaders"));
+        assertEquals("0", properties.get("discards"));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(NullSourceXMLReader.class, readerPool.borrowXMLReader().getClass());
+        }
+        assertNull(readerPool.borrowXMLReader());
+    }
+
+    @Test
+    public void testBorrowXMLReaderGivenTimeoutAndExhaustedPool() throws InterruptedException {
+        ReaderPool readerPool = new DefaultReaderPool(1);
+        assertNull(readerPool.borrowXMLReader(10, TimeUnit.MILLISECONDS));
+        assertNull(readerPool.borrowXMLReader(10, TimeUnit.MILLISECONDS));
+        assertEquals("1", readerPool.getProperties().get("timeouts"));
+    }
+
+    @Test
+    public void testBorrowXMLReaderGivenTimeoutAndReturnedReader() throws InterruptedException {
+        CountDownLatch waitingLatch = new CountDownLatch(1);
+        AtomicReference<Thread> borrowingThread = new AtomicReference<>();
+        ReaderPool readerPool = new DefaultReaderPool(1) {
+            private int borrowingThreadScans;
+
+            @Override
+            protected AtomicReferenceArray<Object> getSlots() {
+                // the second scan by the borrowing thread happens once it holds the monitor it waits on for a return
+                if (Thread.currentThread() == borrowingThread.get() && ++borrowingThreadScans == 2) {
+                    waitingLatch.countDown();
+                }
+                return super.getSlots();
+            }
+        };
+        assertNull(readerPool.borrowXMLReader());
+
+        XMLReader xmlReader = new NullSourceXMLReader();
+        AtomicReference<XMLReader> borrowedXMLReader = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                borrowedXMLReader.set(readerPool.borrowXMLReader(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        borrowingThread.set(thread);
+        thread.start();
+        waitingLatch.await();
+        readerPool.returnXMLReader(xmlReader);
+        thread.join();
+
+        assertSame(xmlReader, borrowedXMLReader.get());
+        assertEquals("1", readerPool.getProperties().get("hits"));
+        assertEquals("0", readerPool.getProperties().get("timeouts"));
+    }
 }
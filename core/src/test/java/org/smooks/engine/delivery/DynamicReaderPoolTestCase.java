@@ -46,9 +46,14 @@ import org.junit.jupiter.api.Test;
 import org.smooks.api.delivery.ReaderPool;
 import org.smooks.engine.resource.reader.NullSourceXMLReader;
 
+import org.xml.sax.XMLReader;
+
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class DynamicReaderPoolTestCase {
 
@@ -96,4 +101,23 @@ public class DynamicReaderPoolTestCase {
         assertEquals("15", properties.get("unallocatedReaders"));
         assertEquals("1", properties.get("activeReaders"));
     }
+
+    @Test
+    public void testReturnXMLReaderGivenFullPool() {
+        ReaderPool readerPool = new DynamicReaderPool();
+        Set<XMLReader> xmlReaders = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            XMLReader xmlReader = new NullSourceXMLReader();
+            xmlReaders.add(xmlReader);
+            readerPool.returnXMLReader(xmlReader);
+        }
+        assertEquals("64", readerPool.getProperties().get("readerPoolSize"));
+
+        Set<XMLReader> borrowedXMLReaders = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            borrowedXMLReaders.add(readerPool.borrowXMLReader());
+        }
+        assertEquals(xmlReaders, borrowedXMLReaders);
+        assertNull(readerPool.borrowXMLReader());
+    }
 }
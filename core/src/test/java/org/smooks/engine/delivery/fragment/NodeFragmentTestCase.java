@@ -44,6 +44,7 @@ package org.smooks.engine.delivery.fragment;
 
 import org.junit.jupiter.api.Test;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
@@ -85,4 +86,113 @@ public class NodeFragmentTestCase {
 
         assertNotEquals(barNodeFragment, fooNodeFragment);
     }
+
+    @Test
+    public void testReserveGivenInheritableReservationOnAncestor() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element a = document.createElement("a");
+        Element b = document.createElement("b");
+        Element c = document.createElement("c");
+        document.appendChild(a);
+        a.appendChild(b);
+        b.appendChild(c);
+
+        NodeFragment cNodeFragment = new NodeFragment(c);
+        assertTrue(cNodeFragment.reserve(1, "foo"));
+
+        Object barToken = new Object();
+        assertTrue(new NodeFragment(a, true).reserve(1, barToken));
+        assertFalse(new NodeFragment(b).reserve(1, "foo"));
+        assertTrue(new NodeFragment(b).reserve(1, barToken));
+        assertFalse(cNodeFragment.reserve(1, "foo"));
+        assertTrue(cNodeFragment.reserve(1, barToken));
+
+        assertTrue(new NodeFragment(a).release(1, barToken));
+        assertTrue(new NodeFragment(b).reserve(1, "foo"));
+        assertTrue(cNodeFragment.reserve(1, "foo"));
+        assertFalse(cNodeFragment.release(1, barToken));
+        assertTrue(cNodeFragment.release(1, "foo"));
+        assertEquals(0, getDocumentInheritableReservationCount(document));
+    }
+
+    @Test
+    public void testReserveGivenInheritedReservationOnImportedNode() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element a = document.createElement("a");
+        Element b = document.createElement("b");
+        document.appendChild(a);
+        a.appendChild(b);
+
+        Object barToken = new Object();
+        assertTrue(new NodeFragment(a, true).reserve(1, barToken));
+        assertFalse(new NodeFragment(b).reserve(1, "foo"));
+
+        Document importDocument = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element importedB = (Element) NodeFragment.importNode(importDocument, b);
+        importDocument.appendChild(importedB);
+        Element c = importDocument.createElement("c");
+        importedB.appendChild(c);
+
+        assertFalse(new NodeFragment(importedB).reserve(1, "foo"));
+        assertFalse(new NodeFragment(c).reserve(1, "foo"));
+        assertTrue(new NodeFragment(c).reserve(1, barToken));
+        assertEquals(1, getDocumentInheritableReservationCount(document));
+
+        assertTrue(new NodeFragment(a).release(1, barToken));
+        assertTrue(new NodeFragment(importedB, true).reserve(2, "foo"));
+        assertEquals(1, getDocumentInheritableReservationCount(document));
+        assertFalse(new NodeFragment(b).reserve(2, "bar"));
+        assertFalse(new NodeFragment(c).reserve(2, "bar"));
+        assertTrue(new NodeFragment(b).release(2, "foo"));
+        assertEquals(0, getDocumentInheritableReservationCount(document));
+        assertTrue(new NodeFragment(c).reserve(2, "bar"));
+    }
+
+    private int getDocumentInheritableReservationCount(Document document) {
+        return ((NodeFragment.FragmentState) document.getUserData(NodeFragment.FRAGMENT_STATE_USER_DATA_KEY)).getDocumentInheritableReservationCount();
+    }
+
+    @Test
+    public void testReserveGivenNonInheritableReservationOnAncestor() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element a = document.createElement("a");
+        Element b = document.createElement("b");
+        document.appendChild(a);
+        a.appendChild(b);
+
+        assertTrue(new NodeFragment(a).reserve(1, "foo"));
+        assertFalse(new NodeFragment(a).reserve(1, "bar"));
+        assertTrue(new NodeFragment(b).reserve(1, "bar"));
+    }
+
+    @Test
+    public void testGetIdGivenIdenticalNode() throws ParserConfigurationException {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element a = document.createElement("a");
+
+        assertEquals(new NodeFragment(a).getId(), new NodeFragment(a).getId());
+        assertEquals(Long.parseLong(new NodeFragment(a).getId()), new NodeFragment(a).getPrimitiveId());
+    }
+
+    @Test
+    public void testReserveGivenSaxNgDocument() {
+        Document document = new org.smooks.engine.delivery.sax.ng.org.apache.xerces.dom.DocumentImpl();
+        Element a = document.createElement("a");
+        Element b = document.createElement("b");
+        document.appendChild(a);
+        a.appendChild(b);
+
+        assertTrue(new NodeFragment(a, true).reserve(1, "foo"));
+        assertNotNull(a.getUserData(NodeFragment.FRAGMENT_STATE_USER_DATA_KEY));
+        assertFalse(new NodeFragment(b).reserve(1, "bar"));
+
+        Element aClone = (Element) a.cloneNode(false);
+        assertSame(a.getUserData(NodeFragment.FRAGMENT_STATE_USER_DATA_KEY), aClone.getUserData(NodeFragment.FRAGMENT_STATE_USER_DATA_KEY));
+
+        assertTrue(new NodeFragment(a).release(1, "foo"));
+        assertTrue(new NodeFragment(b).reserve(1, "bar"));
+
+        a.setUserData(NodeFragment.FRAGMENT_STATE_USER_DATA_KEY, null, null);
+        assertNull(a.getUserData(NodeFragment.FRAGMENT_STATE_USER_DATA_KEY));
+    }
 }
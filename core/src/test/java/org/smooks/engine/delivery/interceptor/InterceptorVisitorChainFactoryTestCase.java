@@ -0,0 +1,198 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.interceptor.InterceptorVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ElementVisitor;
+import org.smooks.engine.delivery.event.VisitExecutionEvent;
+import org.smooks.engine.delivery.event.VisitSequence;
+import org.smooks.engine.delivery.sax.ng.SaxNgContentDeliveryConfig;
+import org.smooks.engine.delivery.sax.ng.bridge.BridgeInterceptor;
+import org.smooks.engine.resource.config.SystemResourceConfigSeqFactory;
+import org.smooks.io.source.StringSource;
+import org.smooks.testkit.MockApplicationContext;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InterceptorVisitorChainFactoryTestCase {
+
+    @Test
+    public void testIsFusable() {
+        InterceptorVisitorChainFactory interceptorVisitorChainFactory = new InterceptorVisitorChainFactory(new MockApplicationContext());
+
+        assertTrue(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(ExecutionEventInterceptor.class, TextConsumerInterceptor.class, StreamSinkWriterInterceptor.class, ExceptionInterceptor.class, StaticProxyInterceptor.class)));
+        assertTrue(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(ExecutionEventInterceptor.class, TextConsumerInterceptor.class, StreamSinkWriterInterceptor.class, ExceptionInterceptor.class, StaticProxyInterceptor.class, BridgeInterceptor.class, StaticProxyInterceptor.class)));
+        assertTrue(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(BridgeInterceptor.class, StaticProxyInterceptor.class)));
+        assertFalse(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(BridgeInterceptor.class, ExceptionInterceptor.class, StaticProxyInterceptor.class)));
+        assertFalse(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(ExceptionInterceptor.class, BridgeInterceptor.class, StaticProxyInterceptor.class)));
+        assertFalse(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(CustomInterceptor.class, ExceptionInterceptor.class, StaticProxyInterceptor.class)));
+        assertFalse(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(ExceptionInterceptor.class, ExecutionEventInterceptor.class, StaticProxyInterceptor.class)));
+        assertFalse(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(ExceptionInterceptor.class)));
+        assertFalse(interceptorVisitorChainFactory.isFusable(newInterceptorVisitorDefinitions(StaticProxyInterceptor.class, StaticProxyInterceptor.class)));
+    }
+
+    @Test
+    public void testCreateInterceptorChainGivenSystemInterceptors() {
+        Smooks smooks = new Smooks();
+        CountingVisitor countingVisitor = new CountingVisitor();
+        smooks.addVisitor(countingVisitor, "b");
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings());
+
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        SaxNgContentDeliveryConfig saxNgContentDeliveryConfig = (SaxNgContentDeliveryConfig) executionContext.getContentDeliveryRuntime().getContentDeliveryConfig();
+        ContentHandlerBinding<?> visitorBinding = saxNgContentDeliveryConfig.getBeforeVisitorIndex().get("b").get(0);
+        assertTrue(visitorBinding.getContentHandler() instanceof FusedInterceptorVisitor);
+        assertSame(countingVisitor, ((InterceptorVisitor) visitorBinding.getContentHandler()).getTarget().getContentHandler());
+
+        List<VisitSequence> visitSequences = new ArrayList<>();
+        executionContext.getContentDeliveryRuntime().addExecutionEventListener(executionEvent -> {
+            if (executionEvent instanceof VisitExecutionEvent && ((VisitExecutionEvent<?, ?>) executionEvent).getVisitorBinding().getContentHandler() == countingVisitor) {
+                visitSequences.add(((VisitExecutionEvent<?, ?>) executionEvent).getSequence());
+            }
+        });
+        smooks.filterSource(executionContext, new StringSource("<a><b>c<d/></b><b/></a>"));
+
+        assertEquals(2, countingVisitor.visitBeforeCount);
+        assertEquals(2, countingVisitor.visitAfterCount);
+        assertEquals(1, countingVisitor.visitChildTextCount);
+        assertEquals(1, countingVisitor.visitChildElementCount);
+        assertEquals(Arrays.asList(VisitSequence.BEFORE, VisitSequence.AFTER, VisitSequence.AFTER, VisitSequence.AFTER, VisitSequence.BEFORE, VisitSequence.AFTER), visitSequences);
+    }
+
+    @Test
+    public void testCreateInterceptorChainGivenNestedSmooksInterceptors() {
+        Smooks smooks = new Smooks();
+        smooks.getApplicationContext().getRegistry().registerResourceConfigSeq(new SystemResourceConfigSeqFactory("/nested-smooks-interceptors.xml",
+                smooks.getApplicationContext().getClassLoader(), smooks.getApplicationContext().getResourceLocator(), smooks.getApplicationContext().getResourceConfigLoader()).create());
+        CountingVisitor countingVisitor = new CountingVisitor();
+        smooks.addVisitor(countingVisitor, "b");
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings());
+
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        SaxNgContentDeliveryConfig saxNgContentDeliveryConfig = (SaxNgContentDeliveryConfig) executionContext.getContentDeliveryRuntime().getContentDeliveryConfig();
+        ContentHandlerBinding<?> visitorBinding = saxNgContentDeliveryConfig.getBeforeVisitorIndex().get("*").stream().filter(binding -> ((InterceptorVisitor) binding.getContentHandler()).getTarget().getContentHandler() == countingVisitor).findFirst().get();
+        assertTrue(visitorBinding.getContentHandler() instanceof FusedInterceptorVisitor);
+        assertTrue(((FusedInterceptorVisitor) visitorBinding.getContentHandler()).isBridge);
+
+        smooks.filterSource(executionContext, new StringSource("<a><b>c<d/></b><b/><e>f</e></a>"));
+
+        assertEquals(2, countingVisitor.visitBeforeCount);
+        assertEquals(2, countingVisitor.visitAfterCount);
+        assertEquals(1, countingVisitor.visitChildTextCount);
+        // like BridgeInterceptor, child elements are passed through whatever their parent
+        assertEquals(4, countingVisitor.visitChildElementCount);
+    }
+
+    @Test
+    public void testCreateInterceptorChainGivenVisitorException() {
+        Smooks smooks = new Smooks();
+        smooks.addVisitor(new CountingVisitor() {
+            @Override
+            public void visitAfter(Element element, ExecutionContext executionContext) {
+                throw new IllegalStateException("b");
+            }
+        }, "b");
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings());
+
+        SmooksException smooksException = assertThrows(SmooksException.class, () -> smooks.filterSource(new StringSource("<a><b/></a>")));
+        assertTrue(smooksException.getCause().getMessage().contains("visitAfter"));
+        assertEquals("b", smooksException.getCause().getCause().getMessage());
+    }
+
+    private List<InterceptorVisitorDefinition> newInterceptorVisitorDefinitions(Class<?>... interceptorVisitorClasses) {
+        return Arrays.stream(interceptorVisitorClasses).map(interceptorVisitorClass -> {
+            InterceptorVisitorDefinition interceptorVisitorDefinition = new InterceptorVisitorDefinition();
+            interceptorVisitorDefinition.setClazz(interceptorVisitorClass.asSubclass(InterceptorVisitor.class));
+            return interceptorVisitorDefinition;
+        }).collect(Collectors.toList());
+    }
+
+    public static class CustomInterceptor extends StaticProxyInterceptor {
+
+    }
+
+    public static class CountingVisitor implements ElementVisitor {
+        private int visitBeforeCount;
+        private int visitAfterCount;
+        private int visitChildTextCount;
+        private int visitChildElementCount;
+
+        @Override
+        public void visitBefore(Element element, ExecutionContext executionContext) {
+            visitBeforeCount++;
+        }
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+            visitAfterCount++;
+        }
+
+        @Override
+        public void visitChildText(CharacterData characterData, ExecutionContext executionContext) {
+            visitChildTextCount++;
+        }
+
+        @Override
+        public void visitChildElement(Element childElement, ExecutionContext executionContext) {
+            visitChildElementCount++;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.delivery.sax.DomFree;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
+import org.smooks.io.sink.StringSink;
+import org.smooks.io.source.StringSource;
+import org.w3c.dom.CharacterData;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CharacterDataViewTestCase {
+
+    private static final String INPUT = "<a><b>foo &amp; bar</b><!--baz--><b><![CDATA[<qux>]]></b></a>";
+
+    @Test
+    public void testDomFreeChildrenVisitorIsHandedCharacterDataView() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+        DomFreeChildrenVisitor domFreeChildrenVisitor = new DomFreeChildrenVisitor();
+        smooks.addVisitor(domFreeChildrenVisitor, "b");
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(INPUT));
+
+        assertFalse(domFreeChildrenVisitor.nodeClasses.isEmpty());
+        for (Class<?> nodeClass : domFreeChildrenVisitor.nodeClasses) {
+            assertTrue(CharacterDataView.class.isAssignableFrom(nodeClass));
+        }
+        assertEquals("foo & bar", String.join("", domFreeChildrenVisitor.texts.subList(0, domFreeChildrenVisitor.texts.size() - 1)));
+        assertEquals("<qux>", domFreeChildrenVisitor.texts.get(domFreeChildrenVisitor.texts.size() - 1));
+        assertSame(CharacterDataView.CDATASectionView.class, domFreeChildrenVisitor.nodeClasses.get(domFreeChildrenVisitor.nodeClasses.size() - 1));
+    }
+
+    @Test
+    public void testDomChildrenVisitorIsHandedDomNode() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+        DomChildrenVisitor domChildrenVisitor = new DomChildrenVisitor();
+        smooks.addVisitor(domChildrenVisitor, "b");
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(INPUT));
+
+        assertFalse(domChildrenVisitor.characterData.isEmpty());
+        for (CharacterData characterData : domChildrenVisitor.characterData) {
+            assertFalse(characterData instanceof CharacterDataView);
+        }
+        assertEquals("<qux>", domChildrenVisitor.characterData.get(domChildrenVisitor.characterData.size() - 1).getData());
+    }
+
+    @Test
+    public void testSerialization() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(true));
+        StringSink stringSink = new StringSink();
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(INPUT), stringSink);
+
+        assertEquals(INPUT, stringSink.getResult());
+    }
+
+    @Test
+    public void testMaterialize() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element parent = document.createElement("a");
+        document.appendChild(parent);
+        char[] buffer = "xxfooxx".toCharArray();
+
+        CharacterDataView textView = new CharacterDataView.TextView(document);
+        textView.set(parent, buffer, 2, 3);
+        textView.setUserData("foo", "bar", null);
+
+        assertFalse(textView.isMaterialized());
+        assertSame(parent, textView.getParentNode());
+        assertEquals(Node.TEXT_NODE, textView.getNodeType());
+        assertEquals(3, textView.length());
+        assertEquals('o', textView.charAt(2));
+        assertEquals("foo", textView.getData());
+        assertEquals("oo", textView.substringData(1, 5));
+        assertFalse(parent.hasChildNodes());
+
+        textView.appendData("bar");
+        assertTrue(textView.isMaterialized());
+        assertNull(textView.getCharacters());
+        Text text = (Text) parent.getFirstChild();
+        assertEquals("foobar", text.getData());
+        assertEquals("foobar", textView.getData());
+        assertEquals("bar", text.getUserData("foo"));
+
+        textView.detach();
+        assertFalse(parent.hasChildNodes());
+
+        textView.clear();
+        assertFalse(textView.isMaterialized());
+        assertNull(textView.getUserData("foo"));
+    }
+
+    @DomFree
+    public static class DomFreeChildrenVisitor implements ChildrenVisitor, AfterVisitor {
+        private final List<Class<?>> nodeClasses = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+
+        @Override
+        public void visitChildText(CharacterData characterData, ExecutionContext executionContext) {
+            nodeClasses.add(characterData.getClass());
+            texts.add(((CharSequence) characterData).toString());
+        }
+
+        @Override
+        public void visitChildElement(Element childElement, ExecutionContext executionContext) {
+        }
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+        }
+    }
+
+    public static class DomChildrenVisitor implements ChildrenVisitor, AfterVisitor {
+        private final List<CharacterData> characterData = new ArrayList<>();
+
+        @Override
+        public void visitChildText(CharacterData characterData, ExecutionContext executionContext) {
+            this.characterData.add(characterData);
+        }
+
+        @Override
+        public void visitChildElement(Element childElement, ExecutionContext executionContext) {
+        }
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+        }
+    }
+}
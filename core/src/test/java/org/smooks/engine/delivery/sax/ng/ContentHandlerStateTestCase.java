@@ -0,0 +1,90 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.io.sink.StringSink;
+import org.smooks.io.source.StringSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ContentHandlerStateTestCase {
+
+    @Test
+    public void testGetEffectiveMaxDepth() {
+        ContentHandlerState documentState = new ContentHandlerState();
+        ContentHandlerState rootState = new ContentHandlerState();
+        rootState.setPreviousContentHandlerState(documentState);
+        rootState.setMaxDepth(3);
+        ContentHandlerState childState = new ContentHandlerState();
+        childState.setPreviousContentHandlerState(rootState);
+        ContentHandlerState grandChildState = new ContentHandlerState();
+        grandChildState.setPreviousContentHandlerState(childState);
+        grandChildState.setMaxDepth(2);
+
+        assertEquals(1, documentState.getEffectiveMaxDepth());
+        assertEquals(3, rootState.getEffectiveMaxDepth());
+        assertEquals(3, childState.getEffectiveMaxDepth());
+        assertEquals(3, grandChildState.getEffectiveMaxDepth());
+    }
+
+    @Test
+    public void testFilterDeepDocument() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 512; i++) {
+            input.append("<e>").append(i);
+        }
+        for (int i = 0; i < 512; i++) {
+            input.append("</e>");
+        }
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(true));
+        StringSink stringSink = new StringSink();
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(input.toString()), stringSink);
+
+        assertEquals(input.toString(), stringSink.getResult());
+    }
+}
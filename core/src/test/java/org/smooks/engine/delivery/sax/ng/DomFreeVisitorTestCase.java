@@ -0,0 +1,182 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.delivery.sax.DomFree;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
+import org.smooks.engine.delivery.DefaultContentHandlerBinding;
+import org.smooks.engine.resource.config.DefaultResourceConfig;
+import org.smooks.io.source.StringSource;
+import org.smooks.support.DomUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.helpers.AttributesImpl;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DomFreeVisitorTestCase {
+
+    private static final String INPUT = "<a><b x=\"1\" y:z=\"2\" xmlns:y=\"http://y\">foo</b><b x=\"3\"><c/></b></a>";
+
+    @Test
+    public void testDomFreeVisitorIsHandedElementView() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+        DomFreeVisitor domFreeVisitor = new DomFreeVisitor();
+        smooks.addVisitor(domFreeVisitor, "b");
+
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        smooks.filterSource(executionContext, new StringSource(INPUT));
+
+        assertEquals(2, domFreeVisitor.elementClasses.size());
+        assertSame(ElementView.class, domFreeVisitor.elementClasses.get(0));
+        assertSame(ElementView.class, domFreeVisitor.elementClasses.get(1));
+        assertEquals("b{x=1,z=2}", domFreeVisitor.events.get(0));
+        assertEquals("b{x=3,z=}", domFreeVisitor.events.get(1));
+    }
+
+    @Test
+    public void testDomVisitorIsHandedDomElement() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+        DomVisitor domVisitor = new DomVisitor();
+        smooks.addVisitor(domVisitor, "b");
+
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        smooks.filterSource(executionContext, new StringSource(INPUT));
+
+        assertEquals(2, domVisitor.elementClasses.size());
+        assertFalse(ElementView.class.isAssignableFrom(domVisitor.elementClasses.get(0)));
+        assertFalse(ElementView.class.isAssignableFrom(domVisitor.elementClasses.get(1)));
+        assertEquals("a", domVisitor.parentNames.get(0));
+        assertEquals("a", domVisitor.parentNames.get(1));
+    }
+
+    @Test
+    public void testMaterialize() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element parent = document.createElement("a");
+        document.appendChild(parent);
+
+        ElementView elementView = new ElementView(document);
+        elementView.set(parent, new QName("http://y", "b", "y"), new AttributesImpl());
+        elementView.setUserData("foo", "bar", null);
+
+        assertFalse(elementView.isMaterialized());
+        assertFalse(parent.hasChildNodes());
+        assertSame(parent, elementView.getParentNode());
+        assertEquals(1, DomUtils.getDepth(elementView));
+
+        assertEquals(0, elementView.getChildNodes().getLength());
+        assertTrue(elementView.isMaterialized());
+        Element element = (Element) parent.getFirstChild();
+        assertEquals("y:b", element.getTagName());
+        assertEquals("http://y", element.getNamespaceURI());
+        assertEquals("bar", element.getUserData("foo"));
+
+        elementView.detach();
+        assertFalse(parent.hasChildNodes());
+
+        elementView.clear();
+        assertFalse(elementView.isMaterialized());
+        assertNull(elementView.getUserData("foo"));
+    }
+
+    @Test
+    public void testIsDomFreeGivenBothDefaultSerializationSettings() {
+        SaxNgVisitorBindings saxNgVisitorBindings = new SaxNgVisitorBindings();
+        List<ContentHandlerBinding<ChildrenVisitor>> childVisitors = Collections.singletonList(new DefaultContentHandlerBinding<>(new SystemConsumeSerializerVisitor(), new DefaultResourceConfig("*", new Properties())));
+        saxNgVisitorBindings.setChildVisitors(childVisitors);
+
+        assertTrue(saxNgVisitorBindings.isDomFree(false));
+        assertFalse(saxNgVisitorBindings.isDomFree(true));
+        assertTrue(saxNgVisitorBindings.isDomFree(false));
+        assertTrue(saxNgVisitorBindings.isChildVisitorsDomFree(false));
+        assertFalse(saxNgVisitorBindings.isChildVisitorsDomFree(true));
+
+        saxNgVisitorBindings.setChildVisitors(null);
+        assertTrue(saxNgVisitorBindings.isDomFree(true));
+        assertTrue(saxNgVisitorBindings.isChildVisitorsDomFree(true));
+    }
+
+    @DomFree
+    public static class DomFreeVisitor implements BeforeVisitor {
+        private final List<Class<?>> elementClasses = new ArrayList<>();
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void visitBefore(Element element, ExecutionContext executionContext) {
+            elementClasses.add(element.getClass());
+            events.add(element.getLocalName() + "{x=" + element.getAttribute("x") + ",z=" + element.getAttributeNS("http://y", "z") + "}");
+        }
+    }
+
+    public static class DomVisitor implements AfterVisitor {
+        private final List<Class<?>> elementClasses = new ArrayList<>();
+        private final List<String> parentNames = new ArrayList<>();
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+            elementClasses.add(element.getClass());
+            parentNames.add(element.getParentNode().getNodeName());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.SmooksException;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.io.sink.StringSink;
+import org.smooks.io.source.PushSource;
+import org.smooks.io.source.StringSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SaxNgPushSourceTestCase {
+
+    private static final String INPUT = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><a xmlns:x=\"urn:x\" id=\"1\"><!--foo--><x:b x:c=\"2\">bar &amp; baz</x:b><b><![CDATA[<qux>]]></b><?pi data?></a>";
+
+    @Test
+    public void testPushGivenSmallChunks() {
+        Smooks smooks = new Smooks();
+        List<String> visited = new ArrayList<>();
+        smooks.addVisitor((AfterVisitor) (element, executionContext) -> visited.add(element.getTextContent()), "b");
+
+        StringSink expectedSink = new StringSink();
+        smooks.filterSource(new StringSource(INPUT), expectedSink);
+        List<String> expectedVisited = new ArrayList<>(visited);
+        visited.clear();
+
+        StringSink stringSink = new StringSink();
+        PushSource pushSource = smooks.openPushSource(smooks.createExecutionContext(), stringSink);
+        byte[] bytes = INPUT.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += 3) {
+            pushSource.push(ByteBuffer.wrap(bytes, i, Math.min(3, bytes.length - i)));
+        }
+        pushSource.close();
+
+        assertTrue(pushSource.isClosed());
+        assertEquals(expectedVisited, visited);
+        assertEquals(expectedSink.getResult(), stringSink.getResult());
+        assertThrows(IllegalStateException.class, () -> pushSource.push(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    public void testPushGivenMalformedContent() {
+        Smooks smooks = new Smooks();
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        PushSource pushSource = smooks.openPushSource(executionContext, new StringSink());
+
+        assertThrows(SmooksException.class, () -> pushSource.push(ByteBuffer.wrap("<a></b><c/>".getBytes(StandardCharsets.UTF_8))));
+        assertTrue(pushSource.isClosed());
+        assertNotNull(executionContext.getTerminationError());
+    }
+
+    @Test
+    public void testCloseGivenMalformedContent() {
+        Smooks smooks = new Smooks();
+        ExecutionContext executionContext = smooks.createExecutionContext();
+        PushSource pushSource = smooks.openPushSource(executionContext, new StringSink());
+        pushSource.push(ByteBuffer.wrap("<a></b>".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(SmooksException.class, pushSource::close);
+        assertTrue(pushSource.isClosed());
+        assertNotNull(executionContext.getTerminationError());
+    }
+
+    @Test
+    public void testCloseGivenIncompleteContent() {
+        Smooks smooks = new Smooks();
+        PushSource pushSource = smooks.openPushSource(smooks.createExecutionContext(), new StringSink());
+        pushSource.push(ByteBuffer.wrap("<a><b>".getBytes(StandardCharsets.UTF_8)));
+
+        assertThrows(SmooksException.class, pushSource::close);
+        assertTrue(pushSource.isClosed());
+        pushSource.abort();
+    }
+
+    @Test
+    public void testOpenPushSourceGivenDomFilter() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.DEFAULT_DOM);
+
+        assertThrows(SmooksException.class, () -> smooks.openPushSource(smooks.createExecutionContext(), new StringSink()));
+    }
+}
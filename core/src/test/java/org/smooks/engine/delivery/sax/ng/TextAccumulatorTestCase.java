@@ -0,0 +1,142 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextAccumulatorTestCase {
+
+    @Test
+    public void testAppendInMemory() throws IOException {
+        TextAccumulator textAccumulator = new TextAccumulator(TextAccumulator.DEFAULT_SPILL_THRESHOLD);
+        textAccumulator.append(1, "xxfooxx".toCharArray(), 2, 3);
+        textAccumulator.append(2, "inner".toCharArray(), 0, 5);
+        textAccumulator.append(1, "bar".toCharArray(), 0, 3);
+
+        AccumulatedText accumulatedText = textAccumulator.peek(1);
+        assertFalse(accumulatedText.isSpilled());
+        assertEquals("foobar", accumulatedText.toString());
+        assertEquals('b', accumulatedText.charAt(3));
+        assertEquals("oba", accumulatedText.subSequence(2, 5).toString());
+        assertEquals("inner", textAccumulator.peek(2).toString());
+        assertEquals("foobar", read(accumulatedText));
+    }
+
+    @Test
+    public void testAppendSpillsPastThreshold() throws IOException {
+        TextAccumulator textAccumulator = new TextAccumulator(4);
+        textAccumulator.append(0, "abc".toCharArray(), 0, 3);
+        textAccumulator.append(0, "d\u00e9f".toCharArray(), 0, 3);
+        textAccumulator.append(0, "\ud83d\ude00".toCharArray(), 0, 2);
+
+        AccumulatedText accumulatedText = textAccumulator.peek(0);
+        assertTrue(accumulatedText.isSpilled());
+        assertEquals(8, accumulatedText.length());
+        assertEquals('\u00e9', accumulatedText.charAt(4));
+        assertEquals("cd\u00e9", accumulatedText.subSequence(2, 5).toString());
+        assertEquals("abcd\u00e9f\ud83d\ude00", accumulatedText.toString());
+        assertEquals("abcd\u00e9f\ud83d\ude00", read(accumulatedText));
+
+        textAccumulator.release(0);
+        assertNull(textAccumulator.peek(0));
+        textAccumulator.append(0, "xy".toCharArray(), 0, 2);
+        assertFalse(textAccumulator.peek(0).isSpilled());
+        assertEquals("xy", textAccumulator.peek(0).toString());
+    }
+
+    @Test
+    public void testCharAtGivenSpilledTextSpanningWindows() throws IOException {
+        TextAccumulator textAccumulator = new TextAccumulator(4);
+        char[] chars = new char[10000];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + i % 26);
+        }
+        textAccumulator.append(0, chars, 0, chars.length);
+
+        AccumulatedText accumulatedText = textAccumulator.peek(0);
+        assertTrue(accumulatedText.isSpilled());
+        for (int i = chars.length - 1; i >= 0; i -= 997) {
+            assertEquals(chars[i], accumulatedText.charAt(i));
+        }
+        for (int i = 0; i < chars.length; i++) {
+            assertEquals(chars[i], accumulatedText.charAt(i));
+        }
+
+        textAccumulator.append(0, "\u00e9".toCharArray(), 0, 1);
+        assertEquals('\u00e9', accumulatedText.charAt(chars.length));
+        assertEquals(chars[chars.length - 1], accumulatedText.charAt(chars.length - 1));
+    }
+
+    @Test
+    public void testSelect() throws IOException {
+        TextAccumulator textAccumulator = new TextAccumulator(TextAccumulator.DEFAULT_SPILL_THRESHOLD);
+        textAccumulator.append(3, "deep".toCharArray(), 0, 4);
+
+        textAccumulator.select(2);
+        assertNull(textAccumulator.getSelectedText());
+        textAccumulator.select(3);
+        assertEquals("deep", textAccumulator.getSelectedText().toString());
+
+        textAccumulator.releaseAll();
+        assertNull(textAccumulator.getSelectedText());
+    }
+
+    private String read(AccumulatedText accumulatedText) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (Reader reader = accumulatedText.openReader()) {
+            int c;
+            while ((c = reader.read()) != -1) {
+                text.append((char) c);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,183 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.delivery.sax.ng;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.delivery.ContentHandlerBinding;
+import org.smooks.api.delivery.sax.TextConsumer;
+import org.smooks.api.delivery.fragment.Fragment;
+import org.smooks.api.lifecycle.PostFragmentLifecycle;
+import org.smooks.api.resource.visitor.Visitor;
+import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.api.resource.visitor.sax.ng.BeforeVisitor;
+import org.smooks.engine.delivery.DefaultContentHandlerBinding;
+import org.smooks.engine.delivery.fragment.NodeFragment;
+import org.smooks.engine.resource.config.DefaultResourceConfig;
+import org.smooks.io.source.StringSource;
+import org.smooks.support.XmlUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VisitorDispatchTableTestCase {
+
+    private static final String INPUT = "<a><b x=\"1\"><c/></b><c><b x=\"2\"/></c></a>";
+
+    @Test
+    public void testDispatch() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+        RecordingVisitor elementNameVisitor = new RecordingVisitor();
+        RecordingVisitor starVisitor = new RecordingVisitor();
+        RecordingVisitor predicateVisitor = new RecordingVisitor();
+        RecordingVisitor ancestorVisitor = new RecordingVisitor();
+        smooks.addVisitor(elementNameVisitor, "b");
+        smooks.addVisitor(starVisitor, "*");
+        smooks.addVisitor(predicateVisitor, "b[@x = '2']");
+        smooks.addVisitor(ancestorVisitor, "c/b");
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource(INPUT));
+
+        assertEquals(Arrays.asList("before:b1", "before:b2"), elementNameVisitor.before);
+        assertEquals(Arrays.asList("b1", "b2"), elementNameVisitor.postFragment);
+        assertEquals(Arrays.asList("before:a", "before:b1", "before:c", "before:c", "before:b2"), starVisitor.before);
+        assertEquals(5, starVisitor.postFragment.size());
+        assertEquals(Arrays.asList("before:b2"), predicateVisitor.before);
+        assertEquals(Arrays.asList("after:b2"), predicateVisitor.after);
+        assertEquals(Arrays.asList("b2"), predicateVisitor.postFragment);
+        assertEquals(Arrays.asList("before:b2"), ancestorVisitor.before);
+    }
+
+    @Test
+    public void testOfPostFragmentLifecycles() {
+        List<ContentHandlerBinding<? extends Visitor>> contentHandlerBindings = new ArrayList<>();
+        RecordingVisitor recordingVisitor = new RecordingVisitor();
+        contentHandlerBindings.add(new DefaultContentHandlerBinding<>((BeforeVisitor) (element, executionContext) -> {
+        }, new DefaultResourceConfig("b", new Properties())));
+        contentHandlerBindings.add(new DefaultContentHandlerBinding<>(recordingVisitor, new DefaultResourceConfig("b", new Properties())));
+
+        VisitorDispatchTable<Visitor> postFragmentLifecycles = VisitorDispatchTable.ofPostFragmentLifecycles(contentHandlerBindings);
+
+        assertEquals(1, postFragmentLifecycles.size);
+        assertSame(recordingVisitor, postFragmentLifecycles.getVisitor(0));
+        assertEquals(0, VisitorDispatchTable.ofPostFragmentLifecycles(contentHandlerBindings.subList(0, 1)).size);
+    }
+
+    @Test
+    public void testDispatchGivenGlobalTextConsumer() {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+        TextRecordingVisitor textRecordingVisitor = new TextRecordingVisitor();
+        smooks.addVisitor(textRecordingVisitor, "*");
+        smooks.addVisitor(new RecordingVisitor(), "b");
+
+        smooks.filterSource(smooks.createExecutionContext(), new StringSource("<a><b>foo</b><c>bar</c></a>"));
+
+        assertEquals(Arrays.asList("b:foo", "c:bar", "a:"), textRecordingVisitor.text);
+    }
+
+    @Test
+    public void testIsMatchOnStart() throws Exception {
+        List<ContentHandlerBinding<AfterVisitor>> contentHandlerBindings = new ArrayList<>();
+        contentHandlerBindings.add(new DefaultContentHandlerBinding<>(new TextRecordingVisitor(), new DefaultResourceConfig("c", new Properties())));
+        contentHandlerBindings.add(new DefaultContentHandlerBinding<>(new TextRecordingVisitor(), new DefaultResourceConfig("b[text() = 'foo']", new Properties())));
+        contentHandlerBindings.add(new DefaultContentHandlerBinding<>(new RecordingVisitor(), new DefaultResourceConfig("b", new Properties())));
+        Document document = XmlUtils.parseStream(new StringReader("<a><b/></a>"));
+        NodeFragment nodeFragment = new NodeFragment(document.getDocumentElement().getFirstChild());
+
+        VisitorDispatchTable<AfterVisitor> afterVisitors = VisitorDispatchTable.of(contentHandlerBindings);
+
+        assertTrue(afterVisitors.hasTextConsumers);
+        assertTrue(afterVisitors.textConsumers[0]);
+        assertTrue(afterVisitors.textConsumers[1]);
+        assertFalse(afterVisitors.textConsumers[2]);
+        assertFalse(afterVisitors.isMatchOnStart(0, nodeFragment, null));
+        assertTrue(afterVisitors.isMatchOnStart(1, nodeFragment, null));
+        assertFalse(afterVisitors.isMatch(1, nodeFragment, new Smooks().createExecutionContext()));
+    }
+
+    @TextConsumer
+    public static class TextRecordingVisitor implements AfterVisitor {
+        private final List<String> text = new ArrayList<>();
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+            text.add(element.getLocalName() + ":" + element.getTextContent());
+        }
+    }
+
+    public static class RecordingVisitor implements BeforeVisitor, AfterVisitor, PostFragmentLifecycle {
+        private final List<String> before = new ArrayList<>();
+        private final List<String> after = new ArrayList<>();
+        private final List<String> postFragment = new ArrayList<>();
+
+        @Override
+        public void visitBefore(Element element, ExecutionContext executionContext) {
+            before.add("before:" + element.getLocalName() + element.getAttribute("x"));
+        }
+
+        @Override
+        public void visitAfter(Element element, ExecutionContext executionContext) {
+            after.add("after:" + element.getLocalName() + element.getAttribute("x"));
+        }
+
+        @Override
+        public void onPostFragment(Fragment<?> fragment, ExecutionContext executionContext) {
+            Element element = (Element) fragment.unwrap();
+            postFragment.add(element.getLocalName() + element.getAttribute("x"));
+        }
+    }
+}
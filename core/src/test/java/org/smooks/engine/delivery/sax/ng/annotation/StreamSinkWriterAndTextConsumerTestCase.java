@@ -43,6 +43,7 @@
 package org.smooks.engine.delivery.sax.ng.annotation;
 
 import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
 import org.smooks.Smooks;
 import org.smooks.api.SmooksException;
 import org.smooks.api.ExecutionContext;
@@ -50,12 +51,17 @@ import org.smooks.engine.delivery.fragment.NodeFragment;
 import org.smooks.api.delivery.sax.StreamSinkWriter;
 import org.smooks.api.delivery.sax.TextConsumer;
 import org.smooks.api.resource.visitor.sax.ng.AfterVisitor;
+import org.smooks.engine.delivery.sax.ng.TextAccumulator;
 import org.smooks.io.FragmentWriter;
 import org.smooks.io.sink.StringSink;
 import org.smooks.io.source.StringSource;
 import org.w3c.dom.Element;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -83,6 +89,33 @@ public class StreamSinkWriterAndTextConsumerTestCase {
 		assertEquals("<a>{{sometext & moretext}}</a>", stringResult.getResult());
 	}
 
+	@Test
+	public void testNestedTextConsumers() {
+		Smooks smooks = new Smooks();
+		StringSink stringResult = new StringSink();
+
+		smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setDefaultSerializationOn(false));
+		MyRecordingTextConsumer recordingTextConsumer = new MyRecordingTextConsumer();
+		smooks.addVisitor(new MyAnnotatedVisitor(), "b");
+		smooks.addVisitor(recordingTextConsumer, "c");
+		smooks.filterSource(new StringSource("<a><b>some<c>inner</c>text</b></a>"), stringResult);
+
+		assertEquals("{{sometext}}", stringResult.getResult());
+		assertEquals(Collections.singletonList("inner"), recordingTextConsumer.texts);
+	}
+
+	@Test
+	public void testStreamingTextConsumer() {
+		Smooks smooks = new Smooks();
+		smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setTextSpillThreshold(8));
+		StringSink stringResult = new StringSink();
+
+		smooks.addVisitor(new MyStreamingAnnotatedVisitor(), "b");
+		smooks.filterSource(new StringSource("<a><b>sometext &amp; moretext</b><b>short</b></a>"), stringResult);
+
+		assertEquals("<a>{{sometext & moretext|}}{{short|}}</a>", stringResult.getResult());
+	}
+
 	@TextConsumer
 	@StreamSinkWriter
 	private static class MyAnnotatedVisitor implements AfterVisitor {
@@ -96,4 +129,34 @@ public class StreamSinkWriterAndTextConsumerTestCase {
 			}
 		}
 	}
+
+	@TextConsumer
+	private static class MyRecordingTextConsumer implements AfterVisitor {
+		private final List<String> texts = new ArrayList<>();
+
+		@Override
+		public void visitAfter(Element element, ExecutionContext executionContext) throws SmooksException {
+			texts.add(element.getTextContent());
+		}
+	}
+
+	@TextConsumer(streaming = true)
+	@StreamSinkWriter
+	private static class MyStreamingAnnotatedVisitor implements AfterVisitor {
+
+		@Override
+		public void visitAfter(Element element, ExecutionContext executionContext) throws SmooksException {
+			StringBuilder text = new StringBuilder();
+			try (Reader reader = TextAccumulator.openReader(executionContext)) {
+				char[] chars = new char[4];
+				int count;
+				while ((count = reader.read(chars)) != -1) {
+					text.append(chars, 0, count);
+				}
+				new FragmentWriter(executionContext, new NodeFragment(element)).write("{{" + text + "|" + element.getTextContent() + "}}");
+			} catch (IOException e) {
+				throw new SmooksException(e.getMessage(), e);
+			}
+		}
+	}
 }
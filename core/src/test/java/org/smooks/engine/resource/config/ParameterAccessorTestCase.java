@@ -46,6 +46,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.smooks.Smooks;
 import org.smooks.api.delivery.ContentDeliveryConfig;
+import org.smooks.api.delivery.Filter;
+import org.smooks.engine.delivery.AbstractContentDeliveryConfig;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -63,11 +65,36 @@ public class ParameterAccessorTestCase {
 	@Test
     public void test_system_property() {
         Smooks smooks = new Smooks();
+        ParameterAccessor.setParameter(Filter.SYSTEM_PROPERTY_PARAMETERS, "true", smooks);
         ContentDeliveryConfig deliveryConfig = smooks.createExecutionContext().getContentDeliveryRuntime().getContentDeliveryConfig();
 
         assertNull(ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
 
+        // system properties are cached until the global parameters are reloaded
         System.setProperty("test.parameter", "xxxxxxx");
+        assertNull(ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
+        ((AbstractContentDeliveryConfig) deliveryConfig).reloadGlobalParameters();
         assertEquals("xxxxxxx", ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
     }
+
+    @Test
+    public void test_system_property_not_opted_in() {
+        System.setProperty("test.parameter", "xxxxxxx");
+        Smooks smooks = new Smooks();
+        ContentDeliveryConfig deliveryConfig = smooks.createExecutionContext().getContentDeliveryRuntime().getContentDeliveryConfig();
+
+        assertNull(ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
+    }
+
+    @Test
+    public void test_removeParameter_reloads() {
+        Smooks smooks = new Smooks();
+        ParameterAccessor.setParameter("test.parameter", "yyyyyyy", smooks);
+        ContentDeliveryConfig deliveryConfig = smooks.createExecutionContext().getContentDeliveryRuntime().getContentDeliveryConfig();
+        assertEquals("yyyyyyy", ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
+        assertEquals("yyyyyyy", ParameterAccessor.getParameterObject("test.parameter", deliveryConfig));
+
+        ParameterAccessor.removeParameter("test.parameter", smooks);
+        assertNull(ParameterAccessor.getParameterValue("test.parameter", String.class, deliveryConfig));
+    }
 }
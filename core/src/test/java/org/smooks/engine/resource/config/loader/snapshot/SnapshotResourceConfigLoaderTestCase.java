@@ -0,0 +1,126 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config.loader.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.Smooks;
+import org.smooks.api.ExecutionContext;
+import org.smooks.api.profile.ProfileSet;
+import org.smooks.api.resource.config.ResourceConfigSeq;
+import org.smooks.engine.delivery.SAXAndDOMVisitor;
+import org.smooks.engine.delivery.condition.TestExecutionContextExpressionEvaluator;
+import org.smooks.engine.resource.config.loader.xml.XmlResourceConfigLoader;
+import org.smooks.io.source.ReaderSource;
+import org.xml.sax.SAXException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnapshotResourceConfigLoaderTestCase {
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ResourceConfigSeq xmlResourceConfigSeq = new XmlResourceConfigLoader().load(getClass().getResourceAsStream("/org/smooks/engine/resource/config/testconfig2.cdrl"), "test", getClass().getClassLoader());
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        ResourceConfigSnapshot.write(xmlResourceConfigSeq, snapshot);
+
+        ResourceConfigSeq resourceConfigSeq = new SnapshotResourceConfigLoader().load(new ByteArrayInputStream(snapshot.toByteArray()), "test", getClass().getClassLoader());
+        assertEquals(3, resourceConfigSeq.size());
+
+        assertEquals("smooks:a", resourceConfigSeq.get(0).getSelectorPath().getSelector());
+        assertEquals("xxx", resourceConfigSeq.get(0).getProfileTargetingExpressions()[0].getExpression());
+        assertEquals("x.txt", resourceConfigSeq.get(0).getResource());
+        assertEquals("https://www.smooks.org", resourceConfigSeq.get(0).getSelectorPath().getNamespaces().getProperty("smooks"));
+
+        assertEquals("smooks-default:b", resourceConfigSeq.get(1).getSelectorPath().getSelector());
+        assertEquals("yyy", resourceConfigSeq.get(1).getProfileTargetingExpressions()[0].getExpression());
+        assertEquals("Hi there :-)", new String(resourceConfigSeq.get(1).getBytes()));
+        assertEquals("param1Val", resourceConfigSeq.get(1).getParameterValue("param1", String.class));
+        assertEquals("true", resourceConfigSeq.get(1).getParameterValue("param2", String.class, "false"));
+        assertNotNull(resourceConfigSeq.get(1).getParameter("param1", String.class).getXml());
+        assertEquals("param", resourceConfigSeq.get(1).getParameter("param1", String.class).getXml().getLocalName());
+
+        assertEquals("abc", resourceConfigSeq.get(2).getResourceType());
+        assertEquals("Howya", new String(resourceConfigSeq.get(2).getBytes()));
+
+        List<ProfileSet> profiles = resourceConfigSeq.getProfiles();
+        assertEquals(2, profiles.size());
+        assertEquals("profileA", profiles.get(0).getBaseProfile());
+        assertTrue(profiles.get(0).isMember("profile1"));
+        assertTrue(profiles.get(0).isMember("profile2"));
+        assertEquals("profileB", profiles.get(1).getBaseProfile());
+        assertTrue(profiles.get(1).isMember("profileA"));
+        assertFalse(profiles.get(1).isMember("profile1"));
+    }
+
+    @Test
+    public void testXmlFallback() {
+        ResourceConfigSeq resourceConfigSeq = new SnapshotResourceConfigLoader().load(getClass().getResourceAsStream("/org/smooks/engine/resource/config/testconfig2.cdrl"), "test", getClass().getClassLoader());
+        assertEquals(3, resourceConfigSeq.size());
+    }
+
+    @Test
+    public void testFilterWithCompiledSnapshot() throws IOException, SAXException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        new ResourceConfigSnapshotCompiler().compile("/org/smooks/engine/delivery/condition/test-config-SAX-01.xml", snapshot);
+
+        SAXAndDOMVisitor.visited = false;
+        Smooks smooks = new Smooks(new ByteArrayInputStream(snapshot.toByteArray()));
+        try {
+            ExecutionContext executionContext = smooks.createExecutionContext();
+            smooks.filterSource(executionContext, new ReaderSource<>(new StringReader("<a/>")));
+            assertEquals(executionContext, TestExecutionContextExpressionEvaluator.context);
+            assertTrue(SAXAndDOMVisitor.visited);
+        } finally {
+            smooks.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.config.xpath;
+
+import org.jaxen.Context;
+import org.jaxen.ContextSupport;
+import org.jaxen.SimpleNamespaceContext;
+import org.jaxen.SimpleVariableContext;
+import org.jaxen.XPathFunctionContext;
+import org.jaxen.dom.DocumentNavigator;
+import org.junit.jupiter.api.Test;
+import org.smooks.engine.resource.config.xpath.step.AttributeSelectorStep;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SelectorPathMatcherTestCase {
+
+    private static final String XML = "<a xmlns:x=\"http://x\"><b id=\"1\"><c><d x:id=\"2\"/></c></b><x:b id=\"3\"><d/></x:b><e><b><d id=\"4\">text</d></b></e></a>";
+
+    private static final String[] SELECTORS = {"d", "*", "b/d", "a/b/c/d", "b//d", "a//d", "/a", "/*", "/a/b", "x:b", "x:b/d", "x:*", "b/*",
+            "d[@id]", "d[@id = '4']", "b[@id = '3']/d", "e//b/d", "c/d[1]", "d/@id", "d/@*", "d/@x:id", "b[c]//d"};
+
+    @Test
+    public void testMatchesGivenCompilableSelector() throws Exception {
+        for (String selector : SELECTORS) {
+            assertMatchesLikePattern(selector);
+        }
+    }
+
+    private void assertMatchesLikePattern(String selector) throws Exception {
+        Properties namespaces = new Properties();
+        namespaces.setProperty("x", "http://x");
+
+        SelectorPathMatcher selectorPathMatcher = SelectorPathMatcher.compile(selector, namespaces);
+        assertNotNull(selectorPathMatcher);
+
+        IndexedSelectorPath selectorPath = (IndexedSelectorPath) SelectorPathFactory.newSelectorPath(selector, namespaces);
+        ContextSupport contextSupport = new ContextSupport(new SimpleNamespaceContext(namespaces), XPathFunctionContext.getInstance(), new SimpleVariableContext(), DocumentNavigator.getInstance());
+
+        DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setNamespaceAware(true);
+        Document document = documentBuilderFactory.newDocumentBuilder().parse(new InputSource(new StringReader(XML)));
+        NodeList elements = document.getElementsByTagNameNS("*", "*");
+        for (int i = 0; i < elements.getLength(); i++) {
+            Node element = elements.item(i);
+            boolean isPatternMatch;
+            if (selectorPath.getTargetSelectorStep() instanceof AttributeSelectorStep) {
+                isPatternMatch = false;
+                for (int j = 0; j < element.getAttributes().getLength() && !isPatternMatch; j++) {
+                    isPatternMatch = selectorPath.getPattern().matches(element.getAttributes().item(j), new Context(contextSupport));
+                }
+            } else {
+                isPatternMatch = selectorPath.getPattern().matches(element, new Context(contextSupport));
+            }
+            assertEquals(isPatternMatch, selectorPathMatcher.matches(element), selector + " on " + element.getNodeName());
+        }
+    }
+
+    @Test
+    public void testIsElementNameTest() {
+        Properties namespaces = new Properties();
+        namespaces.setProperty("x", "http://x");
+
+        assertTrue(SelectorPathMatcher.compile("d", namespaces).isElementNameTest());
+        assertEquals("d", SelectorPathMatcher.compile("d", namespaces).getElementName());
+        assertTrue(SelectorPathMatcher.compile("*", namespaces).isElementNameTest());
+        assertNull(SelectorPathMatcher.compile("*", namespaces).getElementName());
+        assertFalse(SelectorPathMatcher.compile("b/d", namespaces).isElementNameTest());
+        assertFalse(SelectorPathMatcher.compile("/a", namespaces).isElementNameTest());
+        assertFalse(SelectorPathMatcher.compile("x:b", namespaces).isElementNameTest());
+        assertFalse(SelectorPathMatcher.compile("d[@id = '4']", namespaces).isElementNameTest());
+        assertFalse(SelectorPathMatcher.compile("d/@id", namespaces).isElementNameTest());
+    }
+
+    @Test
+    public void testCompileGivenUnsupportedSelector() {
+        assertNull(SelectorPathMatcher.compile("a/text()", new Properties()));
+        assertNull(SelectorPathMatcher.compile("a | b", new Properties()));
+    }
+}
@@ -0,0 +1,144 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.engine.resource.visitor.smooks;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.Smooks;
+import org.smooks.api.SmooksConfigException;
+import org.smooks.api.resource.config.ResourceConfig;
+import org.smooks.engine.DefaultApplicationContextBuilder;
+import org.smooks.engine.resource.config.DefaultResourceConfig;
+import org.smooks.io.sink.StringSink;
+import org.smooks.io.source.StringSource;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelSmooksVisitorFunctionalTestCase {
+
+    private static String createRecords(int count) {
+        StringBuilder records = new StringBuilder("<records>\n<header>foo</header>\n");
+        for (int i = 0; i < count; i++) {
+            records.append("    <record id=\"").append(i).append("\"><value>").append(i).append("</value></record>\n");
+        }
+        return records.append("<trailer>bar</trailer>\n</records>").toString();
+    }
+
+    private static String createItems(int count) {
+        StringBuilder items = new StringBuilder("<records>\n<header>foo</header>\n");
+        for (int i = 0; i < count; i++) {
+            items.append("    <item>").append(i * 2).append("</item>\n");
+        }
+        return items.append("<trailer>bar</trailer>\n</records>").toString();
+    }
+
+    private static Smooks createSmooks(String ordered, String maxInFlight) {
+        Smooks smooks = new Smooks();
+        ResourceConfig resourceConfig = new DefaultResourceConfig("record", new Properties(), ParallelSmooksVisitor.class.getName());
+        resourceConfig.setParameter("threads", "4");
+        resourceConfig.setParameter("ordered", ordered);
+        resourceConfig.setParameter("maxInFlight", maxInFlight);
+        resourceConfig.setParameter("smooksResourceList", "<smooks-resource-list xmlns=\"https://www.smooks.org/xsd/smooks-2.0.xsd\">" +
+                "<resource-config selector=\"record\"><resource>" + RecordItemAfterVisitor.class.getName() + "</resource></resource-config>" +
+                "</smooks-resource-list>");
+        smooks.addResourceConfig(resourceConfig);
+
+        return smooks;
+    }
+
+    private static Set<String> findItems(String result) {
+        Set<String> items = new HashSet<>();
+        Matcher matcher = Pattern.compile("<item>\\d+</item>").matcher(result);
+        while (matcher.find()) {
+            assertTrue(items.add(matcher.group()), matcher.group());
+        }
+        return items;
+    }
+
+    @Test
+    public void testFilterSourceGivenOrdered() {
+        Smooks smooks = createSmooks("true", "8");
+        try {
+            StringSink stringSink = new StringSink();
+            smooks.filterSource(new StringSource(createRecords(500)), stringSink);
+            assertEquals(createItems(500), stringSink.getResult());
+        } finally {
+            smooks.close();
+        }
+    }
+
+    @Test
+    public void testFilterSourceGivenUnordered() {
+        Smooks smooks = createSmooks("false", "8");
+        try {
+            StringSink stringSink = new StringSink();
+            smooks.filterSource(new StringSource(createRecords(500)), stringSink);
+            String result = stringSink.getResult();
+            assertEquals(findItems(createItems(500)), findItems(result));
+            assertTrue(result.startsWith("<records>\n<header>foo</header>\n"));
+            assertTrue(result.endsWith("</records>"));
+            assertEquals("<records><header>foo</header><trailer>bar</trailer></records>", result.replaceAll("<item>\\d+</item>", "").replaceAll("\\s", ""));
+        } finally {
+            smooks.close();
+        }
+    }
+
+    @Test
+    public void testPostConstructGivenUnsupportedAction() {
+        ParallelSmooksVisitor parallelSmooksVisitor = new ParallelSmooksVisitor();
+        parallelSmooksVisitor.setNestedSmooks(new Smooks(new DefaultApplicationContextBuilder().withSystemResources(false).build()));
+        parallelSmooksVisitor.setApplicationContext(new DefaultApplicationContextBuilder().build());
+        parallelSmooksVisitor.setAction(Optional.of(NestedSmooksVisitor.Action.BIND_TO));
+        parallelSmooksVisitor.setBindIdOptional(Optional.of("foo"));
+
+        assertThrows(SmooksConfigException.class, parallelSmooksVisitor::postConstruct);
+    }
+}
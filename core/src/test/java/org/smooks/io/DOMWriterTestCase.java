@@ -0,0 +1,145 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.Smooks;
+import org.smooks.io.sink.DOMSink;
+import org.smooks.io.source.StringSource;
+import org.smooks.support.XmlUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.xmlunit.builder.DiffBuilder;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DOMWriterTestCase {
+
+    private static final String XML = "<?xml version=\"1.0\"?><!-- head --><a xmlns=\"urn:a\" xmlns:b=\"urn:b\" b:c=\"d\" e=\"&amp;f\">" +
+            "<b:g>M\u00e9xico \uD83D\uDE00 &lt;h&gt;</b:g><![CDATA[<i/>]]><?j k?><!-- l --><m/></a>";
+
+    @Test
+    public void testGetDocument() throws Exception {
+        DOMWriter domWriter = new DOMWriter(newDocument());
+        domWriter.write(XML);
+
+        assertIdentical(XmlUtils.parseStream(new StringReader(XML)), domWriter.getDocument());
+    }
+
+    @Test
+    public void testGetDocumentGivenOneCharPerWrite() throws Exception {
+        StringBuilder stringBuilder = new StringBuilder("<a>");
+        for (int i = 0; i < 1000; i++) {
+            stringBuilder.append("<b id=\"").append(i).append("\">text ").append(i).append("</b>");
+        }
+        String xml = stringBuilder.append(XML.substring(XML.indexOf("<a "))).append("</a>").toString();
+
+        DOMWriter domWriter = new DOMWriter(newDocument());
+        for (int i = 0; i < xml.length(); i++) {
+            domWriter.write(xml.charAt(i));
+            if (i % 100 == 0) {
+                domWriter.flush();
+            }
+        }
+
+        Document document = domWriter.getDocument();
+        assertIdentical(XmlUtils.parseStream(new StringReader(xml)), document);
+        assertEquals(Node.TEXT_NODE, document.getDocumentElement().getFirstChild().getFirstChild().getNodeType());
+        assertEquals("text 0", document.getDocumentElement().getFirstChild().getFirstChild().getNodeValue());
+    }
+
+    @Test
+    public void testGetDocumentGivenDeclaredEncoding() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?><a>M\u00e9xico \u00fcber</a>";
+        DOMWriter domWriter = new DOMWriter(newDocument());
+        domWriter.write(xml);
+
+        assertEquals("M\u00e9xico \u00fcber", domWriter.getDocument().getDocumentElement().getTextContent());
+    }
+
+    @Test
+    public void testGetDocumentGivenDeclaredEncodingSplitAcrossWrites() throws Exception {
+        String xml = "<?xml version='1.0' encoding='ISO-8859-1' standalone='yes'?><a>M\u00e9xico</a>";
+        DOMWriter domWriter = new DOMWriter(newDocument());
+        for (int i = 0; i < xml.length(); i++) {
+            domWriter.write(xml.charAt(i));
+            domWriter.flush();
+        }
+
+        assertEquals("M\u00e9xico", domWriter.getDocument().getDocumentElement().getTextContent());
+    }
+
+    @Test
+    public void testGetDocumentGivenNoRootElement() throws Exception {
+        DOMWriter domWriter = new DOMWriter(newDocument());
+        domWriter.write("<!-- empty -->");
+
+        assertThrows(IOException.class, domWriter::getDocument);
+    }
+
+    @Test
+    public void testFilterSourceGivenDOMSink() throws Exception {
+        Smooks smooks = new Smooks();
+        smooks.setFilterSettings(FilterSettings.newSaxNgSettings());
+        String xml = "<a xmlns:b=\"urn:b\"><b:c d=\"e\">f &amp; g</b:c><h/></a>";
+        DOMSink domSink = new DOMSink();
+        smooks.filterSource(new StringSource(xml), domSink);
+
+        assertIdentical(XmlUtils.parseStream(new StringReader(xml)), domSink.getNode());
+    }
+
+    private Document newDocument() throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+    }
+
+    private void assertIdentical(Node expected, Node actual) {
+        assertFalse(DiffBuilder.compare(expected).withTest(actual).build().hasDifferences());
+    }
+}
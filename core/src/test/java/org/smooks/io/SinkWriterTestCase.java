@@ -0,0 +1,167 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Core
+ * %%
+ * Copyright (C) 2020 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.io;
+
+import org.junit.jupiter.api.Test;
+import org.smooks.FilterSettings;
+import org.smooks.FlushPolicy;
+import org.smooks.Smooks;
+import org.smooks.io.sink.StreamSink;
+import org.smooks.io.source.StringSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SinkWriterTestCase {
+
+    @Test
+    public void testWriteGivenMultiByteCharsAcrossBufferBoundaries() throws IOException {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            stringBuilder.append("M\u00e9xico \uD83D\uDE00 ");
+        }
+        String text = stringBuilder.toString();
+
+        FlushCountingOutputStream outputStream = new FlushCountingOutputStream();
+        SinkWriter sinkWriter = new SinkWriter(outputStream, StandardCharsets.UTF_8, FlushPolicy.BUFFER, 17);
+        for (int i = 0; i < text.length(); i++) {
+            sinkWriter.write(text.charAt(i));
+        }
+        sinkWriter.write(text.toCharArray());
+        sinkWriter.write(text);
+        sinkWriter.finish();
+
+        assertArrayEquals((text + text + text).getBytes(StandardCharsets.UTF_8), outputStream.toByteArray());
+    }
+
+    @Test
+    public void testFlushGivenElementFlushPolicy() throws IOException {
+        FlushCountingOutputStream outputStream = new FlushCountingOutputStream();
+        SinkWriter sinkWriter = new SinkWriter(outputStream, StandardCharsets.UTF_8, FlushPolicy.ELEMENT, SinkWriter.DEFAULT_BUFFER_SIZE);
+        for (int i = 0; i < 10; i++) {
+            sinkWriter.write("<a/>");
+            sinkWriter.flush();
+            assertEquals((i + 1) * 4, outputStream.size());
+        }
+        sinkWriter.finish();
+        sinkWriter.flush();
+
+        assertEquals(11, outputStream.flushCount);
+    }
+
+    @Test
+    public void testFlushGivenBufferFlushPolicy() throws IOException {
+        FlushCountingOutputStream outputStream = new FlushCountingOutputStream();
+        SinkWriter sinkWriter = new SinkWriter(outputStream, StandardCharsets.UTF_8, FlushPolicy.BUFFER, 64);
+        for (int i = 0; i < 64; i++) {
+            sinkWriter.write("<a/>");
+            sinkWriter.flush();
+        }
+        assertEquals(192, outputStream.size());
+        assertEquals(3, outputStream.flushCount);
+
+        sinkWriter.finish();
+        assertEquals(256, outputStream.size());
+        assertEquals(5, outputStream.flushCount);
+    }
+
+    @Test
+    public void testFlushGivenDocumentFlushPolicy() throws IOException {
+        FlushCountingOutputStream outputStream = new FlushCountingOutputStream();
+        SinkWriter sinkWriter = new SinkWriter(outputStream, StandardCharsets.UTF_8, FlushPolicy.DOCUMENT, 64);
+        for (int i = 0; i < 64; i++) {
+            sinkWriter.write("<a/>");
+            sinkWriter.flush();
+        }
+        assertEquals(0, outputStream.flushCount);
+
+        sinkWriter.forceFlush();
+        assertEquals(256, outputStream.size());
+        assertEquals(1, outputStream.flushCount);
+
+        sinkWriter.finish();
+        assertEquals(2, outputStream.flushCount);
+        assertTrue(sinkWriter.isFinished());
+        assertThrows(IOException.class, () -> sinkWriter.write("<a/>"));
+    }
+
+    @Test
+    public void testFilterSourceGivenFlushPolicies() {
+        StringBuilder stringBuilder = new StringBuilder("<a>");
+        for (int i = 0; i < 1000; i++) {
+            stringBuilder.append("<b id=\"").append(i).append("\">México</b>");
+        }
+        String input = stringBuilder.append("</a>").toString();
+
+        for (FlushPolicy flushPolicy : FlushPolicy.values()) {
+            Smooks smooks = new Smooks();
+            smooks.setFilterSettings(FilterSettings.newSaxNgSettings().setFlushPolicy(flushPolicy).setFlushBufferSize(1024));
+            FlushCountingOutputStream outputStream = new FlushCountingOutputStream();
+            smooks.filterSource(new StringSource(input), new StreamSink<>(outputStream));
+
+            assertEquals(input, new String(outputStream.toByteArray(), StandardCharsets.UTF_8), flushPolicy.toString());
+            if (flushPolicy == FlushPolicy.ELEMENT) {
+                assertTrue(outputStream.flushCount > 1000);
+            } else if (flushPolicy == FlushPolicy.BUFFER) {
+                assertTrue(outputStream.flushCount < 100);
+            } else {
+                assertTrue(outputStream.flushCount <= 2);
+            }
+        }
+    }
+
+    private static class FlushCountingOutputStream extends ByteArrayOutputStream {
+        private int flushCount;
+
+        @Override
+        public void flush() {
+            flushCount++;
+        }
+    }
+}
@@ -43,6 +43,7 @@
 package org.smooks.management;
 
 import jakarta.annotation.PostConstruct;
+import org.smooks.AsyncFilterExecutor;
 import org.smooks.api.ApplicationContext;
 import org.smooks.api.ExecutionContext;
 import org.smooks.api.SmooksConfigException;
@@ -55,6 +56,7 @@ import org.smooks.api.management.InstrumentationResource;
 import org.smooks.api.resource.config.ResourceConfig;
 import org.smooks.api.resource.config.ResourceConfigSeq;
 import org.smooks.engine.lookup.ResourceConfigSeqsLookup;
+import org.smooks.management.mbean.ManagedAsyncFilterExecutor;
 import org.smooks.management.mbean.ManagedReaderPool;
 import org.smooks.management.mbean.ManagedResourceConfig;
 
@@ -67,6 +69,7 @@ import java.util.ServiceLoader;
 public class DefaultInstrumentationResource implements FilterLifecycle, ContentDeliveryConfigLifecycle, InstrumentationResource {
 
     private final List<ReaderPool> managedReaderPools = new ArrayList<>(1);
+    private final List<AsyncFilterExecutor> managedAsyncFilterExecutors = new ArrayList<>(1);
 
     @Inject
     private ApplicationContext applicationContext;
@@ -83,6 +86,9 @@ public class DefaultInstrumentationResource implements FilterLifecycle, ContentD
     @Inject
     private Boolean includeHostName;
 
+    @Inject
+    private Long notificationInterval;
+
     private InstrumentationAgent instrumentationAgent;
 
     @PostConstruct
@@ -109,6 +115,17 @@ public class DefaultInstrumentationResource implements FilterLifecycle, ContentD
                 }
             }
         }
+
+        AsyncFilterExecutor asyncFilterExecutor = applicationContext.getRegistry().lookup(AsyncFilterExecutor.class);
+        if (asyncFilterExecutor != null && !managedAsyncFilterExecutors.contains(asyncFilterExecutor)) {
+            synchronized (this) {
+                if (!managedAsyncFilterExecutors.contains(asyncFilterExecutor)) {
+                    managedAsyncFilterExecutors.add(asyncFilterExecutor);
+                    ManagedAsyncFilterExecutor managedAsyncFilterExecutor = new ManagedAsyncFilterExecutor(asyncFilterExecutor, this);
+                    instrumentationAgent.register(managedAsyncFilterExecutor, managedAsyncFilterExecutor.getObjectName());
+                }
+            }
+        }
     }
 
     @Override
@@ -147,6 +164,11 @@ public class DefaultInstrumentationResource implements FilterLifecycle, ContentD
         return includeHostName;
     }
 
+    @Override
+    public Long getNotificationInterval() {
+        return notificationInterval;
+    }
+
     @Override
     public InstrumentationAgent getInstrumentationAgent() {
         return instrumentationAgent;
@@ -54,12 +54,11 @@ import org.smooks.api.resource.visitor.sax.ng.ChildrenVisitor;
 import org.smooks.api.resource.visitor.sax.ng.ElementVisitor;
 import org.smooks.engine.delivery.interceptor.AbstractInterceptorVisitor;
 import org.smooks.management.mbean.ManagedVisitor;
+import org.smooks.management.mbean.ManagedVisitor.VisitType;
 import org.w3c.dom.CharacterData;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
-import java.util.Date;
-
 public class InstrumentationInterceptor extends AbstractInterceptorVisitor implements ElementVisitor {
 
     private ManagedVisitor managedVisitor;
@@ -77,46 +76,40 @@ public class InstrumentationInterceptor extends AbstractInterceptorVisitor imple
     @Override
     public void visitBefore(final Element element, final ExecutionContext executionContext) throws SmooksException {
         if (visitorBinding.getContentHandler() instanceof BeforeVisitor) {
-            managedVisitor.incrementVisitBeforeCounter();
-            manageVisit(visitBeforeInvocation, element, executionContext);
+            manageVisit(VisitType.VISIT_BEFORE, visitBeforeInvocation, element, executionContext);
         }
     }
 
     @Override
     public void visitAfter(final Element element, final ExecutionContext executionContext) throws SmooksException {
         if (visitorBinding.getContentHandler() instanceof AfterVisitor) {
-            managedVisitor.incrementVisitAfterCounter();
-            manageVisit(visitAfterInvocation, element, executionContext);
+            manageVisit(VisitType.VISIT_AFTER, visitAfterInvocation, element, executionContext);
         }
     }
 
     @Override
     public void visitChildText(final CharacterData characterData, final ExecutionContext executionContext) throws SmooksException {
         if (visitorBinding.getContentHandler() instanceof ChildrenVisitor) {
-            managedVisitor.incrementVisitChildTextCounter();
-            manageVisit(visitChildTextInvocation, characterData, executionContext);
+            manageVisit(VisitType.VISIT_CHILD_TEXT, visitChildTextInvocation, characterData, executionContext);
         }
     }
 
     @Override
     public void visitChildElement(Element childElement, ExecutionContext executionContext) {
         if (visitorBinding.getContentHandler() instanceof ChildrenVisitor) {
-            managedVisitor.incrementVisitChildTextCounter();
-            manageVisit(visitChildElementInvocation, childElement, executionContext);
+            manageVisit(VisitType.VISIT_CHILD_ELEMENT, visitChildElementInvocation, childElement, executionContext);
         }
     }
 
-    protected <T extends Visitor> void manageVisit(Invocation<T> invocation, Node node, ExecutionContext executionContext) {
-        long startTime = new Date().getTime();
+    protected <T extends Visitor> void manageVisit(VisitType visitType, Invocation<T> invocation, Node node, ExecutionContext executionContext) {
+        long startTime = System.nanoTime();
         try {
             intercept(invocation, node, executionContext);
         } catch (RuntimeException e) {
             managedVisitor.incrementFailedVisitCounter();
             throw e;
         } finally {
-            long visitProcessingTime = new Date().getTime() - startTime;
-            managedVisitor.addTotalProcessingTime(visitProcessingTime);
-            managedVisitor.sendNotification(node, visitProcessingTime);
+            managedVisitor.recordVisit(visitType, node, System.nanoTime() - startTime);
         }
     }
 }
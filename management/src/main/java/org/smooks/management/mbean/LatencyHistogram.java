@@ -0,0 +1,164 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Management
+ * %%
+ * Copyright (C) 2020 - 2024 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.management.mbean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency histogram with log-linear buckets in the style of HdrHistogram.
+ * <p/>
+ * Each power of two is split into {@value #SUB_BUCKET_HALF_COUNT} equally sized buckets, so a recorded value is
+ * reported within 1/{@value #SUB_BUCKET_HALF_COUNT} of its magnitude. Bucket counts are striped across threads to keep
+ * concurrent recordings of similar values off the same cache line.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_HALF_COUNT = 1 << (SUB_BUCKET_BITS - 1);
+    private static final int MAX_VALUE_BITS = 40;
+    private static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_VALUE) + 1;
+    private static final int STRIPE_COUNT = Math.min(4, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    private final AtomicLongArray[] stripes = new AtomicLongArray[STRIPE_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0 and values beyond ~18 minutes in nanoseconds are recorded in
+     * the highest bucket.
+     */
+    public void record(final long value) {
+        final long boundedValue = Math.max(0, value);
+        stripes[(int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)].incrementAndGet(bucketIndex(Math.min(boundedValue, MAX_TRACKABLE_VALUE)));
+        count.increment();
+        total.add(boundedValue);
+        max.accumulate(boundedValue);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMean() {
+        final long count = getCount();
+        return count == 0 ? 0 : getTotal() / count;
+    }
+
+    /**
+     * Gets the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile percentage between 0 and 100
+     * @return the highest value equivalent to the percentile's bucket, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        final long[] bucketCounts = new long[BUCKET_COUNT];
+        long totalCount = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                final long bucketCount = stripe.get(i);
+                bucketCounts[i] += bucketCount;
+                totalCount += bucketCount;
+            }
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        final long targetCount = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * totalCount));
+        long cumulativeCount = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulativeCount += bucketCounts[i];
+            if (cumulativeCount >= targetCount) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * @return count, mean, max and common percentiles keyed by name
+     */
+    public Map<String, Long> getSnapshot() {
+        final Map<String, Long> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", getCount());
+        snapshot.put("mean", getMean());
+        snapshot.put("p50", getValueAtPercentile(50));
+        snapshot.put("p90", getValueAtPercentile(90));
+        snapshot.put("p99", getValueAtPercentile(99));
+        snapshot.put("p999", getValueAtPercentile(99.9));
+        snapshot.put("max", getMax());
+
+        return snapshot;
+    }
+
+    static int bucketIndex(final long value) {
+        final int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1));
+        return (shift << (SUB_BUCKET_BITS - 1)) + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(final int bucketIndex) {
+        final int shift = Math.max(0, (bucketIndex >> (SUB_BUCKET_BITS - 1)) - 1);
+        return ((long) (bucketIndex - (shift << (SUB_BUCKET_BITS - 1))) << shift) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,123 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Management
+ * %%
+ * Copyright (C) 2020 - 2024 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.management.mbean;
+
+import org.smooks.AsyncFilterExecutor;
+import org.smooks.api.management.InstrumentationResource;
+import org.smooks.management.annotation.ManagedAttribute;
+import org.smooks.management.annotation.ManagedResource;
+
+@ManagedResource
+public class ManagedAsyncFilterExecutor extends AbstractMBean {
+    private final AsyncFilterExecutor asyncFilterExecutor;
+
+    public ManagedAsyncFilterExecutor(AsyncFilterExecutor asyncFilterExecutor, InstrumentationResource instrumentationResource) {
+        super(instrumentationResource);
+        this.asyncFilterExecutor = asyncFilterExecutor;
+    }
+
+    @ManagedAttribute(description = "Maximum number of executions in flight")
+    public int getMaxInFlight() {
+        return asyncFilterExecutor.getMaxInFlight();
+    }
+
+    @ManagedAttribute(description = "Maximum number of queued executions")
+    public int getMaxQueued() {
+        return asyncFilterExecutor.getMaxQueued();
+    }
+
+    @ManagedAttribute(description = "Number of executions waiting for their turn")
+    public int getQueueDepth() {
+        return asyncFilterExecutor.getQueueDepth();
+    }
+
+    @ManagedAttribute(description = "Number of executions in flight")
+    public int getInFlight() {
+        return asyncFilterExecutor.getInFlight();
+    }
+
+    @ManagedAttribute(description = "Number of completed executions")
+    public long getCompletedCount() {
+        return asyncFilterExecutor.getCompletedCount();
+    }
+
+    @ManagedAttribute(description = "Number of failed executions")
+    public long getFailedCount() {
+        return asyncFilterExecutor.getFailedCount();
+    }
+
+    @ManagedAttribute(description = "Number of rejected executions")
+    public long getRejectedCount() {
+        return asyncFilterExecutor.getRejectedCount();
+    }
+
+    @ManagedAttribute(description = "Total time executions spent queued (in nanoseconds)")
+    public long getTotalQueueTimeNanos() {
+        return asyncFilterExecutor.getTotalQueueTimeNanos();
+    }
+
+    @ManagedAttribute(description = "Total time executions spent running (in nanoseconds)")
+    public long getTotalExecutionTimeNanos() {
+        return asyncFilterExecutor.getTotalExecutionTimeNanos();
+    }
+
+    @ManagedAttribute(description = "Longest time from submission to completion (in nanoseconds)")
+    public long getMaxLatencyNanos() {
+        return asyncFilterExecutor.getMaxLatencyNanos();
+    }
+
+    @ManagedAttribute(description = "Whether the executor is closed")
+    public boolean isClosed() {
+        return asyncFilterExecutor.isClosed();
+    }
+
+    @Override
+    protected String getName() {
+        return "AsyncFilterExecutor@" + Integer.toHexString(asyncFilterExecutor.hashCode());
+    }
+
+    @Override
+    protected String getType() {
+        return "asyncFilterExecutor";
+    }
+}
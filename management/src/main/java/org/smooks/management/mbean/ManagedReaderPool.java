@@ -70,6 +70,31 @@ public class ManagedReaderPool extends AbstractMBean {
         return readerPool.getProperties();
     }
 
+    @ManagedAttribute(description = "Number of borrowed readers taken from the pool")
+    public long getHits() {
+        return getCounter("hits");
+    }
+
+    @ManagedAttribute(description = "Number of borrowed readers not found in the pool")
+    public long getMisses() {
+        return getCounter("misses");
+    }
+
+    @ManagedAttribute(description = "Number of readers created for the pool")
+    public long getCreatedReaders() {
+        return getCounter("createdReaders");
+    }
+
+    @ManagedAttribute(description = "Number of borrows which timed out waiting for a reader to be returned")
+    public long getTimeouts() {
+        return getCounter("timeouts");
+    }
+
+    protected long getCounter(String name) {
+        String counter = readerPool.getProperties().get(name);
+        return counter == null ? 0 : Long.parseLong(counter);
+    }
+
     @Override
     protected String getName() {
         if (readerPool.getClass().getAnnotation(Resource.class) != null) {
@@ -59,11 +59,11 @@ import javax.management.MBeanException;
 import javax.management.Notification;
 import javax.management.modelmbean.ModelMBeanInfo;
 import javax.management.modelmbean.RequiredModelMBean;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.LongUnaryOperator;
+import java.util.concurrent.atomic.LongAdder;
 
 @ManagedResource
 @ManagedNotification(name = "org.smooks.api.resource.visitor", notificationTypes = {"javax.management.Notification"})
@@ -71,15 +71,34 @@ public class ManagedVisitor extends AbstractMBean {
     private static final Logger LOGGER = LoggerFactory.getLogger(ManagedVisitor.class);
     private static final char PATH_SEPARATOR = '/';
 
+    public enum VisitType {
+        VISIT_BEFORE("visitBefore"),
+        VISIT_CHILD_ELEMENT("visitChildElement"),
+        VISIT_CHILD_TEXT("visitChildText"),
+        VISIT_AFTER("visitAfter");
+
+        private final String value;
+
+        VisitType(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+
     private final AtomicLong seqNo = new AtomicLong();
-    private final AtomicLong visitBeforeCounter = new AtomicLong();
-    private final AtomicLong visitChildElementCounter = new AtomicLong();
-    private final AtomicLong visitChildTextCounter = new AtomicLong();
-    private final AtomicLong visitAfterCounter = new AtomicLong();
-    private final AtomicLong failedVisitCounter = new AtomicLong();
-    private final AtomicLong totalProcessingTime = new AtomicLong();
-
-    private final LongUnaryOperator incrementOrReset = operand -> operand == Long.MAX_VALUE ? 0 : operand + 1;
+    private final LatencyHistogram[] latencyHistograms = new LatencyHistogram[VisitType.values().length];
+    private final LongAdder[] deprecatedVisitCounters = new LongAdder[VisitType.values().length];
+    private final LongAdder deprecatedProcessingTime = new LongAdder();
+    private final LongAdder failedVisitCounter = new LongAdder();
+    private final LongAdder unnotifiedVisitCounter = new LongAdder();
+    private final LongAdder unnotifiedProcessingTime = new LongAdder();
+    private final AtomicLong nextNotificationTime;
+    private final long notificationInterval;
+
     private final ResourceConfig visitorResourceConfig;
     private final Visitor visitor;
     private final RequiredModelMBean requiredModelMBean;
@@ -88,6 +107,17 @@ public class ManagedVisitor extends AbstractMBean {
         super(instrumentationResource);
         this.visitorResourceConfig = visitorResourceConfig;
         this.visitor = visitor;
+        for (int i = 0; i < latencyHistograms.length; i++) {
+            latencyHistograms[i] = new LatencyHistogram();
+            deprecatedVisitCounters[i] = new LongAdder();
+        }
+        final Long notificationInterval = instrumentationResource.getNotificationInterval();
+        if (notificationInterval == null) {
+            this.notificationInterval = TimeUnit.SECONDS.toNanos(1);
+        } else {
+            this.notificationInterval = notificationInterval < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(notificationInterval);
+        }
+        nextNotificationTime = new AtomicLong(System.nanoTime());
 
         ModelMBeanAssembler modelMBeanAssembler = new ModelMBeanAssembler();
         ModelMBeanInfo modelMBeanInfo = modelMBeanAssembler.getModelMbeanInfo(this.getClass());
@@ -102,63 +132,153 @@ public class ManagedVisitor extends AbstractMBean {
 
     @ManagedAttribute(description = "Number of visited start events")
     public long getVisitBeforeCount() {
-        return visitBeforeCounter.get();
+        return getVisitCount(VisitType.VISIT_BEFORE);
     }
 
     @ManagedAttribute(description = "Number of visited child events")
     public long getVisitChildElementCount() {
-        return visitChildElementCounter.get();
+        return getVisitCount(VisitType.VISIT_CHILD_ELEMENT);
     }
 
     @ManagedAttribute(description = "Number of visited text events")
     public long getVisitChildTextCount() {
-        return visitChildTextCounter.get();
+        return getVisitCount(VisitType.VISIT_CHILD_TEXT);
     }
 
     @ManagedAttribute(description = "Number of visited end events")
     public long getVisitAfterCount() {
-        return visitAfterCounter.get();
+        return getVisitCount(VisitType.VISIT_AFTER);
+    }
+
+    protected long getVisitCount(VisitType visitType) {
+        return latencyHistograms[visitType.ordinal()].getCount() + deprecatedVisitCounters[visitType.ordinal()].sum();
     }
 
     @ManagedAttribute(description = "Total visit processing time (in milliseconds)")
     public long getTotalProcessingTime() {
-        return totalProcessingTime.get();
+        return TimeUnit.NANOSECONDS.toMillis(getTotalProcessingTimeNanos());
+    }
+
+    @ManagedAttribute(description = "Total visit processing time (in nanoseconds)")
+    public long getTotalProcessingTimeNanos() {
+        long totalProcessingTime = deprecatedProcessingTime.sum();
+        for (LatencyHistogram latencyHistogram : latencyHistograms) {
+            totalProcessingTime += latencyHistogram.getTotal();
+        }
+        return totalProcessingTime;
     }
 
     @ManagedAttribute(description = "Number of failed visits")
     public long getFailedVisitCount() {
-        return failedVisitCounter.get();
+        return failedVisitCounter.sum();
     }
 
+    @ManagedAttribute(description = "Start event visit latency (in nanoseconds)")
+    public Map<String, Long> getVisitBeforeLatency() {
+        return getLatencyHistogram(VisitType.VISIT_BEFORE).getSnapshot();
+    }
+
+    @ManagedAttribute(description = "Child event visit latency (in nanoseconds)")
+    public Map<String, Long> getVisitChildElementLatency() {
+        return getLatencyHistogram(VisitType.VISIT_CHILD_ELEMENT).getSnapshot();
+    }
+
+    @ManagedAttribute(description = "Text event visit latency (in nanoseconds)")
+    public Map<String, Long> getVisitChildTextLatency() {
+        return getLatencyHistogram(VisitType.VISIT_CHILD_TEXT).getSnapshot();
+    }
+
+    @ManagedAttribute(description = "End event visit latency (in nanoseconds)")
+    public Map<String, Long> getVisitAfterLatency() {
+        return getLatencyHistogram(VisitType.VISIT_AFTER).getSnapshot();
+    }
+
+    public LatencyHistogram getLatencyHistogram(VisitType visitType) {
+        return latencyHistograms[visitType.ordinal()];
+    }
+
+    /**
+     * @deprecated Use {@link #recordVisit(VisitType, Node, long)}, which also records the visit latency.
+     */
+    @Deprecated
     public void incrementVisitBeforeCounter() {
-        visitBeforeCounter.updateAndGet(incrementOrReset);
+        deprecatedVisitCounters[VisitType.VISIT_BEFORE.ordinal()].increment();
     }
 
+    /**
+     * @deprecated Use {@link #recordVisit(VisitType, Node, long)}, which also records the visit latency.
+     */
+    @Deprecated
     public void incrementVisitAfterCounter() {
-        visitAfterCounter.updateAndGet(incrementOrReset);
+        deprecatedVisitCounters[VisitType.VISIT_AFTER.ordinal()].increment();
     }
 
+    /**
+     * @deprecated Use {@link #recordVisit(VisitType, Node, long)}, which also records the visit latency.
+     */
+    @Deprecated
     public void incrementVisitChildElementCounter() {
-        visitChildElementCounter.updateAndGet(incrementOrReset);
+        deprecatedVisitCounters[VisitType.VISIT_CHILD_ELEMENT.ordinal()].increment();
     }
 
+    /**
+     * @deprecated Use {@link #recordVisit(VisitType, Node, long)}, which also records the visit latency.
+     */
+    @Deprecated
     public void incrementVisitChildTextCounter() {
-        visitChildTextCounter.updateAndGet(incrementOrReset);
+        deprecatedVisitCounters[VisitType.VISIT_CHILD_TEXT.ordinal()].increment();
     }
 
     public void incrementFailedVisitCounter() {
-        failedVisitCounter.updateAndGet(incrementOrReset);
+        failedVisitCounter.increment();
     }
 
+    /**
+     * @param visitProcessingTime processing time in milliseconds
+     * @deprecated Use {@link #recordVisit(VisitType, Node, long)}, which records the processing time in nanoseconds.
+     */
+    @Deprecated
     public void addTotalProcessingTime(long visitProcessingTime) {
-        totalProcessingTime.addAndGet(visitProcessingTime);
+        deprecatedProcessingTime.add(TimeUnit.MILLISECONDS.toNanos(visitProcessingTime));
     }
 
+    /**
+     * Records a visit and, when the notification interval has elapsed, sends a notification aggregating the visits
+     * recorded since the previous notification.
+     */
+    public void recordVisit(VisitType visitType, Node node, long visitProcessingTime) {
+        latencyHistograms[visitType.ordinal()].record(visitProcessingTime);
+        if (notificationInterval >= 0) {
+            unnotifiedVisitCounter.increment();
+            unnotifiedProcessingTime.add(visitProcessingTime);
+            final long now = System.nanoTime();
+            final long notificationTime = nextNotificationTime.get();
+            if (now - notificationTime >= 0 && nextNotificationTime.compareAndSet(notificationTime, now + notificationInterval)) {
+                sendNotification(visitType, node, visitProcessingTime, unnotifiedVisitCounter.sumThenReset(), unnotifiedProcessingTime.sumThenReset());
+            }
+        }
+    }
+
+    /**
+     * Sends a <code>visitBefore</code> notification for a single visit, whatever the notification interval.
+     *
+     * @param visitProcessingTime processing time in milliseconds
+     * @deprecated Use {@link #recordVisit(VisitType, Node, long)}, which throttles notifications.
+     */
+    @Deprecated
     public void sendNotification(Node node, long visitProcessingTime) {
-        Notification notification = new Notification("org.smooks.api.resource.visitor", requiredModelMBean, seqNo.updateAndGet(incrementOrReset), new Date().getTime(), "visitBefore");
+        final long visitProcessingTimeNanos = TimeUnit.MILLISECONDS.toNanos(visitProcessingTime);
+        sendNotification(VisitType.VISIT_BEFORE, node, visitProcessingTimeNanos, 1, visitProcessingTimeNanos);
+    }
+
+    protected void sendNotification(VisitType visitType, Node node, long visitProcessingTime, long visitCount, long totalVisitProcessingTime) {
+        Notification notification = new Notification("org.smooks.api.resource.visitor", requiredModelMBean, seqNo.incrementAndGet(), System.currentTimeMillis(), visitType.toString());
         Map<String, Object> userData = new HashMap<>();
         userData.put("path", toPath(node));
-        userData.put("processingTimeMs", visitProcessingTime);
+        userData.put("processingTimeMs", TimeUnit.NANOSECONDS.toMillis(visitProcessingTime));
+        userData.put("processingTimeNanos", visitProcessingTime);
+        userData.put("visitCount", visitCount);
+        userData.put("totalProcessingTimeNanos", totalVisitProcessingTime);
         notification.setUserData(userData);
         try {
             requiredModelMBean.sendNotification(notification);
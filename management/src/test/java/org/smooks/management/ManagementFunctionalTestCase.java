@@ -64,28 +64,34 @@ import javax.management.ReflectionException;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ManagementFunctionalTestCase {
     @Test
-    public void test() throws IOException, SAXException, MalformedObjectNameException, ReflectionException, AttributeNotFoundException, InstanceNotFoundException, IntrospectionException, MBeanException, InterruptedException {
+    public void test() throws IOException, SAXException, MalformedObjectNameException, ReflectionException, AttributeNotFoundException, InstanceNotFoundException, IntrospectionException, MBeanException, InterruptedException, ExecutionException, TimeoutException {
         Smooks smooks = new Smooks("smooks-config.xml");
         smooks.filterSource(new StringSource("<a><b>bar</b></a>"));
 
         Visitor fooVisitor = smooks.getApplicationContext().getRegistry().lookup("Foo");
         Map<String, Object> fooVisitorAttributes = getAttributes(new ObjectName("org.smooks:context=\"/a\",type=visitor,name=Foo@" + Integer.toHexString(fooVisitor.hashCode())), smooks.getApplicationContext().getRegistry());
-        assertEquals(7, fooVisitorAttributes.size());
+        assertEquals(12, fooVisitorAttributes.size());
         assertEquals("/a", fooVisitorAttributes.get("Selector"));
         assertEquals(1L, fooVisitorAttributes.get("VisitBeforeCount"));
         assertEquals(0L, fooVisitorAttributes.get("VisitAfterCount"));
         assertEquals(0L, fooVisitorAttributes.get("VisitChildElementCount"));
         assertEquals(0L, fooVisitorAttributes.get("FailedVisitCount"));
         assertEquals(0L, fooVisitorAttributes.get("VisitChildTextCount"));
+        assertEquals(1L, ((Map<?, ?>) fooVisitorAttributes.get("VisitBeforeLatency")).get("count"));
+        assertEquals(0L, ((Map<?, ?>) fooVisitorAttributes.get("VisitAfterLatency")).get("count"));
 
         Visitor quuzVisitor = smooks.getApplicationContext().getRegistry().lookup("Quuz");
         Map<String, Object> quuzVisitorAttributes = getAttributes(new ObjectName("org.smooks:context=\"/a/b\",type=visitor,name=Quuz@" + Integer.toHexString(quuzVisitor.hashCode())), smooks.getApplicationContext().getRegistry());
-        assertEquals(7, quuzVisitorAttributes.size());
+        assertEquals(12, quuzVisitorAttributes.size());
         assertEquals("/a/b", quuzVisitorAttributes.get("Selector"));
         assertEquals(0L, quuzVisitorAttributes.get("VisitBeforeCount"));
         assertEquals(1L, quuzVisitorAttributes.get("VisitAfterCount"));
@@ -95,13 +101,21 @@ public class ManagementFunctionalTestCase {
 
         Visitor barVisitor = smooks.getApplicationContext().getRegistry().lookup("Bar");
         Map<String, Object> barVisitorAttributes = getAttributes(new ObjectName("org.smooks:context=\"/a/b\",type=visitor,name=Bar@" + Integer.toHexString(barVisitor.hashCode())), smooks.getApplicationContext().getRegistry());
-        assertEquals(7, barVisitorAttributes.size());
+        assertEquals(12, barVisitorAttributes.size());
         assertEquals("/a/b", barVisitorAttributes.get("Selector"));
         assertEquals(1L, barVisitorAttributes.get("VisitBeforeCount"));
         assertEquals(1L, barVisitorAttributes.get("VisitAfterCount"));
         assertEquals(0L, barVisitorAttributes.get("VisitChildElementCount"));
         assertEquals(0L, barVisitorAttributes.get("FailedVisitCount"));
         assertEquals(1L, barVisitorAttributes.get("VisitChildTextCount"));
+        assertEquals(1L, ((Map<?, ?>) barVisitorAttributes.get("VisitChildTextLatency")).get("count"));
+        assertTrue((Long) barVisitorAttributes.get("TotalProcessingTimeNanos") > 0);
+
+        smooks.filterSourceAsync(new StringSource("<a><b>bar</b></a>")).get(30, TimeUnit.SECONDS);
+        Map<String, Object> asyncFilterExecutorAttributes = getAttributes(new ObjectName("org.smooks:type=asyncFilterExecutor,name=AsyncFilterExecutor@" + Integer.toHexString(smooks.getAsyncFilterExecutor().hashCode())), smooks.getApplicationContext().getRegistry());
+        assertEquals(1L, asyncFilterExecutorAttributes.get("CompletedCount"));
+        assertEquals(0, asyncFilterExecutorAttributes.get("QueueDepth"));
+        assertTrue((Long) asyncFilterExecutorAttributes.get("MaxLatencyNanos") > 0);
     }
 
     protected Map<String, Object> getAttributes(ObjectName objectName, Registry registry) throws ReflectionException, InstanceNotFoundException, IntrospectionException, AttributeNotFoundException, MBeanException {
@@ -0,0 +1,96 @@
+/*-
+ * ========================LICENSE_START=================================
+ * Management
+ * %%
+ * Copyright (C) 2020 - 2024 Smooks
+ * %%
+ * Licensed under the terms of the Apache License Version 2.0, or
+ * the GNU Lesser General Public License version 3.0 or later.
+ *
+ * SPDX-License-Identifier: Apache-2.0 OR LGPL-3.0-or-later
+ *
+ * ======================================================================
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * ======================================================================
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ * =========================LICENSE_END==================================
+ */
+package org.smooks.management.mbean;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTestCase {
+
+    @Test
+    public void testBucketIndexIsMonotonic() {
+        int previousBucketIndex = -1;
+        for (long value = 0; value < 1_000_000; value++) {
+            int bucketIndex = LatencyHistogram.bucketIndex(value);
+            assertTrue(bucketIndex == previousBucketIndex || bucketIndex == previousBucketIndex + 1);
+            assertTrue(LatencyHistogram.highestEquivalentValue(bucketIndex) >= value);
+            previousBucketIndex = bucketIndex;
+        }
+    }
+
+    @Test
+    public void testGetValueAtPercentile() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            latencyHistogram.record(value * 1000);
+        }
+
+        assertEquals(1000, latencyHistogram.getCount());
+        assertEquals(1_000_000, latencyHistogram.getMax());
+        assertEquals(500_500, latencyHistogram.getMean());
+        assertWithinPrecision(500_000, latencyHistogram.getValueAtPercentile(50));
+        assertWithinPrecision(990_000, latencyHistogram.getValueAtPercentile(99));
+        assertEquals(1_000_000, latencyHistogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testGetSnapshot() {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        assertEquals(0L, latencyHistogram.getSnapshot().get("p99"));
+
+        latencyHistogram.record(-5);
+        latencyHistogram.record(7);
+        Map<String, Long> snapshot = latencyHistogram.getSnapshot();
+        assertEquals(2L, snapshot.get("count"));
+        assertEquals(0L, snapshot.get("p50"));
+        assertEquals(7L, snapshot.get("max"));
+    }
+
+    private void assertWithinPrecision(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 16, "expected " + expected + " but was " + actual);
+    }
+}